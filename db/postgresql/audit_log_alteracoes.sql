@@ -0,0 +1,3 @@
+-- JSON Patch (RFC 6902) dos registros de auditoria gravados no modo DIFF.
+-- Registros anteriores ficam com NULL e continuam usando old_values/new_values.
+ALTER TABLE audit_log ADD COLUMN IF NOT EXISTS alteracoes TEXT;
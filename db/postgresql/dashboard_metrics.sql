@@ -0,0 +1,33 @@
+-- Snapshot de métricas do dashboard por curso (DashboardMetricasService).
+-- As tabelas começam vazias: cada curso é calculado na primeira leitura do dashboard
+-- e todos são reconciliados pela reconstrução diária.
+CREATE TABLE IF NOT EXISTS dashboard_metrics (
+    curso_id bigint NOT NULL,
+    curso_criado_em timestamp(6),
+    total_atividades bigint NOT NULL,
+    atividades_publicadas bigint NOT NULL,
+    atividades_finalizadas bigint NOT NULL,
+    total_usuarios bigint NOT NULL,
+    data_referencia date NOT NULL,
+    atualizado_em timestamp(6),
+    PRIMARY KEY (curso_id)
+);
+
+CREATE TABLE IF NOT EXISTS dashboard_metrics_categoria (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    curso_id bigint NOT NULL,
+    categoria_id bigint NOT NULL,
+    quantidade bigint NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (curso_id, categoria_id)
+);
+
+CREATE TABLE IF NOT EXISTS dashboard_metrics_mensal (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    curso_id bigint NOT NULL,
+    competencia date NOT NULL,
+    realizadas bigint NOT NULL,
+    publicadas bigint NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (curso_id, competencia)
+);
@@ -0,0 +1,6 @@
+-- Dimensões do original e orientação EXIF das evidências, lidas do cabeçalho no upload.
+-- Evidências já existentes ficam com NULL e são preenchidas pelo MetadadosEvidenciaService
+-- (app.imagens.metadados.*), que lê os arquivos em segundo plano.
+ALTER TABLE evidencia ADD COLUMN IF NOT EXISTS largura integer;
+ALTER TABLE evidencia ADD COLUMN IF NOT EXISTS altura integer;
+ALTER TABLE evidencia ADD COLUMN IF NOT EXISTS orientacao_exif integer;
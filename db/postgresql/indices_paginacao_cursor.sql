@@ -0,0 +1,13 @@
+-- Índices das chaves de cursor (ordenação + id) usadas na paginação por cursor.
+-- CONCURRENTLY não bloqueia escritas nas tabelas de log; por isso o script roda fora de
+-- transação (psql -f sem --single-transaction).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_timestamp_id ON audit_log (timestamp, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_action_timestamp_id ON action_log (timestamp, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_atividade_nome_id ON atividade (nome, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_atividade_data_realizacao_id ON atividade (data_realizacao, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_curso_nome_id ON curso (nome, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pessoa_nome_id ON pessoa (nome, id);
+
+-- Substituídos pelos índices compostos acima
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_timestamp;
+DROP INDEX CONCURRENTLY IF EXISTS idx_action_timestamp;
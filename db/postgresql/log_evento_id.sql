@@ -0,0 +1,5 @@
+-- Identificador atribuído ao enfileirar cada registro no spool de logs; a restrição única faz
+-- o reenvio de um lote já gravado ser descartado em vez de duplicar registros.
+-- Registros antigos ficam com NULL, que não conflita com a restrição.
+ALTER TABLE audit_log ADD COLUMN IF NOT EXISTS evento_id varchar(36) UNIQUE;
+ALTER TABLE action_log ADD COLUMN IF NOT EXISTS evento_id varchar(36) UNIQUE;
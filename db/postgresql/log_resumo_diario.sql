@@ -0,0 +1,17 @@
+-- Totais diários de log por usuário, entidade e ação (RetencaoLogsService).
+-- A tabela começa vazia: a próxima execução da retenção consolida todos os dias desde o
+-- registro de log mais antigo, antes de arquivar qualquer mês.
+CREATE TABLE IF NOT EXISTS log_resumo_diario (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    dia date NOT NULL,
+    origem varchar(20) NOT NULL CHECK (origem IN ('AUDITORIA', 'ACAO')),
+    user_email varchar(100) NOT NULL,
+    entidade varchar(100) NOT NULL,
+    acao varchar(50) NOT NULL,
+    total bigint NOT NULL,
+    falhas bigint NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (dia, origem, user_email, entidade, acao)
+);
+
+CREATE INDEX IF NOT EXISTS idx_log_resumo_user ON log_resumo_diario (user_email);
@@ -0,0 +1,3 @@
+-- Versão das permissões do usuário, conferida pelo AutorizacaoContextoService a cada verificação.
+-- O perfil postgresql usa ddl-auto=validate: aplicar antes de subir a versão que mapeia a coluna.
+ALTER TABLE usuario ADD COLUMN IF NOT EXISTS versao_permissoes BIGINT NOT NULL DEFAULT 0;
@@ -3,11 +3,6 @@ package edu.uea.acadmanage.DTO;
 import java.time.LocalDate;
 import java.util.List;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-
-import edu.uea.acadmanage.model.Categoria;
-import edu.uea.acadmanage.model.Curso;
-import edu.uea.acadmanage.model.FonteFinanciadora;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -24,12 +19,10 @@ public record AtividadeDTO(
         @NotNull(message = "A data de realização deve ser informada.")
         LocalDate dataRealizacao,
         LocalDate dataFim, // Data final (opcional - null = evento em data única)
-        @JsonIgnoreProperties({"atividades","usuarios"})
         @NotNull(message = "O ID do curso deve ser informado.")
-        Curso curso,
-        @JsonIgnoreProperties({"atividades"})
+        CursoResumidoDTO curso,
         @NotNull(message = "O ID da categoria deve ser informado.")
-        Categoria categoria,
-        List<FonteFinanciadora> fontesFinanciadora,
+        CategoriaResumidaDTO categoria,
+        List<FonteFinanciadoraResumidaDTO> fontesFinanciadora,
         List<PessoaPapelDTO> integrantes
 ) {}
@@ -0,0 +1,22 @@
+package edu.uea.acadmanage.DTO;
+
+import java.time.LocalDate;
+
+// Linha de AtividadeRepository.findProjecoesByIdIn: uma por fonte financiadora da atividade
+// (fonteId e fonteNome nulos quando ela não tem fontes)
+public record AtividadeProjecaoDTO(
+        Long id,
+        String nome,
+        String objetivo,
+        String publicoAlvo,
+        Boolean statusPublicacao,
+        String fotoCapa,
+        LocalDate dataRealizacao,
+        LocalDate dataFim,
+        Long cursoId,
+        String cursoNome,
+        Long categoriaId,
+        String categoriaNome,
+        Long fonteId,
+        String fonteNome
+) {}
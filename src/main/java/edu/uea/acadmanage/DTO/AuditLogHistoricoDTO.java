@@ -0,0 +1,20 @@
+package edu.uea.acadmanage.DTO;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import edu.uea.acadmanage.model.AuditLog;
+
+// Entrada do histórico de uma entidade: as alterações do evento (JSON Patch) e o estado
+// reconstruído logo após ele (null depois de uma exclusão e enquanto o histórico não tem um estado
+// completo de partida, como nas entidades da carga inicial, sem criação auditada)
+public record AuditLogHistoricoDTO(
+        Long id,
+        AuditLog.AuditAction action,
+        String userEmail,
+        LocalDateTime timestamp,
+        String description,
+        JsonNode alteracoes,
+        JsonNode estado
+) {}
@@ -0,0 +1,10 @@
+package edu.uea.acadmanage.DTO;
+
+import java.util.List;
+
+public record BuscaRespostaDTO(
+        String termo,
+        long total,
+        long tempoMs,
+        List<BuscaResultadoDTO> resultados
+) {}
@@ -0,0 +1,11 @@
+package edu.uea.acadmanage.DTO;
+
+// Item do resultado da busca textual. cursoId é preenchido apenas para atividades.
+public record BuscaResultadoDTO(
+        String tipo,
+        Long id,
+        String titulo,
+        String resumo,
+        Long cursoId,
+        float relevancia
+) {}
@@ -1,8 +1,10 @@
 package edu.uea.acadmanage.DTO;
 
+import java.io.Serializable;
+
 import jakarta.validation.constraints.NotBlank;
 
 public record CategoriaResumidaDTO(
     Long id, 
     @NotBlank(message = "O nome da categoria é obrigatório")
-    String nome) {}
\ No newline at end of file
+    String nome) implements Serializable {}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package edu.uea.acadmanage.DTO;
 
+import java.io.Serializable;
+
 public record CursoDTO(
         Long id,
         String nome,
@@ -8,5 +10,5 @@ public record CursoDTO(
         Boolean ativo,
         Long tipoId,
         Long unidadeAcademicaId
-) {}
+) implements Serializable {}
 
@@ -0,0 +1,12 @@
+package edu.uea.acadmanage.DTO;
+
+import java.util.List;
+
+// Página da paginação por cursor (keyset): sem total de elementos, nextCursor é
+// o valor a enviar em "after" para obter a próxima página (null na última)
+public record CursorPageDTO<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {}
@@ -0,0 +1,8 @@
+package edu.uea.acadmanage.DTO;
+
+import java.io.Serializable;
+
+public record FonteFinanciadoraResumidaDTO(
+        Long id,
+        String nome
+) implements Serializable {}
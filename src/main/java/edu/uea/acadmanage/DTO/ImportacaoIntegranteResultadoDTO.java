@@ -0,0 +1,14 @@
+package edu.uea.acadmanage.DTO;
+
+import edu.uea.acadmanage.model.Papel;
+
+// Resultado de uma linha do CSV: situacao é ASSOCIADA, IGNORADA ou ERRO; pessoaId e papel
+// são nulos nos erros e mensagem é nula nas associadas
+public record ImportacaoIntegranteResultadoDTO(
+        int linha,
+        String situacao,
+        String cpf,
+        Long pessoaId,
+        Papel papel,
+        String mensagem
+) {}
@@ -0,0 +1,16 @@
+package edu.uea.acadmanage.DTO;
+
+import java.util.List;
+
+// Relatório da importação de integrantes: totais e o resultado de cada linha do arquivo
+// (associada, ignorada por já estar associada ou com erro). As linhas válidas são gravadas
+// mesmo quando outras têm erro.
+public record ImportacaoIntegrantesRespostaDTO(
+        int totalProcessados,
+        int totalAssociadas,
+        int totalIgnoradas,
+        int totalErros,
+        int totalPessoasCriadas,
+        long duracaoMs,
+        List<ImportacaoIntegranteResultadoDTO> linhas
+) {}
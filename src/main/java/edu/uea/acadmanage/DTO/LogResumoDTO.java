@@ -0,0 +1,12 @@
+package edu.uea.acadmanage.DTO;
+
+import edu.uea.acadmanage.model.LogResumoDiario;
+
+public record LogResumoDTO(
+        LogResumoDiario.Origem origem,
+        String userEmail,
+        String entidade,
+        String acao,
+        Long total,
+        Long falhas) {
+}
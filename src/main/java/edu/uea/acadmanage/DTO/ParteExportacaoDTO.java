@@ -0,0 +1,10 @@
+package edu.uea.acadmanage.DTO;
+
+import java.time.LocalDateTime;
+
+// Faixa de uma parte da exportação: startDate e endDate (inclusivos) vão direto para o filtro
+public record ParteExportacaoDTO(
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        long registrosEstimados) {
+}
@@ -1,5 +1,7 @@
 package edu.uea.acadmanage.DTO;
 
+import java.io.Serializable;
+
 import jakarta.validation.constraints.NotBlank;
 
 public record PessoaDTO(
@@ -9,4 +11,4 @@ public record PessoaDTO(
         @NotBlank(message = "O CPF é obrigatório.")
         String cpf,
         boolean possuiUsuario
-) {}
+) implements Serializable {}
@@ -2,10 +2,15 @@ package edu.uea.acadmanage.DTO;
 
 import java.util.List;
 
+// "cadastrados" traz no máximo os 1000 primeiros nomes; cadastradosTruncados indica que a lista
+// foi cortada e o total está em totalCadastrados. A importação é tudo ou nada: CPFs duplicados
+// cancelam o arquivo (400 com os erros), por isso "duplicados" vem vazio quando há resposta
 public record PessoaImportResponseDTO(
         int totalProcessados,
         int totalCadastrados,
         List<String> cadastrados,
-        List<String> duplicados
+        boolean cadastradosTruncados,
+        List<String> duplicados,
+        long duracaoMs,
+        long linhasPorSegundo
 ) {}
-
@@ -0,0 +1,15 @@
+package edu.uea.acadmanage.DTO;
+
+import java.time.LocalDateTime;
+
+public record RelatorioJobDTO(
+        String id,
+        String tipo,
+        String status,
+        int progresso,
+        String mensagem,
+        LocalDateTime criadoEm,
+        LocalDateTime concluidoEm,
+        LocalDateTime expiraEm,
+        String download
+) {}
@@ -1,5 +1,6 @@
 package edu.uea.acadmanage.DTO;
 
+import java.io.Serializable;
 import java.util.List;
 
 import jakarta.validation.constraints.Email;
@@ -15,4 +16,4 @@ public record UsuarioDTO(
     String email,
     String senha,
     String role, 
-    List<CursoDTO> cursos) {}
+    List<CursoDTO> cursos) implements Serializable {}
@@ -6,20 +6,63 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "auditTaskExecutor")
-    public Executor auditTaskExecutor() {
+    // Geração de variantes de imagem após o upload; se a fila encher, a variante é gerada na primeira requisição
+    @Bean(name = "imagemTaskExecutor")
+    public Executor imagemTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("imagem-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Geração assíncrona de relatórios em PDF; com a fila cheia a requisição é recusada (429)
+    @Bean(name = "relatorioTaskExecutor")
+    public Executor relatorioTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("audit-");
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("relatorio-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Reconstrução do índice de busca na inicialização e indexação das pessoas importadas; uma de
+    // cada vez. Com a fila cheia a tarefa é descartada e a reconstrução periódica corrige o índice
+    @Bean(name = "buscaTaskExecutor")
+    public Executor buscaTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("busca-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
         executor.initialize();
         return executor;
     }
-}
 
+    // Validação em paralelo dos blocos de linhas das importações CSV; com a fila cheia, o bloco é
+    // validado na própria thread da requisição
+    @Bean(name = "importacaoTaskExecutor")
+    public Executor importacaoTaskExecutor() {
+        int processadores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(processadores);
+        executor.setMaxPoolSize(processadores);
+        executor.setQueueCapacity(processadores * 4);
+        executor.setThreadNamePrefix("importacao-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,38 +1,151 @@
 package edu.uea.acadmanage.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 /**
- * Configuração de cache usando armazenamento em memória simples.
- * Redis foi desativado para evitar dependências externas.
+ * Configuração de cache conforme {@code app.cache.modo}:
+ * <ul>
+ *   <li>{@code local}: Caffeine em memória, limitado por tamanho e tempo ({@link CacheProperties});</li>
+ *   <li>{@code redis}: Redis compartilhado entre os nós;</li>
+ *   <li>{@code tiered}: Caffeine (L1) na frente do Redis (L2), com invalidação por pub/sub.</li>
+ * </ul>
+ * Sem Redis configurado, ou enquanto ele estiver inacessível, os caches operam apenas em memória.
+ * As estatísticas do Caffeine são exportadas pelo actuator (métricas {@code cache.*}).
  */
 @Configuration
 @EnableCaching
-public class CacheConfig {
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    // Caches usados pelos serviços (@Cacheable/@CacheEvict)
+    public static final List<String> CACHES = List.of(
+            "usuarios",
+            "cursos",
+            "atividades",
+            "categorias",
+            "pessoas");
+
+    private RedisCacheInvalidacao redisCacheInvalidacao;
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+            ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        if (cacheProperties.getModo() == CacheProperties.Modo.LOCAL) {
+            return criarCacheManagerLocal(cacheProperties);
+        }
+        RedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+        if (connectionFactory == null) {
+            logger.warn("app.cache.modo={} sem Redis configurado; usando apenas cache local", cacheProperties.getModo());
+            return criarCacheManagerLocal(cacheProperties);
+        }
+        return criarCacheManagerRedis(cacheProperties, connectionFactory);
+    }
 
-    /**
-     * CacheManager usando armazenamento em memória (ConcurrentHashMap).
-     * Substitui o RedisCacheManager para não depender do Redis.
-     */
+    // Métricas do L1 dos caches em dois níveis
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        // Definir os nomes dos caches que serão usados
-        cacheManager.setCacheNames(java.util.Arrays.asList(
-            "usuarios", 
-            "cursos", 
-            "atividades", 
-            "categorias", 
-            "pessoas"
-        ));
-        // Permitir criação dinâmica de caches se necessário
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(
+                ((CaffeineCache) cache.getLocal()).getNativeCache(), cache.getName(), tags);
+    }
+
+    private CacheManager criarCacheManagerLocal(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Caches criados dinamicamente usam a política padrão
+        cacheManager.setCaffeine(cacheProperties.getPadrao().toCaffeine());
         cacheManager.setAllowNullValues(false);
+
+        for (String nome : nomesDosCaches(cacheProperties)) {
+            cacheManager.registerCustomCache(nome, cacheProperties.politica(nome).toCaffeine().build());
+        }
         return cacheManager;
     }
-}
 
+    private CacheManager criarCacheManagerRedis(CacheProperties cacheProperties,
+            RedisConnectionFactory connectionFactory) {
+        boolean tiered = cacheProperties.getModo() == CacheProperties.Modo.TIERED;
 
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(configuracaoRedis(cacheProperties.getPadrao()));
+        for (String nome : nomesDosCaches(cacheProperties)) {
+            builder.withCacheConfiguration(nome, configuracaoRedis(cacheProperties.politica(nome)));
+        }
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        if (tiered) {
+            redisCacheInvalidacao = new RedisCacheInvalidacao(connectionFactory, cacheProperties.getCanalInvalidacao());
+        }
+
+        List<Cache> caches = new ArrayList<>();
+        for (String nome : nomesDosCaches(cacheProperties)) {
+            CaffeineCache local = new CaffeineCache(nome, cacheProperties.politica(nome).toCaffeine().build(), false);
+            TieredCache cache = new TieredCache(
+                    local,
+                    redisCacheManager.getCache(nome),
+                    tiered,
+                    tiered ? redisCacheInvalidacao.publicador(nome) : null,
+                    cacheProperties.getRedisIndisponivelPor());
+            if (tiered) {
+                redisCacheInvalidacao.registrar(cache);
+            }
+            caches.add(cache);
+        }
+        if (tiered) {
+            redisCacheInvalidacao.iniciar(connectionFactory);
+        }
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    // No Redis a entrada expira pelo mesmo tempo configurado para o cache local
+    private RedisCacheConfiguration configuracaoRedis(CacheProperties.Politica politica) {
+        Duration ttl = politica.getExpireAfterWrite() != null ? politica.getExpireAfterWrite()
+                : politica.getExpireAfterAccess() != null ? politica.getExpireAfterAccess()
+                : Duration.ofMinutes(10);
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .disableCachingNullValues()
+                .prefixCacheNameWith("acadmanage:");
+    }
+
+    private Set<String> nomesDosCaches(CacheProperties cacheProperties) {
+        Set<String> nomes = new LinkedHashSet<>(CACHES);
+        nomes.addAll(cacheProperties.getCaches().keySet());
+        return nomes;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (redisCacheInvalidacao != null) {
+            redisCacheInvalidacao.destroy();
+        }
+    }
+}
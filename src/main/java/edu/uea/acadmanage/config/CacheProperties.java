@@ -0,0 +1,148 @@
+package edu.uea.acadmanage.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Políticas dos caches da aplicação ({@code app.cache.*}).
+ * Cada cache em {@code app.cache.caches.<nome>} sobrescreve apenas os campos informados;
+ * os demais vêm de {@code app.cache.padrao}.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    public enum Modo {
+        // Apenas cache em memória do nó
+        LOCAL,
+        // Apenas Redis (cache local somente enquanto o Redis estiver indisponível)
+        REDIS,
+        // Cache local (L1) na frente do Redis (L2), com invalidação por pub/sub
+        TIERED
+    }
+
+    private Modo modo = Modo.LOCAL;
+
+    // Canal Redis usado para propagar invalidações entre nós
+    private String canalInvalidacao = "acadmanage:cache:invalidacao";
+
+    // Tempo sem consultar o Redis após uma falha de conexão
+    private Duration redisIndisponivelPor = Duration.ofSeconds(30);
+
+    private Politica padrao = new Politica(1000L, Duration.ofMinutes(10), null);
+
+    private Map<String, Politica> caches = new LinkedHashMap<>();
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    public void setModo(Modo modo) {
+        this.modo = modo;
+    }
+
+    public String getCanalInvalidacao() {
+        return canalInvalidacao;
+    }
+
+    public void setCanalInvalidacao(String canalInvalidacao) {
+        this.canalInvalidacao = canalInvalidacao;
+    }
+
+    public Duration getRedisIndisponivelPor() {
+        return redisIndisponivelPor;
+    }
+
+    public void setRedisIndisponivelPor(Duration redisIndisponivelPor) {
+        this.redisIndisponivelPor = redisIndisponivelPor;
+    }
+
+    public Politica getPadrao() {
+        return padrao;
+    }
+
+    public void setPadrao(Politica padrao) {
+        this.padrao = padrao;
+    }
+
+    public Map<String, Politica> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, Politica> caches) {
+        this.caches = caches;
+    }
+
+    // Política efetiva de um cache: valores próprios com fallback para o padrão
+    public Politica politica(String nomeCache) {
+        Politica propria = caches.get(nomeCache);
+        if (propria == null) {
+            return padrao;
+        }
+        return new Politica(
+                propria.getMaximumSize() != null ? propria.getMaximumSize() : padrao.getMaximumSize(),
+                propria.getExpireAfterWrite() != null ? propria.getExpireAfterWrite() : padrao.getExpireAfterWrite(),
+                propria.getExpireAfterAccess() != null ? propria.getExpireAfterAccess() : padrao.getExpireAfterAccess());
+    }
+
+    public static class Politica {
+
+        // Quantidade máxima de entradas (eviction W-TinyLFU do Caffeine)
+        private Long maximumSize;
+
+        private Duration expireAfterWrite;
+
+        private Duration expireAfterAccess;
+
+        public Politica() {
+        }
+
+        public Politica(Long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {
+            this.maximumSize = maximumSize;
+            this.expireAfterWrite = expireAfterWrite;
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public Caffeine<Object, Object> toCaffeine() {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+            if (maximumSize != null) {
+                builder.maximumSize(maximumSize);
+            }
+            if (expireAfterWrite != null) {
+                builder.expireAfterWrite(expireAfterWrite);
+            }
+            if (expireAfterAccess != null) {
+                builder.expireAfterAccess(expireAfterAccess);
+            }
+            return builder;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package edu.uea.acadmanage.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Propaga remoções de cache entre nós pelo pub/sub do Redis para que cada nó
+ * descarte a entrada correspondente do seu cache local (L1).
+ *
+ * <p>Mensagem: {@code <nó de origem>|<cache>|<chave>}, com a chave codificada por tipo
+ * ({@code L:} Long, {@code I:} Integer, {@code S:} String). Chaves de outros tipos e
+ * limpezas completas usam {@code *}, que limpa todo o L1 do cache.
+ */
+public class RedisCacheInvalidacao implements MessageListener, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCacheInvalidacao.class);
+
+    private static final String TODAS = "*";
+
+    private final String noId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final String canal;
+    private final Map<String, TieredCache> caches = new ConcurrentHashMap<>();
+    private RedisMessageListenerContainer container;
+
+    public RedisCacheInvalidacao(RedisConnectionFactory connectionFactory, String canal) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.canal = canal;
+    }
+
+    /**
+     * Inicia a assinatura do canal. Falhas de conexão não impedem a inicialização
+     * da aplicação; o container tenta reconectar periodicamente.
+     */
+    public void iniciar(RedisConnectionFactory connectionFactory) {
+        try {
+            container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.addMessageListener(this, new ChannelTopic(canal));
+            container.afterPropertiesSet();
+            container.start();
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível assinar o canal de invalidação de cache '{}': {}", canal, e.getMessage());
+        }
+    }
+
+    public void registrar(TieredCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    public Consumer<Object> publicador(String nomeCache) {
+        return chave -> redisTemplate.convertAndSend(canal, noId + "|" + nomeCache + "|" + codificar(chave));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] partes = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (partes.length < 3 || noId.equals(partes[0])) {
+            return;
+        }
+        TieredCache cache = caches.get(partes[1]);
+        if (cache != null) {
+            cache.invalidarLocal(decodificar(partes[2]));
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    static String codificar(Object chave) {
+        if (chave instanceof Long valor) {
+            return "L:" + valor;
+        }
+        if (chave instanceof Integer valor) {
+            return "I:" + valor;
+        }
+        if (chave instanceof String valor) {
+            return "S:" + valor;
+        }
+        return TODAS;
+    }
+
+    // null indica limpeza completa do L1
+    static Object decodificar(String chave) {
+        if (chave.startsWith("L:")) {
+            return Long.valueOf(chave.substring(2));
+        }
+        if (chave.startsWith("I:")) {
+            return Integer.valueOf(chave.substring(2));
+        }
+        if (chave.startsWith("S:")) {
+            return chave.substring(2);
+        }
+        return null;
+    }
+}
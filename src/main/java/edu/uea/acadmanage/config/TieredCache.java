@@ -0,0 +1,248 @@
+package edu.uea.acadmanage.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache em dois níveis: um cache local (L1, Caffeine) na frente de um cache
+ * compartilhado (L2, Redis).
+ *
+ * <p>No modo {@code tiered} as leituras consultam o L1 e depois o L2. No modo {@code redis}
+ * apenas o L2 é usado. Em ambos, quando o L2 falha o cache passa a operar só com o L1
+ * por {@code indisponivelPor}; ao voltar, o L1 é limpo porque invalidações de outros
+ * nós podem ter sido perdidas.
+ *
+ * <p>Remoções são propagadas aos demais nós por {@code publicadorInvalidacao}
+ * (chave removida ou {@code null} para limpeza completa).
+ */
+public class TieredCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredCache.class);
+
+    private final Cache local;
+    private final Cache remoto;
+    private final boolean usarLocal;
+    private final Consumer<Object> publicadorInvalidacao;
+    private final long indisponivelPorMillis;
+
+    // Instante (epoch millis) até o qual o L2 é considerado indisponível; 0 = disponível
+    private volatile long remotoIndisponivelAte;
+
+    public TieredCache(Cache local, Cache remoto, boolean usarLocal,
+            Consumer<Object> publicadorInvalidacao, Duration indisponivelPor) {
+        this.local = local;
+        this.remoto = remoto;
+        this.usarLocal = usarLocal;
+        this.publicadorInvalidacao = publicadorInvalidacao;
+        this.indisponivelPorMillis = indisponivelPor.toMillis();
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    // Cache nativo do L1, usado para as métricas
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    public Cache getLocal() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (usarLocalAgora()) {
+            ValueWrapper valor = local.get(key);
+            if (valor != null) {
+                return valor;
+            }
+        }
+        if (!remotoDisponivel()) {
+            return null;
+        }
+        try {
+            ValueWrapper valor = remoto.get(key);
+            if (valor != null && usarLocal) {
+                local.put(key, valor.get());
+            }
+            return valor;
+        } catch (RuntimeException e) {
+            marcarIndisponivel(e);
+            return null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valor = get(key);
+        if (valor == null) {
+            return null;
+        }
+        Object conteudo = valor.get();
+        if (type != null && conteudo != null && !type.isInstance(conteudo)) {
+            throw new IllegalStateException("Valor em cache não é do tipo " + type.getName() + ": " + conteudo);
+        }
+        return (T) conteudo;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (usarLocalAgora()) {
+            // O L1 serializa carregamentos concorrentes da mesma chave
+            return local.get(key, () -> carregar(key, valueLoader));
+        }
+        try {
+            T valor = carregar(key, valueLoader);
+            if (valor != null && !isRemotoDisponivel()) {
+                // O L2 falhou durante o carregamento: mantém o valor no L1 até ele voltar
+                local.put(key, valor);
+            }
+            return valor;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T carregar(Object key, Callable<T> valueLoader) throws Exception {
+        // Pode executar dentro do cálculo do L1: não limpa o L1 aqui
+        long ate = remotoIndisponivelAte;
+        if (ate == 0L || System.currentTimeMillis() >= ate) {
+            try {
+                ValueWrapper valor = remoto.get(key);
+                if (valor != null) {
+                    return (T) valor.get();
+                }
+            } catch (RuntimeException e) {
+                marcarIndisponivel(e);
+            }
+        }
+        T valor = valueLoader.call();
+        if (valor != null && remotoIndisponivelAte == 0L) {
+            try {
+                remoto.put(key, valor);
+            } catch (RuntimeException e) {
+                marcarIndisponivel(e);
+            }
+        }
+        return valor;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        putRemoto(key, value);
+        if (usarLocalAgora()) {
+            local.put(key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existente = get(key);
+        if (existente != null) {
+            return existente;
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        if (remotoDisponivel()) {
+            try {
+                remoto.evict(key);
+            } catch (RuntimeException e) {
+                marcarIndisponivel(e);
+            }
+        }
+        publicar(key);
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        if (remotoDisponivel()) {
+            try {
+                remoto.clear();
+            } catch (RuntimeException e) {
+                marcarIndisponivel(e);
+            }
+        }
+        publicar(null);
+    }
+
+    /**
+     * Remove uma entrada apenas do L1 (invalidação recebida de outro nó).
+     * {@code key} nulo limpa todo o L1.
+     */
+    public void invalidarLocal(Object key) {
+        if (key == null) {
+            local.clear();
+        } else {
+            local.evict(key);
+        }
+    }
+
+    public boolean isRemotoDisponivel() {
+        return remotoIndisponivelAte == 0L;
+    }
+
+    private boolean usarLocalAgora() {
+        return usarLocal || !remotoDisponivel();
+    }
+
+    private void putRemoto(Object key, Object value) {
+        if (!remotoDisponivel()) {
+            return;
+        }
+        try {
+            remoto.put(key, value);
+        } catch (RuntimeException e) {
+            marcarIndisponivel(e);
+        }
+    }
+
+    private void publicar(Object key) {
+        if (publicadorInvalidacao == null || !remotoDisponivel()) {
+            return;
+        }
+        try {
+            publicadorInvalidacao.accept(key);
+        } catch (RuntimeException e) {
+            marcarIndisponivel(e);
+        }
+    }
+
+    private boolean remotoDisponivel() {
+        long ate = remotoIndisponivelAte;
+        if (ate == 0L) {
+            return true;
+        }
+        if (System.currentTimeMillis() < ate) {
+            return false;
+        }
+        // Nova tentativa: entradas locais podem ter perdido invalidações durante a falha
+        remotoIndisponivelAte = 0L;
+        local.clear();
+        logger.info("Cache '{}': voltando a usar o Redis", getName());
+        return true;
+    }
+
+    private void marcarIndisponivel(RuntimeException e) {
+        if (remotoIndisponivelAte == 0L) {
+            logger.warn("Cache '{}': Redis indisponível, usando apenas cache local por {} ms: {}",
+                    getName(), indisponivelPorMillis, e.getMessage());
+        }
+        remotoIndisponivelAte = System.currentTimeMillis() + indisponivelPorMillis;
+    }
+}
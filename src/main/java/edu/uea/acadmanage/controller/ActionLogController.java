@@ -1,9 +1,16 @@
 package edu.uea.acadmanage.controller;
 
 import edu.uea.acadmanage.DTO.ActionLogFilterDTO;
+import edu.uea.acadmanage.DTO.CursorPageDTO;
+import edu.uea.acadmanage.DTO.ParteExportacaoDTO;
 import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.LogResumoDiario;
 import edu.uea.acadmanage.repository.ActionLogRepository;
 import edu.uea.acadmanage.service.ActionLogExportService;
+import edu.uea.acadmanage.service.CursorPaginacao;
+import edu.uea.acadmanage.service.PartesExportacao;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -16,6 +23,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 import static org.springframework.http.ResponseEntity.ok;
 
@@ -24,13 +33,18 @@ import static org.springframework.http.ResponseEntity.ok;
 @PreAuthorize("hasRole('ADMINISTRADOR')")
 public class ActionLogController {
     
+    private static final String ORDENACAO_CURSOR = "timestamp,desc";
+
     private final ActionLogRepository actionLogRepository;
     private final ActionLogExportService exportService;
+    private final PartesExportacao partesExportacao;
 
     public ActionLogController(ActionLogRepository actionLogRepository,
-                              ActionLogExportService exportService) {
+                              ActionLogExportService exportService,
+                              PartesExportacao partesExportacao) {
         this.actionLogRepository = actionLogRepository;
         this.exportService = exportService;
+        this.partesExportacao = partesExportacao;
     }
 
     @GetMapping
@@ -39,6 +53,29 @@ public class ActionLogController {
         return ResponseEntity.ok(actionLogRepository.findAll(pageable));
     }
 
+    // Paginação por cursor (mais recentes primeiro), ativada pela presença de "after" (vazio na
+    // primeira página). O custo de cada página não cresce com a profundidade e não há COUNT.
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<ActionLog>> getAllLogsPorCursor(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPaginacao.validarTamanho(size);
+        CursorPaginacao.Cursor cursor = CursorPaginacao.decodificar(after, ORDENACAO_CURSOR);
+        LocalDateTime ultimoTimestamp = null;
+        if (cursor != null) {
+            try {
+                ultimoTimestamp = LocalDateTime.parse(cursor.chave());
+            } catch (DateTimeParseException e) {
+                throw new ValidacaoException("Cursor de paginação inválido.");
+            }
+        }
+        List<ActionLog> logs = cursor == null
+            ? actionLogRepository.findPrimeiraPagina(Limit.of(size + 1))
+            : actionLogRepository.findPaginaPorCursor(ultimoTimestamp, cursor.id(), Limit.of(size + 1));
+        return ResponseEntity.ok(CursorPaginacao.montarPagina(logs, size, ORDENACAO_CURSOR,
+            ActionLog::getId, ActionLog::getTimestamp));
+    }
+
     @GetMapping("/user/{email}")
     public ResponseEntity<Page<ActionLog>> getLogsByUser(
             @PathVariable String email,
@@ -70,35 +107,44 @@ public class ActionLogController {
 
     @GetMapping("/export/csv")
     public ResponseEntity<StreamingResponseBody> exportToCsv(
-            @RequestParam(required = false) String userEmail,
-            @RequestParam(required = false) ActionLog.ActionType actionType,
-            @RequestParam(required = false) Boolean success,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        
-        ActionLogFilterDTO filter = new ActionLogFilterDTO(
-            userEmail,
-            actionType,
-            success,
-            startDate,
-            endDate
-        );
-        
-        StreamingResponseBody stream = outputStream -> {
-            try {
-                exportService.exportToCsv(filter, outputStream);
-            } catch (Exception e) {
-                throw new RuntimeException("Erro ao exportar logs de ação", e);
-            }
-        };
-        
+            ActionLogFilterDTO filter,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return download(gzip ? ".csv.gz" : ".csv",
+            gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv; charset=utf-8"),
+            outputStream -> exportService.exportToCsv(filter, outputStream, gzip));
+    }
+
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportToNdjson(ActionLogFilterDTO filter) {
+        return download(".ndjson.gz", MediaType.parseMediaType("application/gzip"),
+            outputStream -> exportService.exportToNdjson(filter, outputStream));
+    }
+
+    @GetMapping("/export/parquet")
+    public ResponseEntity<StreamingResponseBody> exportToParquet(ActionLogFilterDTO filter) {
+        return download(".parquet", MediaType.APPLICATION_OCTET_STREAM,
+            outputStream -> exportService.exportToParquet(filter, outputStream));
+    }
+
+    // Faixas de startDate/endDate com ~registrosPorParte registros cada, para baixar em paralelo
+    // (os demais filtros são repetidos em cada requisição)
+    @GetMapping("/export/partes")
+    public ResponseEntity<List<ParteExportacaoDTO>> getPartesExportacao(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "100000") long registrosPorParte) {
+        return ResponseEntity.ok(partesExportacao.dividir(LogResumoDiario.Origem.ACAO, startDate, endDate,
+            registrosPorParte));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String extensao, MediaType contentType,
+                                                                  StreamingResponseBody stream) {
         String filename = "action-logs-" + LocalDateTime.now().format(
-            java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + ".csv";
+            java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + extensao;
         
         return ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-            .contentType(MediaType.parseMediaType("text/csv; charset=utf-8"))
+            .contentType(contentType)
             .body(stream);
     }
 }
-
@@ -1,6 +1,7 @@
 package edu.uea.acadmanage.controller;
 
 import java.io.IOException;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -33,10 +34,13 @@ import org.springframework.web.multipart.MultipartFile;
 
 import edu.uea.acadmanage.DTO.AtividadeDTO;
 import edu.uea.acadmanage.DTO.AtividadeFiltroDTO;
+import edu.uea.acadmanage.DTO.CursorPageDTO;
 import edu.uea.acadmanage.DTO.RelatorioAtividadeRequestDTO;
+import edu.uea.acadmanage.DTO.RelatorioJobDTO;
 import edu.uea.acadmanage.model.Usuario;
 import edu.uea.acadmanage.service.AtividadeService;
 import edu.uea.acadmanage.service.RelatorioAtividadeService;
+import edu.uea.acadmanage.service.RelatorioJobService;
 import edu.uea.acadmanage.service.exception.ValidacaoException;
 import jakarta.validation.Valid;
 
@@ -46,6 +50,7 @@ public class AtividadeController {
 
     private final AtividadeService atividadeService;
     private final RelatorioAtividadeService relatorioAtividadeService;
+    private final RelatorioJobService relatorioJobService;
 
     // Mapeamento de campos para ordenação (nome amigável → nome real na entidade)
     private static final Map<String, String> FIELD_MAPPING = Map.of(
@@ -60,9 +65,11 @@ public class AtividadeController {
 
     private static final Set<String> ALLOWED_SORT_FIELDS = FIELD_MAPPING.keySet();
 
-    public AtividadeController(AtividadeService atividadeService, RelatorioAtividadeService relatorioAtividadeService) {
+    public AtividadeController(AtividadeService atividadeService, RelatorioAtividadeService relatorioAtividadeService,
+            RelatorioJobService relatorioJobService) {
         this.atividadeService = atividadeService;
         this.relatorioAtividadeService = relatorioAtividadeService;
+        this.relatorioJobService = relatorioJobService;
     }
 
     // Endpoint para pesquisar atividades por curso
@@ -129,6 +136,45 @@ public class AtividadeController {
                 : ResponseEntity.ok(atividades); // 200 OK
     }
 
+    // Mesmos filtros com paginação por cursor: ativada pela presença de "after" (vazio na
+    // primeira página). Não executa contagem; a resposta traz nextCursor para a página seguinte.
+    // Ordenações suportadas: nome ASC e dataRealizacao (ou dataInicio) DESC.
+    @GetMapping(value = "/filtros", params = "after")
+    public ResponseEntity<CursorPageDTO<AtividadeDTO>> getAtividadesPorFiltrosCursor(
+            @RequestParam(required = false) Long cursoId,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Boolean statusPublicacao,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "nome") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection) {
+
+        String ordenacao;
+        if ("nome".equals(sortBy) && sortDirection.equalsIgnoreCase("ASC")) {
+            ordenacao = AtividadeService.ORDENACAO_NOME;
+        } else if (("dataRealizacao".equals(sortBy) || "dataInicio".equals(sortBy))
+                && sortDirection.equalsIgnoreCase("DESC")) {
+            ordenacao = AtividadeService.ORDENACAO_DATA_DESC;
+        } else {
+            throw new ValidacaoException(
+                "Ordenação não suportada na paginação por cursor: '" + sortBy + " " + sortDirection + "'. " +
+                "Use nome ASC ou dataRealizacao DESC."
+            );
+        }
+
+        AtividadeFiltroDTO filtros = new AtividadeFiltroDTO(cursoId, categoriaId, nome, dataInicio, dataFim,
+                statusPublicacao);
+        CursorPageDTO<AtividadeDTO> atividades = atividadeService.getAtividadesPorFiltrosCursor(
+                filtros, ordenacao, after, size);
+
+        return atividades.content().isEmpty()
+                ? ResponseEntity.noContent().build() // 204 No Content
+                : ResponseEntity.ok(atividades); // 200 OK
+    }
+
     // Endpoint para salvar uma atividade
     @PostMapping
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO') or hasRole('COORDENADOR_ATIVIDADE')")
@@ -204,4 +250,26 @@ public class AtividadeController {
                 .body(relatorio);
     }
 
+    // Enfileira o relatório; acompanhar em /api/relatorios/jobs/{jobId}
+    @PostMapping("/{atividadeId}/relatorios/jobs")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO') or hasRole('COORDENADOR_ATIVIDADE')")
+    public ResponseEntity<RelatorioJobDTO> enfileirarRelatorioAtividade(
+            @PathVariable Long atividadeId,
+            @RequestBody(required = false) RelatorioAtividadeRequestDTO relatorioRequest,
+            @AuthenticationPrincipal Usuario usuarioAutenticado) {
+
+        String solicitante = usuarioAutenticado != null ? usuarioAutenticado.getUsername() : null;
+        String introducao = relatorioRequest != null ? relatorioRequest.introducao() : null;
+
+        RelatorioJobDTO job = relatorioJobService.enfileirar(
+                "ATIVIDADE",
+                solicitante,
+                "relatorio-atividade-" + atividadeId + ".pdf",
+                () -> relatorioAtividadeService.prepararRelatorioAtividade(atividadeId, introducao, solicitante),
+                relatorioAtividadeService::escreverPdf);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/relatorios/jobs/" + job.id()))
+                .body(job);
+    }
+
 }
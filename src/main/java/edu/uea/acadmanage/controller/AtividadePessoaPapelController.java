@@ -1,7 +1,10 @@
 package edu.uea.acadmanage.controller;
 
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,21 +18,28 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import edu.uea.acadmanage.DTO.ImportacaoIntegrantesRespostaDTO;
 import edu.uea.acadmanage.DTO.PessoaPapelDTO;
 import edu.uea.acadmanage.model.AtividadePessoaId;
 import edu.uea.acadmanage.model.AtividadePessoaPapel;
 import edu.uea.acadmanage.model.Papel;
 import edu.uea.acadmanage.service.AtividadePessoaPapelService;
+import edu.uea.acadmanage.service.ImportacaoIntegrantesService;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
 
 @RestController
 @RequestMapping("/api/atividades-pessoas")
 public class AtividadePessoaPapelController {
 
     private final AtividadePessoaPapelService atividadePessoaPapelService;
+    private final ImportacaoIntegrantesService importacaoIntegrantesService;
 
-    public AtividadePessoaPapelController(AtividadePessoaPapelService atividadePessoaPapelService) {
+    public AtividadePessoaPapelController(AtividadePessoaPapelService atividadePessoaPapelService,
+                                          ImportacaoIntegrantesService importacaoIntegrantesService) {
         this.atividadePessoaPapelService = atividadePessoaPapelService;
+        this.importacaoIntegrantesService = importacaoIntegrantesService;
     }
 
     // Método para associar uma pessoa a uma atividade
@@ -75,15 +85,40 @@ public class AtividadePessoaPapelController {
         return ResponseEntity.noContent().build(); // 204 No Content
     }
 
-    // Método para importar pessoas de um arquivo CSV
+    // Método para importar pessoas de um arquivo CSV: responde com o resultado de cada linha,
+    // 201 se alguma associação foi criada e 200 se todas foram ignoradas ou tiveram erro
     @PostMapping("/{atividadeId}/pessoas/import")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO')")
-    public ResponseEntity<List<AtividadePessoaPapel>> importarPessoas(
+    public ResponseEntity<ImportacaoIntegrantesRespostaDTO> importarPessoas(
             @PathVariable Long atividadeId,
             @RequestParam("file") MultipartFile arquivo,
             @AuthenticationPrincipal UserDetails userDetails) {
-        List<AtividadePessoaPapel> associacoes = atividadePessoaPapelService.importarAssociacoesCsv(atividadeId, arquivo, userDetails.getUsername());
-        return ResponseEntity.status(201).body(associacoes);
+        ImportacaoIntegrantesRespostaDTO resposta = atividadePessoaPapelService.importarAssociacoesCsv(atividadeId, arquivo, userDetails.getUsername());
+        return ResponseEntity.status(resposta.totalAssociadas() > 0 ? 201 : 200).body(resposta);
     }
-}
 
+    // Importação em lote (listas grandes): responde com o relatório CSV por linha (ignoradas e
+    // com erro, mais um resumo), enviado à medida que cada bloco do arquivo é gravado
+    @PostMapping(value = "/{atividadeId}/pessoas/import/lote", produces = "text/csv")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO')")
+    public ResponseEntity<StreamingResponseBody> importarPessoasEmLote(
+            @PathVariable Long atividadeId,
+            @RequestParam("file") MultipartFile arquivo,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (arquivo == null || arquivo.isEmpty()) {
+            throw new ValidacaoException("Arquivo CSV não informado.");
+        }
+        // Atividade e permissão são verificadas antes de a resposta começar
+        ImportacaoIntegrantesService.Destino destino = importacaoIntegrantesService.preparar(atividadeId, userDetails.getUsername());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv; charset=utf-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"importacao-integrantes-" + atividadeId + ".csv\"")
+                .body(saida -> {
+                    try (InputStream entrada = arquivo.getInputStream()) {
+                        importacaoIntegrantesService.escreverRelatorioCsv(destino, entrada, arquivo.getOriginalFilename(), saida);
+                    }
+                });
+    }
+}
@@ -1,9 +1,20 @@
 package edu.uea.acadmanage.controller;
 
 import edu.uea.acadmanage.DTO.AuditLogFilterDTO;
+import edu.uea.acadmanage.DTO.AuditLogHistoricoDTO;
+import edu.uea.acadmanage.DTO.CursorPageDTO;
+import edu.uea.acadmanage.DTO.LogResumoDTO;
+import edu.uea.acadmanage.DTO.ParteExportacaoDTO;
 import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.model.LogResumoDiario;
 import edu.uea.acadmanage.repository.AuditLogRepository;
+import edu.uea.acadmanage.repository.LogResumoDiarioRepository;
 import edu.uea.acadmanage.service.AuditLogExportService;
+import edu.uea.acadmanage.service.AuditLogService;
+import edu.uea.acadmanage.service.CursorPaginacao;
+import edu.uea.acadmanage.service.PartesExportacao;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -15,7 +26,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 import static org.springframework.http.ResponseEntity.ok;
@@ -25,13 +38,24 @@ import static org.springframework.http.ResponseEntity.ok;
 @PreAuthorize("hasRole('ADMINISTRADOR')")
 public class AuditLogController {
     
+    private static final String ORDENACAO_CURSOR = "timestamp,desc";
+
     private final AuditLogRepository auditLogRepository;
     private final AuditLogExportService exportService;
+    private final AuditLogService auditLogService;
+    private final LogResumoDiarioRepository logResumoDiarioRepository;
+    private final PartesExportacao partesExportacao;
 
     public AuditLogController(AuditLogRepository auditLogRepository, 
-                             AuditLogExportService exportService) {
+                             AuditLogExportService exportService,
+                             AuditLogService auditLogService,
+                             LogResumoDiarioRepository logResumoDiarioRepository,
+                             PartesExportacao partesExportacao) {
         this.auditLogRepository = auditLogRepository;
         this.exportService = exportService;
+        this.auditLogService = auditLogService;
+        this.logResumoDiarioRepository = logResumoDiarioRepository;
+        this.partesExportacao = partesExportacao;
     }
 
     @GetMapping
@@ -40,6 +64,29 @@ public class AuditLogController {
         return ResponseEntity.ok(auditLogRepository.findAll(pageable));
     }
 
+    // Paginação por cursor (mais recentes primeiro), ativada pela presença de "after" (vazio na
+    // primeira página). O custo de cada página não cresce com a profundidade e não há COUNT.
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<AuditLog>> getAllLogsPorCursor(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPaginacao.validarTamanho(size);
+        CursorPaginacao.Cursor cursor = CursorPaginacao.decodificar(after, ORDENACAO_CURSOR);
+        LocalDateTime ultimoTimestamp = null;
+        if (cursor != null) {
+            try {
+                ultimoTimestamp = LocalDateTime.parse(cursor.chave());
+            } catch (DateTimeParseException e) {
+                throw new ValidacaoException("Cursor de paginação inválido.");
+            }
+        }
+        List<AuditLog> logs = cursor == null
+            ? auditLogRepository.findPrimeiraPagina(Limit.of(size + 1))
+            : auditLogRepository.findPaginaPorCursor(ultimoTimestamp, cursor.id(), Limit.of(size + 1));
+        return ResponseEntity.ok(CursorPaginacao.montarPagina(logs, size, ORDENACAO_CURSOR,
+            AuditLog::getId, AuditLog::getTimestamp));
+    }
+
     @GetMapping("/entity/{entityName}/{entityId}")
     public ResponseEntity<Page<AuditLog>> getLogsByEntity(
             @PathVariable String entityName,
@@ -50,10 +97,10 @@ public class AuditLogController {
     }
 
     @GetMapping("/entity/{entityName}/{entityId}/history")
-    public ResponseEntity<List<AuditLog>> getHistoryByEntity(
+    public ResponseEntity<List<AuditLogHistoricoDTO>> getHistoryByEntity(
             @PathVariable String entityName,
             @PathVariable Long entityId) {
-        return ResponseEntity.ok(auditLogRepository.findHistoryByEntity(entityName, entityId));
+        return ResponseEntity.ok(auditLogService.historico(entityName, entityId));
     }
 
     @GetMapping("/user/{email}")
@@ -78,39 +125,60 @@ public class AuditLogController {
         return ResponseEntity.ok(auditLogRepository.findByDateRange(startDate, endDate, pageable));
     }
 
+    // Totais por usuário, entidade e ação, lidos dos resumos diários (sem tocar nas tabelas de
+    // log). O dia corrente entra na consolidação da madrugada seguinte.
+    @GetMapping("/resumo")
+    public ResponseEntity<List<LogResumoDTO>> getResumo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) LogResumoDiario.Origem origem,
+            @RequestParam(required = false) String userEmail) {
+        if (fim.isBefore(inicio)) {
+            throw new ValidacaoException("A data final deve ser igual ou posterior à data inicial.");
+        }
+        return ResponseEntity.ok(logResumoDiarioRepository.resumir(inicio, fim, origem, userEmail));
+    }
+
     @GetMapping("/export/csv")
     public ResponseEntity<StreamingResponseBody> exportToCsv(
-            @RequestParam(required = false) String userEmail,
-            @RequestParam(required = false) AuditLog.AuditAction action,
-            @RequestParam(required = false) String entityName,
-            @RequestParam(required = false) Long entityId,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        
-        AuditLogFilterDTO filter = new AuditLogFilterDTO(
-            userEmail,
-            action,
-            entityName,
-            entityId,
-            startDate,
-            endDate
-        );
-        
-        StreamingResponseBody stream = outputStream -> {
-            try {
-                exportService.exportToCsv(filter, outputStream);
-            } catch (Exception e) {
-                throw new RuntimeException("Erro ao exportar logs de auditoria", e);
-            }
-        };
-        
+            AuditLogFilterDTO filter,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return download(gzip ? ".csv.gz" : ".csv",
+            gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv; charset=utf-8"),
+            outputStream -> exportService.exportToCsv(filter, outputStream, gzip));
+    }
+
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportToNdjson(AuditLogFilterDTO filter) {
+        return download(".ndjson.gz", MediaType.parseMediaType("application/gzip"),
+            outputStream -> exportService.exportToNdjson(filter, outputStream));
+    }
+
+    @GetMapping("/export/parquet")
+    public ResponseEntity<StreamingResponseBody> exportToParquet(AuditLogFilterDTO filter) {
+        return download(".parquet", MediaType.APPLICATION_OCTET_STREAM,
+            outputStream -> exportService.exportToParquet(filter, outputStream));
+    }
+
+    // Faixas de startDate/endDate com ~registrosPorParte registros cada, para baixar em paralelo
+    // (os demais filtros são repetidos em cada requisição)
+    @GetMapping("/export/partes")
+    public ResponseEntity<List<ParteExportacaoDTO>> getPartesExportacao(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "100000") long registrosPorParte) {
+        return ResponseEntity.ok(partesExportacao.dividir(LogResumoDiario.Origem.AUDITORIA, startDate, endDate,
+            registrosPorParte));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String extensao, MediaType contentType,
+                                                                  StreamingResponseBody stream) {
         String filename = "audit-logs-" + LocalDateTime.now().format(
-            java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + ".csv";
+            java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + extensao;
         
         return ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-            .contentType(MediaType.parseMediaType("text/csv; charset=utf-8"))
+            .contentType(contentType)
             .body(stream);
     }
 }
-
@@ -0,0 +1,75 @@
+package edu.uea.acadmanage.controller;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.uea.acadmanage.DTO.BuscaRespostaDTO;
+import edu.uea.acadmanage.service.AutorizacaoContexto;
+import edu.uea.acadmanage.service.BuscaService;
+import edu.uea.acadmanage.service.BuscaService.TipoDocumento;
+import edu.uea.acadmanage.service.exception.AcessoNegadoException;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+@RestController
+@RequestMapping("/api/search")
+public class BuscaController {
+
+    // Mesmos perfis que podem listar pessoas em /api/pessoas
+    private static final Set<String> ROLES_PESSOAS = Set.of(
+            AutorizacaoContexto.ROLE_ADMINISTRADOR,
+            AutorizacaoContexto.ROLE_GERENTE,
+            AutorizacaoContexto.ROLE_SECRETARIO);
+
+    private final BuscaService buscaService;
+
+    public BuscaController(BuscaService buscaService) {
+        this.buscaService = buscaService;
+    }
+
+    // Busca textual unificada. Ex.: /api/search?q=extensao+saude&tipos=ATIVIDADE,CURSO
+    // Sem "tipos", pesquisa tudo que o usuário pode ver (pessoas apenas para administradores,
+    // gerentes e secretários).
+    @GetMapping
+    public ResponseEntity<BuscaRespostaDTO> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) List<String> tipos,
+            @RequestParam(defaultValue = "20") int limite,
+            Authentication authentication) {
+        boolean podeVerPessoas = authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(ROLES_PESSOAS::contains);
+
+        Set<TipoDocumento> tiposSolicitados = EnumSet.noneOf(TipoDocumento.class);
+        if (tipos == null || tipos.isEmpty()) {
+            tiposSolicitados.addAll(EnumSet.allOf(TipoDocumento.class));
+            if (!podeVerPessoas) {
+                tiposSolicitados.remove(TipoDocumento.PESSOA);
+            }
+        } else {
+            for (String tipo : tipos) {
+                tiposSolicitados.add(converterTipo(tipo));
+            }
+            if (tiposSolicitados.contains(TipoDocumento.PESSOA) && !podeVerPessoas) {
+                throw new AcessoNegadoException("Usuário não tem permissão para pesquisar pessoas.");
+            }
+        }
+        return ResponseEntity.ok(buscaService.buscar(q, tiposSolicitados, limite));
+    }
+
+    private static TipoDocumento converterTipo(String tipo) {
+        try {
+            return TipoDocumento.valueOf(tipo.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidacaoException("Tipo de busca inválido: '" + tipo + "'. Tipos permitidos: ATIVIDADE, CURSO, PESSOA");
+        }
+    }
+}
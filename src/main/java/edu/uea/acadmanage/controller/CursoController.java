@@ -1,6 +1,7 @@
 package edu.uea.acadmanage.controller;
 
 import java.io.IOException;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -26,14 +27,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import edu.uea.acadmanage.DTO.CursoDTO;
+import edu.uea.acadmanage.DTO.CursorPageDTO;
 import edu.uea.acadmanage.DTO.PermissaoCursoDTO;
 import edu.uea.acadmanage.DTO.RelatorioCursoRequestDTO;
+import edu.uea.acadmanage.DTO.RelatorioJobDTO;
 import edu.uea.acadmanage.model.Usuario;
 import edu.uea.acadmanage.service.CursoService;
 import edu.uea.acadmanage.service.RelatorioCursoService;
+import edu.uea.acadmanage.service.RelatorioJobService;
+import edu.uea.acadmanage.service.RelatorioPdf;
 import edu.uea.acadmanage.service.UsuarioService;
 
 @RestController
@@ -43,11 +49,14 @@ public class CursoController {
     private final CursoService cursoService;
     private final UsuarioService usuarioService;
     private final RelatorioCursoService relatorioCursoService;
+    private final RelatorioJobService relatorioJobService;
 
-    public CursoController(CursoService cursoService, UsuarioService usuarioService, RelatorioCursoService relatorioCursoService) {
+    public CursoController(CursoService cursoService, UsuarioService usuarioService, RelatorioCursoService relatorioCursoService,
+            RelatorioJobService relatorioJobService) {
         this.cursoService = cursoService;
         this.usuarioService = usuarioService;
         this.relatorioCursoService = relatorioCursoService;
+        this.relatorioJobService = relatorioJobService;
     }
 
     // Endpoint para buscar todos os cursos com paginação e filtros por status e nome
@@ -65,6 +74,23 @@ public class CursoController {
         return ResponseEntity.ok(cursos); // Retorna 200 OK com a página de cursos
     }
 
+    // Mesmos filtros com paginação por cursor (ordenada por nome), ativada pela presença de "after"
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<CursoDTO>> buscarTodosCursosPorCursor(
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) Long tipoId,
+            @RequestParam(required = false) Long unidadeAcademicaId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPageDTO<CursoDTO> cursos = cursoService.getAllCursosCursorComFiltros(ativo, nome, tipoId,
+                unidadeAcademicaId, after, size);
+        if (cursos.content().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(cursos);
+    }
+
     // Endpoint para buscar um curso por ID
     @GetMapping("/{cursoId}")
     public ResponseEntity<CursoDTO> getCursoById(@PathVariable Long cursoId) {
@@ -205,7 +231,7 @@ public class CursoController {
 
     @PostMapping(value = "/{cursoId}/relatorios", produces = MediaType.APPLICATION_PDF_VALUE)
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO')")
-    public ResponseEntity<byte[]> gerarRelatorioCurso(
+    public ResponseEntity<StreamingResponseBody> gerarRelatorioCurso(
             @PathVariable Long cursoId,
             @RequestBody(required = false) RelatorioCursoRequestDTO relatorioRequest,
             @AuthenticationPrincipal Usuario usuarioAutenticado) {
@@ -217,7 +243,9 @@ public class CursoController {
         List<Long> categorias = relatorioRequest != null ? relatorioRequest.categorias() : null;
         String introducao = relatorioRequest != null ? relatorioRequest.introducao() : null;
 
-        byte[] relatorio = relatorioCursoService.gerarRelatorioCurso(cursoId, dataInicio, dataFim, categorias, introducao, solicitante);
+        // Validação e consultas acontecem aqui; o PDF é escrito diretamente na resposta
+        RelatorioPdf relatorio = relatorioCursoService.prepararRelatorioCurso(
+                cursoId, dataInicio, dataFim, categorias, introducao, solicitante);
 
         String filename = "relatorio-curso-" + cursoId + ".pdf";
         ContentDisposition contentDisposition = ContentDisposition.inline().filename(filename).build();
@@ -225,8 +253,34 @@ public class CursoController {
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_PDF)
                 .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
-                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(relatorio.length))
-                .body(relatorio);
+                .body(saida -> relatorioCursoService.escreverPdf(relatorio, saida));
+    }
+
+    // Enfileira o relatório; acompanhar em /api/relatorios/jobs/{jobId}
+    @PostMapping("/{cursoId}/relatorios/jobs")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO')")
+    public ResponseEntity<RelatorioJobDTO> enfileirarRelatorioCurso(
+            @PathVariable Long cursoId,
+            @RequestBody(required = false) RelatorioCursoRequestDTO relatorioRequest,
+            @AuthenticationPrincipal Usuario usuarioAutenticado) {
+
+        String solicitante = usuarioAutenticado != null ? usuarioAutenticado.getUsername() : null;
+
+        LocalDate dataInicio = relatorioRequest != null ? relatorioRequest.dataInicio() : null;
+        LocalDate dataFim = relatorioRequest != null ? relatorioRequest.dataFim() : null;
+        List<Long> categorias = relatorioRequest != null ? relatorioRequest.categorias() : null;
+        String introducao = relatorioRequest != null ? relatorioRequest.introducao() : null;
+
+        RelatorioJobDTO job = relatorioJobService.enfileirar(
+                "CURSO",
+                solicitante,
+                "relatorio-curso-" + cursoId + ".pdf",
+                () -> relatorioCursoService.prepararRelatorioCurso(
+                        cursoId, dataInicio, dataFim, categorias, introducao, solicitante),
+                relatorioCursoService::escreverPdf);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/relatorios/jobs/" + job.id()))
+                .body(job);
     }
 
 }
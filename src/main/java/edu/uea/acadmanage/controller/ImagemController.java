@@ -0,0 +1,63 @@
+package edu.uea.acadmanage.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import edu.uea.acadmanage.service.ImagemDerivadaService;
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/imagens")
+public class ImagemController {
+
+    // Os nomes dos arquivos são únicos (UUID) e nunca sobrescritos, por isso o cache pode ser longo
+    private static final CacheControl CACHE_IMAGEM = CacheControl.maxAge(Duration.ofDays(30)).cachePublic();
+
+    private final ImagemDerivadaService imagemDerivadaService;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ImagemController(ImagemDerivadaService imagemDerivadaService) {
+        this.imagemDerivadaService = imagemDerivadaService;
+    }
+
+    // Endpoint para obter uma variante (thumb, medium ou print) de uma imagem servida em /api/files/**
+    // Ex.: /api/imagens/thumb/evidencias/1/2/foto.jpg
+    @GetMapping("/{tamanho}/**")
+    public ResponseEntity<Resource> obterVariante(
+            @PathVariable String tamanho,
+            HttpServletRequest request,
+            WebRequest webRequest) throws IOException {
+        String caminho = pathMatcher.extractPathWithinPattern(
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+                (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+        Path arquivo = imagemDerivadaService.obterVariante(caminho, ImagemDerivadaService.Tamanho.fromSufixo(tamanho));
+
+        long ultimaModificacao = Files.getLastModifiedTime(arquivo).toMillis();
+        if (webRequest.checkNotModified(ultimaModificacao)) {
+            return ResponseEntity.status(304).cacheControl(CACHE_IMAGEM).build();
+        }
+        MediaType contentType = MediaTypeFactory.getMediaType(arquivo.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .cacheControl(CACHE_IMAGEM)
+                .lastModified(ultimaModificacao)
+                .body(new FileSystemResource(arquivo));
+    }
+}
@@ -1,5 +1,7 @@
 package edu.uea.acadmanage.controller;
 
+import java.io.IOException;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -17,9 +19,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import edu.uea.acadmanage.DTO.CursorPageDTO;
 import edu.uea.acadmanage.DTO.PessoaDTO;
 import edu.uea.acadmanage.DTO.PessoaImportResponseDTO;
+import edu.uea.acadmanage.service.ImportacaoPessoasService;
 import edu.uea.acadmanage.service.PessoaService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -27,9 +32,11 @@ import jakarta.validation.Valid;
 public class PessoaController {
 
     private final PessoaService pessoaService;
+    private final ImportacaoPessoasService importacaoPessoasService;
 
-    public PessoaController(PessoaService pessoaService) {
+    public PessoaController(PessoaService pessoaService, ImportacaoPessoasService importacaoPessoasService) {
         this.pessoaService = pessoaService;
+        this.importacaoPessoasService = importacaoPessoasService;
     }
 
     @GetMapping
@@ -44,6 +51,20 @@ public class PessoaController {
         return ResponseEntity.ok(pessoas);
     }
 
+    // Listagem com paginação por cursor (ordenada por nome), ativada pela presença de "after"
+    @GetMapping(params = "after")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO')")
+    public ResponseEntity<CursorPageDTO<PessoaDTO>> listarPorCursor(
+            @RequestParam(required = false) String nome,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPageDTO<PessoaDTO> pessoas = pessoaService.listarPorCursor(nome, after, size);
+        if (pessoas.content().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(pessoas);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO')")
     public ResponseEntity<PessoaDTO> buscarPorId(@PathVariable Long id) {
@@ -75,7 +96,19 @@ public class PessoaController {
     @PostMapping("/import")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO')")
     public ResponseEntity<PessoaImportResponseDTO> importar(@RequestParam("file") MultipartFile arquivo) {
-        PessoaImportResponseDTO resposta = pessoaService.importarCsv(arquivo);
+        PessoaImportResponseDTO resposta = importacaoPessoasService.importarCsv(arquivo);
+        return ResponseEntity.status(HttpStatus.CREATED).body(resposta);
+    }
+
+    // CSV no corpo da requisição (Content-Type text/csv), lido em streaming: sem o limite de
+    // tamanho do upload multipart
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('GERENTE') or hasRole('SECRETARIO')")
+    public ResponseEntity<PessoaImportResponseDTO> importarStream(
+            HttpServletRequest request,
+            @RequestParam(required = false) String nomeArquivo) throws IOException {
+        PessoaImportResponseDTO resposta = importacaoPessoasService.importarCsv(request.getInputStream(),
+                nomeArquivo, request.getContentLengthLong());
         return ResponseEntity.status(HttpStatus.CREATED).body(resposta);
     }
 }
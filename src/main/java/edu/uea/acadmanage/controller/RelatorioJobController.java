@@ -0,0 +1,49 @@
+package edu.uea.acadmanage.controller;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.uea.acadmanage.DTO.RelatorioJobDTO;
+import edu.uea.acadmanage.service.RelatorioJobService;
+
+@RestController
+@RequestMapping("/api/relatorios/jobs")
+public class RelatorioJobController {
+
+    private final RelatorioJobService relatorioJobService;
+
+    public RelatorioJobController(RelatorioJobService relatorioJobService) {
+        this.relatorioJobService = relatorioJobService;
+    }
+
+    // Endpoint para consultar o status e o progresso de um relatório enfileirado
+    @GetMapping("/{jobId}")
+    public ResponseEntity<RelatorioJobDTO> consultar(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(relatorioJobService.consultar(jobId, userDetails.getUsername()));
+    }
+
+    // Endpoint para baixar o PDF de um relatório concluído
+    @GetMapping("/{jobId}/arquivo")
+    public ResponseEntity<Resource> baixar(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        RelatorioJobService.RelatorioArquivo arquivo = relatorioJobService.obterArquivo(jobId, userDetails.getUsername());
+        ContentDisposition contentDisposition = ContentDisposition.attachment().filename(arquivo.nomeArquivo()).build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+                .body(new FileSystemResource(arquivo.caminho()));
+    }
+}
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @Table(name = "action_log", indexes = {
     @Index(name = "idx_action_user", columnList = "user_email"),
     @Index(name = "idx_action_type", columnList = "action_type"),
-    @Index(name = "idx_action_timestamp", columnList = "timestamp")
+    @Index(name = "idx_action_timestamp_id", columnList = "timestamp,id")
 })
 @Data
 @AllArgsConstructor
@@ -53,6 +53,23 @@ public class ActionLog {
     @Column(columnDefinition = "TEXT")
     private String metadata; // JSON com informações adicionais
     
+    @Column(length = 36, unique = true)
+    private String eventoId; // UUID atribuído ao enfileirar; evita duplicatas ao reenviar o spool
+
+    // Corta os textos no tamanho das colunas: um valor maior (um User-Agent enviado pelo
+    // cliente, por exemplo) faria o banco recusar o lote inteiro
+    public void limitarTamanhos() {
+        userEmail = limitar(userEmail, 100);
+        description = limitar(description, 500);
+        ipAddress = limitar(ipAddress, 45);
+        userAgent = limitar(userAgent, 500);
+        endpoint = limitar(endpoint, 500);
+    }
+
+    private static String limitar(String valor, int tamanho) {
+        return valor != null && valor.length() > tamanho ? valor.substring(0, tamanho) : valor;
+    }
+    
     public enum ActionType {
         LOGIN_SUCCESS,
         LOGIN_FAILURE,
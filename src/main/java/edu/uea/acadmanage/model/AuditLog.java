@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @Table(name = "audit_log", indexes = {
     @Index(name = "idx_audit_entity", columnList = "entity_name,entity_id"),
     @Index(name = "idx_audit_user", columnList = "user_email"),
-    @Index(name = "idx_audit_timestamp", columnList = "timestamp"),
+    @Index(name = "idx_audit_timestamp_id", columnList = "timestamp,id"),
     @Index(name = "idx_audit_action", columnList = "action")
 })
 @Data
@@ -45,6 +45,9 @@ public class AuditLog {
     @Column(columnDefinition = "TEXT")
     private String newValues; // JSON com valores novos
     
+    @Column(columnDefinition = "TEXT")
+    private String alteracoes; // JSON Patch (RFC 6902) com os campos alterados, no modo DIFF
+    
     @Column(length = 500)
     private String description;
     
@@ -60,6 +63,25 @@ public class AuditLog {
     @Column(length = 10)
     private String httpMethod; // Ex: "POST", "PUT", "DELETE"
     
+    @Column(length = 36, unique = true)
+    private String eventoId; // UUID atribuído ao enfileirar; evita duplicatas ao reenviar o spool
+
+    // Corta os textos no tamanho das colunas: um valor maior (um User-Agent enviado pelo
+    // cliente, por exemplo) faria o banco recusar o lote inteiro
+    public void limitarTamanhos() {
+        entityName = limitar(entityName, 100);
+        userEmail = limitar(userEmail, 100);
+        description = limitar(description, 500);
+        ipAddress = limitar(ipAddress, 45);
+        userAgent = limitar(userAgent, 500);
+        endpoint = limitar(endpoint, 500);
+        httpMethod = limitar(httpMethod, 10);
+    }
+
+    private static String limitar(String valor, int tamanho) {
+        return valor != null && valor.length() > tamanho ? valor.substring(0, tamanho) : valor;
+    }
+    
     public enum AuditAction {
         CREATE,
         UPDATE,
@@ -0,0 +1,55 @@
+package edu.uea.acadmanage.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Métricas pré-calculadas do dashboard para um curso.
+ * Mantidas incrementalmente a cada alteração de atividades, cursos e usuários
+ * e reconciliadas diariamente por uma reconstrução completa.
+ */
+@Entity
+@Table(name = "dashboard_metrics")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardMetrica {
+
+    @Id
+    @Column(name = "curso_id")
+    private Long cursoId;
+
+    @Column(name = "curso_criado_em")
+    private LocalDateTime cursoCriadoEm;
+
+    @Column(nullable = false)
+    private Long totalAtividades = 0L;
+
+    @Column(nullable = false)
+    private Long atividadesPublicadas = 0L;
+
+    // Atividades com dataFim anterior a dataReferencia
+    @Column(nullable = false)
+    private Long atividadesFinalizadas = 0L;
+
+    @Column(nullable = false)
+    private Long totalUsuarios = 0L;
+
+    // Dia usado no cálculo de atividadesFinalizadas
+    @Column(nullable = false)
+    private LocalDate dataReferencia;
+
+    private LocalDateTime atualizadoEm;
+
+    public DashboardMetrica(Long cursoId) {
+        this.cursoId = cursoId;
+    }
+}
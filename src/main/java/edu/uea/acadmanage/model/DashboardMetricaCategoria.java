@@ -0,0 +1,43 @@
+package edu.uea.acadmanage.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantidade de atividades de um curso por categoria (parte do snapshot do dashboard).
+ */
+@Entity
+@Table(name = "dashboard_metrics_categoria",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"curso_id", "categoria_id"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardMetricaCategoria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "curso_id", nullable = false)
+    private Long cursoId;
+
+    @Column(name = "categoria_id", nullable = false)
+    private Long categoriaId;
+
+    @Column(nullable = false)
+    private Long quantidade = 0L;
+
+    public DashboardMetricaCategoria(Long cursoId, Long categoriaId, Long quantidade) {
+        this.cursoId = cursoId;
+        this.categoriaId = categoriaId;
+        this.quantidade = quantidade;
+    }
+}
@@ -0,0 +1,51 @@
+package edu.uea.acadmanage.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Atividades de um curso realizadas (e publicadas) em cada mês, pela data de realização.
+ * Fornece o histórico mês a mês usado nas métricas de crescimento do dashboard.
+ */
+@Entity
+@Table(name = "dashboard_metrics_mensal",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"curso_id", "competencia"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardMetricaMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "curso_id", nullable = false)
+    private Long cursoId;
+
+    // Primeiro dia do mês
+    @Column(nullable = false)
+    private LocalDate competencia;
+
+    @Column(nullable = false)
+    private Long realizadas = 0L;
+
+    @Column(nullable = false)
+    private Long publicadas = 0L;
+
+    public DashboardMetricaMensal(Long cursoId, LocalDate competencia, Long realizadas, Long publicadas) {
+        this.cursoId = cursoId;
+        this.competencia = competencia;
+        this.realizadas = realizadas;
+        this.publicadas = publicadas;
+    }
+}
@@ -31,6 +31,11 @@ public class Evidencia extends BaseAuditableEntity implements Serializable {
     private String criadoPor;
     @Column(nullable = false)
     private Integer ordem;
+    // Dimensões do arquivo original e orientação EXIF, lidas do cabeçalho no upload.
+    // Nulas enquanto não lidas; largura e altura 0 quando o formato não é reconhecido.
+    private Integer largura;
+    private Integer altura;
+    private Integer orientacaoExif;
 
     @JsonIgnoreProperties("evidencias")
     @ManyToOne
@@ -0,0 +1,77 @@
+package edu.uea.acadmanage.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total diário de registros de log por usuário, entidade e ação. Consolidado a partir de
+ * {@code audit_log} e {@code action_log} e mantido mesmo depois que os registros saem do
+ * banco para o arquivo, para que os resumos não leiam as tabelas de log.
+ */
+@Entity
+@Table(name = "log_resumo_diario",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"dia", "origem", "user_email", "entidade", "acao"}),
+       indexes = @Index(name = "idx_log_resumo_user", columnList = "user_email"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogResumoDiario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Origem origem;
+
+    @Column(nullable = false, length = 100)
+    private String userEmail;
+
+    // Entidade auditada; vazio nos logs de ação
+    @Column(nullable = false, length = 100)
+    private String entidade = "";
+
+    // AuditAction ou ActionType
+    @Column(nullable = false, length = 50)
+    private String acao;
+
+    @Column(nullable = false)
+    private Long total = 0L;
+
+    // Ações sem sucesso; sempre zero na auditoria
+    @Column(nullable = false)
+    private Long falhas = 0L;
+
+    public enum Origem {
+        AUDITORIA,
+        ACAO
+    }
+
+    public LogResumoDiario(LocalDate dia, Origem origem, String userEmail, String entidade, String acao,
+                           Long total, Long falhas) {
+        this.dia = dia;
+        this.origem = origem;
+        this.userEmail = userEmail;
+        this.entidade = entidade;
+        this.acao = acao;
+        this.total = total;
+        this.falhas = falhas;
+    }
+}
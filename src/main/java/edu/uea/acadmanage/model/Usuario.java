@@ -8,6 +8,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -26,6 +28,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToOne;
 import jakarta.validation.constraints.Email;
 import lombok.AllArgsConstructor;
@@ -34,7 +38,14 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
+// Papéis e cursos são carregados sob demanda. Cada consulta escolhe o que precisa:
+// GRAFO_AUTENTICACAO (papéis, para o login e o filtro JWT) ou GRAFO_COMPLETO (papéis e
+// cursos, para montar o UsuarioDTO). Verificações de permissão usam AutorizacaoContextoService,
+// que lê apenas os nomes dos papéis e os ids dos cursos.
 @Entity
+@NamedEntityGraph(name = Usuario.GRAFO_AUTENTICACAO, attributeNodes = @NamedAttributeNode("roles"))
+@NamedEntityGraph(name = Usuario.GRAFO_COMPLETO,
+        attributeNodes = { @NamedAttributeNode("roles"), @NamedAttributeNode("cursos") })
 @Data
 @EqualsAndHashCode(exclude = {"roles", "cursos"})
 @ToString(exclude = {"roles", "cursos", "pessoa"})
@@ -42,6 +53,9 @@ import lombok.ToString;
 @NoArgsConstructor
 public class Usuario implements UserDetails {    
     private static final long serialVersionUID = 1L;
+    public static final String GRAFO_AUTENTICACAO = "Usuario.autenticacao";
+    public static final String GRAFO_COMPLETO = "Usuario.completo";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -63,8 +77,15 @@ public class Usuario implements UserDetails {
     @Column(name = "updated_at")
     private Date updatedAt;
 
+    // Incrementada no banco a cada alteração de papéis ou cursos (UsuarioRepository.incrementarVersaoPermissoes).
+    // Fora das atualizações da entidade para que um save posterior não a regrida.
+    @ColumnDefault("0")
+    @Column(name = "versao_permissoes", nullable = false, updatable = false)
+    private long versaoPermissoes;
+
     @JsonIgnoreProperties("usuarios")
-    @ManyToMany(fetch = FetchType.EAGER) //, cascade = CascadeType.ALL
+    @ManyToMany(fetch = FetchType.LAZY) //, cascade = CascadeType.ALL
+    @BatchSize(size = 50)
     @JoinTable(
             name = "usuario_roles",
             joinColumns = @JoinColumn(name = "usuario_id"),
@@ -74,7 +95,8 @@ public class Usuario implements UserDetails {
 
     
     @JsonIgnoreProperties("usuarios")
-    @ManyToMany(mappedBy = "usuarios", fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @ManyToMany(mappedBy = "usuarios", fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @BatchSize(size = 50)
     private List<Curso> cursos = new ArrayList<>();
 
 
@@ -1,9 +1,11 @@
 package edu.uea.acadmanage.repository;
 
 import edu.uea.acadmanage.model.ActionLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,6 +27,20 @@ public interface ActionLogRepository extends JpaRepository<ActionLog, Long> {
                                     @Param("endDate") LocalDateTime endDate, 
                                     Pageable pageable);
     
+    // Paginação por cursor: mais recentes primeiro, a partir do último (timestamp, id) entregue.
+    // A primeira página tem consulta própria e o predicado das seguintes começa pela faixa
+    // "timestamp <= :ultimoTimestamp", que o índice (timestamp, id) percorre sem filtrar linha a linha.
+    @Query("SELECT a FROM ActionLog a ORDER BY a.timestamp DESC, a.id DESC")
+    List<ActionLog> findPrimeiraPagina(Limit limit);
+
+    @Query("SELECT a FROM ActionLog a WHERE " +
+           "a.timestamp <= :ultimoTimestamp " +
+           "AND (a.timestamp < :ultimoTimestamp OR a.id < :ultimoId) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<ActionLog> findPaginaPorCursor(@Param("ultimoTimestamp") LocalDateTime ultimoTimestamp,
+                                        @Param("ultimoId") Long ultimoId,
+                                        Limit limit);
+
     @Query("SELECT COUNT(a) FROM ActionLog a WHERE a.userEmail = :userEmail " +
            "AND a.actionType = :actionType AND a.success = false " +
            "AND a.timestamp >= :since")
@@ -44,5 +60,33 @@ public interface ActionLogRepository extends JpaRepository<ActionLog, Long> {
                                     @Param("success") Boolean success,
                                     @Param("startDate") LocalDateTime startDate,
                                     @Param("endDate") LocalDateTime endDate);
-}
 
+    @Query("SELECT MIN(a.timestamp) FROM ActionLog a")
+    LocalDateTime findPrimeiroTimestamp();
+
+    @Query("SELECT COUNT(a) FROM ActionLog a WHERE a.timestamp >= :inicio AND a.timestamp < :fim")
+    long contarPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    // Colunas: usuário, tipo de ação, total de registros e falhas no período
+    @Query("SELECT a.userEmail, a.actionType, COUNT(a), " +
+           "SUM(CASE WHEN a.success = false THEN 1 ELSE 0 END) FROM ActionLog a " +
+           "WHERE a.timestamp >= :inicio AND a.timestamp < :fim " +
+           "GROUP BY a.userEmail, a.actionType")
+    List<Object[]> resumirPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    // Registros do período em páginas (mais recentes primeiro), para o arquivamento
+    @Query("SELECT a FROM ActionLog a WHERE a.timestamp >= :inicio AND a.timestamp < :fim " +
+           "AND (:ultimoTimestamp IS NULL " +
+           "OR a.timestamp < :ultimoTimestamp " +
+           "OR (a.timestamp = :ultimoTimestamp AND a.id < :ultimoId)) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<ActionLog> findPeriodoPorCursor(@Param("inicio") LocalDateTime inicio,
+                                         @Param("fim") LocalDateTime fim,
+                                         @Param("ultimoTimestamp") LocalDateTime ultimoTimestamp,
+                                         @Param("ultimoId") Long ultimoId,
+                                         Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ActionLog a WHERE a.timestamp >= :inicio AND a.timestamp < :fim")
+    int deleteByPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+}
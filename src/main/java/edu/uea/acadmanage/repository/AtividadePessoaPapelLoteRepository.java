@@ -0,0 +1,72 @@
+package edu.uea.acadmanage.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import edu.uea.acadmanage.model.Papel;
+
+/**
+ * Inserção em lote de integrantes de uma atividade (importação CSV), com um único INSERT de
+ * várias linhas por lote, como em {@link PessoaLoteRepository}. Deve ser chamada dentro de uma
+ * transação; a existência das pessoas e a ausência das associações são conferidas antes.
+ */
+@Repository
+public class AtividadePessoaPapelLoteRepository {
+
+    // 3 parâmetros por linha
+    public static final int LINHAS_POR_INSERT = 1000;
+
+    private static final String INSERT_ASSOCIACAO = """
+            INSERT INTO atividade_pessoa_papel (atividade_id, pessoa_id, papel)
+            VALUES """;
+
+    private static final String VALORES = "(?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertCompleto;
+
+    public AtividadePessoaPapelLoteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertCompleto = insert(LINHAS_POR_INSERT);
+    }
+
+    public record Associacao(Long pessoaId, Papel papel) {}
+
+    public void inserir(Long atividadeId, List<Associacao> associacoes) {
+        for (int inicio = 0; inicio < associacoes.size(); inicio += LINHAS_POR_INSERT) {
+            List<Associacao> lote = associacoes.subList(inicio,
+                    Math.min(inicio + LINHAS_POR_INSERT, associacoes.size()));
+            List<Object> parametros = new ArrayList<>(lote.size() * 3);
+            for (Associacao associacao : lote) {
+                parametros.add(atividadeId);
+                parametros.add(associacao.pessoaId());
+                parametros.add(associacao.papel().name());
+            }
+            String sql = lote.size() == LINHAS_POR_INSERT ? insertCompleto : insert(lote.size());
+            jdbcTemplate.update(sql, parametros.toArray());
+        }
+    }
+
+    /**
+     * Ids das pessoas já associadas à atividade, em ordem crescente (para busca binária), com
+     * uma única consulta. Guardados como long[]: 8 bytes por integrante.
+     */
+    public long[] pessoasAssociadas(Long atividadeId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT pessoa_id FROM atividade_pessoa_papel WHERE atividade_id = ? ORDER BY pessoa_id",
+                Long.class, atividadeId);
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static String insert(int linhas) {
+        StringBuilder sql = new StringBuilder(INSERT_ASSOCIACAO.length() + linhas * (VALORES.length() + 2))
+                .append(INSERT_ASSOCIACAO).append(VALORES);
+        for (int i = 1; i < linhas; i++) {
+            sql.append(", ").append(VALORES);
+        }
+        return sql.toString();
+    }
+}
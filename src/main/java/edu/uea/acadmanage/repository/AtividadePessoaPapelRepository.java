@@ -1,5 +1,6 @@
 package edu.uea.acadmanage.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -34,6 +35,17 @@ public interface AtividadePessoaPapelRepository extends JpaRepository<AtividadeP
     @Query("SELECT ap FROM AtividadePessoaPapel ap WHERE ap.atividade.id = :atividadeId")
     List<AtividadePessoaPapel> findByAtividadeId(@Param("atividadeId") Long atividadeId);
 
+    // Integrantes de várias atividades sem carregar Pessoa (e o Usuario associado a ela).
+    // Colunas: id da atividade, id da pessoa, nome, cpf, papel
+    @Query("""
+        SELECT ap.atividade.id, p.id, p.nome, p.cpf, ap.papel
+        FROM AtividadePessoaPapel ap
+        JOIN ap.pessoa p
+        WHERE ap.atividade.id IN :atividadeIds
+        ORDER BY ap.atividade.id, p.id
+        """)
+    List<Object[]> findIntegrantesByAtividadeIds(@Param("atividadeIds") Collection<Long> atividadeIds);
+
     @Query("""
         SELECT ap.atividade.id, COUNT(ap)
         FROM AtividadePessoaPapel ap
@@ -69,5 +81,8 @@ public interface AtividadePessoaPapelRepository extends JpaRepository<AtividadeP
      * @return true se a associação existir, false caso contrário.
      */
     boolean existsByAtividadeAndPessoaAndPapel(Atividade atividade, Pessoa pessoa, Papel papel);
+
+    // Consulta pela chave primária (atividade_id, pessoa_id), sem carregar as entidades
+    boolean existsByIdAtividadeIdAndIdPessoaIdAndPapel(Long atividadeId, Long pessoaId, Papel papel);
 }
 
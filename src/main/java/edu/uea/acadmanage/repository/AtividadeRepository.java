@@ -1,21 +1,47 @@
 package edu.uea.acadmanage.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import edu.uea.acadmanage.DTO.AtividadeProjecaoDTO;
 import edu.uea.acadmanage.model.Atividade;
 
 public interface AtividadeRepository extends JpaRepository<Atividade, Long> {
   // Encontrar atividades por curso
   List<Atividade> findByCursoId(Long cursoId);
 
+  @Query("SELECT a.id FROM Atividade a WHERE a.curso.id = :cursoId ORDER BY a.id ASC")
+  List<Long> findIdsByCursoId(@Param("cursoId") Long cursoId);
+
+  // Colunas de AtividadeDTO em um único SELECT, sem carregar entidades: da atividade, id e nome
+  // do curso, da categoria e de cada fonte financiadora (uma linha por fonte).
+  // Os integrantes vêm de AtividadePessoaPapelRepository.findIntegrantesByAtividadeIds.
+  @Query("""
+      SELECT new edu.uea.acadmanage.DTO.AtividadeProjecaoDTO(a.id, a.nome, a.objetivo, a.publicoAlvo,
+             a.statusPublicacao, a.fotoCapa, a.dataRealizacao, a.dataFim, c.id, c.nome, cat.id, cat.nome,
+             f.id, f.nome)
+      FROM Atividade a
+      JOIN a.curso c
+      LEFT JOIN a.categoria cat
+      LEFT JOIN a.fontesFinanciadora f
+      WHERE a.id IN :ids
+      ORDER BY a.id ASC, f.id ASC
+      """)
+  List<AtividadeProjecaoDTO> findProjecoesByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query("SELECT a.curso.id FROM Atividade a WHERE a.id = :atividadeId")
+  Optional<Long> findCursoIdById(@Param("atividadeId") Long atividadeId);
+
   // Encontrar atividades por status de publicação
   List<Atividade> findByStatusPublicacao(Boolean statusPublicacao);
 
@@ -23,16 +49,6 @@ public interface AtividadeRepository extends JpaRepository<Atividade, Long> {
   @Query("SELECT a FROM Atividade a WHERE a.curso.id IN :cursoIds")
   List<Atividade> findByCursoIds(@Param("cursoIds") List<Long> cursoIds);
 
-  // Para gerentes e secretários: Retorna atividades de cursos específicos por id
-  @Query("""
-      SELECT a
-      FROM Atividade a
-      WHERE a.id = :atividadeId
-        AND a.curso.id IN :cursoIds
-      """)
-  Optional<Atividade> findByIdAndCursoIds(@Param("atividadeId") Long atividadeId,
-      @Param("cursoIds") List<Long> cursoIds);
-
   // Para gerentes e secretários: Retorna atividades de cursos específicos por id
   @Query("""
           SELECT a
@@ -54,8 +70,10 @@ public interface AtividadeRepository extends JpaRepository<Atividade, Long> {
       @Param("dataFim") LocalDate dataFim,
       @Param("cursoIds") List<Long> cursoIds);
 
+  // Listagens em duas fases: os filtros selecionam apenas os IDs e
+  // findProjecoesByIdIn carrega as colunas do DTO
   @Query("""
-          SELECT a FROM Atividade a
+          SELECT a.id FROM Atividade a
           WHERE (:cursoId IS NULL OR a.curso.id = :cursoId)
             AND (:categoriaId IS NULL OR a.categoria.id = :categoriaId)
             AND (:nome IS NULL OR :nome = '' OR LOWER(a.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
@@ -67,7 +85,7 @@ public interface AtividadeRepository extends JpaRepository<Atividade, Long> {
                  (a.dataFim IS NOT NULL AND a.dataFim <= :dataFim))
             AND (:statusPublicacao IS NULL OR a.statusPublicacao = :statusPublicacao)
       """)
-  List<Atividade> findByFiltros(
+  List<Long> findIdsByFiltros(
       @Param("cursoId") Long cursoId,
       @Param("categoriaId") Long categoriaId,
       @Param("nome") String nome,
@@ -76,7 +94,7 @@ public interface AtividadeRepository extends JpaRepository<Atividade, Long> {
       @Param("statusPublicacao") Boolean statusPublicacao);
 
   @Query(value = """
-          SELECT a FROM Atividade a
+          SELECT a.id FROM Atividade a
           WHERE (:cursoId IS NULL OR a.curso.id = :cursoId)
             AND (:categoriaId IS NULL OR a.categoria.id = :categoriaId)
             AND (:nome IS NULL OR :nome = '' OR LOWER(a.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
@@ -102,7 +120,7 @@ public interface AtividadeRepository extends JpaRepository<Atividade, Long> {
                  (a.dataFim IS NOT NULL AND a.dataFim <= :dataFim))
             AND (:statusPublicacao IS NULL OR a.statusPublicacao = :statusPublicacao)
       """)
-  Page<Atividade> findByFiltrosPaginado(
+  Page<Long> findIdsByFiltrosPaginado(
       @Param("cursoId") Long cursoId,
       @Param("categoriaId") Long categoriaId,
       @Param("nome") String nome,
@@ -111,6 +129,194 @@ public interface AtividadeRepository extends JpaRepository<Atividade, Long> {
       @Param("statusPublicacao") Boolean statusPublicacao,
       Pageable pageable);
 
+  // Paginação por cursor dos filtros acima, sem consulta de contagem. Para cada ordenação
+  // suportada, (nome, id) crescente e (dataRealizacao, id) decrescente, há uma consulta da
+  // primeira página e outra das seguintes, cujo predicado abre com a faixa da chave ordenada
+  // para o índice composto da entidade limitar a leitura a partir do cursor.
+  @Query("""
+          SELECT a.id FROM Atividade a
+          WHERE (:cursoId IS NULL OR a.curso.id = :cursoId)
+            AND (:categoriaId IS NULL OR a.categoria.id = :categoriaId)
+            AND (:nome IS NULL OR :nome = '' OR LOWER(a.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
+            AND (:dataInicio IS NULL OR 
+                 (a.dataFim IS NULL AND a.dataRealizacao >= :dataInicio) OR
+                 (a.dataFim IS NOT NULL AND a.dataFim >= :dataInicio))
+            AND (:dataFim IS NULL OR 
+                 (a.dataFim IS NULL AND a.dataRealizacao <= :dataFim) OR
+                 (a.dataFim IS NOT NULL AND a.dataFim <= :dataFim))
+            AND (:statusPublicacao IS NULL OR a.statusPublicacao = :statusPublicacao)
+          ORDER BY a.nome ASC, a.id ASC
+      """)
+  List<Long> findIdsPrimeiraPaginaOrderByNome(
+      @Param("cursoId") Long cursoId,
+      @Param("categoriaId") Long categoriaId,
+      @Param("nome") String nome,
+      @Param("dataInicio") LocalDate dataInicio,
+      @Param("dataFim") LocalDate dataFim,
+      @Param("statusPublicacao") Boolean statusPublicacao,
+      Limit limit);
+
+  @Query("""
+          SELECT a.id FROM Atividade a
+          WHERE (:cursoId IS NULL OR a.curso.id = :cursoId)
+            AND (:categoriaId IS NULL OR a.categoria.id = :categoriaId)
+            AND (:nome IS NULL OR :nome = '' OR LOWER(a.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
+            AND (:dataInicio IS NULL OR 
+                 (a.dataFim IS NULL AND a.dataRealizacao >= :dataInicio) OR
+                 (a.dataFim IS NOT NULL AND a.dataFim >= :dataInicio))
+            AND (:dataFim IS NULL OR 
+                 (a.dataFim IS NULL AND a.dataRealizacao <= :dataFim) OR
+                 (a.dataFim IS NOT NULL AND a.dataFim <= :dataFim))
+            AND (:statusPublicacao IS NULL OR a.statusPublicacao = :statusPublicacao)
+            AND a.nome >= :ultimoNome
+            AND (a.nome > :ultimoNome OR a.id > :ultimoId)
+          ORDER BY a.nome ASC, a.id ASC
+      """)
+  List<Long> findIdsPorCursorOrderByNome(
+      @Param("cursoId") Long cursoId,
+      @Param("categoriaId") Long categoriaId,
+      @Param("nome") String nome,
+      @Param("dataInicio") LocalDate dataInicio,
+      @Param("dataFim") LocalDate dataFim,
+      @Param("statusPublicacao") Boolean statusPublicacao,
+      @Param("ultimoNome") String ultimoNome,
+      @Param("ultimoId") Long ultimoId,
+      Limit limit);
+
+  @Query("""
+          SELECT a.id FROM Atividade a
+          WHERE (:cursoId IS NULL OR a.curso.id = :cursoId)
+            AND (:categoriaId IS NULL OR a.categoria.id = :categoriaId)
+            AND (:nome IS NULL OR :nome = '' OR LOWER(a.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
+            AND (:dataInicio IS NULL OR 
+                 (a.dataFim IS NULL AND a.dataRealizacao >= :dataInicio) OR
+                 (a.dataFim IS NOT NULL AND a.dataFim >= :dataInicio))
+            AND (:dataFim IS NULL OR 
+                 (a.dataFim IS NULL AND a.dataRealizacao <= :dataFim) OR
+                 (a.dataFim IS NOT NULL AND a.dataFim <= :dataFim))
+            AND (:statusPublicacao IS NULL OR a.statusPublicacao = :statusPublicacao)
+          ORDER BY a.dataRealizacao DESC, a.id DESC
+      """)
+  List<Long> findIdsPrimeiraPaginaOrderByDataRealizacaoDesc(
+      @Param("cursoId") Long cursoId,
+      @Param("categoriaId") Long categoriaId,
+      @Param("nome") String nome,
+      @Param("dataInicio") LocalDate dataInicio,
+      @Param("dataFim") LocalDate dataFim,
+      @Param("statusPublicacao") Boolean statusPublicacao,
+      Limit limit);
+
+  @Query("""
+          SELECT a.id FROM Atividade a
+          WHERE (:cursoId IS NULL OR a.curso.id = :cursoId)
+            AND (:categoriaId IS NULL OR a.categoria.id = :categoriaId)
+            AND (:nome IS NULL OR :nome = '' OR LOWER(a.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
+            AND (:dataInicio IS NULL OR 
+                 (a.dataFim IS NULL AND a.dataRealizacao >= :dataInicio) OR
+                 (a.dataFim IS NOT NULL AND a.dataFim >= :dataInicio))
+            AND (:dataFim IS NULL OR 
+                 (a.dataFim IS NULL AND a.dataRealizacao <= :dataFim) OR
+                 (a.dataFim IS NOT NULL AND a.dataFim <= :dataFim))
+            AND (:statusPublicacao IS NULL OR a.statusPublicacao = :statusPublicacao)
+            AND a.dataRealizacao <= :ultimaData
+            AND (a.dataRealizacao < :ultimaData OR a.id < :ultimoId)
+          ORDER BY a.dataRealizacao DESC, a.id DESC
+      """)
+  List<Long> findIdsPorCursorOrderByDataRealizacaoDesc(
+      @Param("cursoId") Long cursoId,
+      @Param("categoriaId") Long categoriaId,
+      @Param("nome") String nome,
+      @Param("dataInicio") LocalDate dataInicio,
+      @Param("dataFim") LocalDate dataFim,
+      @Param("statusPublicacao") Boolean statusPublicacao,
+      @Param("ultimaData") LocalDate ultimaData,
+      @Param("ultimoId") Long ultimoId,
+      Limit limit);
+
   long countByCategoriaId(Long categoriaId);
 
+  // Índice de busca: colunas id, nome, objetivo, publicoAlvo, id do curso (em lotes por id)
+  @Query("""
+      SELECT a.id, a.nome, a.objetivo, a.publicoAlvo, a.curso.id
+      FROM Atividade a
+      WHERE a.id > :ultimoId
+      ORDER BY a.id ASC
+      """)
+  List<Object[]> findDadosBuscaApos(@Param("ultimoId") Long ultimoId, Limit limit);
+
+  @Query("SELECT a.id, a.nome, a.objetivo, a.publicoAlvo, a.curso.id FROM Atividade a WHERE a.id = :id")
+  List<Object[]> findDadosBuscaById(@Param("id") Long id);
+
+  // Dashboard: contagens por curso para reconstruir o snapshot de métricas.
+  // Colunas: id do curso, total, publicadas e finalizadas (dataFim anterior a hoje).
+  @Query("""
+      SELECT a.curso.id,
+             COUNT(a),
+             COALESCE(SUM(CASE WHEN a.statusPublicacao = true THEN 1 ELSE 0 END), 0),
+             COALESCE(SUM(CASE WHEN a.dataFim IS NOT NULL AND a.dataFim < :hoje THEN 1 ELSE 0 END), 0)
+      FROM Atividade a
+      WHERE a.curso.id IN :cursoIds
+      GROUP BY a.curso.id
+      """)
+  List<Object[]> resumirPorCurso(@Param("cursoIds") Collection<Long> cursoIds,
+      @Param("hoje") LocalDate hoje);
+
+  // Dashboard: colunas id do curso, id da categoria, quantidade de atividades
+  @Query("""
+      SELECT a.curso.id, a.categoria.id, COUNT(a)
+      FROM Atividade a
+      WHERE a.curso.id IN :cursoIds
+        AND a.categoria IS NOT NULL
+      GROUP BY a.curso.id, a.categoria.id
+      """)
+  List<Object[]> contarPorCursoECategoria(@Param("cursoIds") Collection<Long> cursoIds);
+
+  // Dashboard: colunas id do curso, ano, mês, realizadas e publicadas no mês
+  @Query("""
+      SELECT a.curso.id,
+             EXTRACT(YEAR FROM a.dataRealizacao),
+             EXTRACT(MONTH FROM a.dataRealizacao),
+             COUNT(a),
+             COALESCE(SUM(CASE WHEN a.statusPublicacao = true THEN 1 ELSE 0 END), 0)
+      FROM Atividade a
+      WHERE a.curso.id IN :cursoIds
+      GROUP BY a.curso.id, EXTRACT(YEAR FROM a.dataRealizacao), EXTRACT(MONTH FROM a.dataRealizacao)
+      """)
+  List<Object[]> contarPorCursoEMes(@Param("cursoIds") Collection<Long> cursoIds);
+
+  // Dashboard: fontes financiadoras distintas usadas pelas atividades dos cursos
+  @Query("""
+      SELECT COUNT(DISTINCT f.id)
+      FROM Atividade a
+      JOIN a.fontesFinanciadora f
+      WHERE a.curso.id IN :cursoIds
+      """)
+  long countFontesFinanciadorasDistintasByCursoIds(@Param("cursoIds") List<Long> cursoIds);
+
+  @Query("""
+      SELECT COUNT(DISTINCT f.id)
+      FROM Atividade a
+      JOIN a.fontesFinanciadora f
+      WHERE a.curso.id IN :cursoIds
+        AND f.createdAt < :data
+      """)
+  long countFontesFinanciadorasDistintasCriadasAntesByCursoIds(@Param("cursoIds") List<Long> cursoIds,
+      @Param("data") LocalDateTime data);
+
+  // Dashboard: atividades mais recentes (nome, dataRealizacao, statusPublicacao)
+  @Query("""
+      SELECT a.nome, a.dataRealizacao, a.statusPublicacao
+      FROM Atividade a
+      ORDER BY a.dataRealizacao DESC, a.id ASC
+      """)
+  List<Object[]> findResumoRecentes(Pageable pageable);
+
+  @Query("""
+      SELECT a.nome, a.dataRealizacao, a.statusPublicacao
+      FROM Atividade a
+      WHERE a.curso.id IN :cursoIds
+      ORDER BY a.dataRealizacao DESC, a.id ASC
+      """)
+  List<Object[]> findResumoRecentesByCursoIds(@Param("cursoIds") List<Long> cursoIds, Pageable pageable);
+
 }
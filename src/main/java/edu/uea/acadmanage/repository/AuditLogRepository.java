@@ -1,9 +1,11 @@
 package edu.uea.acadmanage.repository;
 
 import edu.uea.acadmanage.model.AuditLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,6 +27,20 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
                                     @Param("endDate") LocalDateTime endDate, 
                                     Pageable pageable);
     
+    // Paginação por cursor: mais recentes primeiro, a partir do último (timestamp, id) entregue.
+    // A primeira página tem consulta própria e o predicado das seguintes começa pela faixa
+    // "timestamp <= :ultimoTimestamp", que o índice (timestamp, id) percorre sem filtrar linha a linha.
+    @Query("SELECT a FROM AuditLog a ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPrimeiraPagina(Limit limit);
+
+    @Query("SELECT a FROM AuditLog a WHERE " +
+           "a.timestamp <= :ultimoTimestamp " +
+           "AND (a.timestamp < :ultimoTimestamp OR a.id < :ultimoId) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPaginaPorCursor(@Param("ultimoTimestamp") LocalDateTime ultimoTimestamp,
+                                       @Param("ultimoId") Long ultimoId,
+                                       Limit limit);
+
     @Query("SELECT a FROM AuditLog a WHERE a.entityName = :entityName " +
            "AND a.entityId = :entityId ORDER BY a.timestamp DESC")
     List<AuditLog> findHistoryByEntity(@Param("entityName") String entityName, 
@@ -50,5 +66,32 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
                                     @Param("entityId") Long entityId,
                                     @Param("startDate") LocalDateTime startDate,
                                     @Param("endDate") LocalDateTime endDate);
-}
 
+    @Query("SELECT MIN(a.timestamp) FROM AuditLog a")
+    LocalDateTime findPrimeiroTimestamp();
+
+    @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.timestamp >= :inicio AND a.timestamp < :fim")
+    long contarPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    // Colunas: usuário, entidade, ação e total de registros no período
+    @Query("SELECT a.userEmail, a.entityName, a.action, COUNT(a) FROM AuditLog a " +
+           "WHERE a.timestamp >= :inicio AND a.timestamp < :fim " +
+           "GROUP BY a.userEmail, a.entityName, a.action")
+    List<Object[]> resumirPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    // Registros do período em páginas (mais recentes primeiro), para o arquivamento
+    @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :inicio AND a.timestamp < :fim " +
+           "AND (:ultimoTimestamp IS NULL " +
+           "OR a.timestamp < :ultimoTimestamp " +
+           "OR (a.timestamp = :ultimoTimestamp AND a.id < :ultimoId)) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPeriodoPorCursor(@Param("inicio") LocalDateTime inicio,
+                                        @Param("fim") LocalDateTime fim,
+                                        @Param("ultimoTimestamp") LocalDateTime ultimoTimestamp,
+                                        @Param("ultimoId") Long ultimoId,
+                                        Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM AuditLog a WHERE a.timestamp >= :inicio AND a.timestamp < :fim")
+    int deleteByPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+}
@@ -1,7 +1,12 @@
 package edu.uea.acadmanage.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -38,6 +43,48 @@ public interface CursoRepository extends JpaRepository<Curso, Long> {
             @Param("unidadeId") Long unidadeId,
             Pageable pageable);
 
+    // Índice de busca: colunas id, nome, descricao (em lotes por id)
+    @Query("SELECT c.id, c.nome, c.descricao FROM Curso c WHERE c.id > :ultimoId ORDER BY c.id ASC")
+    List<Object[]> findDadosBuscaApos(@Param("ultimoId") Long ultimoId, Limit limit);
+
+    @Query("SELECT c.id, c.nome, c.descricao FROM Curso c WHERE c.id = :id")
+    List<Object[]> findDadosBuscaById(@Param("id") Long id);
+
+    // Paginação por cursor dos filtros acima: ordem (nome, id), a partir do último item entregue.
+    // A primeira página não tem predicado de cursor; nas seguintes a faixa "nome >= :ultimoNome"
+    // vem primeiro para o índice (nome, id) começar a leitura no cursor.
+    @Query("""
+            SELECT c FROM Curso c
+            WHERE (:ativo IS NULL OR c.ativo = :ativo)
+              AND (:nome IS NULL OR :nome = '' OR LOWER(c.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
+              AND (:tipoId IS NULL OR c.tipoCurso.id = :tipoId)
+              AND (:unidadeId IS NULL OR c.unidadeAcademica.id = :unidadeId)
+            ORDER BY c.nome ASC, c.id ASC
+            """)
+    List<Curso> findPrimeiraPaginaByFiltros(@Param("ativo") Boolean ativo,
+            @Param("nome") String nome,
+            @Param("tipoId") Long tipoId,
+            @Param("unidadeId") Long unidadeId,
+            Limit limit);
+
+    @Query("""
+            SELECT c FROM Curso c
+            WHERE (:ativo IS NULL OR c.ativo = :ativo)
+              AND (:nome IS NULL OR :nome = '' OR LOWER(c.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
+              AND (:tipoId IS NULL OR c.tipoCurso.id = :tipoId)
+              AND (:unidadeId IS NULL OR c.unidadeAcademica.id = :unidadeId)
+              AND c.nome >= :ultimoNome
+              AND (c.nome > :ultimoNome OR c.id > :ultimoId)
+            ORDER BY c.nome ASC, c.id ASC
+            """)
+    List<Curso> findPaginaPorCursorByFiltros(@Param("ativo") Boolean ativo,
+            @Param("nome") String nome,
+            @Param("tipoId") Long tipoId,
+            @Param("unidadeId") Long unidadeId,
+            @Param("ultimoNome") String ultimoNome,
+            @Param("ultimoId") Long ultimoId,
+            Limit limit);
+
     @Query("""
             SELECT DISTINCT c FROM Curso c
             JOIN c.usuarios u
@@ -54,4 +101,33 @@ public interface CursoRepository extends JpaRepository<Curso, Long> {
             @Param("unidadeId") Long unidadeId,
             Pageable pageable);
 
+    // Dashboard: usuários distintos associados aos cursos
+    @Query("SELECT COUNT(DISTINCT u.id) FROM Curso c JOIN c.usuarios u WHERE c.id IN :cursoIds")
+    long countUsuariosDistintosByCursoIds(@Param("cursoIds") List<Long> cursoIds);
+
+    // Dashboard: pessoas distintas (via usuários) associadas aos cursos
+    @Query("SELECT COUNT(DISTINCT u.pessoa.id) FROM Curso c JOIN c.usuarios u WHERE c.id IN :cursoIds")
+    long countPessoasDistintasByCursoIds(@Param("cursoIds") List<Long> cursoIds);
+
+    @Query("SELECT COUNT(DISTINCT u.id) FROM Curso c JOIN c.usuarios u WHERE c.id IN :cursoIds AND u.createdAt < :data")
+    long countUsuariosDistintosCriadosAntesByCursoIds(@Param("cursoIds") List<Long> cursoIds,
+            @Param("data") Date data);
+
+    @Query("SELECT COUNT(DISTINCT u.pessoa.id) FROM Curso c JOIN c.usuarios u WHERE c.id IN :cursoIds AND u.pessoa.createdAt < :data")
+    long countPessoasDistintasCriadasAntesByCursoIds(@Param("cursoIds") List<Long> cursoIds,
+            @Param("data") LocalDateTime data);
+
+    @Query("SELECT c.id FROM Curso c")
+    List<Long> findAllIds();
+
+    @Query("SELECT u.id FROM Curso c JOIN c.usuarios u WHERE c.id = :cursoId")
+    List<Long> findUsuarioIdsByCursoId(@Param("cursoId") Long cursoId);
+
+    // Dashboard: id, data de criação e quantidade de usuários de cada curso
+    @Query("SELECT c.id, c.createdAt, SIZE(c.usuarios) FROM Curso c WHERE c.id IN :cursoIds")
+    List<Object[]> resumirParaMetricas(@Param("cursoIds") Collection<Long> cursoIds);
+
+    @Query("SELECT SIZE(c.usuarios) FROM Curso c WHERE c.id = :cursoId")
+    Optional<Integer> countUsuariosByCursoId(@Param("cursoId") Long cursoId);
+
 }
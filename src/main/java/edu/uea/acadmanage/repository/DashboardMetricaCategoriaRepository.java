@@ -0,0 +1,52 @@
+package edu.uea.acadmanage.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import edu.uea.acadmanage.model.DashboardMetricaCategoria;
+
+@Repository
+public interface DashboardMetricaCategoriaRepository extends JpaRepository<DashboardMetricaCategoria, Long> {
+
+    @Modifying
+    @Query("""
+            UPDATE DashboardMetricaCategoria m
+            SET m.quantidade = m.quantidade + :delta
+            WHERE m.cursoId = :cursoId AND m.categoriaId = :categoriaId
+            """)
+    int incrementar(@Param("cursoId") Long cursoId,
+            @Param("categoriaId") Long categoriaId,
+            @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM DashboardMetricaCategoria m WHERE m.cursoId IN :cursoIds")
+    int deleteByCursoIds(@Param("cursoIds") Collection<Long> cursoIds);
+
+    @Modifying
+    @Query("DELETE FROM DashboardMetricaCategoria m WHERE m.cursoId NOT IN (SELECT c.id FROM Curso c)")
+    int deleteOrfaos();
+
+    // Colunas: nome da categoria, quantidade de atividades
+    @Query("""
+            SELECT c.nome, SUM(m.quantidade)
+            FROM DashboardMetricaCategoria m
+            JOIN Categoria c ON c.id = m.categoriaId
+            GROUP BY c.nome
+            """)
+    List<Object[]> somarPorCategoria();
+
+    @Query("""
+            SELECT c.nome, SUM(m.quantidade)
+            FROM DashboardMetricaCategoria m
+            JOIN Categoria c ON c.id = m.categoriaId
+            WHERE m.cursoId IN :cursoIds
+            GROUP BY c.nome
+            """)
+    List<Object[]> somarPorCategoriaPorCursoIds(@Param("cursoIds") Collection<Long> cursoIds);
+}
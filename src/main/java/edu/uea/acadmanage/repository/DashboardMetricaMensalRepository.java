@@ -0,0 +1,54 @@
+package edu.uea.acadmanage.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import edu.uea.acadmanage.model.DashboardMetricaMensal;
+
+@Repository
+public interface DashboardMetricaMensalRepository extends JpaRepository<DashboardMetricaMensal, Long> {
+
+    @Modifying
+    @Query("""
+            UPDATE DashboardMetricaMensal m
+            SET m.realizadas = m.realizadas + :realizadas,
+                m.publicadas = m.publicadas + :publicadas
+            WHERE m.cursoId = :cursoId AND m.competencia = :competencia
+            """)
+    int incrementar(@Param("cursoId") Long cursoId,
+            @Param("competencia") LocalDate competencia,
+            @Param("realizadas") long realizadas,
+            @Param("publicadas") long publicadas);
+
+    @Modifying
+    @Query("DELETE FROM DashboardMetricaMensal m WHERE m.cursoId IN :cursoIds")
+    int deleteByCursoIds(@Param("cursoIds") Collection<Long> cursoIds);
+
+    @Modifying
+    @Query("DELETE FROM DashboardMetricaMensal m WHERE m.cursoId NOT IN (SELECT c.id FROM Curso c)")
+    int deleteOrfaos();
+
+    // Colunas: atividades realizadas e publicadas em meses anteriores à competência informada
+    @Query("""
+            SELECT COALESCE(SUM(m.realizadas), 0), COALESCE(SUM(m.publicadas), 0)
+            FROM DashboardMetricaMensal m
+            WHERE m.competencia < :competencia
+            """)
+    List<Object[]> somarAntesDe(@Param("competencia") LocalDate competencia);
+
+    @Query("""
+            SELECT COALESCE(SUM(m.realizadas), 0), COALESCE(SUM(m.publicadas), 0)
+            FROM DashboardMetricaMensal m
+            WHERE m.competencia < :competencia
+              AND m.cursoId IN :cursoIds
+            """)
+    List<Object[]> somarAntesDePorCursoIds(@Param("cursoIds") Collection<Long> cursoIds,
+            @Param("competencia") LocalDate competencia);
+}
@@ -0,0 +1,101 @@
+package edu.uea.acadmanage.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import edu.uea.acadmanage.model.DashboardMetrica;
+
+@Repository
+public interface DashboardMetricaRepository extends JpaRepository<DashboardMetrica, Long> {
+
+    @Query("SELECT m.cursoId FROM DashboardMetrica m WHERE m.dataReferencia = :dataReferencia")
+    List<Long> findCursoIdsAtualizados(@Param("dataReferencia") LocalDate dataReferencia);
+
+    @Query("""
+            SELECT m.cursoId FROM DashboardMetrica m
+            WHERE m.dataReferencia = :dataReferencia
+              AND m.cursoId IN :cursoIds
+            """)
+    List<Long> findCursoIdsAtualizadosIn(@Param("cursoIds") Collection<Long> cursoIds,
+            @Param("dataReferencia") LocalDate dataReferencia);
+
+    // Aplica uma variação atômica aos contadores de atividades de um curso
+    @Modifying
+    @Query("""
+            UPDATE DashboardMetrica m
+            SET m.totalAtividades = m.totalAtividades + :total,
+                m.atividadesPublicadas = m.atividadesPublicadas + :publicadas,
+                m.atividadesFinalizadas = m.atividadesFinalizadas + :finalizadas,
+                m.atualizadoEm = :agora
+            WHERE m.cursoId = :cursoId
+            """)
+    int incrementarAtividades(@Param("cursoId") Long cursoId,
+            @Param("total") long total,
+            @Param("publicadas") long publicadas,
+            @Param("finalizadas") long finalizadas,
+            @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("""
+            UPDATE DashboardMetrica m
+            SET m.totalUsuarios = :totalUsuarios, m.atualizadoEm = :agora
+            WHERE m.cursoId = :cursoId
+            """)
+    int atualizarTotalUsuarios(@Param("cursoId") Long cursoId,
+            @Param("totalUsuarios") long totalUsuarios,
+            @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("DELETE FROM DashboardMetrica m WHERE m.cursoId NOT IN (SELECT c.id FROM Curso c)")
+    int deleteOrfaos();
+
+    // Colunas: total de atividades, publicadas, finalizadas
+    @Query("""
+            SELECT COALESCE(SUM(m.totalAtividades), 0),
+                   COALESCE(SUM(m.atividadesPublicadas), 0),
+                   COALESCE(SUM(m.atividadesFinalizadas), 0)
+            FROM DashboardMetrica m
+            """)
+    List<Object[]> somarAtividades();
+
+    @Query("""
+            SELECT COALESCE(SUM(m.totalAtividades), 0),
+                   COALESCE(SUM(m.atividadesPublicadas), 0),
+                   COALESCE(SUM(m.atividadesFinalizadas), 0)
+            FROM DashboardMetrica m
+            WHERE m.cursoId IN :cursoIds
+            """)
+    List<Object[]> somarAtividadesPorCursoIds(@Param("cursoIds") Collection<Long> cursoIds);
+
+    @Query("SELECT COUNT(m) FROM DashboardMetrica m WHERE m.cursoCriadoEm < :data")
+    long countCursosCriadosAntes(@Param("data") LocalDateTime data);
+
+    @Query("SELECT COUNT(m) FROM DashboardMetrica m WHERE m.cursoCriadoEm < :data AND m.cursoId IN :cursoIds")
+    long countCursosCriadosAntesPorCursoIds(@Param("cursoIds") Collection<Long> cursoIds,
+            @Param("data") LocalDateTime data);
+
+    // Colunas: id do curso, nome, quantidade de atividades, quantidade de usuários
+    @Query("""
+            SELECT m.cursoId, c.nome, m.totalAtividades, m.totalUsuarios
+            FROM DashboardMetrica m
+            JOIN Curso c ON c.id = m.cursoId
+            ORDER BY m.cursoId ASC
+            """)
+    List<Object[]> findCursosDestaque();
+
+    @Query("""
+            SELECT m.cursoId, c.nome, m.totalAtividades, m.totalUsuarios
+            FROM DashboardMetrica m
+            JOIN Curso c ON c.id = m.cursoId
+            WHERE m.cursoId IN :cursoIds
+            """)
+    List<Object[]> findCursosDestaquePorCursoIds(@Param("cursoIds") Collection<Long> cursoIds);
+}
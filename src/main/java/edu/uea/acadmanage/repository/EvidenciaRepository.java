@@ -2,7 +2,9 @@ package edu.uea.acadmanage.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -20,4 +22,26 @@ public interface EvidenciaRepository extends JpaRepository<Evidencia, Long> {
         ORDER BY e.atividade.id ASC, e.ordem ASC, e.id ASC
         """)
     List<Evidencia> findByAtividadeIdsOrderByAtividadeAndOrdem(@Param("atividadeIds") List<Long> atividadeIds);
+
+    // [id, urlFoto] das evidências sem dimensões gravadas, em ordem de id a partir do cursor
+    @Query("""
+        SELECT e.id, e.urlFoto FROM Evidencia e
+        WHERE e.largura IS NULL AND e.id > :ultimoId
+        ORDER BY e.id ASC
+        """)
+    List<Object[]> findSemDimensoesPorCursor(@Param("ultimoId") Long ultimoId, Limit limit);
+
+    // Atualização direta: não altera os campos de auditoria da evidência. Só grava se a foto
+    // lida ainda for a da evidência e ninguém tiver gravado as dimensões nesse meio tempo
+    @Modifying
+    @Query("""
+        UPDATE Evidencia e
+        SET e.largura = :largura, e.altura = :altura, e.orientacaoExif = :orientacaoExif
+        WHERE e.id = :id AND e.largura IS NULL AND e.urlFoto = :urlFoto
+        """)
+    int atualizarDimensoes(@Param("id") Long id,
+                           @Param("urlFoto") String urlFoto,
+                           @Param("largura") Integer largura,
+                           @Param("altura") Integer altura,
+                           @Param("orientacaoExif") Integer orientacaoExif);
 }
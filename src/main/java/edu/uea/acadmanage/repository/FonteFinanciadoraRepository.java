@@ -1,8 +1,12 @@
 package edu.uea.acadmanage.repository;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import edu.uea.acadmanage.model.FonteFinanciadora;
 
 public interface FonteFinanciadoraRepository extends JpaRepository<FonteFinanciadora, Long> {
+
+    long countByCreatedAtBefore(LocalDateTime data);
 }
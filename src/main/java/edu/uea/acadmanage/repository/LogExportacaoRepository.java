@@ -0,0 +1,169 @@
+package edu.uea.acadmanage.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.uea.acadmanage.DTO.ActionLogFilterDTO;
+import edu.uea.acadmanage.DTO.AuditLogFilterDTO;
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+
+/**
+ * Leitura dos logs de auditoria e de ação para exportação, com os mesmos filtros de
+ * {@code findWithFilters}. As linhas são percorridas por um cursor JDBC somente-avanço, com
+ * {@code fetchSize} limitado, e entregues uma a uma: nada passa pelo contexto de persistência
+ * e a memória usada não cresce com o número de registros.
+ *
+ * <p>A leitura roda em uma transação somente-leitura: no PostgreSQL o {@code fetchSize} só
+ * vale com o autocommit desligado. No MySQL o driver só traz as linhas aos poucos com
+ * {@code Integer.MIN_VALUE}.
+ */
+@Repository
+public class LogExportacaoRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_AUDIT_LOG = """
+            SELECT id, entity_name, entity_id, action, user_email, timestamp, old_values, new_values, alteracoes,
+                   description, ip_address, user_agent, endpoint, http_method
+            FROM audit_log""";
+
+    private static final String SELECT_ACTION_LOG = """
+            SELECT id, action_type, user_email, timestamp, description, ip_address, user_agent, endpoint, success,
+                   error_message, metadata
+            FROM action_log""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LogExportacaoRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Percorre os logs de auditoria do filtro, do mais recente para o mais antigo.
+     */
+    public void percorrerAuditLogs(AuditLogFilterDTO filtro, Consumer<AuditLog> consumidor) {
+        Consulta consulta = new Consulta(SELECT_AUDIT_LOG);
+        consulta.contem("user_email", filtro.userEmail());
+        consulta.igual("action", filtro.action() != null ? filtro.action().name() : null);
+        consulta.contem("entity_name", filtro.entityName());
+        consulta.igual("entity_id", filtro.entityId());
+        consulta.periodo(filtro.startDate(), filtro.endDate());
+        percorrer(consulta, rs -> consumidor.accept(auditLog(rs)));
+    }
+
+    /**
+     * Percorre os logs de ação do filtro, do mais recente para o mais antigo.
+     */
+    public void percorrerActionLogs(ActionLogFilterDTO filtro, Consumer<ActionLog> consumidor) {
+        Consulta consulta = new Consulta(SELECT_ACTION_LOG);
+        consulta.contem("user_email", filtro.userEmail());
+        consulta.igual("action_type", filtro.actionType() != null ? filtro.actionType().name() : null);
+        consulta.igual("success", filtro.success());
+        consulta.periodo(filtro.startDate(), filtro.endDate());
+        percorrer(consulta, rs -> consumidor.accept(actionLog(rs)));
+    }
+
+    private void percorrer(Consulta consulta, RowCallbackHandler linha) {
+        String sql = consulta.sql + " ORDER BY timestamp DESC, id DESC";
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(isMySql(con) ? Integer.MIN_VALUE : FETCH_SIZE);
+            for (int i = 0; i < consulta.parametros.size(); i++) {
+                ps.setObject(i + 1, consulta.parametros.get(i));
+            }
+            return ps;
+        }, linha));
+    }
+
+    private static boolean isMySql(Connection con) throws SQLException {
+        return con.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+    }
+
+    private static AuditLog auditLog(ResultSet rs) throws SQLException {
+        AuditLog log = new AuditLog();
+        log.setId(rs.getLong("id"));
+        log.setEntityName(rs.getString("entity_name"));
+        log.setEntityId(rs.getLong("entity_id"));
+        log.setAction(AuditLog.AuditAction.valueOf(rs.getString("action")));
+        log.setUserEmail(rs.getString("user_email"));
+        log.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        log.setOldValues(rs.getString("old_values"));
+        log.setNewValues(rs.getString("new_values"));
+        log.setAlteracoes(rs.getString("alteracoes"));
+        log.setDescription(rs.getString("description"));
+        log.setIpAddress(rs.getString("ip_address"));
+        log.setUserAgent(rs.getString("user_agent"));
+        log.setEndpoint(rs.getString("endpoint"));
+        log.setHttpMethod(rs.getString("http_method"));
+        return log;
+    }
+
+    private static ActionLog actionLog(ResultSet rs) throws SQLException {
+        ActionLog log = new ActionLog();
+        log.setId(rs.getLong("id"));
+        log.setActionType(ActionLog.ActionType.valueOf(rs.getString("action_type")));
+        log.setUserEmail(rs.getString("user_email"));
+        log.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        log.setDescription(rs.getString("description"));
+        log.setIpAddress(rs.getString("ip_address"));
+        log.setUserAgent(rs.getString("user_agent"));
+        log.setEndpoint(rs.getString("endpoint"));
+        log.setSuccess(rs.getBoolean("success"));
+        log.setErrorMessage(rs.getString("error_message"));
+        log.setMetadata(rs.getString("metadata"));
+        return log;
+    }
+
+    // WHERE montado só com os filtros informados, para que os índices possam ser usados
+    private static final class Consulta {
+
+        private final StringBuilder sql;
+        private final List<Object> parametros = new ArrayList<>();
+
+        private Consulta(String select) {
+            this.sql = new StringBuilder(select).append(" WHERE 1 = 1");
+        }
+
+        private void contem(String coluna, String trecho) {
+            if (trecho != null) {
+                sql.append(" AND LOWER(").append(coluna).append(") LIKE ?");
+                parametros.add("%" + trecho.toLowerCase() + "%");
+            }
+        }
+
+        private void igual(String coluna, Object valor) {
+            if (valor != null) {
+                sql.append(" AND ").append(coluna).append(" = ?");
+                parametros.add(valor);
+            }
+        }
+
+        private void periodo(LocalDateTime inicio, LocalDateTime fim) {
+            if (inicio != null) {
+                sql.append(" AND timestamp >= ?");
+                parametros.add(Timestamp.valueOf(inicio));
+            }
+            if (fim != null) {
+                sql.append(" AND timestamp <= ?");
+                parametros.add(Timestamp.valueOf(fim));
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package edu.uea.acadmanage.repository;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+
+/**
+ * Inserção em lote dos logs de auditoria e de ação. O Hibernate não agrupa inserts de
+ * entidades com id IDENTITY, por isso os lotes são gravados direto via JDBC. Registros cujo
+ * {@code eventoId} já está no banco (reenvio do spool) são ignorados.
+ *
+ * <p>A transação é explícita (e não {@code @Transactional}) para que este bean dependa do
+ * gerenciador de transações e ainda possa gravar o último lote durante o desligamento.
+ */
+@Repository
+public class LogLoteRepository {
+
+    private static final String INSERT_AUDIT_LOG = """
+            INSERT INTO audit_log (entity_name, entity_id, action, user_email, timestamp, old_values, new_values,
+                                   alteracoes, description, ip_address, user_agent, endpoint, http_method, evento_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String INSERT_ACTION_LOG = """
+            INSERT INTO action_log (action_type, user_email, timestamp, description, ip_address, user_agent,
+                                    endpoint, success, error_message, metadata, evento_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LogLoteRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void gravar(List<AuditLog> auditLogs, List<ActionLog> actionLogs) {
+        transactionTemplate.executeWithoutResult(status -> inserir(auditLogs, actionLogs));
+    }
+
+    private void inserir(List<AuditLog> auditLogs, List<ActionLog> actionLogs) {
+        auditLogs = naoGravados("audit_log", auditLogs, AuditLog::getEventoId);
+        actionLogs = naoGravados("action_log", actionLogs, ActionLog::getEventoId);
+        if (!auditLogs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, auditLogs, auditLogs.size(), (ps, log) -> {
+                ps.setString(1, log.getEntityName());
+                ps.setLong(2, log.getEntityId());
+                ps.setString(3, log.getAction().name());
+                ps.setString(4, log.getUserEmail());
+                ps.setTimestamp(5, Timestamp.valueOf(log.getTimestamp()));
+                ps.setString(6, log.getOldValues());
+                ps.setString(7, log.getNewValues());
+                ps.setString(8, log.getAlteracoes());
+                ps.setString(9, log.getDescription());
+                ps.setString(10, log.getIpAddress());
+                ps.setString(11, log.getUserAgent());
+                ps.setString(12, log.getEndpoint());
+                ps.setString(13, log.getHttpMethod());
+                ps.setString(14, log.getEventoId());
+            });
+        }
+        if (!actionLogs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ACTION_LOG, actionLogs, actionLogs.size(), (ps, log) -> {
+                ps.setString(1, log.getActionType().name());
+                ps.setString(2, log.getUserEmail());
+                ps.setTimestamp(3, Timestamp.valueOf(log.getTimestamp()));
+                ps.setString(4, log.getDescription());
+                ps.setString(5, log.getIpAddress());
+                ps.setString(6, log.getUserAgent());
+                ps.setString(7, log.getEndpoint());
+                ps.setBoolean(8, Boolean.TRUE.equals(log.getSuccess()));
+                ps.setString(9, log.getErrorMessage());
+                ps.setString(10, log.getMetadata());
+                ps.setString(11, log.getEventoId());
+            });
+        }
+    }
+
+    private <T> List<T> naoGravados(String tabela, List<T> registros, Function<T, String> eventoId) {
+        List<String> ids = registros.stream().map(eventoId).filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return registros;
+        }
+        String parametros = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Set<String> existentes = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT evento_id FROM " + tabela + " WHERE evento_id IN (" + parametros + ")",
+                String.class, ids.toArray()));
+        if (existentes.isEmpty()) {
+            return registros;
+        }
+        return registros.stream()
+                .filter(registro -> !existentes.contains(eventoId.apply(registro)))
+                .toList();
+    }
+}
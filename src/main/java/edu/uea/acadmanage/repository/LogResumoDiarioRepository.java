@@ -0,0 +1,49 @@
+package edu.uea.acadmanage.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import edu.uea.acadmanage.DTO.LogResumoDTO;
+import edu.uea.acadmanage.model.LogResumoDiario;
+
+@Repository
+public interface LogResumoDiarioRepository extends JpaRepository<LogResumoDiario, Long> {
+
+    @Query("SELECT MAX(r.dia) FROM LogResumoDiario r")
+    LocalDate findUltimoDia();
+
+    // Colunas: dia e total de registros da origem no dia
+    @Query("""
+            SELECT r.dia, SUM(r.total) FROM LogResumoDiario r
+            WHERE r.origem = :origem AND r.dia BETWEEN :inicio AND :fim
+            GROUP BY r.dia
+            """)
+    List<Object[]> totaisPorDia(@Param("origem") LogResumoDiario.Origem origem,
+            @Param("inicio") LocalDate inicio,
+            @Param("fim") LocalDate fim);
+
+    @Modifying
+    @Query("DELETE FROM LogResumoDiario r WHERE r.dia = :dia")
+    int deleteByDia(@Param("dia") LocalDate dia);
+
+    @Query("""
+            SELECT new edu.uea.acadmanage.DTO.LogResumoDTO(r.origem, r.userEmail, r.entidade, r.acao,
+                   SUM(r.total), SUM(r.falhas))
+            FROM LogResumoDiario r
+            WHERE r.dia BETWEEN :inicio AND :fim
+              AND (:origem IS NULL OR r.origem = :origem)
+              AND (:userEmail IS NULL OR r.userEmail = :userEmail)
+            GROUP BY r.origem, r.userEmail, r.entidade, r.acao
+            ORDER BY SUM(r.total) DESC
+            """)
+    List<LogResumoDTO> resumir(@Param("inicio") LocalDate inicio,
+            @Param("fim") LocalDate fim,
+            @Param("origem") LogResumoDiario.Origem origem,
+            @Param("userEmail") String userEmail);
+}
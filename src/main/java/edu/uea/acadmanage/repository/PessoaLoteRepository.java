@@ -0,0 +1,137 @@
+package edu.uea.acadmanage.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import edu.uea.acadmanage.model.Pessoa;
+
+/**
+ * Inserção em lote de pessoas (importação CSV). O Hibernate não agrupa inserts de entidades
+ * com id IDENTITY, por isso cada lote vira um único INSERT com várias linhas em VALUES, sem
+ * depender de opções do driver para reescrever lotes. Deve ser chamada dentro de uma
+ * transação; os campos de auditoria são preenchidos aqui, já que não passam pelo
+ * {@code AuditingEntityListener}.
+ */
+@Repository
+public class PessoaLoteRepository {
+
+    // 6 parâmetros por linha: bem abaixo do limite de parâmetros por comando dos bancos suportados
+    public static final int LINHAS_POR_INSERT = 500;
+
+    private static final String INSERT_PESSOA = """
+            INSERT INTO pessoa (nome, cpf, created_at, created_by, updated_at, updated_by)
+            VALUES """;
+
+    private static final String VALORES = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertCompleto;
+
+    public PessoaLoteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertCompleto = insert(LINHAS_POR_INSERT);
+    }
+
+    public void inserir(List<Pessoa> pessoas, LocalDateTime agora, String usuario) {
+        if (pessoas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(sql(pessoas), parametros(pessoas, agora, usuario));
+    }
+
+    /**
+     * Como {@link #inserir}, retornando os ids gerados na ordem das pessoas (os bancos
+     * suportados devolvem as chaves de um INSERT de várias linhas nessa ordem).
+     */
+    public List<Long> inserirComIds(List<Pessoa> pessoas, LocalDateTime agora, String usuario) {
+        if (pessoas.isEmpty()) {
+            return List.of();
+        }
+        String sql = sql(pessoas);
+        Object[] parametros = parametros(pessoas, agora, usuario);
+        GeneratedKeyHolder chaves = new GeneratedKeyHolder();
+        jdbcTemplate.update(conexao -> {
+            PreparedStatement comando = conexao.prepareStatement(sql, new String[] { "id" });
+            new ArgumentPreparedStatementSetter(parametros).setValues(comando);
+            return comando;
+        }, chaves);
+        // Nome da coluna da chave varia por driver (id, ID, GENERATED_KEY)
+        return chaves.getKeyList().stream()
+                .map(chave -> ((Number) chave.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private String sql(List<Pessoa> pessoas) {
+        if (pessoas.size() > LINHAS_POR_INSERT) {
+            throw new IllegalArgumentException("Lote acima de " + LINHAS_POR_INSERT + " pessoas");
+        }
+        return pessoas.size() == LINHAS_POR_INSERT ? insertCompleto : insert(pessoas.size());
+    }
+
+    private static Object[] parametros(List<Pessoa> pessoas, LocalDateTime agora, String usuario) {
+        Timestamp timestamp = Timestamp.valueOf(agora);
+        List<Object> parametros = new ArrayList<>(pessoas.size() * 6);
+        for (Pessoa pessoa : pessoas) {
+            parametros.add(pessoa.getNome());
+            parametros.add(pessoa.getCpfNormalizado());
+            parametros.add(timestamp);
+            parametros.add(usuario);
+            parametros.add(timestamp);
+            parametros.add(usuario);
+        }
+        return parametros.toArray();
+    }
+
+    /**
+     * Maior id de pessoa cadastrado (0 sem pessoas). As pessoas inseridas depois da consulta
+     * recebem ids maiores, o que permite tratar só as de uma importação.
+     */
+    public long maiorId() {
+        Long maior = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM pessoa", Long.class);
+        return maior == null ? 0 : maior;
+    }
+
+    /**
+     * Id das pessoas com os CPFs informados (normalizados), por CPF. Consulta direta, sem
+     * carregar entidades nem traduzir JPQL com milhares de parâmetros a cada lote.
+     */
+    public Map<String, Long> idsPorCpf(Collection<String> cpfs) {
+        Map<String, Long> ids = new HashMap<>(cpfs.size() * 2);
+        if (cpfs.isEmpty()) {
+            return ids;
+        }
+        String sql = "SELECT cpf, id FROM pessoa WHERE cpf IN (" + marcadores(cpfs.size()) + ")";
+        jdbcTemplate.query(sql, (RowCallbackHandler) linha -> ids.put(linha.getString(1), linha.getLong(2)),
+                cpfs.toArray());
+        return ids;
+    }
+
+    static String marcadores(int quantidade) {
+        StringBuilder marcadores = new StringBuilder(quantidade * 3).append('?');
+        for (int i = 1; i < quantidade; i++) {
+            marcadores.append(", ?");
+        }
+        return marcadores.toString();
+    }
+
+    private static String insert(int linhas) {
+        StringBuilder sql = new StringBuilder(INSERT_PESSOA.length() + linhas * (VALORES.length() + 2))
+                .append(INSERT_PESSOA).append(VALORES);
+        for (int i = 1; i < linhas; i++) {
+            sql.append(", ").append(VALORES);
+        }
+        return sql.toString();
+    }
+}
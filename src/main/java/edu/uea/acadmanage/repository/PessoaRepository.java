@@ -1,11 +1,16 @@
 package edu.uea.acadmanage.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import edu.uea.acadmanage.model.Pessoa;
 
@@ -20,4 +25,43 @@ public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
     List<Pessoa> findByCpfIn(List<String> cpfs);
 
     Page<Pessoa> findByNomeContainingIgnoreCase(String nome, Pageable pageable);
+
+    long countByCreatedAtBefore(LocalDateTime data);
+
+    // Índice de busca: colunas id, nome (em lotes por id). Não carrega o Usuario associado.
+    @Query("SELECT p.id, p.nome FROM Pessoa p WHERE p.id > :ultimoId ORDER BY p.id ASC")
+    List<Object[]> findDadosBuscaApos(@Param("ultimoId") Long ultimoId, Limit limit);
+
+    @Query("SELECT p.id, p.nome FROM Pessoa p WHERE p.id = :id")
+    List<Object[]> findDadosBuscaById(@Param("id") Long id);
+
+    // Ids existentes entre os informados, sem carregar as pessoas (nem o Usuario associado)
+    @Query("SELECT p.id FROM Pessoa p WHERE p.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Cursos do usuário vinculado à pessoa, sem carregar o Usuario (cursos são LAZY)
+    @Query("SELECT c.id FROM Pessoa p JOIN p.usuario u JOIN u.cursos c WHERE p.id = :pessoaId")
+    List<Long> findCursoIdsDoUsuarioByPessoaId(@Param("pessoaId") Long pessoaId);
+
+    // Paginação por cursor: ordem (nome, id), a partir do último item entregue. A primeira
+    // página não tem predicado de cursor; nas seguintes a faixa "nome >= :ultimoNome" vem
+    // primeiro para o índice (nome, id) começar a leitura no cursor.
+    @Query("""
+            SELECT p FROM Pessoa p
+            WHERE (:nome IS NULL OR LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
+            ORDER BY p.nome ASC, p.id ASC
+            """)
+    List<Pessoa> findPrimeiraPagina(@Param("nome") String nome, Limit limit);
+
+    @Query("""
+            SELECT p FROM Pessoa p
+            WHERE (:nome IS NULL OR LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%')))
+              AND p.nome >= :ultimoNome
+              AND (p.nome > :ultimoNome OR p.id > :ultimoId)
+            ORDER BY p.nome ASC, p.id ASC
+            """)
+    List<Pessoa> findPaginaPorCursor(@Param("nome") String nome,
+            @Param("ultimoNome") String ultimoNome,
+            @Param("ultimoId") Long ultimoId,
+            Limit limit);
 }
\ No newline at end of file
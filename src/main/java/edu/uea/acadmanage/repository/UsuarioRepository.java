@@ -1,11 +1,15 @@
 package edu.uea.acadmanage.repository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -13,7 +17,17 @@ import edu.uea.acadmanage.model.Usuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
         
+    // Sem papéis nem cursos (carregados sob demanda)
     Optional<Usuario> findByEmail(String email);
+
+    @EntityGraph(Usuario.GRAFO_AUTENTICACAO)
+    Optional<Usuario> findComRolesByEmail(String email);
+
+    @EntityGraph(Usuario.GRAFO_COMPLETO)
+    Optional<Usuario> findCompletoByEmail(String email);
+
+    @EntityGraph(Usuario.GRAFO_COMPLETO)
+    Optional<Usuario> findCompletoById(Long id);
     boolean existsByEmail(String email);
     boolean existsByEmailAndIdNot(String email, Long id);
     boolean existsByPessoaId(Long pessoaId);
@@ -21,6 +35,29 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     @Query("SELECT u FROM Usuario u JOIN u.roles r WHERE r.nome = :roleName")
     Set<Usuario> findAllByRoleName(@Param("roleName") String roleName);
 
+    @Query("SELECT COUNT(DISTINCT u.id) FROM Usuario u JOIN u.roles r WHERE r.nome = :roleName")
+    long countByRoleName(@Param("roleName") String roleName);
+
+    long countByCreatedAtBefore(Date data);
+
+    // Autorização: id do usuário, da pessoa vinculada e versão das permissões
+    @Query("SELECT u.id, p.id, u.versaoPermissoes FROM Usuario u LEFT JOIN u.pessoa p WHERE u.email = :email")
+    List<Object[]> findIdentificacaoByEmail(@Param("email") String email);
+
+    @Query("SELECT r.nome FROM Usuario u JOIN u.roles r WHERE u.id = :usuarioId")
+    List<String> findRoleNomesByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT c.id FROM Usuario u JOIN u.cursos c WHERE u.id = :usuarioId")
+    List<Long> findCursoIdsByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT u.versaoPermissoes FROM Usuario u WHERE u.email = :email")
+    Optional<Long> findVersaoPermissoesByEmail(@Param("email") String email);
+
+    // Executada na transação que altera papéis ou cursos do usuário
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Usuario u SET u.versaoPermissoes = u.versaoPermissoes + 1 WHERE u.id = :usuarioId")
+    int incrementarVersaoPermissoes(@Param("usuarioId") Long usuarioId);
+
     // Método para buscar usuários por nome (busca parcial, case insensitive)
     @Query("SELECT u FROM Usuario u WHERE LOWER(u.pessoa.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
     Page<Usuario> findByPessoaNomeContainingIgnoreCase(@Param("nome") String nome, Pageable pageable);
@@ -28,13 +28,14 @@ public class BasicSecurityConfig {
             .authorizeHttpRequests(auth -> {
                 auth.requestMatchers("/login", "/logout").permitAll();
                 auth.requestMatchers("/api/recovery/generate/**", "/api/recovery/reset-password/**").permitAll();
-                auth.requestMatchers("/css/**", "/js/**", "/images/**", "/api/files/**").permitAll();
+                auth.requestMatchers("/css/**", "/js/**", "/images/**", "/api/files/**", "/api/imagens/**").permitAll();
                 auth.requestMatchers(HttpMethod.GET,
                     "/api/atividades/**",
                     "/api/cursos/**",
                     "/api/categorias/**",
                     "/api/evidencias/**",
-                    "/api/unidades-academicas/**").permitAll();
+                    "/api/unidades-academicas/**",
+                    "/api/search").permitAll();
                 auth.requestMatchers("/actuator/health", "/actuator/health/**").permitAll();
                 auth.requestMatchers("/actuator/**").authenticated();
                 if (allowH2Console) {
@@ -14,6 +14,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import edu.uea.acadmanage.service.JwtService;
+import edu.uea.acadmanage.service.TokenAutenticacaoCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,15 +27,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenAutenticacaoCache tokenCache;
 
     public JwtAuthenticationFilter(
         JwtService jwtService,
         UserDetailsService userDetailsService,
-        HandlerExceptionResolver handlerExceptionResolver
+        HandlerExceptionResolver handlerExceptionResolver,
+        TokenAutenticacaoCache tokenCache
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -51,18 +56,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (authentication == null) {
+                TokenAutenticacaoCache.Entrada entrada = tokenCache.obter(jwt);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (entrada == null) {
+                    entrada = autenticar(jwt);
+                }
+
+                if (entrada != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            entrada.principal(),
                             null,
-                            userDetails.getAuthorities()
+                            entrada.authorities()
                     );
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -75,4 +83,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
-}
\ No newline at end of file
+
+    // Token fora do cache: verifica assinatura e expiração (uma única vez) e carrega o usuário
+    private TokenAutenticacaoCache.Entrada autenticar(String jwt) {
+        long versao = tokenCache.versao();
+        final Claims claims = jwtService.extractAllClaims(jwt);
+        final String userEmail = claims.getSubject();
+        if (userEmail == null) {
+            return null;
+        }
+
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        return tokenCache.guardar(jwt, userDetails, claims.getExpiration(), versao);
+    }
+}
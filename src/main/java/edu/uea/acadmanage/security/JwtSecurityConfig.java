@@ -18,6 +18,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @Profile("jwt")
 @EnableWebSecurity
@@ -50,6 +52,9 @@ public class JwtSecurityConfig {
                                 .csrf(csrf -> csrf.disable())
                                 .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin()))
                                 .authorizeHttpRequests(auth -> {
+                                        // Retomada de respostas assíncronas (StreamingResponseBody): a requisição
+                                        // já foi autorizada no despacho original, e o token não é relido aqui
+                                        auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                                         auth.requestMatchers("/swagger-ui/**", "/v3/api-docs/**",
                                                         "/v3/api-docs.yaml", "/swagger-resources/**")
                                                         .permitAll();
@@ -58,14 +63,15 @@ public class JwtSecurityConfig {
                                         auth.requestMatchers("/api/recovery/generate/**",
                                                         "/api/recovery/reset-password/**")
                                                         .permitAll();
-                                        auth.requestMatchers("/css/**", "/js/**", "/images/**", "/api/files/**")
+                                        auth.requestMatchers("/css/**", "/js/**", "/images/**", "/api/files/**", "/api/imagens/**")
                                                         .permitAll();
                                         auth.requestMatchers(HttpMethod.GET,
                                                         "/api/atividades/**",
                                                         "/api/cursos/**",
                                                         "/api/categorias/**",
                                                         "/api/evidencias/**",
-                                                        "/api/unidades-academicas/**")
+                                                        "/api/unidades-academicas/**",
+                                                        "/api/search")
                                                         .permitAll();
                                         // Endpoints minimos do Actuator para healthcheck e monitoramento
                                         auth.requestMatchers("/actuator/health", "/actuator/health/**",
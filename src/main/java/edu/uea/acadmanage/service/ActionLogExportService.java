@@ -2,113 +2,184 @@ package edu.uea.acadmanage.service;
 
 import edu.uea.acadmanage.DTO.ActionLogFilterDTO;
 import edu.uea.acadmanage.model.ActionLog;
-import edu.uea.acadmanage.repository.ActionLogRepository;
+import edu.uea.acadmanage.repository.LogExportacaoRepository;
+import edu.uea.acadmanage.service.EscritorParquet.Coluna;
+import edu.uea.acadmanage.service.EscritorParquet.Tipo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class ActionLogExportService {
     
     private static final Logger logger = LoggerFactory.getLogger(ActionLogExportService.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private final ActionLogRepository actionLogRepository;
+    private static final int LINHAS_POR_FLUSH = 1000;
     
-    public ActionLogExportService(ActionLogRepository actionLogRepository) {
-        this.actionLogRepository = actionLogRepository;
+    private static final List<Coluna> COLUNAS_PARQUET = List.of(
+        Coluna.obrigatoria("id", Tipo.INT64),
+        Coluna.obrigatoria("timestamp", Tipo.TIMESTAMP),
+        Coluna.obrigatoria("user_email", Tipo.STRING),
+        Coluna.obrigatoria("action_type", Tipo.ENUM),
+        Coluna.obrigatoria("success", Tipo.BOOLEAN),
+        Coluna.opcional("description", Tipo.STRING),
+        Coluna.opcional("endpoint", Tipo.STRING),
+        Coluna.opcional("ip_address", Tipo.STRING),
+        Coluna.opcional("user_agent", Tipo.STRING),
+        Coluna.opcional("error_message", Tipo.STRING),
+        Coluna.opcional("metadata", Tipo.JSON)
+    );
+    
+    private final LogExportacaoRepository logExportacaoRepository;
+    private final ArquivoLogs arquivoLogs;
+    private final ObjectWriter jsonWriter;
+    
+    public ActionLogExportService(LogExportacaoRepository logExportacaoRepository, ArquivoLogs arquivoLogs,
+                                  ObjectMapper objectMapper) {
+        this.logExportacaoRepository = logExportacaoRepository;
+        this.arquivoLogs = arquivoLogs;
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
     
     public void exportToCsv(ActionLogFilterDTO filter, OutputStream outputStream) throws IOException {
-        try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
-            // Escrever BOM UTF-8 para melhor compatibilidade com Excel
-            outputStream.write(0xEF);
-            outputStream.write(0xBB);
-            outputStream.write(0xBF);
-            
-            // Escrever cabeçalho CSV
+        exportToCsv(filter, outputStream, false);
+    }
+    
+    /**
+     * Exporta os logs do filtro em CSV (opcionalmente compactado com gzip). As linhas são lidas
+     * do banco por cursor e escritas à medida que chegam, com memória constante.
+     */
+    public void exportToCsv(ActionLogFilterDTO filter, OutputStream outputStream, boolean gzip) throws IOException {
+        OutputStream saida = gzip ? new GZIPOutputStream(outputStream, 65536) : outputStream;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 65536)) {
+            // BOM UTF-8 para melhor compatibilidade com Excel
+            writer.write('\uFEFF');
             writer.write("ID,Data/Hora,Usuário,Tipo de Ação,Status,Descrição,Endpoint,IP,User Agent,Mensagem de Erro,Metadados\n");
             writer.flush();
             
-            // Buscar logs com filtros e escrever em streaming
-            List<ActionLog> logs = actionLogRepository.findWithFilters(
-                filter.userEmail(),
-                filter.actionType(),
-                filter.success(),
-                filter.startDate(),
-                filter.endDate()
-            );
-            
-            // Escrever dados em streaming (processar em lotes se necessário)
-            int batchSize = 1000;
-            int total = logs.size();
-            
-            for (int i = 0; i < total; i++) {
-                ActionLog log = logs.get(i);
-                writer.write(formatActionLogRow(log));
-                
-                // Flush a cada batch para manter streaming
-                if ((i + 1) % batchSize == 0 || i == total - 1) {
-                    writer.flush();
+            EscritorCsv csv = new EscritorCsv(writer);
+            long[] linhas = {0};
+            percorrer(filter, log -> {
+                escreverLinha(csv, log);
+                // Flush periódico para o cliente receber os dados enquanto a consulta avança
+                if (++linhas[0] % LINHAS_POR_FLUSH == 0) {
+                    flush(writer);
                 }
-            }
-            
-            writer.flush();
+            });
         } catch (Exception e) {
             logger.error("Erro ao exportar logs de ação para CSV", e);
             throw new IOException("Erro ao exportar logs de ação", e);
         }
     }
     
-    private String formatActionLogRow(ActionLog log) {
-        StringBuilder row = new StringBuilder();
-        
-        appendCsvField(row, log.getId() != null ? log.getId().toString() : "");
-        appendCsvField(row, log.getTimestamp() != null ? log.getTimestamp().format(DATE_FORMATTER) : "");
-        appendCsvField(row, log.getUserEmail() != null ? log.getUserEmail() : "");
-        appendCsvField(row, log.getActionType() != null ? log.getActionType().name() : "");
-        appendCsvField(row, log.getSuccess() != null ? (log.getSuccess() ? "Sucesso" : "Falha") : "");
-        appendCsvField(row, log.getDescription() != null ? log.getDescription() : "");
-        appendCsvField(row, log.getEndpoint() != null ? log.getEndpoint() : "");
-        appendCsvField(row, log.getIpAddress() != null ? log.getIpAddress() : "");
-        appendCsvField(row, log.getUserAgent() != null ? log.getUserAgent() : "");
-        appendCsvField(row, log.getErrorMessage() != null ? log.getErrorMessage() : "");
-        appendCsvField(row, log.getMetadata() != null ? log.getMetadata() : "");
-        
-        row.append("\n");
-        return row.toString();
+    /**
+     * Exporta os logs do filtro em NDJSON compactado com gzip: um objeto JSON por linha, com
+     * os mesmos campos da API.
+     */
+    public void exportToNdjson(ActionLogFilterDTO filter, OutputStream outputStream) throws IOException {
+        try (JsonGenerator json = jsonWriter.createGenerator(new GZIPOutputStream(outputStream, 65536))) {
+            long[] linhas = {0};
+            percorrer(filter, log -> {
+                try {
+                    jsonWriter.writeValue(json, log);
+                    json.writeRaw('\n');
+                    if (++linhas[0] % LINHAS_POR_FLUSH == 0) {
+                        json.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Erro ao exportar logs de ação para NDJSON", e);
+            throw new IOException("Erro ao exportar logs de ação", e);
+        }
+    }
+    
+    /**
+     * Exporta os logs do filtro em Apache Parquet, com o timestamp em milissegundos (UTC), o
+     * tipo de ação como enum, o status como booleano e os metadados como JSON.
+     */
+    public void exportToParquet(ActionLogFilterDTO filter, OutputStream outputStream) throws IOException {
+        try (OutputStream saida = outputStream) {
+            EscritorParquet parquet = new EscritorParquet(saida, "action_log", COLUNAS_PARQUET);
+            percorrer(filter, log -> {
+                try {
+                    parquet.linha(log.getId(), log.getTimestamp(), log.getUserEmail(), log.getActionType(),
+                        log.getSuccess(), log.getDescription(), log.getEndpoint(), log.getIpAddress(),
+                        log.getUserAgent(), log.getErrorMessage(), log.getMetadata());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            parquet.concluir();
+        } catch (Exception e) {
+            logger.error("Erro ao exportar logs de ação para Parquet", e);
+            throw new IOException("Erro ao exportar logs de ação", e);
+        }
     }
     
-    private void appendCsvField(StringBuilder row, String value) {
-        // Adicionar vírgula antes de cada campo, exceto o primeiro
-        if (row.length() > 0) {
-            row.append(",");
+    // Logs do filtro: os do banco, por cursor, e depois os dos meses do período já arquivados
+    private void percorrer(ActionLogFilterDTO filter, Consumer<ActionLog> consumidor) {
+        logExportacaoRepository.percorrerActionLogs(filter, consumidor);
+        for (YearMonth mes : arquivoLogs.meses(ArquivoLogs.ACTION_LOG, filter.startDate(), filter.endDate())) {
+            arquivoLogs.ler(ArquivoLogs.ACTION_LOG, mes, ActionLog.class, log -> {
+                if (corresponde(log, filter)) {
+                    consumidor.accept(log);
+                }
+            });
         }
-        
-        // Se o valor for null ou vazio, adicionar string vazia
-        if (value == null || value.isEmpty()) {
-            return;
+    }
+    
+    // Mesmos critérios de ActionLogRepository.findWithFilters, para os registros arquivados
+    private static boolean corresponde(ActionLog log, ActionLogFilterDTO filter) {
+        return (filter.userEmail() == null || (log.getUserEmail() != null
+                && log.getUserEmail().toLowerCase().contains(filter.userEmail().toLowerCase())))
+            && (filter.actionType() == null || filter.actionType() == log.getActionType())
+            && (filter.success() == null || filter.success().equals(log.getSuccess()))
+            && (filter.startDate() == null || !log.getTimestamp().isBefore(filter.startDate()))
+            && (filter.endDate() == null || !log.getTimestamp().isAfter(filter.endDate()));
+    }
+    
+    private static void escreverLinha(EscritorCsv csv, ActionLog log) {
+        try {
+            csv.campo(log.getId());
+            csv.campo(log.getTimestamp());
+            csv.campo(log.getUserEmail());
+            csv.campo(log.getActionType());
+            csv.campo(log.getSuccess() != null ? (log.getSuccess() ? "Sucesso" : "Falha") : null);
+            csv.campo(log.getDescription());
+            csv.campo(log.getEndpoint());
+            csv.campo(log.getIpAddress());
+            csv.campo(log.getUserAgent());
+            csv.campo(log.getErrorMessage());
+            csv.campo(log.getMetadata());
+            csv.fimLinha();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        
-        // Escapar aspas e quebras de linha
-        String escaped = value.replace("\"", "\"\"")
-                              .replace("\n", " ")
-                              .replace("\r", " ");
-        
-        // Adicionar aspas se contiver vírgula, aspas ou espaços no início/fim
-        if (escaped.contains(",") || escaped.contains("\"") || 
-            escaped.trim().length() != escaped.length()) {
-            row.append("\"").append(escaped).append("\"");
-        } else {
-            row.append(escaped);
+    }
+    
+    private static void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 }
-
@@ -2,11 +2,9 @@ package edu.uea.acadmanage.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.uea.acadmanage.model.ActionLog;
-import edu.uea.acadmanage.repository.ActionLogRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,35 +20,26 @@ import java.util.Map;
 public class ActionLogService {
     
     private static final Logger logger = LoggerFactory.getLogger(ActionLogService.class);
-    private final ActionLogRepository actionLogRepository;
+    private final FilaLogs filaLogs;
     private final ObjectMapper objectMapper;
 
-    public ActionLogService(ActionLogRepository actionLogRepository, ObjectMapper objectMapper) {
-        this.actionLogRepository = actionLogRepository;
+    public ActionLogService(FilaLogs filaLogs, ObjectMapper objectMapper) {
+        this.filaLogs = filaLogs;
         this.objectMapper = objectMapper;
     }
 
     /**
-     * Método público para capturar o contexto e chamar o método assíncrono
+     * Monta o registro na thread da requisição (contexto de segurança e dados da requisição)
+     * e o enfileira para gravação em lote. Ações bem-sucedidas só entram na fila após o
+     * commit da transação em andamento.
      */
     public void log(ActionLog.ActionType actionType, Boolean success, String description, 
                     String errorMessage, Map<String, Object> metadata) {
-        // Capturar SecurityContext e RequestAttributes ANTES do método assíncrono
         SecurityContext securityContext = SecurityContextHolder.getContext();
         RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
-        
-        // Extrair informações do contexto antes de passar para thread assíncrona
         String userEmail = getCurrentUserEmail(securityContext);
         HttpServletRequest request = getCurrentRequest(requestAttributes);
-        
-        // Chamar método assíncrono com os valores já capturados
-        logAsync(actionType, success, description, errorMessage, metadata, userEmail, request);
-    }
 
-    @Async
-    private void logAsync(ActionLog.ActionType actionType, Boolean success, String description, 
-                         String errorMessage, Map<String, Object> metadata,
-                         String userEmail, HttpServletRequest request) {
         try {
             ActionLog actionLog = new ActionLog();
             actionLog.setActionType(actionType);
@@ -70,7 +59,13 @@ public class ActionLogService {
                 actionLog.setMetadata(convertToJson(metadata));
             }
 
-            actionLogRepository.save(actionLog);
+            actionLog.limitarTamanhos();
+            if (Boolean.TRUE.equals(success)) {
+                filaLogs.enfileirarAposCommit(actionLog);
+            } else {
+                // Tentativas que falharam são registradas mesmo que a transação seja desfeita
+                filaLogs.enfileirar(actionLog);
+            }
         } catch (Exception e) {
             logger.error("Erro ao salvar log de ação", e);
         }
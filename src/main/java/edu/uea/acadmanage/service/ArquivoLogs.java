@@ -0,0 +1,306 @@
+package edu.uea.acadmanage.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Arquivo frio dos logs de auditoria e de ação que saíram da janela mantida no banco. Cada
+ * mês de cada tabela vira um arquivo {@code <tabela>-<aaaa-mm>.ndjson.gz} (um registro JSON
+ * por linha, compactado), gravado do mais recente para o mais antigo. Ao lado dele fica o
+ * índice {@code <tabela>-<aaaa-mm>.entidades.gz}, com as entidades que aparecem no mês, para
+ * que o histórico de uma entidade não precise descompactar todos os meses.
+ *
+ * <p>O arquivo é escrito em um temporário e movido no lugar só depois de completo. Arquivar
+ * de novo um mês já arquivado (registros atrasados, ou queda antes de apagar as linhas do
+ * banco) intercala os registros novos com os existentes, mantendo a ordem e ignorando
+ * registros repetidos.
+ *
+ * <p>Com {@code app.logs.arquivo.diretorio} vazio o arquivamento fica desligado.
+ */
+@Component
+public class ArquivoLogs {
+
+    public static final String AUDIT_LOG = "audit_log";
+    public static final String ACTION_LOG = "action_log";
+    private static final String EXTENSAO = ".ndjson.gz";
+    private static final String EXTENSAO_ENTIDADES = ".entidades.gz";
+    // Mais recente primeiro; empate no timestamp pelo maior id
+    private static final Comparator<Linha> ORDEM_ARQUIVO = Comparator.comparing(Linha::timestamp)
+            .thenComparingLong(Linha::id).reversed();
+
+    private final ObjectMapper objectMapper;
+    private final Path diretorio;
+
+    public ArquivoLogs(ObjectMapper objectMapper,
+                       @Value("${app.logs.arquivo.diretorio:}") String diretorio) throws IOException {
+        this.objectMapper = objectMapper;
+        if (diretorio == null || diretorio.isBlank()) {
+            this.diretorio = null;
+        } else {
+            this.diretorio = Paths.get(diretorio).toAbsolutePath().normalize();
+            Files.createDirectories(this.diretorio);
+        }
+    }
+
+    public boolean isHabilitado() {
+        return diretorio != null;
+    }
+
+    /**
+     * Meses arquivados da tabela, do mais recente para o mais antigo.
+     */
+    public List<YearMonth> meses(String tabela) {
+        List<YearMonth> meses = new ArrayList<>();
+        if (!isHabilitado()) {
+            return meses;
+        }
+        String prefixo = tabela + "-";
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, prefixo + "*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                try {
+                    meses.add(YearMonth.parse(nome.substring(prefixo.length(), nome.length() - EXTENSAO.length())));
+                } catch (DateTimeParseException e) {
+                    // Arquivo de outra tabela com o mesmo prefixo
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao listar o arquivo de logs", e);
+        }
+        meses.sort(Comparator.reverseOrder());
+        return meses;
+    }
+
+    /**
+     * Meses arquivados da tabela que alcançam o período (limites nulos = sem limite), do mais
+     * recente para o mais antigo.
+     */
+    public List<YearMonth> meses(String tabela, LocalDateTime inicio, LocalDateTime fim) {
+        List<YearMonth> meses = meses(tabela);
+        meses.removeIf(mes -> (inicio != null && mes.isBefore(YearMonth.from(inicio)))
+                || (fim != null && mes.isAfter(YearMonth.from(fim))));
+        return meses;
+    }
+
+    /**
+     * Lê os registros arquivados da tabela no mês, na ordem do arquivo.
+     */
+    public <T> void ler(String tabela, YearMonth mes, Class<T> tipo, Consumer<T> consumidor) {
+        Path arquivo = arquivo(tabela, mes);
+        if (!Files.exists(arquivo)) {
+            return;
+        }
+        try (BufferedReader leitor = abrirLeitura(arquivo)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (!linha.isEmpty()) {
+                    consumidor.accept(objectMapper.readValue(linha, tipo));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo de logs " + arquivo.getFileName(), e);
+        }
+    }
+
+    /**
+     * Indica se a entidade pode ter registros no mês arquivado. Meses arquivados antes do
+     * índice de entidades existir são sempre considerados.
+     */
+    public boolean contemEntidade(String tabela, YearMonth mes, String entityName, Long entityId) {
+        Path indice = arquivo(tabela, mes, EXTENSAO_ENTIDADES);
+        if (!Files.exists(indice)) {
+            return Files.exists(arquivo(tabela, mes));
+        }
+        String procurada = chaveEntidade(entityName, entityId);
+        try (BufferedReader leitor = abrirLeitura(indice)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.equals(procurada)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o índice de entidades " + indice.getFileName(), e);
+        }
+    }
+
+    /**
+     * Abre a gravação do mês, intercalando os registros gravados com o conteúdo já arquivado.
+     * Os registros só passam a valer em {@link Gravacao#concluir()}.
+     */
+    public Gravacao abrir(String tabela, YearMonth mes) throws IOException {
+        if (!isHabilitado()) {
+            throw new IllegalStateException("Arquivamento de logs desabilitado");
+        }
+        return new Gravacao(arquivo(tabela, mes), arquivo(tabela, mes, EXTENSAO_ENTIDADES));
+    }
+
+    private Path arquivo(String tabela, YearMonth mes) {
+        return arquivo(tabela, mes, EXTENSAO);
+    }
+
+    private Path arquivo(String tabela, YearMonth mes, String extensao) {
+        return diretorio.resolve(tabela + "-" + mes + extensao);
+    }
+
+    private static String chaveEntidade(String entityName, Long entityId) {
+        return entityName + ":" + entityId;
+    }
+
+    private static BufferedReader abrirLeitura(Path arquivo) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(arquivo), 65536), StandardCharsets.UTF_8));
+    }
+
+    public final class Gravacao implements Closeable {
+
+        private final Path destino;
+        private final Path temporario;
+        private final Path indice;
+        // Conteúdo já arquivado, lido à medida que os registros novos são intercalados
+        private final BufferedReader existente;
+        private final BufferedWriter escrita;
+        private final Set<String> entidades = new HashSet<>();
+        private Linha proximaExistente;
+        private boolean concluida;
+
+        private Gravacao(Path destino, Path indice) throws IOException {
+            this.destino = destino;
+            this.indice = indice;
+            this.temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+            this.existente = Files.exists(destino) ? abrirLeitura(destino) : null;
+            OutputStream saida = new GZIPOutputStream(Files.newOutputStream(temporario), 65536);
+            this.escrita = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            avancarExistente();
+        }
+
+        /**
+         * Grava o registro na sua posição, a menos que ele já estivesse arquivado. Os registros
+         * devem vir na ordem do arquivo, do mais recente para o mais antigo.
+         */
+        public boolean gravar(Object registro) throws IOException {
+            Linha nova = linha(objectMapper.valueToTree(registro));
+            while (proximaExistente != null && ORDEM_ARQUIVO.compare(proximaExistente, nova) < 0) {
+                escrever(proximaExistente);
+                avancarExistente();
+            }
+            if (proximaExistente != null && ORDEM_ARQUIVO.compare(proximaExistente, nova) == 0) {
+                return false;
+            }
+            escrever(nova);
+            return true;
+        }
+
+        public void concluir() throws IOException {
+            while (proximaExistente != null) {
+                escrever(proximaExistente);
+                avancarExistente();
+            }
+            escrita.close();
+            forcar(temporario);
+            // O índice vai antes: se a gravação parar entre os dois, ele só sobra, nunca falta
+            if (!entidades.isEmpty()) {
+                Path indiceTemporario = indice.resolveSibling(indice.getFileName() + ".tmp");
+                try (BufferedWriter escritaIndice = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(indiceTemporario), 65536), StandardCharsets.UTF_8))) {
+                    for (String entidade : entidades) {
+                        escritaIndice.write(entidade);
+                        escritaIndice.newLine();
+                    }
+                }
+                forcar(indiceTemporario);
+                Files.move(indiceTemporario, indice, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            concluida = true;
+            fecharExistente();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!concluida) {
+                fecharExistente();
+                escrita.close();
+                Files.deleteIfExists(temporario);
+            }
+        }
+
+        private void avancarExistente() throws IOException {
+            proximaExistente = null;
+            if (existente == null) {
+                return;
+            }
+            String texto;
+            while ((texto = existente.readLine()) != null) {
+                if (!texto.isEmpty()) {
+                    proximaExistente = linha(objectMapper.readTree(texto));
+                    return;
+                }
+            }
+        }
+
+        private void fecharExistente() throws IOException {
+            if (existente != null) {
+                existente.close();
+            }
+        }
+
+        private Linha linha(JsonNode json) throws IOException {
+            JsonNode timestamp = json.get("timestamp");
+            return new Linha(json,
+                    timestamp == null || timestamp.isNull() ? LocalDateTime.MIN
+                            : objectMapper.treeToValue(timestamp, LocalDateTime.class),
+                    json.path("id").asLong());
+        }
+
+        private void escrever(Linha linha) throws IOException {
+            JsonNode entityName = linha.json().get("entityName");
+            if (entityName != null && entityName.isTextual()) {
+                entidades.add(chaveEntidade(entityName.asText(), linha.json().path("entityId").asLong()));
+            }
+            escrita.write(objectMapper.writeValueAsString(linha.json()));
+            escrita.newLine();
+        }
+
+        private static void forcar(Path arquivo) throws IOException {
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+                canal.force(true);
+            }
+        }
+    }
+
+    private record Linha(JsonNode json, LocalDateTime timestamp, long id) {
+    }
+}
@@ -1,13 +1,9 @@
 package edu.uea.acadmanage.service;
 
-import edu.uea.acadmanage.model.Atividade;
 import edu.uea.acadmanage.model.Papel;
-import edu.uea.acadmanage.model.Usuario;
 import edu.uea.acadmanage.repository.AtividadePessoaPapelRepository;
 import edu.uea.acadmanage.repository.AtividadeRepository;
-import edu.uea.acadmanage.repository.UsuarioRepository;
 import edu.uea.acadmanage.service.exception.AcessoNegadoException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,18 +11,15 @@ public class AtividadeAutorizacaoService {
     
     private final AtividadePessoaPapelRepository atividadePessoaPapelRepository;
     private final AtividadeRepository atividadeRepository;
-    private final UsuarioRepository usuarioRepository;
-    private final CursoService cursoService;
+    private final AutorizacaoContextoService autorizacaoContextoService;
     
     public AtividadeAutorizacaoService(
             AtividadePessoaPapelRepository atividadePessoaPapelRepository,
             AtividadeRepository atividadeRepository,
-            UsuarioRepository usuarioRepository,
-            CursoService cursoService) {
+            AutorizacaoContextoService autorizacaoContextoService) {
         this.atividadePessoaPapelRepository = atividadePessoaPapelRepository;
         this.atividadeRepository = atividadeRepository;
-        this.usuarioRepository = usuarioRepository;
-        this.cursoService = cursoService;
+        this.autorizacaoContextoService = autorizacaoContextoService;
     }
     
     /**
@@ -37,27 +30,11 @@ public class AtividadeAutorizacaoService {
      * (mantém comportamento atual)
      */
     public boolean podeCriarAtividadeNoCurso(String username, Long cursoId) {
-        Usuario usuario = usuarioRepository.findByEmail(username)
-            .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        AutorizacaoContexto contexto = autorizacaoContextoService.obter(username);
         
-        // Verificar roles de sistema
-        boolean isAdmin = usuario.getRoles().stream()
-            .anyMatch(role -> role.getNome().equals("ROLE_ADMINISTRADOR"));
-        boolean isGerente = usuario.getRoles().stream()
-            .anyMatch(role -> role.getNome().equals("ROLE_GERENTE"));
-        boolean isSecretario = usuario.getRoles().stream()
-            .anyMatch(role -> role.getNome().equals("ROLE_SECRETARIO"));
-        boolean isCoordenadorAtividade = usuario.getRoles().stream()
-            .anyMatch(role -> role.getNome().equals("ROLE_COORDENADOR_ATIVIDADE"));
-        
-        // Admin, Gerente e Secretário precisam estar associados ao curso (comportamento atual)
-        if (isAdmin || isGerente || isSecretario) {
-            return cursoService.verificarAcessoAoCurso(username, cursoId);
-        }
-        
-        // Coordenador de Atividade precisa ter acesso ao curso
-        if (isCoordenadorAtividade) {
-            return cursoService.verificarAcessoAoCurso(username, cursoId);
+        // Admin, Gerente, Secretário e Coordenador de Atividade precisam estar associados ao curso
+        if (contexto.isGestor() || contexto.isCoordenadorAtividade()) {
+            return contexto.temAcessoAoCurso(cursoId);
         }
         
         return false;
@@ -68,23 +45,10 @@ public class AtividadeAutorizacaoService {
      * Busca na tabela AtividadePessoaPapel se o usuário tem Papel.COORDENADOR na atividade.
      */
     public boolean ehCoordenadorDaAtividade(String username, Long atividadeId) {
-        Atividade atividade = atividadeRepository.findById(atividadeId)
-            .orElseThrow(() -> new AcessoNegadoException("Atividade não encontrada"));
-        
-        // Buscar usuário e pessoa associada
-        Usuario usuario = usuarioRepository.findByEmail(username)
-            .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
-        
-        if (usuario.getPessoa() == null) {
-            return false;
+        if (!atividadeRepository.existsById(atividadeId)) {
+            throw new AcessoNegadoException("Atividade não encontrada");
         }
-        
-        // Verificar se existe associação com Papel.COORDENADOR
-        return atividadePessoaPapelRepository.existsByAtividadeAndPessoaAndPapel(
-            atividade, 
-            usuario.getPessoa(), 
-            Papel.COORDENADOR
-        );
+        return ehCoordenador(autorizacaoContextoService.obter(username), atividadeId);
     }
     
     /**
@@ -93,31 +57,19 @@ public class AtividadeAutorizacaoService {
      * ou COORDENADOR_ATIVIDADE (se for coordenador da atividade).
      */
     public boolean podeEditarAtividade(String username, Long atividadeId) {
-        Atividade atividade = atividadeRepository.findById(atividadeId)
+        Long cursoId = atividadeRepository.findCursoIdById(atividadeId)
             .orElseThrow(() -> new AcessoNegadoException("Atividade não encontrada"));
         
-        Usuario usuario = usuarioRepository.findByEmail(username)
-            .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
-        
-        // Verificar roles de sistema
-        boolean isAdmin = usuario.getRoles().stream()
-            .anyMatch(role -> role.getNome().equals("ROLE_ADMINISTRADOR"));
-        boolean isGerente = usuario.getRoles().stream()
-            .anyMatch(role -> role.getNome().equals("ROLE_GERENTE"));
-        boolean isSecretario = usuario.getRoles().stream()
-            .anyMatch(role -> role.getNome().equals("ROLE_SECRETARIO"));
+        AutorizacaoContexto contexto = autorizacaoContextoService.obter(username);
         
         // Admin, Gerente e Secretário precisam estar associados ao curso (comportamento atual)
-        if (isAdmin || isGerente || isSecretario) {
-            return cursoService.verificarAcessoAoCurso(username, atividade.getCurso().getId());
+        if (contexto.isGestor()) {
+            return contexto.temAcessoAoCurso(cursoId);
         }
         
         // Coordenador de Atividade só pode editar se for coordenador desta atividade específica
-        boolean isCoordenadorAtividade = usuario.getRoles().stream()
-            .anyMatch(role -> role.getNome().equals("ROLE_COORDENADOR_ATIVIDADE"));
-        
-        if (isCoordenadorAtividade) {
-            return ehCoordenadorDaAtividade(username, atividadeId);
+        if (contexto.isCoordenadorAtividade()) {
+            return ehCoordenador(contexto, atividadeId);
         }
         
         return false;
@@ -130,5 +82,15 @@ public class AtividadeAutorizacaoService {
     public boolean podeGerenciarEvidencias(String username, Long atividadeId) {
         return podeEditarAtividade(username, atividadeId);
     }
-}
 
+    private boolean ehCoordenador(AutorizacaoContexto contexto, Long atividadeId) {
+        if (contexto.pessoaId() == null) {
+            return false;
+        }
+        return atividadePessoaPapelRepository.existsByIdAtividadeIdAndIdPessoaIdAndPapel(
+            atividadeId,
+            contexto.pessoaId(),
+            Papel.COORDENADOR
+        );
+    }
+}
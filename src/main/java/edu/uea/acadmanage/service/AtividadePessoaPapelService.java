@@ -1,17 +1,15 @@
 package edu.uea.acadmanage.service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import edu.uea.acadmanage.DTO.ImportacaoIntegranteResultadoDTO;
+import edu.uea.acadmanage.DTO.ImportacaoIntegrantesRespostaDTO;
 import edu.uea.acadmanage.DTO.PessoaPapelDTO;
 import edu.uea.acadmanage.model.Atividade;
 import edu.uea.acadmanage.model.AtividadePessoaId;
@@ -34,15 +32,18 @@ public class AtividadePessoaPapelService {
     private final AtividadeRepository atividadeRepository;
     private final PessoaRepository pessoaRepository;
     private final CursoService cursoService;
+    private final ImportacaoIntegrantesService importacaoIntegrantesService;
 
     public AtividadePessoaPapelService(AtividadePessoaPapelRepository papelRepository,
                                        AtividadeRepository atividadeRepository,
                                        PessoaRepository pessoaRepository,
-                                       CursoService cursoService) {
+                                       CursoService cursoService,
+                                       ImportacaoIntegrantesService importacaoIntegrantesService) {
         this.papelRepository = papelRepository;
         this.atividadeRepository = atividadeRepository;
         this.pessoaRepository = pessoaRepository;
         this.cursoService = cursoService;
+        this.importacaoIntegrantesService = importacaoIntegrantesService;
     }
 
     public AtividadePessoaPapel associarPessoa(Long atividadeId, Long pessoaId, Papel papel, String username) {
@@ -120,127 +121,33 @@ public class AtividadePessoaPapelService {
         papelRepository.deleteById(new AtividadePessoaId(atividadeId, pessoaId));
     }
 
-    public List<AtividadePessoaPapel> importarAssociacoesCsv(Long atividadeId, MultipartFile arquivo, String username) {
+    /**
+     * Importa os integrantes do CSV com {@link ImportacaoIntegrantesService} e retorna o
+     * resultado de cada linha. A importação é parcial: as linhas válidas são gravadas bloco a
+     * bloco mesmo que outras tenham erro, então erros e pessoas já associadas (antes um 409
+     * que rejeitava o arquivo inteiro) vêm no relatório, como linhas ERRO e IGNORADA, e não
+     * como exceção. Para arquivos grandes, o relatório CSV de {@code /pessoas/import/lote}
+     * evita montar a lista na resposta.
+     */
+    public ImportacaoIntegrantesRespostaDTO importarAssociacoesCsv(Long atividadeId, MultipartFile arquivo,
+                                                                   String username) {
         if (arquivo == null || arquivo.isEmpty()) {
             throw new ValidacaoException("Arquivo CSV não informado.");
         }
 
-        Atividade atividade = atividadeRepository.findById(atividadeId)
-                .orElseThrow(() -> new RecursoNaoEncontradoException("Atividade não encontrada"));
-
-        if (!cursoService.verificarAcessoAoCurso(username, atividade.getCurso().getId())) {
-            throw new AcessoNegadoException(
-                    "Usuário não tem permissão incluir integrante em atividades do curso: " + atividade.getCurso().getId());
-        }
-
-        List<AtividadePessoaPapel> associacoesCriadas = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(arquivo.getInputStream(), StandardCharsets.UTF_8))) {
-            String linha;
-            boolean cabecalhoVerificado = false;
-
-            while ((linha = reader.readLine()) != null) {
-                String texto = linha.trim();
-                if (texto.isEmpty()) {
-                    continue;
-                }
-
-                String[] partes = dividirLinhaCsv(texto);
-
-                if (!cabecalhoVerificado) {
-                    if (isCabecalhoCsv(partes)) {
-                        cabecalhoVerificado = true;
-                        continue;
-                    }
-                    cabecalhoVerificado = true;
-                }
-
-                if (partes.length < 2) {
-                    throw new ValidacaoException("Linha inválida no CSV: " + texto);
-                }
-
-                String nome = partes[0].trim();
-                String cpf = normalizarCpf(partes[1]);
-                String papelTexto = partes.length >= 3 ? partes[2].trim() : Papel.PARTICIPANTE.name();
-
-                if (papelTexto.isEmpty()) {
-                    papelTexto = Papel.PARTICIPANTE.name();
-                }
-
-                if (nome.isEmpty() || cpf.isEmpty()) {
-                    throw new ValidacaoException("Dados incompletos no CSV: " + texto);
-                }
-
-                Papel papel = parsePapel(papelTexto);
-
-                Pessoa pessoa = pessoaRepository.findByCpf(cpf)
-                        .orElseGet(() -> pessoaRepository.save(new Pessoa(null, nome, cpf)));
-
-                if (papelRepository.existsByAtividadeAndPessoa(atividade, pessoa)) {
-                    throw new ConflitoException("Pessoa " + nome + " já está associada a esta atividade.");
-                }
+        ImportacaoIntegrantesService.Destino destino = importacaoIntegrantesService.preparar(atividadeId, username);
 
-                AtividadePessoaPapel associacao = new AtividadePessoaPapel();
-                associacao.setId(new AtividadePessoaId(atividadeId, pessoa.getId()));
-                associacao.setAtividade(atividade);
-                associacao.setPessoa(pessoa);
-                associacao.setPapel(papel);
-
-                associacoesCriadas.add(papelRepository.save(associacao));
-            }
+        List<ImportacaoIntegranteResultadoDTO> linhas = new ArrayList<>();
+        ImportacaoIntegrantesService.Resumo resumo;
+        try (InputStream entrada = arquivo.getInputStream()) {
+            resumo = importacaoIntegrantesService.importar(destino, entrada, arquivo.getOriginalFilename(), resultado ->
+                    linhas.add(new ImportacaoIntegranteResultadoDTO(resultado.linha(), resultado.situacao().name(),
+                            resultado.cpf(), resultado.pessoaId(), resultado.papel(), resultado.mensagem())));
         } catch (IOException e) {
             throw new ErroProcessamentoArquivoException("Não foi possível ler o arquivo CSV.", e);
         }
 
-        return associacoesCriadas;
-    }
-
-    private String[] dividirLinhaCsv(String texto) {
-        String[] partes = texto.split(";");
-        if (partes.length <= 1) {
-            partes = texto.split(",");
-        }
-        return partes;
-    }
-
-    private boolean isCabecalhoCsv(String[] partes) {
-        if (partes.length < 2) {
-            return false;
-        }
-
-        return normalizarCabecalho(partes[0]).equals("nome")
-                && normalizarCabecalho(partes[1]).equals("cpf")
-                && (partes.length < 3 || normalizarCabecalho(partes[2]).equals("papel"));
-    }
-
-    private String normalizarCabecalho(String valor) {
-        if (valor == null) {
-            return "";
-        }
-
-        return valor
-                .replace("\uFEFF", "")
-                .replace("\"", "")
-                .trim()
-                .toLowerCase(Locale.ROOT);
-    }
-
-    private Papel parsePapel(String texto) {
-        try {
-            return Papel.valueOf(texto.trim().toUpperCase(Locale.ROOT));
-        } catch (IllegalArgumentException ex) {
-            String valores = List.of(Papel.values()).stream()
-                    .map(Enum::name)
-                    .collect(Collectors.joining(", "));
-            throw new ValidacaoException("Papel inválido: " + texto + ". Valores permitidos: " + valores);
-        }
-    }
-
-    private String normalizarCpf(String cpf) {
-        if (cpf == null) {
-            return "";
-        }
-        return cpf.replaceAll("\\D", "");
+        return new ImportacaoIntegrantesRespostaDTO(resumo.totalProcessados(), resumo.totalAssociadas(),
+                resumo.totalIgnoradas(), resumo.totalErros(), resumo.totalPessoasCriadas(), resumo.duracaoMs(), linhas);
     }
 }
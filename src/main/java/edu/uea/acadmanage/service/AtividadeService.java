@@ -5,45 +5,68 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import edu.uea.acadmanage.DTO.AtividadeDTO;
 import edu.uea.acadmanage.DTO.AtividadeFiltroDTO;
+import edu.uea.acadmanage.DTO.AtividadeProjecaoDTO;
+import edu.uea.acadmanage.DTO.CategoriaResumidaDTO;
+import edu.uea.acadmanage.DTO.CursoResumidoDTO;
+import edu.uea.acadmanage.DTO.CursorPageDTO;
+import edu.uea.acadmanage.DTO.FonteFinanciadoraResumidaDTO;
 import edu.uea.acadmanage.DTO.PessoaPapelDTO;
 import edu.uea.acadmanage.config.FileStorageProperties;
 import edu.uea.acadmanage.model.Atividade;
 import edu.uea.acadmanage.model.AtividadePessoaId;
 import edu.uea.acadmanage.model.AtividadePessoaPapel;
+import edu.uea.acadmanage.model.Categoria;
 import edu.uea.acadmanage.model.Curso;
 import edu.uea.acadmanage.model.FonteFinanciadora;
 import edu.uea.acadmanage.model.Papel;
-import edu.uea.acadmanage.model.Pessoa;
-import edu.uea.acadmanage.model.Usuario;
+import edu.uea.acadmanage.repository.AtividadePessoaPapelRepository;
 import edu.uea.acadmanage.repository.AtividadeRepository;
 import edu.uea.acadmanage.repository.PessoaRepository;
 import edu.uea.acadmanage.repository.UsuarioRepository;
+import edu.uea.acadmanage.service.event.AtividadeAlteradaEvent;
 import edu.uea.acadmanage.service.exception.AcessoNegadoException;
 import edu.uea.acadmanage.service.exception.ArquivoInvalidoException;
 import edu.uea.acadmanage.service.exception.AtividadeComEvidenciasException;
 import edu.uea.acadmanage.service.exception.ErroProcessamentoArquivoException;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
 import edu.uea.acadmanage.model.AuditLog;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class AtividadeService {
 
+    // Ordenações da paginação por cursor
+    public static final String ORDENACAO_NOME = "nome";
+    public static final String ORDENACAO_DATA_DESC = "dataRealizacao,desc";
+
     private final AtividadeRepository atividadeRepository;
+    private final AtividadePessoaPapelRepository atividadePessoaPapelRepository;
     private final UsuarioRepository usuarioRepository;
     private final CursoService cursoService;
     private final CategoriaService categoriaService;
@@ -51,12 +74,14 @@ public class AtividadeService {
     private final PessoaRepository pessoaRepository;
     private final AtividadeAutorizacaoService atividadeAutorizacaoService;
     private final AuditLogService auditLogService;
-    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImagemDerivadaService imagemDerivadaService;
     private final Path fileStorageLocation;
     private final String baseStorageLocation;
 
     public AtividadeService(
             AtividadeRepository atividadeRepository,
+            AtividadePessoaPapelRepository atividadePessoaPapelRepository,
             UsuarioRepository usuarioRepository,
             CursoService cursoService,
             CategoriaService categoriaService,
@@ -64,9 +89,11 @@ public class AtividadeService {
             PessoaRepository pessoaRepository,
             AtividadeAutorizacaoService atividadeAutorizacaoService,
             AuditLogService auditLogService,
-            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            ImagemDerivadaService imagemDerivadaService,
             FileStorageProperties fileStorageProperties) throws IOException {
         this.atividadeRepository = atividadeRepository;
+        this.atividadePessoaPapelRepository = atividadePessoaPapelRepository;
         this.usuarioRepository = usuarioRepository;
         this.cursoService = cursoService;
         this.categoriaService = categoriaService;
@@ -74,7 +101,8 @@ public class AtividadeService {
         this.pessoaRepository = pessoaRepository;
         this.atividadeAutorizacaoService = atividadeAutorizacaoService;
         this.auditLogService = auditLogService;
-        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.imagemDerivadaService = imagemDerivadaService;
         this.baseStorageLocation = "fotos-capa";
         this.fileStorageLocation = Paths.get(fileStorageProperties.getStorageLocation())
                 .resolve(this.baseStorageLocation)
@@ -90,12 +118,7 @@ public class AtividadeService {
         }
 
         // Buscar atividades associadas ao curso
-        List<Atividade> atividades = atividadeRepository.findByCursoId(cursoId);
-
-        // Converter atividades para DTO
-        return atividades.stream()
-                .map(this::toAtividadeDTO)
-                .collect(Collectors.toList());
+        return carregarAtividadesDTO(atividadeRepository.findIdsByCursoId(cursoId));
     }
 
     // Método para buscar uma atividade por ID e usuário
@@ -107,81 +130,116 @@ public class AtividadeService {
             throw new AcessoNegadoException("O usuário não tem permissão para acessar esta atividade.");
         }
         // Buscar a atividade restrita aos cursos permitidos
-        return atividadeRepository.findByIdAndCursoIds(atividadeId, cursoIds)
-                .map(this::toAtividadeDTO)
-                .orElseThrow(
-                        () -> new AcessoNegadoException("O usuário não tem permissão para acessar esta atividade."));
+        boolean permitida = atividadeRepository.findCursoIdById(atividadeId)
+                .filter(cursoIds::contains)
+                .isPresent();
+        if (!permitida) {
+            throw new AcessoNegadoException("O usuário não tem permissão para acessar esta atividade.");
+        }
+        return carregarAtividadeDTO(atividadeId);
     }
 
     // Método para buscar uma atividade por ID
     public AtividadeDTO getAtividadeById(Long atividadeId) {
-        return atividadeRepository.findById(atividadeId)
-                .map(atividade -> toAtividadeDTO(atividade))
-                .orElseThrow(
-                        () -> new RecursoNaoEncontradoException("Atividade não encontrada com o ID: " + atividadeId));
+        return carregarAtividadeDTO(atividadeId);
     }
 
     // Método para pesquisar atividades por filtros
     public List<AtividadeDTO> getAtividadesPorFiltros(AtividadeFiltroDTO filtro) {
-        // Validar se o curso existe (apenas se cursoId foi fornecido)
-        if (filtro.cursoId() != null && !cursoService.verificarSeCursoExiste(filtro.cursoId())) {
-            throw new RecursoNaoEncontradoException("Curso não encontrado com o ID: " + filtro.cursoId());
-        }
-        
-        // Validar se a categoria existe (apenas se categoriaId foi fornecido)
-        if (filtro.categoriaId() != null && !categoriaService.verificarSeCategoriaExiste(filtro.categoriaId())) {
-            throw new RecursoNaoEncontradoException("Categoria não encontrada com o ID: " + filtro.categoriaId());
-        }
-        
-        // Buscar atividades usando filtros no repositório
-        List<Atividade> atividades = atividadeRepository.findByFiltros(
+        validarFiltro(filtro);
+
+        // Buscar os IDs das atividades usando filtros no repositório
+        List<Long> ids = atividadeRepository.findIdsByFiltros(
                 filtro.cursoId(), filtro.categoriaId(), filtro.nome(), filtro.dataInicio(), filtro.dataFim(),
                 filtro.statusPublicacao());
 
-        // Converter entidades em DTOs
-        return atividades.stream()
-                .map(this::toAtividadeDTO)
-                .collect(Collectors.toList());
+        return carregarAtividadesDTO(ids);
     }
 
     // Método para pesquisar atividades por filtros com paginação
     public Page<AtividadeDTO> getAtividadesPorFiltrosPaginado(AtividadeFiltroDTO filtro, Pageable pageable) {
+        validarFiltro(filtro);
+
+        // Buscar os IDs da página usando filtros no repositório
+        Page<Long> ids = atividadeRepository.findIdsByFiltrosPaginado(
+                filtro.cursoId(), filtro.categoriaId(), filtro.nome(), filtro.dataInicio(), filtro.dataFim(),
+                filtro.statusPublicacao(), pageable);
+
+        return new PageImpl<>(carregarAtividadesDTO(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    // Método para pesquisar atividades por filtros com paginação por cursor (keyset).
+    // Ordenações suportadas: ORDENACAO_NOME e ORDENACAO_DATA_DESC.
+    public CursorPageDTO<AtividadeDTO> getAtividadesPorFiltrosCursor(AtividadeFiltroDTO filtro,
+            String ordenacao, String after, int size) {
+        validarFiltro(filtro);
+        CursorPaginacao.validarTamanho(size);
+        CursorPaginacao.Cursor cursor = CursorPaginacao.decodificar(after, ordenacao);
+        Limit limite = Limit.of(size + 1);
+
+        List<Long> ids;
+        if (ORDENACAO_NOME.equals(ordenacao)) {
+            ids = cursor == null
+                    ? atividadeRepository.findIdsPrimeiraPaginaOrderByNome(
+                            filtro.cursoId(), filtro.categoriaId(), filtro.nome(), filtro.dataInicio(),
+                            filtro.dataFim(), filtro.statusPublicacao(), limite)
+                    : atividadeRepository.findIdsPorCursorOrderByNome(
+                            filtro.cursoId(), filtro.categoriaId(), filtro.nome(), filtro.dataInicio(),
+                            filtro.dataFim(), filtro.statusPublicacao(), cursor.chave(), cursor.id(), limite);
+            return CursorPaginacao.montarPagina(carregarAtividadesDTO(ids), size, ordenacao,
+                    AtividadeDTO::id, AtividadeDTO::nome);
+        }
+        if (ORDENACAO_DATA_DESC.equals(ordenacao)) {
+            if (cursor == null) {
+                ids = atividadeRepository.findIdsPrimeiraPaginaOrderByDataRealizacaoDesc(
+                        filtro.cursoId(), filtro.categoriaId(), filtro.nome(), filtro.dataInicio(),
+                        filtro.dataFim(), filtro.statusPublicacao(), limite);
+            } else {
+                LocalDate ultimaData;
+                try {
+                    ultimaData = LocalDate.parse(cursor.chave());
+                } catch (DateTimeParseException e) {
+                    throw new ValidacaoException("Cursor de paginação inválido.");
+                }
+                ids = atividadeRepository.findIdsPorCursorOrderByDataRealizacaoDesc(
+                        filtro.cursoId(), filtro.categoriaId(), filtro.nome(), filtro.dataInicio(),
+                        filtro.dataFim(), filtro.statusPublicacao(), ultimaData, cursor.id(), limite);
+            }
+            return CursorPaginacao.montarPagina(carregarAtividadesDTO(ids), size, ordenacao,
+                    AtividadeDTO::id, AtividadeDTO::dataRealizacao);
+        }
+        throw new ValidacaoException("Ordenação não suportada na paginação por cursor: " + ordenacao);
+    }
+
+    private void validarFiltro(AtividadeFiltroDTO filtro) {
         // Validar se o curso existe (apenas se cursoId foi fornecido)
         if (filtro.cursoId() != null && !cursoService.verificarSeCursoExiste(filtro.cursoId())) {
             throw new RecursoNaoEncontradoException("Curso não encontrado com o ID: " + filtro.cursoId());
         }
-        
+
         // Validar se a categoria existe (apenas se categoriaId foi fornecido)
         if (filtro.categoriaId() != null && !categoriaService.verificarSeCategoriaExiste(filtro.categoriaId())) {
             throw new RecursoNaoEncontradoException("Categoria não encontrada com o ID: " + filtro.categoriaId());
         }
-        
-        // Buscar atividades usando filtros no repositório com paginação
-        Page<Atividade> atividades = atividadeRepository.findByFiltrosPaginado(
-                filtro.cursoId(), filtro.categoriaId(), filtro.nome(), filtro.dataInicio(), filtro.dataFim(),
-                filtro.statusPublicacao(), pageable);
-
-        // Converter entidades em DTOs
-        return atividades.map(this::toAtividadeDTO);
     }
 
     // Método para salvar uma atividade
     public AtividadeDTO salvarAtividade(AtividadeDTO atividadeDTO, String username) {
         // Verificar se o curso existe
-        if (!cursoService.verificarSeCursoExiste(atividadeDTO.curso().getId())) {
+        if (!cursoService.verificarSeCursoExiste(atividadeDTO.curso().id())) {
             throw new RecursoNaoEncontradoException(
-                    "Curso não encontrado com o ID: " + atividadeDTO.curso().getId());
+                    "Curso não encontrado com o ID: " + atividadeDTO.curso().id());
         }
 
         // Verificar se a categoria existe
-        if (!categoriaService.verificarSeCategoriaExiste(atividadeDTO.categoria().getId())) {
+        if (!categoriaService.verificarSeCategoriaExiste(atividadeDTO.categoria().id())) {
             throw new RecursoNaoEncontradoException(
-                    "Categoria não encontrada com o ID: " + atividadeDTO.categoria().getId());
+                    "Categoria não encontrada com o ID: " + atividadeDTO.categoria().id());
         }
 
 
         // Verificar se o usuário tem permissão para criar a atividade
-        Long cursoId = atividadeDTO.curso().getId();
+        Long cursoId = atividadeDTO.curso().id();
         if (!atividadeAutorizacaoService.podeCriarAtividadeNoCurso(username, cursoId)) {
             throw new AcessoNegadoException(
                     "Usuário não tem permissão para criar atividade no curso: " + cursoId);
@@ -210,8 +268,11 @@ public class AtividadeService {
             "Atividade criada: " + atividadeSalva.getNome()
         );
 
+        eventPublisher.publishEvent(new AtividadeAlteradaEvent(
+                atividadeSalva.getId(), null, AtividadeAlteradaEvent.Estado.de(atividadeSalva)));
+
         // Retornar o DTO da atividade salva
-        return toAtividadeDTO(atividadeSalva);
+        return carregarAtividadeDTO(atividadeSalva.getId());
     }
 
 
@@ -244,7 +305,7 @@ public class AtividadeService {
         Atividade atividadeAtualizada = atividadeRepository.save(atividade);
 
         // Retornar o DTO da evidência atualizada
-        return toAtividadeDTO(atividadeAtualizada);
+        return carregarAtividadeDTO(atividadeAtualizada.getId());
     }
 
     // Método para excluir uma foto de capa
@@ -274,18 +335,19 @@ public class AtividadeService {
                         () -> new RecursoNaoEncontradoException("Atividade não encontrada com o ID: " + atividadeId));
 
         // Capturar estado antigo para audit log
-        Atividade oldState = copyAtividadeForAudit(atividadeExistente);
+        JsonNode oldState = auditLogService.capturar(atividadeExistente);
+        AtividadeAlteradaEvent.Estado estadoAnterior = AtividadeAlteradaEvent.Estado.de(atividadeExistente);
 
         // Verificar se o curso existe
-        if (!cursoService.verificarSeCursoExiste(atividadeDTO.curso().getId())) {
+        if (!cursoService.verificarSeCursoExiste(atividadeDTO.curso().id())) {
             throw new RecursoNaoEncontradoException(
-                    "Curso não encontrado com o ID: " + atividadeDTO.curso().getId());
+                    "Curso não encontrado com o ID: " + atividadeDTO.curso().id());
         }
 
         // Verificar se a categoria existe
-        if (!categoriaService.verificarSeCategoriaExiste(atividadeDTO.categoria().getId())) {
+        if (!categoriaService.verificarSeCategoriaExiste(atividadeDTO.categoria().id())) {
             throw new RecursoNaoEncontradoException(
-                    "Categoria não encontrada com o ID: " + atividadeDTO.categoria().getId());
+                    "Categoria não encontrada com o ID: " + atividadeDTO.categoria().id());
         }
 
         // Verificar se o usuário tem permissão para editar a atividade
@@ -300,13 +362,13 @@ public class AtividadeService {
         atividadeExistente.setStatusPublicacao(atividadeDTO.statusPublicacao());
         atividadeExistente.setDataRealizacao(atividadeDTO.dataRealizacao());
         atividadeExistente.setDataFim(atividadeDTO.dataFim());
-        atividadeExistente.setCurso(atividadeDTO.curso());
-        atividadeExistente.setCategoria(atividadeDTO.categoria());
+        atividadeExistente.setCurso(new Curso(atividadeDTO.curso().id()));
+        atividadeExistente.setCategoria(new Categoria(atividadeDTO.categoria().id()));
         
         // Buscar fontes financiadoras do banco para associá-las corretamente (entidades gerenciadas)
         if (atividadeDTO.fontesFinanciadora() != null && !atividadeDTO.fontesFinanciadora().isEmpty()) {
             List<FonteFinanciadora> fontesGerenciadas = atividadeDTO.fontesFinanciadora().stream()
-                    .map(fonte -> fonteFinanciadoraService.recuperarFinanciadoraPorId(fonte.getId()))
+                    .map(fonte -> fonteFinanciadoraService.recuperarFinanciadoraPorId(fonte.id()))
                     .collect(Collectors.toList());
             atividadeExistente.setFontesFinanciadora(fontesGerenciadas);
         } else {
@@ -329,8 +391,11 @@ public class AtividadeService {
             "Atividade atualizada: " + atividadeAtualizada.getNome()
         );
 
+        eventPublisher.publishEvent(new AtividadeAlteradaEvent(
+                atividadeAtualizada.getId(), estadoAnterior, AtividadeAlteradaEvent.Estado.de(atividadeAtualizada)));
+
         // Retornar o DTO da atividade atualizada
-        return toAtividadeDTO(atividadeAtualizada);
+        return carregarAtividadeDTO(atividadeAtualizada.getId());
     }
 
     // Método para excluir uma atividade
@@ -372,6 +437,9 @@ public class AtividadeService {
             null,
             "Atividade excluída: " + atividadeNome
         );
+
+        eventPublisher.publishEvent(new AtividadeAlteradaEvent(
+                atividadeIdValue, AtividadeAlteradaEvent.Estado.de(atividade), null));
     }
 
     // Método para buscar um curso por atividade
@@ -385,58 +453,75 @@ public class AtividadeService {
     // Método privado para obter os IDs dos cursos de um usuário
     private List<Long> getCursoIdsByUsuario(Long usuarioId) {
         // Verificar se o usuário existe
-        Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado com o ID: " + usuarioId));
-        return usuario.getCursos().stream()
-                .map(Curso::getId)
-                .toList();
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new RecursoNaoEncontradoException("Usuário não encontrado com o ID: " + usuarioId);
+        }
+        return usuarioRepository.findCursoIdsByUsuarioId(usuarioId);
     }
 
-    // Método privado para converter Atividade para AtividadeDTO
-    // Método auxiliar para copiar atividade para audit log
-    private Atividade copyAtividadeForAudit(Atividade atividade) {
-        try {
-            // Usar ObjectMapper para criar uma cópia profunda do objeto
-            String json = objectMapper.writeValueAsString(atividade);
-            return objectMapper.readValue(json, Atividade.class);
-        } catch (Exception e) {
-            // Se falhar a cópia profunda, criar manualmente uma cópia superficial
-            Atividade copy = new Atividade();
-            copy.setId(atividade.getId());
-            copy.setNome(atividade.getNome());
-            copy.setObjetivo(atividade.getObjetivo());
-            copy.setPublicoAlvo(atividade.getPublicoAlvo());
-            copy.setStatusPublicacao(atividade.getStatusPublicacao());
-            copy.setDataRealizacao(atividade.getDataRealizacao());
-            copy.setDataFim(atividade.getDataFim());
-            copy.setFotoCapa(atividade.getFotoCapa());
-            copy.setCurso(atividade.getCurso());
-            copy.setCategoria(atividade.getCategoria());
-            return copy;
+    // Converte uma lista de IDs em DTOs com um número fixo de consultas, independente do tamanho:
+    // uma para as colunas da atividade, do curso, da categoria e das fontes, outra para os integrantes.
+    // Nenhuma entidade é carregada. A ordem dos IDs recebidos é preservada.
+    private List<AtividadeDTO> carregarAtividadesDTO(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<AtividadeProjecaoDTO>> linhas = atividadeRepository.findProjecoesByIdIn(ids).stream()
+                .collect(Collectors.groupingBy(AtividadeProjecaoDTO::id));
+
+        Map<Long, List<PessoaPapelDTO>> integrantes = new HashMap<>();
+        for (Object[] linha : atividadePessoaPapelRepository.findIntegrantesByAtividadeIds(ids)) {
+            integrantes.computeIfAbsent((Long) linha[0], id -> new ArrayList<>())
+                    .add(new PessoaPapelDTO((Long) linha[1], (String) linha[2], (String) linha[3],
+                            ((Papel) linha[4]).name()));
+        }
+
+        List<AtividadeDTO> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            List<AtividadeProjecaoDTO> linhasAtividade = linhas.get(id);
+            if (linhasAtividade != null) {
+                resultado.add(toAtividadeDTO(linhasAtividade, integrantes.getOrDefault(id, List.of())));
+            }
         }
+        return resultado;
     }
 
-    private AtividadeDTO toAtividadeDTO(Atividade atividade) {
+    private AtividadeDTO carregarAtividadeDTO(Long atividadeId) {
+        List<AtividadeDTO> atividades = carregarAtividadesDTO(List.of(atividadeId));
+        if (atividades.isEmpty()) {
+            throw new RecursoNaoEncontradoException("Atividade não encontrada com o ID: " + atividadeId);
+        }
+        return atividades.get(0);
+    }
+
+    // Uma linha da projeção por fonte financiadora; os demais campos se repetem
+    private AtividadeDTO toAtividadeDTO(List<AtividadeProjecaoDTO> linhas, List<PessoaPapelDTO> integrantes) {
+        AtividadeProjecaoDTO atividade = linhas.get(0);
+        String coordenador = integrantes.stream()
+                .filter(integrante -> Papel.COORDENADOR.name().equals(integrante.papel()))
+                .map(PessoaPapelDTO::nome)
+                .findFirst()
+                .orElse(null);
+        List<FonteFinanciadoraResumidaDTO> fontes = linhas.stream()
+                .filter(linha -> linha.fonteId() != null)
+                .map(linha -> new FonteFinanciadoraResumidaDTO(linha.fonteId(), linha.fonteNome()))
+                .toList();
         return new AtividadeDTO(
-                atividade.getId(),
-                atividade.getNome(),
-                atividade.getObjetivo(),
-                atividade.getPublicoAlvo(),
-                atividade.getStatusPublicacao(),
-                atividade.getFotoCapa(),
-                atividade.getCoordenador(),
-                atividade.getDataRealizacao(),
-                atividade.getDataFim(),
-                atividade.getCurso(),
-                atividade.getCategoria(),
-                atividade.getFontesFinanciadora(),
-                atividade.getPessoas().stream()
-                        .map(pessoa -> new PessoaPapelDTO(
-                                pessoa.getPessoa().getId(),
-                                pessoa.getPessoa().getNome(),
-                                pessoa.getPessoa().getCpf(),
-                                pessoa.getPapel().name()))
-                        .toList());
+                atividade.id(),
+                atividade.nome(),
+                atividade.objetivo(),
+                atividade.publicoAlvo(),
+                atividade.statusPublicacao(),
+                atividade.fotoCapa(),
+                coordenador,
+                atividade.dataRealizacao(),
+                atividade.dataFim(),
+                new CursoResumidoDTO(atividade.cursoId(), atividade.cursoNome()),
+                atividade.categoriaId() != null
+                        ? new CategoriaResumidaDTO(atividade.categoriaId(), atividade.categoriaNome())
+                        : null,
+                fontes,
+                integrantes);
     }
 
     // Método privado para converter AtividadeDTO para Atividade
@@ -448,13 +533,13 @@ public class AtividadeService {
         atividade.setStatusPublicacao(atividadeDTO.statusPublicacao());
         atividade.setDataRealizacao(atividadeDTO.dataRealizacao());
         atividade.setDataFim(atividadeDTO.dataFim());
-        atividade.setCurso(atividadeDTO.curso());
-        atividade.setCategoria(atividadeDTO.categoria());
+        atividade.setCurso(new Curso(atividadeDTO.curso().id()));
+        atividade.setCategoria(new Categoria(atividadeDTO.categoria().id()));
         
         // Buscar fontes financiadoras do banco para associá-las corretamente (entidades gerenciadas)
         if (atividadeDTO.fontesFinanciadora() != null && !atividadeDTO.fontesFinanciadora().isEmpty()) {
             List<FonteFinanciadora> fontesGerenciadas = atividadeDTO.fontesFinanciadora().stream()
-                    .map(fonte -> fonteFinanciadoraService.recuperarFinanciadoraPorId(fonte.getId()))
+                    .map(fonte -> fonteFinanciadoraService.recuperarFinanciadoraPorId(fonte.id()))
                     .collect(Collectors.toList());
             atividade.setFontesFinanciadora(fontesGerenciadas);
         } else {
@@ -464,37 +549,91 @@ public class AtividadeService {
         return atividade;
     }
 
-    // Método privado para sincronizar integrantes (adicionar/remover/atualizar)
+    /**
+     * Reconcilia os integrantes da atividade com a lista recebida, em vez de recriar todas as
+     * associações: insere só as novas, remove (orphanRemoval) só as ausentes e atualiza o papel
+     * das que mudaram. Pessoas novas são validadas com uma única consulta e associadas por
+     * referência, sem carregar a entidade. A diferença vai para um único registro de auditoria.
+     */
     private void sincronizarIntegrantes(Atividade atividade, List<PessoaPapelDTO> integrantesDTO) {
         if (integrantesDTO == null) {
             // Se não foi fornecida lista de integrantes, não faz nada (mantém os existentes)
             return;
         }
 
-        // Obter lista atual de pessoas na atividade
-        List<AtividadePessoaPapel> pessoasExistentes = atividade.getPessoas();
-        
-        // Limpar a lista existente (orphanRemoval cuidará da remoção no banco)
-        pessoasExistentes.clear();
-        
-        // Adicionar os novos integrantes
+        // Papel desejado por pessoa, na ordem recebida
+        Map<Long, Papel> desejados = new LinkedHashMap<>();
         for (PessoaPapelDTO integranteDTO : integrantesDTO) {
-            // Buscar a pessoa no banco
-            Pessoa pessoa = pessoaRepository.findById(integranteDTO.id())
-                    .orElseThrow(() -> new RecursoNaoEncontradoException(
-                            "Pessoa não encontrada com o ID: " + integranteDTO.id()));
-            
-            // Criar a associação AtividadePessoaPapel
-            AtividadePessoaId id = new AtividadePessoaId(atividade.getId(), pessoa.getId());
+            if (desejados.put(integranteDTO.id(), Papel.valueOf(integranteDTO.papel())) != null) {
+                throw new ValidacaoException("Pessoa repetida na lista de integrantes: " + integranteDTO.id());
+            }
+        }
+
+        List<AtividadePessoaPapel> pessoasExistentes = atividade.getPessoas();
+        Map<Long, AtividadePessoaPapel> existentesPorPessoa = new HashMap<>();
+        for (AtividadePessoaPapel associacao : pessoasExistentes) {
+            existentesPorPessoa.put(associacao.getId().getPessoaId(), associacao);
+        }
+
+        // Validar as pessoas novas antes de alterar a coleção
+        List<Long> adicionados = desejados.keySet().stream()
+                .filter(pessoaId -> !existentesPorPessoa.containsKey(pessoaId))
+                .toList();
+        if (!adicionados.isEmpty()) {
+            Set<Long> encontrados = new HashSet<>(pessoaRepository.findIdsByIdIn(adicionados));
+            for (Long pessoaId : adicionados) {
+                if (!encontrados.contains(pessoaId)) {
+                    throw new RecursoNaoEncontradoException("Pessoa não encontrada com o ID: " + pessoaId);
+                }
+            }
+        }
+
+        // Diferença para a auditoria: papel anterior e novo de cada pessoa afetada, por id. Com
+        // um nível só, o histórico de "AtividadeIntegrantes" reconstrói os papéis atuais.
+        Map<String, Papel> antes = new TreeMap<>();
+        Map<String, Papel> depois = new TreeMap<>();
+        int removidos = 0;
+        int alterados = 0;
+
+        Iterator<AtividadePessoaPapel> iterator = pessoasExistentes.iterator();
+        while (iterator.hasNext()) {
+            AtividadePessoaPapel associacao = iterator.next();
+            Long pessoaId = associacao.getId().getPessoaId();
+            Papel papel = desejados.get(pessoaId);
+            if (papel == null) {
+                antes.put(pessoaId.toString(), associacao.getPapel());
+                iterator.remove();
+                removidos++;
+            } else if (papel != associacao.getPapel()) {
+                antes.put(pessoaId.toString(), associacao.getPapel());
+                depois.put(pessoaId.toString(), papel);
+                associacao.setPapel(papel);
+                alterados++;
+            }
+        }
+
+        for (Long pessoaId : adicionados) {
             AtividadePessoaPapel associacao = new AtividadePessoaPapel();
-            associacao.setId(id);
+            associacao.setId(new AtividadePessoaId(atividade.getId(), pessoaId));
             associacao.setAtividade(atividade);
-            associacao.setPessoa(pessoa);
-            associacao.setPapel(Papel.valueOf(integranteDTO.papel()));
-            
-            // Adicionar à lista
+            associacao.setPessoa(pessoaRepository.getReferenceById(pessoaId));
+            associacao.setPapel(desejados.get(pessoaId));
             pessoasExistentes.add(associacao);
+            depois.put(pessoaId.toString(), associacao.getPapel());
         }
+
+        if (antes.isEmpty() && depois.isEmpty()) {
+            return;
+        }
+        auditLogService.log(
+            AuditLog.AuditAction.UPDATE,
+            "AtividadeIntegrantes",
+            atividade.getId(),
+            antes,
+            depois,
+            String.format("Integrantes da atividade %s: %d adicionado(s), %d removido(s), %d com papel alterado",
+                    atividade.getNome(), adicionados.size(), removidos, alterados)
+        );
     }
 
     private Boolean validarImagem(MultipartFile file) {
@@ -523,7 +662,9 @@ public class AtividadeService {
         Files.createDirectories(targetLocation.getParent());
         Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
 
-        return "/" + this.baseStorageLocation + "/" + uniqueFileName;
+        String fotoCapa = "/" + this.baseStorageLocation + "/" + uniqueFileName;
+        imagemDerivadaService.gerarVariantes(fotoCapa);
+        return fotoCapa;
     }
 
     // Método para excluir uma imagem
@@ -537,6 +678,7 @@ public class AtividadeService {
 
             if (candidatePath.isAbsolute() && candidatePath.startsWith(this.fileStorageLocation)) {
                 Files.deleteIfExists(candidatePath);
+                imagemDerivadaService.excluirVariantes(candidatePath);
                 return true;
             }
 
@@ -555,6 +697,7 @@ public class AtividadeService {
 
             Path targetLocation = this.fileStorageLocation.resolve(normalized).normalize();
             Files.deleteIfExists(targetLocation);
+            imagemDerivadaService.excluirVariantes(targetLocation);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
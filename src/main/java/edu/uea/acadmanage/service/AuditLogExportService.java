@@ -2,116 +2,196 @@ package edu.uea.acadmanage.service;
 
 import edu.uea.acadmanage.DTO.AuditLogFilterDTO;
 import edu.uea.acadmanage.model.AuditLog;
-import edu.uea.acadmanage.repository.AuditLogRepository;
+import edu.uea.acadmanage.repository.LogExportacaoRepository;
+import edu.uea.acadmanage.service.EscritorParquet.Coluna;
+import edu.uea.acadmanage.service.EscritorParquet.Tipo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class AuditLogExportService {
     
     private static final Logger logger = LoggerFactory.getLogger(AuditLogExportService.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private final AuditLogRepository auditLogRepository;
+    private static final int LINHAS_POR_FLUSH = 1000;
     
-    public AuditLogExportService(AuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    private static final List<Coluna> COLUNAS_PARQUET = List.of(
+        Coluna.obrigatoria("id", Tipo.INT64),
+        Coluna.obrigatoria("timestamp", Tipo.TIMESTAMP),
+        Coluna.obrigatoria("user_email", Tipo.STRING),
+        Coluna.obrigatoria("action", Tipo.ENUM),
+        Coluna.obrigatoria("entity_name", Tipo.STRING),
+        Coluna.obrigatoria("entity_id", Tipo.INT64),
+        Coluna.opcional("description", Tipo.STRING),
+        Coluna.opcional("endpoint", Tipo.STRING),
+        Coluna.opcional("http_method", Tipo.STRING),
+        Coluna.opcional("ip_address", Tipo.STRING),
+        Coluna.opcional("user_agent", Tipo.STRING),
+        Coluna.opcional("old_values", Tipo.JSON),
+        Coluna.opcional("new_values", Tipo.JSON),
+        Coluna.opcional("alteracoes", Tipo.JSON)
+    );
+    
+    private final LogExportacaoRepository logExportacaoRepository;
+    private final ArquivoLogs arquivoLogs;
+    private final ObjectWriter jsonWriter;
+    
+    public AuditLogExportService(LogExportacaoRepository logExportacaoRepository, ArquivoLogs arquivoLogs,
+                                 ObjectMapper objectMapper) {
+        this.logExportacaoRepository = logExportacaoRepository;
+        this.arquivoLogs = arquivoLogs;
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
     
     public void exportToCsv(AuditLogFilterDTO filter, OutputStream outputStream) throws IOException {
-        try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
-            // Escrever BOM UTF-8 para melhor compatibilidade com Excel
-            outputStream.write(0xEF);
-            outputStream.write(0xBB);
-            outputStream.write(0xBF);
-            
-            // Escrever cabeçalho CSV
-            writer.write("ID,Data/Hora,Usuário,Ação,Entidade,ID Entidade,Descrição,Endpoint,Método HTTP,IP,User Agent,Valores Antigos,Valores Novos\n");
+        exportToCsv(filter, outputStream, false);
+    }
+    
+    /**
+     * Exporta os logs do filtro em CSV (opcionalmente compactado com gzip). As linhas são lidas
+     * do banco por cursor e escritas à medida que chegam, com memória constante.
+     */
+    public void exportToCsv(AuditLogFilterDTO filter, OutputStream outputStream, boolean gzip) throws IOException {
+        OutputStream saida = gzip ? new GZIPOutputStream(outputStream, 65536) : outputStream;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 65536)) {
+            // BOM UTF-8 para melhor compatibilidade com Excel
+            writer.write('\uFEFF');
+            writer.write("ID,Data/Hora,Usuário,Ação,Entidade,ID Entidade,Descrição,Endpoint,Método HTTP,IP,User Agent,Valores Antigos,Valores Novos,Alterações\n");
             writer.flush();
             
-            // Buscar logs com filtros e escrever em streaming
-            List<AuditLog> logs = auditLogRepository.findWithFilters(
-                filter.userEmail(),
-                filter.action(),
-                filter.entityName(),
-                filter.entityId(),
-                filter.startDate(),
-                filter.endDate()
-            );
-            
-            // Escrever dados em streaming (processar em lotes se necessário)
-            int batchSize = 1000;
-            int total = logs.size();
-            
-            for (int i = 0; i < total; i++) {
-                AuditLog log = logs.get(i);
-                writer.write(formatAuditLogRow(log));
-                
-                // Flush a cada batch para manter streaming
-                if ((i + 1) % batchSize == 0 || i == total - 1) {
-                    writer.flush();
+            EscritorCsv csv = new EscritorCsv(writer);
+            long[] linhas = {0};
+            percorrer(filter, log -> {
+                escreverLinha(csv, log);
+                // Flush periódico para o cliente receber os dados enquanto a consulta avança
+                if (++linhas[0] % LINHAS_POR_FLUSH == 0) {
+                    flush(writer);
                 }
-            }
-            
-            writer.flush();
+            });
         } catch (Exception e) {
             logger.error("Erro ao exportar logs de auditoria para CSV", e);
             throw new IOException("Erro ao exportar logs de auditoria", e);
         }
     }
     
-    private String formatAuditLogRow(AuditLog log) {
-        StringBuilder row = new StringBuilder();
-        
-        appendCsvField(row, log.getId() != null ? log.getId().toString() : "");
-        appendCsvField(row, log.getTimestamp() != null ? log.getTimestamp().format(DATE_FORMATTER) : "");
-        appendCsvField(row, log.getUserEmail() != null ? log.getUserEmail() : "");
-        appendCsvField(row, log.getAction() != null ? log.getAction().name() : "");
-        appendCsvField(row, log.getEntityName() != null ? log.getEntityName() : "");
-        appendCsvField(row, log.getEntityId() != null ? log.getEntityId().toString() : "");
-        appendCsvField(row, log.getDescription() != null ? log.getDescription() : "");
-        appendCsvField(row, log.getEndpoint() != null ? log.getEndpoint() : "");
-        appendCsvField(row, log.getHttpMethod() != null ? log.getHttpMethod() : "");
-        appendCsvField(row, log.getIpAddress() != null ? log.getIpAddress() : "");
-        appendCsvField(row, log.getUserAgent() != null ? log.getUserAgent() : "");
-        appendCsvField(row, log.getOldValues() != null ? log.getOldValues() : "");
-        appendCsvField(row, log.getNewValues() != null ? log.getNewValues() : "");
-        
-        row.append("\n");
-        return row.toString();
+    /**
+     * Exporta os logs do filtro em NDJSON compactado com gzip: um objeto JSON por linha, com
+     * os mesmos campos da API.
+     */
+    public void exportToNdjson(AuditLogFilterDTO filter, OutputStream outputStream) throws IOException {
+        try (JsonGenerator json = jsonWriter.createGenerator(new GZIPOutputStream(outputStream, 65536))) {
+            long[] linhas = {0};
+            percorrer(filter, log -> {
+                try {
+                    jsonWriter.writeValue(json, log);
+                    json.writeRaw('\n');
+                    if (++linhas[0] % LINHAS_POR_FLUSH == 0) {
+                        json.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Erro ao exportar logs de auditoria para NDJSON", e);
+            throw new IOException("Erro ao exportar logs de auditoria", e);
+        }
+    }
+    
+    /**
+     * Exporta os logs do filtro em Apache Parquet, com o timestamp em milissegundos (UTC), a
+     * ação como enum e os valores antigos/novos como JSON. Cada grupo de linhas vai para a
+     * saída assim que completa.
+     */
+    public void exportToParquet(AuditLogFilterDTO filter, OutputStream outputStream) throws IOException {
+        try (OutputStream saida = outputStream) {
+            EscritorParquet parquet = new EscritorParquet(saida, "audit_log", COLUNAS_PARQUET);
+            percorrer(filter, log -> {
+                try {
+                    parquet.linha(log.getId(), log.getTimestamp(), log.getUserEmail(), log.getAction(),
+                        log.getEntityName(), log.getEntityId(), log.getDescription(), log.getEndpoint(),
+                        log.getHttpMethod(), log.getIpAddress(), log.getUserAgent(), log.getOldValues(),
+                        log.getNewValues(), log.getAlteracoes());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            parquet.concluir();
+        } catch (Exception e) {
+            logger.error("Erro ao exportar logs de auditoria para Parquet", e);
+            throw new IOException("Erro ao exportar logs de auditoria", e);
+        }
     }
     
-    private void appendCsvField(StringBuilder row, String value) {
-        // Adicionar vírgula antes de cada campo, exceto o primeiro
-        if (row.length() > 0) {
-            row.append(",");
+    // Logs do filtro: os do banco, por cursor, e depois os dos meses do período já arquivados
+    private void percorrer(AuditLogFilterDTO filter, Consumer<AuditLog> consumidor) {
+        logExportacaoRepository.percorrerAuditLogs(filter, consumidor);
+        for (YearMonth mes : arquivoLogs.meses(ArquivoLogs.AUDIT_LOG, filter.startDate(), filter.endDate())) {
+            arquivoLogs.ler(ArquivoLogs.AUDIT_LOG, mes, AuditLog.class, log -> {
+                if (corresponde(log, filter)) {
+                    consumidor.accept(log);
+                }
+            });
         }
-        
-        // Se o valor for null ou vazio, adicionar string vazia
-        if (value == null || value.isEmpty()) {
-            return;
+    }
+    
+    // Mesmos critérios de AuditLogRepository.findWithFilters, para os registros arquivados
+    private static boolean corresponde(AuditLog log, AuditLogFilterDTO filter) {
+        return contem(log.getUserEmail(), filter.userEmail())
+            && (filter.action() == null || filter.action() == log.getAction())
+            && contem(log.getEntityName(), filter.entityName())
+            && (filter.entityId() == null || filter.entityId().equals(log.getEntityId()))
+            && (filter.startDate() == null || !log.getTimestamp().isBefore(filter.startDate()))
+            && (filter.endDate() == null || !log.getTimestamp().isAfter(filter.endDate()));
+    }
+    
+    private static boolean contem(String valor, String trecho) {
+        return trecho == null || (valor != null && valor.toLowerCase().contains(trecho.toLowerCase()));
+    }
+    
+    private static void escreverLinha(EscritorCsv csv, AuditLog log) {
+        try {
+            csv.campo(log.getId());
+            csv.campo(log.getTimestamp());
+            csv.campo(log.getUserEmail());
+            csv.campo(log.getAction());
+            csv.campo(log.getEntityName());
+            csv.campo(log.getEntityId());
+            csv.campo(log.getDescription());
+            csv.campo(log.getEndpoint());
+            csv.campo(log.getHttpMethod());
+            csv.campo(log.getIpAddress());
+            csv.campo(log.getUserAgent());
+            csv.campo(log.getOldValues());
+            csv.campo(log.getNewValues());
+            csv.campo(log.getAlteracoes());
+            csv.fimLinha();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        
-        // Escapar aspas e quebras de linha
-        String escaped = value.replace("\"", "\"\"")
-                              .replace("\n", " ")
-                              .replace("\r", " ");
-        
-        // Adicionar aspas se contiver vírgula, aspas ou espaços no início/fim
-        if (escaped.contains(",") || escaped.contains("\"") || 
-            escaped.trim().length() != escaped.length()) {
-            row.append("\"").append(escaped).append("\"");
-        } else {
-            row.append(escaped);
+    }
+    
+    private static void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 }
-
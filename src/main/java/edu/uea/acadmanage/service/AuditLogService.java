@@ -1,12 +1,26 @@
 package edu.uea.acadmanage.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import edu.uea.acadmanage.DTO.AuditLogHistoricoDTO;
 import edu.uea.acadmanage.model.AuditLog;
 import edu.uea.acadmanage.repository.AuditLogRepository;
+import jakarta.persistence.Entity;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,41 +29,144 @@ import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * Registro de auditoria das entidades. No modo {@code DIFF} (padrão) uma atualização grava
+ * só os campos alterados, como JSON Patch, em {@code alteracoes}; criação e exclusão gravam
+ * o estado completo. Entidades relacionadas entram apenas como referência ({@code id} e
+ * {@code nome}). O modo {@code SNAPSHOT} mantém o formato antigo, com o JSON completo antes
+ * e depois. O histórico de uma entidade é reconstruído sob demanda ({@link #historico}).
+ */
 @Service
 public class AuditLogService {
     
     private static final Logger logger = LoggerFactory.getLogger(AuditLogService.class);
-    private final AuditLogRepository auditLogRepository;
+
+    public enum ModoAuditoria {
+        DIFF, SNAPSHOT
+    }
+
+    private final FilaLogs filaLogs;
     private final ObjectMapper objectMapper;
+    private final ObjectMapper referenciasMapper;
+    private final AuditLogRepository auditLogRepository;
+    private final ArquivoLogs arquivoLogs;
+    private final ModoAuditoria modo;
 
-    public AuditLogService(AuditLogRepository auditLogRepository, ObjectMapper objectMapper) {
-        this.auditLogRepository = auditLogRepository;
+    public AuditLogService(FilaLogs filaLogs,
+                           ObjectMapper objectMapper,
+                           AuditLogRepository auditLogRepository,
+                           ArquivoLogs arquivoLogs,
+                           @Value("${app.auditoria.modo:DIFF}") ModoAuditoria modo) {
+        this.filaLogs = filaLogs;
         this.objectMapper = objectMapper;
+        this.auditLogRepository = auditLogRepository;
+        this.arquivoLogs = arquivoLogs;
+        this.modo = modo;
+        this.referenciasMapper = objectMapper.copy();
+        this.referenciasMapper.setSerializerFactory(referenciasMapper.getSerializerFactory()
+                .withSerializerModifier(new ReferenciasModifier()));
+    }
+
+    /**
+     * Estado atual da entidade para a auditoria, capturado antes de alterá-la. Substitui a
+     * cópia profunda da entidade: o JSON é gerado uma única vez, já no formato gravado.
+     */
+    public JsonNode capturar(Object entidade) {
+        if (entidade instanceof JsonNode estado) {
+            return estado;
+        }
+        try {
+            return (modo == ModoAuditoria.DIFF ? referenciasMapper : objectMapper).valueToTree(entidade);
+        } catch (Exception e) {
+            logger.warn("Erro ao converter objeto para JSON na auditoria", e);
+            return TextNode.valueOf(String.valueOf(entidade));
+        }
+    }
+
+    /**
+     * Histórico da entidade, do evento mais recente ao mais antigo, com as alterações de cada
+     * evento e o estado resultante, reconstruído aplicando as alterações desde a criação. Sem
+     * um estado completo de partida (criação ou registro no modo SNAPSHOT; entidades da carga
+     * inicial não têm criação auditada), o estado fica nulo, como desconhecido, até aparecer um.
+     * Eventos de meses já arquivados são lidos do {@link ArquivoLogs}: só os meses anteriores
+     * ao evento mais antigo do banco em que a entidade aparece, até encontrar a criação.
+     */
+    public List<AuditLogHistoricoDTO> historico(String entityName, Long entityId) {
+        List<AuditLog> logs = new ArrayList<>(auditLogRepository.findHistoryByEntity(entityName, entityId));
+        LocalDateTime maisAntigo = logs.isEmpty() ? null : logs.get(logs.size() - 1).getTimestamp();
+        for (YearMonth mes : arquivoLogs.meses(ArquivoLogs.AUDIT_LOG, null, maisAntigo)) {
+            if (criada(logs)) {
+                break;
+            }
+            if (arquivoLogs.contemEntidade(ArquivoLogs.AUDIT_LOG, mes, entityName, entityId)) {
+                arquivoLogs.ler(ArquivoLogs.AUDIT_LOG, mes, AuditLog.class, log -> {
+                    if (entityName.equals(log.getEntityName()) && entityId.equals(log.getEntityId())) {
+                        logs.add(log);
+                    }
+                });
+            }
+        }
+        Collections.reverse(logs);
+        List<AuditLogHistoricoDTO> historico = new ArrayList<>(logs.size());
+        JsonNode estado = null;
+        for (AuditLog log : logs) {
+            JsonNode alteracoes = null;
+            JsonNode anterior = lerJson(log.getOldValues());
+            JsonNode novo = lerJson(log.getNewValues());
+            if (log.getAlteracoes() != null) {
+                alteracoes = lerJson(log.getAlteracoes());
+                estado = estado != null && alteracoes != null ? aplicar(estado, alteracoes, log) : null;
+            } else if (log.getAction() == AuditLog.AuditAction.DELETE) {
+                estado = null;
+            } else if (novo != null && (anterior != null || log.getAction() == AuditLog.AuditAction.CREATE)) {
+                // Criação ou atualização gravada no formato completo (modo SNAPSHOT)
+                alteracoes = AuditoriaDiff.diff(anterior, novo);
+                estado = novo;
+            }
+            historico.add(new AuditLogHistoricoDTO(log.getId(), log.getAction(), log.getUserEmail(),
+                    log.getTimestamp(), log.getDescription(), alteracoes, estado));
+        }
+        Collections.reverse(historico);
+        return historico;
+    }
+
+    // Alterações que não se aplicam ao estado reconstruído (registro ausente no meio do
+    // histórico) tornam o estado desconhecido em vez de derrubar a consulta
+    private static JsonNode aplicar(JsonNode estado, JsonNode alteracoes, AuditLog log) {
+        try {
+            return AuditoriaDiff.aplicar(estado, alteracoes);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Alterações do log de auditoria {} não se aplicam ao estado reconstruído: {}",
+                    log.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Nada anterior à criação da entidade entra no histórico
+    private static boolean criada(List<AuditLog> logs) {
+        return !logs.isEmpty() && logs.get(logs.size() - 1).getAction() == AuditLog.AuditAction.CREATE;
     }
 
     /**
-     * Método público para capturar o contexto e chamar o método assíncrono
+     * Monta o registro na thread da requisição (contexto de segurança, dados da requisição e
+     * o JSON das entidades no estado atual) e o enfileira para gravação em lote, após o
+     * commit da transação em andamento.
      */
     public void log(AuditLog.AuditAction action, String entityName, Long entityId, 
                     Object oldEntity, Object newEntity, String description) {
-        // Capturar SecurityContext e RequestAttributes ANTES do método assíncrono
         SecurityContext securityContext = SecurityContextHolder.getContext();
         RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
-        
-        // Extrair informações do contexto antes de passar para thread assíncrona
         String userEmail = getCurrentUserEmail(securityContext);
         HttpServletRequest request = getCurrentRequest(requestAttributes);
-        
-        // Chamar método assíncrono com os valores já capturados
-        logAsync(action, entityName, entityId, oldEntity, newEntity, description, userEmail, request);
-    }
 
-    @Async
-    private void logAsync(AuditLog.AuditAction action, String entityName, Long entityId, 
-                         Object oldEntity, Object newEntity, String description,
-                         String userEmail, HttpServletRequest request) {
         try {
             AuditLog auditLog = new AuditLog();
             auditLog.setEntityName(entityName);
@@ -66,15 +183,27 @@ public class AuditLogService {
                 auditLog.setHttpMethod(request.getMethod());
             }
 
-            if (oldEntity != null) {
-                auditLog.setOldValues(convertToJson(oldEntity));
-            }
+            if (modo == ModoAuditoria.DIFF) {
+                JsonNode antes = oldEntity != null ? capturar(oldEntity) : null;
+                JsonNode depois = newEntity != null ? capturar(newEntity) : null;
+                if (antes != null && depois != null) {
+                    auditLog.setAlteracoes(AuditoriaDiff.diff(antes, depois).toString());
+                } else {
+                    auditLog.setOldValues(antes != null ? antes.toString() : null);
+                    auditLog.setNewValues(depois != null ? depois.toString() : null);
+                }
+            } else {
+                if (oldEntity != null) {
+                    auditLog.setOldValues(convertToJson(oldEntity));
+                }
 
-            if (newEntity != null) {
-                auditLog.setNewValues(convertToJson(newEntity));
+                if (newEntity != null) {
+                    auditLog.setNewValues(convertToJson(newEntity));
+                }
             }
 
-            auditLogRepository.save(auditLog);
+            auditLog.limitarTamanhos();
+            filaLogs.enfileirarAposCommit(auditLog);
         } catch (Exception e) {
             logger.error("Erro ao salvar log de auditoria", e);
             // Não lança exceção para não interromper o fluxo principal
@@ -109,6 +238,18 @@ public class AuditLogService {
         }
     }
 
+    private JsonNode lerJson(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            // Registros antigos podem conter o toString() da entidade em vez de JSON
+            return TextNode.valueOf(json);
+        }
+    }
+
     private HttpServletRequest getCurrentRequest(RequestAttributes requestAttributes) {
         try {
             if (requestAttributes instanceof ServletRequestAttributes) {
@@ -215,4 +356,61 @@ public class AuditLogService {
         
         return false;
     }
+
+    // Propriedades que apontam para outras entidades (ou coleções delas) viram referências
+    private static final class ReferenciasModifier extends BeanSerializerModifier {
+
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config,
+                                                         BeanDescription descricao,
+                                                         List<BeanPropertyWriter> propriedades) {
+            for (BeanPropertyWriter propriedade : propriedades) {
+                JavaType tipo = propriedade.getType();
+                boolean colecao = tipo.isContainerType() && tipo.getContentType() != null;
+                Class<?> alvo = colecao ? tipo.getContentType().getRawClass() : tipo.getRawClass();
+                if (alvo.isAnnotationPresent(Entity.class)) {
+                    propriedade.assignSerializer(new ReferenciaSerializer());
+                }
+            }
+            return propriedades;
+        }
+    }
+
+    private static final class ReferenciaSerializer extends StdSerializer<Object> {
+
+        private static final String[] CAMPOS = { "id", "nome" };
+
+        private ReferenciaSerializer() {
+            super(Object.class);
+        }
+
+        @Override
+        public void serialize(Object valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            if (valor instanceof Collection<?> colecao) {
+                gerador.writeStartArray();
+                for (Object item : colecao) {
+                    escreverReferencia(item, gerador, provider);
+                }
+                gerador.writeEndArray();
+            } else {
+                escreverReferencia(valor, gerador, provider);
+            }
+        }
+
+        private static void escreverReferencia(Object entidade, JsonGenerator gerador, SerializerProvider provider)
+                throws IOException {
+            if (entidade == null) {
+                gerador.writeNull();
+                return;
+            }
+            BeanWrapper bean = new BeanWrapperImpl(entidade);
+            gerador.writeStartObject();
+            for (String campo : CAMPOS) {
+                if (bean.isReadableProperty(campo)) {
+                    provider.defaultSerializeField(campo, bean.getPropertyValue(campo), gerador);
+                }
+            }
+            gerador.writeEndObject();
+        }
+    }
 }
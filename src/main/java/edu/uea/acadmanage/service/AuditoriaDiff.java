@@ -0,0 +1,120 @@
+package edu.uea.acadmanage.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Diferença entre dois estados de uma entidade no formato JSON Patch (RFC 6902), usada pela
+ * auditoria para gravar só os campos alterados. Objetos são comparados campo a campo;
+ * listas e valores simples alterados são substituídos por inteiro ({@code replace}).
+ */
+public final class AuditoriaDiff {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private AuditoriaDiff() {
+    }
+
+    /**
+     * Operações {@code add}, {@code remove} e {@code replace} que levam {@code antes} a
+     * {@code depois}. Estados nulos são tratados como objeto vazio.
+     */
+    public static ArrayNode diff(JsonNode antes, JsonNode depois) {
+        ArrayNode operacoes = NODES.arrayNode();
+        comparar("", vazioSeNulo(antes), vazioSeNulo(depois), operacoes);
+        return operacoes;
+    }
+
+    /**
+     * Aplica as operações geradas por {@link #diff} sobre uma cópia do estado informado.
+     *
+     * @throws IllegalArgumentException se um caminho não existe no estado (operações geradas
+     *         a partir de outro estado de partida)
+     */
+    public static JsonNode aplicar(JsonNode estado, JsonNode operacoes) {
+        JsonNode resultado = vazioSeNulo(estado).deepCopy();
+        for (JsonNode operacao : operacoes) {
+            String op = operacao.path("op").asText();
+            String caminho = operacao.path("path").asText();
+            if (caminho.isEmpty()) {
+                if (!"replace".equals(op) && !"add".equals(op)) {
+                    throw new IllegalArgumentException("Operação inválida na raiz do documento: " + op);
+                }
+                resultado = operacao.get("value").deepCopy();
+                continue;
+            }
+            List<String> partes = partes(caminho);
+            JsonNode pai = resultado;
+            for (String parte : partes.subList(0, partes.size() - 1)) {
+                pai = pai != null ? pai.get(parte) : null;
+            }
+            if (!(pai instanceof ObjectNode objeto)) {
+                throw new IllegalArgumentException("Caminho inválido no JSON Patch: " + caminho);
+            }
+            String campo = partes.get(partes.size() - 1);
+            switch (op) {
+                case "add", "replace" -> objeto.set(campo, operacao.get("value").deepCopy());
+                case "remove" -> objeto.remove(campo);
+                default -> throw new IllegalArgumentException("Operação não suportada no JSON Patch: " + op);
+            }
+        }
+        return resultado;
+    }
+
+    private static void comparar(String caminho, JsonNode antes, JsonNode depois, ArrayNode operacoes) {
+        if (antes.equals(depois)) {
+            return;
+        }
+        if (!antes.isObject() || !depois.isObject()) {
+            operacoes.addObject().put("op", "replace").put("path", caminho).set("value", depois);
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> camposAntes = antes.fields();
+        while (camposAntes.hasNext()) {
+            Map.Entry<String, JsonNode> campo = camposAntes.next();
+            String caminhoCampo = caminho + "/" + escapar(campo.getKey());
+            JsonNode valorDepois = depois.get(campo.getKey());
+            if (valorDepois == null) {
+                operacoes.addObject().put("op", "remove").put("path", caminhoCampo);
+            } else {
+                comparar(caminhoCampo, campo.getValue(), valorDepois, operacoes);
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> camposDepois = depois.fields();
+        while (camposDepois.hasNext()) {
+            Map.Entry<String, JsonNode> campo = camposDepois.next();
+            if (!antes.has(campo.getKey())) {
+                operacoes.addObject().put("op", "add")
+                        .put("path", caminho + "/" + escapar(campo.getKey()))
+                        .set("value", campo.getValue());
+            }
+        }
+    }
+
+    // Segmentos de um JSON Pointer (RFC 6901): "~1" representa "/" e "~0" representa "~"
+    private static List<String> partes(String caminho) {
+        if (!caminho.startsWith("/")) {
+            throw new IllegalArgumentException("Caminho inválido no JSON Patch: " + caminho);
+        }
+        List<String> partes = new ArrayList<>();
+        for (String parte : caminho.substring(1).split("/", -1)) {
+            partes.add(parte.replace("~1", "/").replace("~0", "~"));
+        }
+        return partes;
+    }
+
+    private static String escapar(String campo) {
+        return campo.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static JsonNode vazioSeNulo(JsonNode estado) {
+        return estado == null || estado.isNull() || estado.isMissingNode() ? NODES.objectNode() : estado;
+    }
+}
@@ -29,7 +29,7 @@ public class AuthenticationService {
                 )
         );
 
-        return userRepository.findByEmail(input.username())
+        return userRepository.findComRolesByEmail(input.username())
                 .orElseThrow();
     }
 }
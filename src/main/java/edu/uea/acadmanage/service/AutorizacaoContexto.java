@@ -0,0 +1,46 @@
+package edu.uea.acadmanage.service;
+
+import java.util.Set;
+
+/**
+ * Dados de autorização de um usuário: perfis e cursos associados.
+ * As verificações são consultas em conjuntos, sem acesso ao banco.
+ */
+public record AutorizacaoContexto(
+        Long usuarioId,
+        Long pessoaId,
+        String email,
+        Set<String> roles,
+        Set<Long> cursoIds) {
+
+    public static final String ROLE_ADMINISTRADOR = "ROLE_ADMINISTRADOR";
+    public static final String ROLE_GERENTE = "ROLE_GERENTE";
+    public static final String ROLE_SECRETARIO = "ROLE_SECRETARIO";
+    public static final String ROLE_COORDENADOR_ATIVIDADE = "ROLE_COORDENADOR_ATIVIDADE";
+
+    public AutorizacaoContexto {
+        roles = Set.copyOf(roles);
+        cursoIds = Set.copyOf(cursoIds);
+    }
+
+    public boolean temRole(String role) {
+        return roles.contains(role);
+    }
+
+    public boolean isAdmin() {
+        return temRole(ROLE_ADMINISTRADOR);
+    }
+
+    // Administrador, gerente ou secretário
+    public boolean isGestor() {
+        return isAdmin() || temRole(ROLE_GERENTE) || temRole(ROLE_SECRETARIO);
+    }
+
+    public boolean isCoordenadorAtividade() {
+        return temRole(ROLE_COORDENADOR_ATIVIDADE);
+    }
+
+    public boolean temAcessoAoCurso(Long cursoId) {
+        return cursoId != null && cursoIds.contains(cursoId);
+    }
+}
@@ -0,0 +1,128 @@
+package edu.uea.acadmanage.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.uea.acadmanage.repository.UsuarioRepository;
+import edu.uea.acadmanage.service.event.CredenciaisAlteradasEvent;
+import edu.uea.acadmanage.service.event.CursoAlteradoEvent;
+import edu.uea.acadmanage.service.event.PermissoesAlteradasEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Mantém o {@link AutorizacaoContexto} de cada usuário (chave: e-mail), carregado
+ * com consultas de projeção na primeira verificação e reutilizado pelas seguintes.
+ *
+ * <p>Cada contexto guarda a {@code versaoPermissoes} do usuário lida na carga. A coluna é
+ * incrementada na mesma transação que altera perfis ou cursos associados, e cada verificação
+ * a compara com o banco (uma consulta pelo e-mail, sem junções); se mudou, ou se o usuário
+ * não existe mais com esse e-mail, o contexto é recarregado. Assim uma revogação feita em
+ * qualquer nó vale na verificação seguinte de todos eles, sem depender do TTL.
+ *
+ * <p>No nó que fez a alteração o contexto também é removido após o commit. Cada remoção
+ * incrementa a versão local do cache; um contexto carregado antes dela não é guardado.
+ */
+@Service
+public class AutorizacaoContextoService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<String, Entrada> cache;
+    private final AtomicLong versao = new AtomicLong();
+
+    public AutorizacaoContextoService(
+            UsuarioRepository usuarioRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.autorizacao-cache.max-size:10000}") long tamanhoMaximo,
+            @Value("${app.security.autorizacao-cache.ttl:5m}") Duration ttl) {
+        this.usuarioRepository = usuarioRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "autorizacao");
+    }
+
+    private record Entrada(AutorizacaoContexto contexto, long versaoPermissoes) {
+    }
+
+    public AutorizacaoContexto obter(String email) {
+        Entrada entrada = cache.getIfPresent(email);
+        if (entrada != null && usuarioRepository.findVersaoPermissoesByEmail(email)
+                .filter(versaoPermissoes -> versaoPermissoes == entrada.versaoPermissoes())
+                .isPresent()) {
+            return entrada.contexto();
+        }
+        long versaoLida = versao.get();
+        Entrada carregada = carregar(email);
+        if (versao.get() == versaoLida) {
+            cache.put(email, carregada);
+        }
+        return carregada.contexto();
+    }
+
+    public void invalidarUsuario(Long usuarioId) {
+        versao.incrementAndGet();
+        cache.asMap().values().removeIf(entrada -> entrada.contexto().usuarioId().equals(usuarioId));
+    }
+
+    public void invalidarEmail(String email) {
+        versao.incrementAndGet();
+        cache.invalidate(email);
+    }
+
+    // Síncrono, na transação de quem publicou: o incremento é gravado junto com a alteração
+    @EventListener
+    public void registrarAlteracaoDePermissoes(PermissoesAlteradasEvent evento) {
+        usuarioRepository.incrementarVersaoPermissoes(evento.usuarioId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissoesAlteradas(PermissoesAlteradasEvent evento) {
+        invalidarUsuario(evento.usuarioId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredenciaisAlteradas(CredenciaisAlteradasEvent evento) {
+        invalidarEmail(evento.email());
+    }
+
+    // Curso excluído: remove os contextos que ainda o referenciam
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCursoAlterado(CursoAlteradoEvent evento) {
+        if (evento.operacao() == CursoAlteradoEvent.Operacao.EXCLUIDO) {
+            versao.incrementAndGet();
+            cache.asMap().values().removeIf(entrada -> entrada.contexto().cursoIds().contains(evento.cursoId()));
+        }
+    }
+
+    private Entrada carregar(String email) {
+        List<Object[]> identificacao = usuarioRepository.findIdentificacaoByEmail(email);
+        if (identificacao.isEmpty()) {
+            throw new UsernameNotFoundException("Usuário não encontrado: " + email);
+        }
+        Long usuarioId = (Long) identificacao.get(0)[0];
+        Long pessoaId = (Long) identificacao.get(0)[1];
+        // Lida antes dos papéis e cursos: um incremento concorrente força nova carga
+        long versaoPermissoes = (Long) identificacao.get(0)[2];
+        AutorizacaoContexto contexto = new AutorizacaoContexto(
+                usuarioId,
+                pessoaId,
+                email,
+                new HashSet<>(usuarioRepository.findRoleNomesByUsuarioId(usuarioId)),
+                new HashSet<>(usuarioRepository.findCursoIdsByUsuarioId(usuarioId)));
+        return new Entrada(contexto, versaoPermissoes);
+    }
+}
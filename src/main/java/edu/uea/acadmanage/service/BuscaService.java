@@ -0,0 +1,575 @@
+package edu.uea.acadmanage.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import edu.uea.acadmanage.DTO.BuscaRespostaDTO;
+import edu.uea.acadmanage.DTO.BuscaResultadoDTO;
+import edu.uea.acadmanage.repository.AtividadeRepository;
+import edu.uea.acadmanage.repository.CursoRepository;
+import edu.uea.acadmanage.repository.PessoaRepository;
+import edu.uea.acadmanage.service.event.AtividadeAlteradaEvent;
+import edu.uea.acadmanage.service.event.CursoAlteradoEvent;
+import edu.uea.acadmanage.service.event.PessoaAlteradaEvent;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+/**
+ * Busca textual em atividades, cursos e pessoas sobre um índice invertido do Lucene
+ * em disco local. A análise ignora maiúsculas e acentos ("extensão" = "extensao"),
+ * cada termo pesquisado também casa como prefixo (prefixos indexados como edge n-grams)
+ * e os resultados são ordenados por relevância (BM25), com peso maior para o nome.
+ *
+ * <p>O índice é mantido pelos eventos de alteração publicados pelos serviços e
+ * reconstruído a partir do banco na inicialização e a cada hora. Cada nó mantém o
+ * seu próprio índice: alterações feitas em outro nó aparecem após a reconstrução.
+ */
+@Service
+public class BuscaService implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BuscaService.class);
+
+    public static final int LIMITE_MAXIMO = 100;
+    private static final int TAMANHO_MAXIMO_TERMO = 200;
+    private static final int TAMANHO_RESUMO = 200;
+
+    private static final String CAMPO_CHAVE = "chave";
+    private static final String CAMPO_TIPO = "tipo";
+    private static final String CAMPO_ID = "id";
+    private static final String CAMPO_CURSO = "cursoId";
+    private static final String CAMPO_GERACAO = "geracao";
+    private static final String CAMPO_NOME = "nome";
+    private static final String CAMPO_TEXTO = "texto";
+    private static final String CAMPO_RESUMO = "resumo";
+    // Prefixos (edge n-grams) gerados na indexação: a busca por prefixo vira uma consulta de termo
+    private static final String SUFIXO_PREFIXO = "_prefixo";
+    private static final int PREFIXO_MINIMO = 2;
+    private static final int PREFIXO_MAXIMO = 20;
+
+    public enum TipoDocumento {
+        ATIVIDADE, CURSO, PESSOA
+    }
+
+    private final AtividadeRepository atividadeRepository;
+    private final CursoRepository cursoRepository;
+    private final PessoaRepository pessoaRepository;
+    private final Executor executor;
+    private final int tamanhoLote;
+    private final boolean indexarNaInicializacao;
+    private final Analyzer analyzer = new BuscaAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    // Documentos gravados levam a geração corrente; ao fim da reconstrução os de gerações
+    // anteriores (entidades excluídas) são removidos
+    private final AtomicLong geracao = new AtomicLong();
+    private final ReadWriteLock geracaoLock = new ReentrantReadWriteLock();
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+    // Exclusões feitas enquanto a reconstrução percorre o banco: ela pode ter lido a entidade
+    // antes da exclusão e regravá-la depois, por isso são reaplicadas ao fim
+    private final Queue<Query> exclusoesDuranteReconstrucao = new ConcurrentLinkedQueue<>();
+    // Pelo mesmo motivo, entidades gravadas nesse intervalo são relidas do banco ao fim
+    private final Queue<Pendente> gravacoesDuranteReconstrucao = new ConcurrentLinkedQueue<>();
+    private boolean reconstruindo;
+
+    private record Pendente(String entidade, Long id, AcaoIndice acao) {
+    }
+
+    public BuscaService(
+            AtividadeRepository atividadeRepository,
+            CursoRepository cursoRepository,
+            PessoaRepository pessoaRepository,
+            @Qualifier("buscaTaskExecutor") Executor executor,
+            @Value("${app.busca.diretorio:${java.io.tmpdir}/acadmanage-busca}") String diretorio,
+            @Value("${app.busca.tamanho-lote:1000}") int tamanhoLote,
+            @Value("${app.busca.reindexar-na-inicializacao:true}") boolean indexarNaInicializacao) throws IOException {
+        this.atividadeRepository = atividadeRepository;
+        this.cursoRepository = cursoRepository;
+        this.pessoaRepository = pessoaRepository;
+        this.executor = executor;
+        this.tamanhoLote = tamanhoLote;
+        this.indexarNaInicializacao = indexarNaInicializacao;
+        this.directory = abrirDiretorio(diretorio);
+        this.writer = abrirWriter(this.directory);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Pesquisa os tipos informados. Todos os termos precisam casar (como palavra ou prefixo)
+     * no nome ou no texto do documento.
+     */
+    public BuscaRespostaDTO buscar(String termo, Collection<TipoDocumento> tipos, int limite) {
+        long inicio = System.nanoTime();
+        if (termo == null || termo.isBlank()) {
+            throw new ValidacaoException("O termo de busca deve ser informado.");
+        }
+        if (termo.length() > TAMANHO_MAXIMO_TERMO) {
+            throw new ValidacaoException("O termo de busca deve ter no máximo " + TAMANHO_MAXIMO_TERMO + " caracteres.");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ValidacaoException("O limite deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+        String termoTratado = termo.trim();
+        List<String> termos = analisar(termoTratado);
+        if (termos.isEmpty() || tipos.isEmpty()) {
+            return new BuscaRespostaDTO(termoTratado, 0, decorrido(inicio), List.of());
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs encontrados = searcher.search(montarConsulta(termos, tipos), limite);
+                StoredFields campos = searcher.storedFields();
+                List<BuscaResultadoDTO> resultados = new ArrayList<>(encontrados.scoreDocs.length);
+                for (ScoreDoc encontrado : encontrados.scoreDocs) {
+                    Document documento = campos.document(encontrado.doc);
+                    String cursoId = documento.get(CAMPO_CURSO);
+                    resultados.add(new BuscaResultadoDTO(
+                            documento.get(CAMPO_TIPO),
+                            documento.getField(CAMPO_ID).numericValue().longValue(),
+                            documento.get(CAMPO_NOME),
+                            documento.get(CAMPO_RESUMO),
+                            cursoId != null ? Long.valueOf(cursoId) : null,
+                            encontrado.score));
+                }
+                return new BuscaRespostaDTO(termoTratado, encontrados.totalHits.value, decorrido(inicio), resultados);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao consultar o índice de busca.", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAtividadeAlterada(AtividadeAlteradaEvent evento) {
+        executarSemFalhar(() -> indexarAtividade(evento.atividadeId()), "atividade", evento.atividadeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCursoAlterado(CursoAlteradoEvent evento) {
+        if (evento.operacao() == CursoAlteradoEvent.Operacao.USUARIOS_ALTERADOS) {
+            return;
+        }
+        executarSemFalhar(() -> {
+            indexarCurso(evento.cursoId());
+            if (evento.operacao() == CursoAlteradoEvent.Operacao.EXCLUIDO) {
+                // As atividades do curso são removidas em cascata
+                excluir(new BooleanQuery.Builder()
+                        .add(new TermQuery(new Term(CAMPO_TIPO, TipoDocumento.ATIVIDADE.name())), BooleanClause.Occur.FILTER)
+                        .add(new TermQuery(new Term(CAMPO_CURSO, evento.cursoId().toString())), BooleanClause.Occur.FILTER)
+                        .build());
+                searcherManager.maybeRefresh();
+            }
+        }, "curso", evento.cursoId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoaAlterada(PessoaAlteradaEvent evento) {
+        if (evento.pessoaId() == null) {
+            // Importação: indexa só as pessoas novas, fora da thread da requisição. Se a fila
+            // do executor estiver cheia, a reconstrução periódica as inclui.
+            long ultimoIdAnterior = evento.importadasAposId() != null ? evento.importadasAposId() : 0;
+            executor.execute(() -> executarSemFalhar(() -> indexarPessoasApos(ultimoIdAnterior),
+                    "pessoas importadas após o id", ultimoIdAnterior));
+            return;
+        }
+        executarSemFalhar(() -> indexarPessoa(evento.pessoaId()), "pessoa", evento.pessoaId());
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco. Executada em segundo plano na inicialização;
+     * a busca continua respondendo com o índice anterior enquanto isso.
+     */
+    @Async("buscaTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexarNaInicializacao() {
+        if (indexarNaInicializacao) {
+            reindexarTudo();
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000) // A cada hora
+    public void reindexarTudo() {
+        if (!reconstrucao.tryLock()) {
+            return;
+        }
+        try {
+            long inicio = System.nanoTime();
+            long atual;
+            geracaoLock.writeLock().lock();
+            try {
+                atual = geracao.incrementAndGet();
+                reconstruindo = true;
+            } finally {
+                geracaoLock.writeLock().unlock();
+            }
+            int total;
+            try {
+                total = reindexar(0, atividadeRepository::findDadosBuscaApos, this::documentoAtividade)
+                        + reindexar(0, cursoRepository::findDadosBuscaApos, this::documentoCurso)
+                        + reindexar(0, pessoaRepository::findDadosBuscaApos, this::documentoPessoa);
+            } finally {
+                geracaoLock.writeLock().lock();
+                try {
+                    reconstruindo = false;
+                } finally {
+                    geracaoLock.writeLock().unlock();
+                }
+                // Alterações posteriores já não concorrem com a leitura da reconstrução
+                for (Query exclusao; (exclusao = exclusoesDuranteReconstrucao.poll()) != null; ) {
+                    writer.deleteDocuments(exclusao);
+                }
+                for (Pendente gravacao; (gravacao = gravacoesDuranteReconstrucao.poll()) != null; ) {
+                    executarSemFalhar(gravacao.acao(), gravacao.entidade(), gravacao.id());
+                }
+            }
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(CAMPO_GERACAO, Long.toString(atual))), BooleanClause.Occur.MUST_NOT)
+                    .build());
+            writer.commit();
+            searcherManager.maybeRefresh();
+            LOGGER.info("Índice de busca reconstruído: {} documentos em {} ms", total,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } catch (Exception e) {
+            LOGGER.error("Falha ao reconstruir o índice de busca", e);
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    // Alterações ficam visíveis na busca imediatamente; o commit em disco é periódico
+    @Scheduled(fixedDelay = 30000) // A cada 30 segundos
+    public void confirmarAlteracoes() {
+        try {
+            if (writer.isOpen() && writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Não foi possível gravar o índice de busca: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    void indexarAtividade(Long id) throws IOException {
+        indexar(TipoDocumento.ATIVIDADE, id, atividadeRepository.findDadosBuscaById(id), this::documentoAtividade);
+    }
+
+    void indexarCurso(Long id) throws IOException {
+        indexar(TipoDocumento.CURSO, id, cursoRepository.findDadosBuscaById(id), this::documentoCurso);
+    }
+
+    void indexarPessoa(Long id) throws IOException {
+        indexar(TipoDocumento.PESSOA, id, pessoaRepository.findDadosBuscaById(id), this::documentoPessoa);
+    }
+
+    void indexarPessoasApos(long ultimoIdAnterior) throws IOException {
+        geracaoLock.readLock().lock();
+        try {
+            reindexar(ultimoIdAnterior, pessoaRepository::findDadosBuscaApos, this::documentoPessoa);
+            if (reconstruindo) {
+                gravacoesDuranteReconstrucao.add(new Pendente("pessoas importadas após o id", ultimoIdAnterior,
+                        () -> indexarPessoasApos(ultimoIdAnterior)));
+            }
+        } finally {
+            geracaoLock.readLock().unlock();
+        }
+        searcherManager.maybeRefresh();
+    }
+
+    private void reindexarDocumento(TipoDocumento tipo, Long id) throws IOException {
+        switch (tipo) {
+            case ATIVIDADE -> indexarAtividade(id);
+            case CURSO -> indexarCurso(id);
+            case PESSOA -> indexarPessoa(id);
+        }
+    }
+
+    // Entidade inexistente no banco significa exclusão
+    private void indexar(TipoDocumento tipo, Long id, List<Object[]> linhas,
+                         BiFunction<Object[], Long, Document> documento) throws IOException {
+        geracaoLock.readLock().lock();
+        try {
+            if (linhas.isEmpty()) {
+                excluirSemBloqueio(new TermQuery(new Term(CAMPO_CHAVE, chave(tipo, id))));
+            } else {
+                Document novo = documento.apply(linhas.get(0), geracao.get());
+                writer.updateDocument(new Term(CAMPO_CHAVE, novo.get(CAMPO_CHAVE)), novo);
+                if (reconstruindo) {
+                    gravacoesDuranteReconstrucao.add(new Pendente(tipo.name().toLowerCase(), id,
+                            () -> reindexarDocumento(tipo, id)));
+                }
+            }
+        } finally {
+            geracaoLock.readLock().unlock();
+        }
+        searcherManager.maybeRefresh();
+    }
+
+    private void excluir(Query documentos) throws IOException {
+        geracaoLock.readLock().lock();
+        try {
+            excluirSemBloqueio(documentos);
+        } finally {
+            geracaoLock.readLock().unlock();
+        }
+    }
+
+    // Chamado com geracaoLock de leitura: reconstruindo não muda até o fim da exclusão
+    private void excluirSemBloqueio(Query documentos) throws IOException {
+        writer.deleteDocuments(documentos);
+        if (reconstruindo) {
+            exclusoesDuranteReconstrucao.add(documentos);
+        }
+    }
+
+    // Percorre a tabela em lotes ordenados por id, a partir do id seguinte a ultimoIdAnterior
+    private int reindexar(long ultimoIdAnterior, BiFunction<Long, Limit, List<Object[]>> lote,
+                          BiFunction<Object[], Long, Document> documento) throws IOException {
+        int total = 0;
+        long ultimoId = ultimoIdAnterior;
+        List<Object[]> linhas;
+        do {
+            linhas = lote.apply(ultimoId, Limit.of(tamanhoLote));
+            for (Object[] linha : linhas) {
+                Document novo = documento.apply(linha, geracao.get());
+                writer.updateDocument(new Term(CAMPO_CHAVE, novo.get(CAMPO_CHAVE)), novo);
+                ultimoId = (Long) linha[0];
+                total++;
+            }
+        } while (linhas.size() == tamanhoLote);
+        return total;
+    }
+
+    // Colunas: id, nome, objetivo, publicoAlvo, id do curso
+    private Document documentoAtividade(Object[] linha, Long geracaoAtual) {
+        Document documento = documentoBase(TipoDocumento.ATIVIDADE, (Long) linha[0], (String) linha[1],
+                geracaoAtual, (String) linha[2], (String) linha[3]);
+        if (linha[4] != null) {
+            documento.add(new StringField(CAMPO_CURSO, linha[4].toString(), Field.Store.YES));
+        }
+        return documento;
+    }
+
+    // Colunas: id, nome, descricao
+    private Document documentoCurso(Object[] linha, Long geracaoAtual) {
+        return documentoBase(TipoDocumento.CURSO, (Long) linha[0], (String) linha[1], geracaoAtual, (String) linha[2]);
+    }
+
+    // Colunas: id, nome. O CPF não é indexado.
+    private Document documentoPessoa(Object[] linha, Long geracaoAtual) {
+        return documentoBase(TipoDocumento.PESSOA, (Long) linha[0], (String) linha[1], geracaoAtual);
+    }
+
+    private Document documentoBase(TipoDocumento tipo, Long id, String nome, Long geracaoAtual, String... textos) {
+        Document documento = new Document();
+        documento.add(new StringField(CAMPO_CHAVE, chave(tipo, id), Field.Store.NO));
+        documento.add(new StringField(CAMPO_TIPO, tipo.name(), Field.Store.YES));
+        documento.add(new StoredField(CAMPO_ID, id));
+        documento.add(new StringField(CAMPO_GERACAO, geracaoAtual.toString(), Field.Store.NO));
+        documento.add(new TextField(CAMPO_NOME, Objects.toString(nome, ""), Field.Store.YES));
+        documento.add(new TextField(CAMPO_NOME + SUFIXO_PREFIXO, Objects.toString(nome, ""), Field.Store.NO));
+        String texto = Stream.of(textos)
+                .filter(valor -> valor != null && !valor.isBlank())
+                .collect(Collectors.joining("\n"));
+        if (!texto.isEmpty()) {
+            documento.add(new TextField(CAMPO_TEXTO, texto, Field.Store.NO));
+            documento.add(new TextField(CAMPO_TEXTO + SUFIXO_PREFIXO, texto, Field.Store.NO));
+            documento.add(new StoredField(CAMPO_RESUMO, resumir(texto)));
+        }
+        return documento;
+    }
+
+    /*
+     * Cada termo é obrigatório e pode casar no nome (peso maior) ou no texto, como palavra
+     * inteira ou como prefixo. Prefixos de uma letra só casam como palavra inteira; termos
+     * maiores que o prefixo indexado usam a consulta de prefixo do Lucene. Cada cláusula a
+     * mais por termo pesa nas consultas amplas com vários termos: no texto, a palavra inteira
+     * só tem cláusula própria quando o campo de prefixos não a cobre; no nome ela continua,
+     * para pesar mais que o prefixo.
+     */
+    private Query montarConsulta(List<String> termos, Collection<TipoDocumento> tipos) {
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+        for (String termo : termos) {
+            BooleanQuery.Builder alternativas = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(CAMPO_NOME, termo)), 3f), BooleanClause.Occur.SHOULD);
+            if (termo.length() >= PREFIXO_MINIMO && termo.length() <= PREFIXO_MAXIMO) {
+                alternativas
+                        .add(new BoostQuery(new TermQuery(new Term(CAMPO_NOME + SUFIXO_PREFIXO, termo)), 1.5f),
+                                BooleanClause.Occur.SHOULD)
+                        .add(new BoostQuery(new TermQuery(new Term(CAMPO_TEXTO + SUFIXO_PREFIXO, termo)), 0.5f),
+                                BooleanClause.Occur.SHOULD);
+            } else if (termo.length() < PREFIXO_MINIMO) {
+                alternativas.add(new TermQuery(new Term(CAMPO_TEXTO, termo)), BooleanClause.Occur.SHOULD);
+            } else {
+                alternativas
+                        .add(new TermQuery(new Term(CAMPO_TEXTO, termo)), BooleanClause.Occur.SHOULD)
+                        .add(new BoostQuery(new PrefixQuery(new Term(CAMPO_NOME, termo)), 1.5f), BooleanClause.Occur.SHOULD)
+                        .add(new BoostQuery(new PrefixQuery(new Term(CAMPO_TEXTO, termo)), 0.5f), BooleanClause.Occur.SHOULD);
+            }
+            consulta.add(alternativas.build(), BooleanClause.Occur.MUST);
+        }
+        if (tipos.size() < TipoDocumento.values().length) {
+            BooleanQuery.Builder filtroTipo = new BooleanQuery.Builder();
+            tipos.forEach(tipo -> filtroTipo.add(new TermQuery(new Term(CAMPO_TIPO, tipo.name())), BooleanClause.Occur.SHOULD));
+            consulta.add(filtroTipo.build(), BooleanClause.Occur.FILTER);
+        }
+        return consulta.build();
+    }
+
+    private List<String> analisar(String texto) {
+        List<String> termos = new ArrayList<>();
+        try (TokenStream fluxo = analyzer.tokenStream(CAMPO_NOME, texto)) {
+            CharTermAttribute termo = fluxo.addAttribute(CharTermAttribute.class);
+            fluxo.reset();
+            while (fluxo.incrementToken()) {
+                termos.add(termo.toString());
+            }
+            fluxo.end();
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao analisar o termo de busca.", e);
+        }
+        return termos.stream().distinct().toList();
+    }
+
+    private void executarSemFalhar(AcaoIndice acao, String entidade, Long id) {
+        try {
+            acao.executar();
+        } catch (Exception e) {
+            // A alteração já foi confirmada no banco; a reconstrução periódica corrige o índice
+            LOGGER.warn("Falha ao atualizar o índice de busca para {} {}: {}", entidade, id, e.getMessage());
+        }
+    }
+
+    private static String chave(TipoDocumento tipo, Long id) {
+        return tipo.name() + ":" + id;
+    }
+
+    private static String resumir(String texto) {
+        String linha = texto.replaceAll("\\s+", " ").trim();
+        return linha.length() <= TAMANHO_RESUMO ? linha : linha.substring(0, TAMANHO_RESUMO - 3) + "...";
+    }
+
+    private static long decorrido(long inicio) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    // Diretório vazio mantém o índice só em memória (usado nos testes)
+    private static Directory abrirDiretorio(String diretorio) throws IOException {
+        if (diretorio == null || diretorio.isBlank()) {
+            return new ByteBuffersDirectory();
+        }
+        Path caminho = Paths.get(diretorio).toAbsolutePath().normalize();
+        Files.createDirectories(caminho);
+        return FSDirectory.open(caminho);
+    }
+
+    private IndexWriter abrirWriter(Directory diretorio) throws IOException {
+        try {
+            return new IndexWriter(diretorio, new IndexWriterConfig(analyzer));
+        } catch (LockObtainFailedException e) {
+            // Outra instância usa o mesmo diretório: o índice é reconstruído do banco de qualquer forma
+            LOGGER.warn("Índice de busca em uso por outro processo; usando índice em memória.");
+            diretorio.close();
+            return new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        }
+    }
+
+    @FunctionalInterface
+    private interface AcaoIndice {
+        void executar() throws IOException;
+    }
+
+    // Tokenização padrão, minúsculas e remoção de acentos; nos campos de prefixo, também os
+    // prefixos de cada palavra ("extensao" → "ex", "ext", ..., "extensao")
+    private static final class BuscaAnalyzer extends Analyzer {
+
+        private BuscaAnalyzer() {
+            // A cadeia de filtros varia por campo; não pode ser compartilhada entre campos
+            super(PER_FIELD_REUSE_STRATEGY);
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String campo) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            TokenStream fluxo = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            if (campo.endsWith(SUFIXO_PREFIXO)) {
+                fluxo = new EdgeNGramTokenFilter(fluxo, PREFIXO_MINIMO, PREFIXO_MAXIMO, true);
+            }
+            return new TokenStreamComponents(tokenizer, fluxo);
+        }
+
+        @Override
+        protected TokenStream normalize(String campo, TokenStream entrada) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(entrada));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package edu.uea.acadmanage.service;
+
+import java.util.Collection;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * Remoção pontual de entradas de cache cujas chaves não estão disponíveis
+ * nos parâmetros do método (ex.: usuários de um curso, pessoa de um usuário).
+ */
+@Service
+public class CacheInvalidacaoService {
+
+    private final CacheManager cacheManager;
+
+    public CacheInvalidacaoService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void evict(String nomeCache, Object chave) {
+        Cache cache = cacheManager.getCache(nomeCache);
+        if (cache != null && chave != null) {
+            cache.evict(chave);
+        }
+    }
+
+    public void evict(String nomeCache, Collection<?> chaves) {
+        Cache cache = cacheManager.getCache(nomeCache);
+        if (cache == null || chaves == null) {
+            return;
+        }
+        for (Object chave : chaves) {
+            if (chave != null) {
+                cache.evict(chave);
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Objects;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -12,40 +13,36 @@ import org.springframework.stereotype.Service;
 import edu.uea.acadmanage.DTO.AtividadeDTO;
 import edu.uea.acadmanage.DTO.CategoriaDTO;
 import edu.uea.acadmanage.DTO.CategoriaResumidaDTO;
+import edu.uea.acadmanage.DTO.CursoResumidoDTO;
+import edu.uea.acadmanage.DTO.FonteFinanciadoraResumidaDTO;
 import edu.uea.acadmanage.DTO.PessoaPapelDTO;
 import edu.uea.acadmanage.model.Atividade;
 import edu.uea.acadmanage.model.Categoria;
-import edu.uea.acadmanage.model.Curso;
-import edu.uea.acadmanage.model.Usuario;
 import edu.uea.acadmanage.repository.CategoriaRepository;
 import edu.uea.acadmanage.repository.AtividadeRepository;
-import edu.uea.acadmanage.repository.UsuarioRepository;
 import edu.uea.acadmanage.service.exception.AcessoNegadoException;
 import edu.uea.acadmanage.service.exception.ConflitoException;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
 import edu.uea.acadmanage.model.AuditLog;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class CategoriaService {
 
         private final CategoriaRepository categoriaRepository;
-        private final UsuarioRepository usuarioRepository;
+        private final AutorizacaoContextoService autorizacaoContextoService;
         private final AtividadeRepository atividadeRepository;
         private final AuditLogService auditLogService;
-        private final ObjectMapper objectMapper;
 
-        public CategoriaService(CategoriaRepository categoriaRepository, UsuarioRepository usuarioRepository, 
-                                AtividadeRepository atividadeRepository, AuditLogService auditLogService, 
-                                ObjectMapper objectMapper) {
+        public CategoriaService(CategoriaRepository categoriaRepository, AutorizacaoContextoService autorizacaoContextoService, 
+                                AtividadeRepository atividadeRepository, AuditLogService auditLogService) {
                 this.categoriaRepository = categoriaRepository;
-                this.usuarioRepository = usuarioRepository;
+                this.autorizacaoContextoService = autorizacaoContextoService;
                 this.atividadeRepository = atividadeRepository;
                 this.auditLogService = auditLogService;
-                this.objectMapper = objectMapper;
         }
         
-        @Cacheable(value = "categorias", key = "'all'")
+        @Cacheable(value = "categorias", key = "'all'", sync = true)
         public List<CategoriaResumidaDTO> listarTodasCategorias() {
                 return categoriaRepository.findAll().stream()
                         .map(categoria -> new CategoriaResumidaDTO(
@@ -62,7 +59,7 @@ public class CategoriaService {
                                 categoria.getNome()));
         }
 
-        @Cacheable(value = "categorias", key = "#categoriaId")
+        @Cacheable(value = "categorias", key = "#categoriaId", sync = true)
         public CategoriaResumidaDTO recuperarCategoriaPorId(Long categoriaId) {
                 Categoria categoria = categoriaRepository.findById(categoriaId)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Categoria não encontrada com o ID: " + categoriaId));
@@ -90,12 +87,8 @@ public class CategoriaService {
 
 
         public List<CategoriaDTO> getCategoriasComAtividadesByUsuario(String email) {
-                Usuario usuario = usuarioRepository.findByEmail(email)
-                                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado"));
-
-                List<Long> cursoIds = usuario.getCursos().stream()
-                                .map(Curso::getId)
-                                .toList();
+                // Ids dos cursos do usuário, do contexto de autorização em cache
+                List<Long> cursoIds = List.copyOf(autorizacaoContextoService.obter(email).cursoIds());
 
                 List<Categoria> categorias = categoriaRepository.findCategoriasComAtividadesByCursoIds(cursoIds);
 
@@ -111,24 +104,11 @@ public class CategoriaService {
                                 .map(categoria -> new CategoriaDTO(
                                                 categoria.getId(),
                                                 categoria.getNome(),
-                                                categoria.getAtividades().stream().map(atividade -> new AtividadeDTO(                atividade.getId(),
-                                                atividade.getNome(),
-                                                atividade.getObjetivo(),
-                                                atividade.getPublicoAlvo(),
-                                                atividade.getStatusPublicacao(),
-                                                atividade.getFotoCapa(),
-                                                atividade.getCoordenador(),
-                                                atividade.getDataRealizacao(),
-                                                atividade.getDataFim(),
-                                                atividade.getCurso(),
-                                                atividade.getCategoria(),
-                                                atividade.getFontesFinanciadora(),
-                                                atividade.getPessoas().stream().map(p -> new PessoaPapelDTO(p.getPessoa().getId(), p.getPessoa().getNome(), p.getPessoa().getCpf(), p.getPapel().name())).toList())).
-                                                toList())).
+                                                categoria.getAtividades().stream().map(this::toAtividadeDTO).toList())).
                                                 toList();
         }
 
-        @CacheEvict(value = "categorias", allEntries = true)
+        @CacheEvict(value = "categorias", key = "'all'")
         public Categoria salvar(Categoria categoria) {
                 if (categoriaRepository.findByNomeIgnoreCase(categoria.getNome()).isPresent()) {
                     throw new AcessoNegadoException("Já existe uma categoria com o nome: " + categoria.getNome());
@@ -148,7 +128,10 @@ public class CategoriaService {
                 return categoriaSalva;
         }
         
-        @CacheEvict(value = "categorias", key = "#categoriaId", allEntries = true)
+        @Caching(evict = {
+                @CacheEvict(value = "categorias", key = "#categoriaId"),
+                @CacheEvict(value = "categorias", key = "'all'")
+        })
         public void deletar(Long categoriaId) {
                 if (!categoriaRepository.existsById(categoriaId)) {
                     throw new RecursoNaoEncontradoException("Categoria não encontrada com o ID: " + categoriaId);
@@ -177,13 +160,16 @@ public class CategoriaService {
                 }
         }
 
-        @CacheEvict(value = "categorias", key = "#categoriaId", allEntries = true)
+        @Caching(evict = {
+                @CacheEvict(value = "categorias", key = "#categoriaId"),
+                @CacheEvict(value = "categorias", key = "'all'")
+        })
         public Categoria atualizar(Long categoriaId, Categoria novaCategoria) {
                 Categoria categoriaExistente = categoriaRepository.findById(categoriaId)
                         .orElseThrow(() -> new RecursoNaoEncontradoException("Categoria não encontrada com o ID: " + categoriaId));
 
                 // Capturar estado antigo para audit log
-                Categoria oldState = copyCategoriaForAudit(categoriaExistente);
+                JsonNode oldState = auditLogService.capturar(categoriaExistente);
 
                 if (categoriaRepository.findByNomeIgnoreCase(novaCategoria.getNome()).isPresent() && !categoriaExistente.getNome().equalsIgnoreCase(novaCategoria.getNome())) {  
                                 throw new AcessoNegadoException("Já existe uma categoria com o nome: " + novaCategoria.getNome());
@@ -219,20 +205,6 @@ private CategoriaDTO toCategoriaDTO(Categoria categoria, List<AtividadeDTO> ativ
                 atividades
         );
     }
-    
-    // Método auxiliar para copiar categoria para audit log
-    private Categoria copyCategoriaForAudit(Categoria categoria) {
-        try {
-            String json = objectMapper.writeValueAsString(categoria);
-            return objectMapper.readValue(json, Categoria.class);
-        } catch (Exception e) {
-            // Se falhar a cópia profunda, criar manualmente uma cópia superficial
-            Categoria copy = new Categoria();
-            copy.setId(categoria.getId());
-            copy.setNome(categoria.getNome());
-            return copy;
-        }
-    }
 
     // Converte uma entidade Atividade para AtividadeDTO
     private AtividadeDTO toAtividadeDTO(Atividade atividade) {
@@ -246,9 +218,13 @@ private CategoriaDTO toCategoriaDTO(Categoria categoria, List<AtividadeDTO> ativ
                 atividade.getCoordenador(),
                 atividade.getDataRealizacao(),
                 atividade.getDataFim(),
-                atividade.getCurso(),
-                atividade.getCategoria(),
-                atividade.getFontesFinanciadora(),
+                new CursoResumidoDTO(atividade.getCurso().getId(), atividade.getCurso().getNome()),
+                atividade.getCategoria() != null
+                        ? new CategoriaResumidaDTO(atividade.getCategoria().getId(), atividade.getCategoria().getNome())
+                        : null,
+                atividade.getFontesFinanciadora().stream()
+                        .map(fonte -> new FonteFinanciadoraResumidaDTO(fonte.getId(), fonte.getNome()))
+                        .toList(),
                 atividade.getPessoas().stream().map(p -> new PessoaPapelDTO(p.getPessoa().getId(), p.getPessoa().getNome(), p.getPessoa().getCpf(), p.getPapel().name())).toList()
         );
     }
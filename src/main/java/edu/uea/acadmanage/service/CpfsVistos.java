@@ -0,0 +1,42 @@
+package edu.uea.acadmanage.service;
+
+/**
+ * CPFs (como long, nunca 0) já vistos em um arquivo de importação, em endereçamento aberto, sem
+ * boxing: cerca de 16 bytes por CPF.
+ */
+final class CpfsVistos {
+
+    private long[] tabela = new long[1 << 12];
+    private int tamanho;
+
+    // false se o CPF já tinha sido visto
+    boolean adicionar(long cpf) {
+        if (tamanho * 2 >= tabela.length) {
+            long[] anterior = tabela;
+            tabela = new long[anterior.length * 2];
+            for (long existente : anterior) {
+                if (existente != 0) {
+                    inserir(tabela, existente);
+                }
+            }
+        }
+        if (!inserir(tabela, cpf)) {
+            return false;
+        }
+        tamanho++;
+        return true;
+    }
+
+    private static boolean inserir(long[] tabela, long cpf) {
+        int mascara = tabela.length - 1;
+        int i = (int) ((cpf * 0x9E3779B97F4A7C15L) >>> 32) & mascara;
+        while (tabela[i] != 0) {
+            if (tabela[i] == cpf) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+        tabela[i] = cpf;
+        return true;
+    }
+}
@@ -11,11 +11,14 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -25,6 +28,7 @@ import org.springframework.web.multipart.MultipartFile;
 import jakarta.transaction.Transactional;
 
 import edu.uea.acadmanage.DTO.CursoDTO;
+import edu.uea.acadmanage.DTO.CursorPageDTO;
 import edu.uea.acadmanage.DTO.PermissaoCursoDTO;
 import edu.uea.acadmanage.config.FileStorageProperties;
 import edu.uea.acadmanage.model.Curso;
@@ -32,6 +36,8 @@ import edu.uea.acadmanage.model.TipoCurso;
 import edu.uea.acadmanage.model.Usuario;
 import edu.uea.acadmanage.repository.CursoRepository;
 import edu.uea.acadmanage.repository.UsuarioRepository;
+import edu.uea.acadmanage.service.event.CursoAlteradoEvent;
+import edu.uea.acadmanage.service.event.PermissoesAlteradasEvent;
 import edu.uea.acadmanage.service.exception.AcessoNegadoException;
 import edu.uea.acadmanage.service.exception.ArquivoInvalidoException;
 import edu.uea.acadmanage.service.exception.ConflitoException;
@@ -39,7 +45,7 @@ import edu.uea.acadmanage.service.exception.CursoComAtividadesException;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
 import edu.uea.acadmanage.service.exception.ValidacaoException;
 import edu.uea.acadmanage.model.AuditLog;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class CursoService {
@@ -49,7 +55,10 @@ public class CursoService {
     private final TipoCursoService tipoCursoService;
     private final UnidadeAcademicaService unidadeAcademicaService;
     private final AuditLogService auditLogService;
-    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidacaoService cacheInvalidacaoService;
+    private final AutorizacaoContextoService autorizacaoContextoService;
+    private final ImagemDerivadaService imagemDerivadaService;
     private final Path fileStorageLocation;
     private final String baseStorageLocation;
 
@@ -59,14 +68,20 @@ public class CursoService {
         TipoCursoService tipoCursoService,
         UnidadeAcademicaService unidadeAcademicaService,
         AuditLogService auditLogService,
-        ObjectMapper objectMapper,
+        ApplicationEventPublisher eventPublisher,
+        CacheInvalidacaoService cacheInvalidacaoService,
+        AutorizacaoContextoService autorizacaoContextoService,
+        ImagemDerivadaService imagemDerivadaService,
         FileStorageProperties fileStorageProperties) throws IOException {
         this.cursoRepository = cursoRepository;
         this.usuarioRepository = usuarioRepository;
         this.tipoCursoService = tipoCursoService;
         this.unidadeAcademicaService = unidadeAcademicaService;
         this.auditLogService = auditLogService;
-        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidacaoService = cacheInvalidacaoService;
+        this.autorizacaoContextoService = autorizacaoContextoService;
+        this.imagemDerivadaService = imagemDerivadaService;
         this.baseStorageLocation = "fotos-capa";
         this.fileStorageLocation = Paths.get(fileStorageProperties.getStorageLocation())
                 .resolve(this.baseStorageLocation)
@@ -76,7 +91,7 @@ public class CursoService {
     }
 
     // Método para buscar um curso por ID
-    @Cacheable(value = "cursos", key = "#cursoId")
+    @Cacheable(value = "cursos", key = "#cursoId", sync = true)
     public CursoDTO getCursoById(Long cursoId) {
         return cursoRepository.findById(cursoId)
                 .map(this::toCursoDTO)
@@ -84,7 +99,7 @@ public class CursoService {
     }
 
     // Método para buscar todos os curso
-    @Cacheable(value = "cursos", key = "'all'")
+    @Cacheable(value = "cursos", key = "'all'", sync = true)
     public List<CursoDTO> getAllCursos() {
         return cursoRepository.findAll().stream()
                 .map(this::toCursoDTO)
@@ -103,6 +118,23 @@ public class CursoService {
         return cursos.map(this::toCursoDTO);
     }
 
+    // Mesmos filtros com paginação por cursor (keyset), ordenada por nome
+    public CursorPageDTO<CursoDTO> getAllCursosCursorComFiltros(Boolean ativo, String nome, Long tipoId,
+            Long unidadeAcademicaId, String after, int size) {
+        CursorPaginacao.validarTamanho(size);
+        CursorPaginacao.Cursor cursor = CursorPaginacao.decodificar(after, "nome");
+        String nomeTratado = nome != null && !nome.trim().isEmpty() ? nome.trim() : null;
+        List<Curso> pagina = cursor == null
+                ? cursoRepository.findPrimeiraPaginaByFiltros(ativo, nomeTratado, tipoId, unidadeAcademicaId,
+                        Limit.of(size + 1))
+                : cursoRepository.findPaginaPorCursorByFiltros(ativo, nomeTratado, tipoId, unidadeAcademicaId,
+                        cursor.chave(), cursor.id(), Limit.of(size + 1));
+        List<CursoDTO> cursos = pagina.stream()
+                .map(this::toCursoDTO)
+                .toList();
+        return CursorPaginacao.montarPagina(cursos, size, "nome", CursoDTO::id, CursoDTO::nome);
+    }
+
     // Método para buscar todos os cursos com paginação e filtros por status, nome e tipo
     public Page<CursoDTO> getAllCursosPaginadoComFiltros(Boolean ativo, String nome, Long tipoId, Long unidadeAcademicaId, Pageable pageable) {
         String nomeTratado = nome != null && !nome.trim().isEmpty() ? nome.trim() : null;
@@ -159,9 +191,10 @@ public class CursoService {
     }
 
     // Método para buscar todos os usuários e suas permissões associados a um curso
+    @Transactional
     public List<PermissaoCursoDTO> getAllUsuarioByCurso(Long cursoId, String username) {
         // Buscar usuário logado
-        Usuario usuarioLogado = usuarioRepository.findByEmail(username)
+        Usuario usuarioLogado = usuarioRepository.findComRolesByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
         
         // Verificar se é ADMINISTRADOR
@@ -196,7 +229,7 @@ public class CursoService {
     }
 
 
-    @CacheEvict(value = "cursos", allEntries = true)
+    @CacheEvict(value = "cursos", key = "'all'")
     @Transactional
     public CursoDTO saveCurso(CursoDTO cursoDTO, Usuario usuario) {
         // Validar que o nome não seja nulo ou vazio
@@ -248,12 +281,21 @@ public class CursoService {
             "Curso criado: " + cursoSalvo.getNome()
         );
 
+        // UsuarioDTO inclui a lista de cursos dos usuários associados
+        cacheInvalidacaoService.evict("usuarios", usuarios.stream().map(Usuario::getId).toList());
+        eventPublisher.publishEvent(new CursoAlteradoEvent(cursoSalvo.getId(), CursoAlteradoEvent.Operacao.CRIADO));
+        // Administradores e o criador passam a ter acesso ao curso: o contexto de autorização deles é recarregado
+        usuarios.forEach(u -> eventPublisher.publishEvent(new PermissoesAlteradasEvent(u.getId())));
+
         // Retornar um DTO com os dados do curso salvo
         return toCursoDTO(cursoSalvo);
     }
 
     // Método para atualizar um curso
-    @CacheEvict(value = "cursos", key = "#cursoId", allEntries = true)
+    @Caching(evict = {
+        @CacheEvict(value = "cursos", key = "#cursoId"),
+        @CacheEvict(value = "cursos", key = "'all'")
+    })
     public CursoDTO updateCurso(Long cursoId, CursoDTO cursoDTO) {
         // Validar que o nome não seja nulo ou vazio
         if (cursoDTO.nome() == null || cursoDTO.nome().trim().isEmpty()) {
@@ -264,7 +306,7 @@ public class CursoService {
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Curso não encontrado com o ID: " + cursoId));
         
         // Capturar estado antigo para audit log
-        Curso oldState = copyCursoForAudit(cursoExistente);
+        JsonNode oldState = auditLogService.capturar(cursoExistente);
         
         // Atualizando os campos permitidos
         cursoExistente.setNome(cursoDTO.nome());
@@ -290,13 +332,16 @@ public class CursoService {
             cursoAtualizado, 
             "Curso atualizado: " + cursoAtualizado.getNome()
         );
+
+        evictUsuariosDoCurso(cursoId);
+        eventPublisher.publishEvent(new CursoAlteradoEvent(cursoAtualizado.getId(), CursoAlteradoEvent.Operacao.ATUALIZADO));
         
         return toCursoDTO(cursoAtualizado);
     }
 
     // Método para adicionar usuário a um curso
     @Transactional
-    @CacheEvict(value = {"cursos", "usuarios"}, key = "#cursoId", allEntries = true)
+    @CacheEvict(value = "usuarios", key = "#usuarioId")
     public List<PermissaoCursoDTO> adicionarUsuarioCurso(Long cursoId, Long usuarioId) {
         // Buscar curso
         Curso cursoExistente = cursoRepository.findById(cursoId)
@@ -322,6 +367,9 @@ public class CursoService {
         // Salvar ambos os lados do relacionamento
         cursoRepository.save(cursoExistente);
         usuarioRepository.save(usuarioExistente);
+
+        eventPublisher.publishEvent(new CursoAlteradoEvent(cursoId, CursoAlteradoEvent.Operacao.USUARIOS_ALTERADOS));
+        eventPublisher.publishEvent(new PermissoesAlteradasEvent(usuarioId));
         
         // Retornar lista atualizada de usuários do curso
         return cursoExistente.getUsuarios().stream()
@@ -335,7 +383,7 @@ public class CursoService {
 
     // Método para remover usuário de um curso
     @Transactional
-    @CacheEvict(value = {"cursos", "usuarios"}, key = "#cursoId", allEntries = true)
+    @CacheEvict(value = "usuarios", key = "#usuarioId")
     public List<PermissaoCursoDTO> removerUsuarioCurso(Long cursoId, Long usuarioId, Long solicitanteId) {
         // Buscar curso
         Curso cursoExistente = cursoRepository.findById(cursoId)
@@ -372,6 +420,9 @@ public class CursoService {
         // Salvar ambos os lados do relacionamento
         cursoRepository.save(cursoExistente);
         usuarioRepository.save(usuarioExistente);
+
+        eventPublisher.publishEvent(new CursoAlteradoEvent(cursoId, CursoAlteradoEvent.Operacao.USUARIOS_ALTERADOS));
+        eventPublisher.publishEvent(new PermissoesAlteradasEvent(usuarioId));
         
         // Retornar lista atualizada de usuários do curso
         return cursoExistente.getUsuarios().stream()
@@ -384,13 +435,16 @@ public class CursoService {
     }
 
         // Método para atualizar um curso
-    @CacheEvict(value = "cursos", key = "#cursoId", allEntries = true)
+    @Caching(evict = {
+        @CacheEvict(value = "cursos", key = "#cursoId"),
+        @CacheEvict(value = "cursos", key = "'all'")
+    })
     public CursoDTO updateStatusCurso(Long cursoId, Boolean ativo) {
         Curso cursoExistente = cursoRepository.findById(cursoId)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Curso não encontrado com o ID: " + cursoId));
         
         // Capturar estado antigo para audit log
-        Curso oldState = copyCursoForAudit(cursoExistente);
+        JsonNode oldState = auditLogService.capturar(cursoExistente);
         
         // Atualizando os campos permitidos
         cursoExistente.setAtivo(ativo);
@@ -406,13 +460,19 @@ public class CursoService {
             cursoAtualizado, 
             "Status do curso atualizado: " + cursoAtualizado.getNome() + " (ativo: " + ativo + ")"
         );
+
+        evictUsuariosDoCurso(cursoId);
+        eventPublisher.publishEvent(new CursoAlteradoEvent(cursoAtualizado.getId(), CursoAlteradoEvent.Operacao.ATUALIZADO));
         
         return toCursoDTO(cursoAtualizado);
     }
 
     // Método para excluir um curso
     @Transactional
-    @CacheEvict(value = "cursos", key = "#cursoId", allEntries = true)
+    @Caching(evict = {
+        @CacheEvict(value = "cursos", key = "#cursoId"),
+        @CacheEvict(value = "cursos", key = "'all'")
+    })
     public void excluirCurso(Long cursoId) {
         // Verificar se o curso existe
         Curso curso = cursoRepository.findById(cursoId)
@@ -429,6 +489,7 @@ public class CursoService {
         
         // Remover associações com usuários antes de deletar
         List<Usuario> usuariosAssociados = new ArrayList<>(curso.getUsuarios());
+        cacheInvalidacaoService.evict("usuarios", usuariosAssociados.stream().map(Usuario::getId).toList());
         for (Usuario usuario : usuariosAssociados) {
             usuario.getCursos().remove(curso);
         }
@@ -447,6 +508,9 @@ public class CursoService {
                 null, 
                 "Curso excluído: " + cursoNome
             );
+
+            eventPublisher.publishEvent(new CursoAlteradoEvent(cursoIdValue, CursoAlteradoEvent.Operacao.EXCLUIDO));
+            usuariosAssociados.forEach(u -> eventPublisher.publishEvent(new PermissoesAlteradasEvent(u.getId())));
         } catch (DataIntegrityViolationException e) {
             throw new ConflitoException("Não é possível excluir o curso. Existem registros dependentes associados.");
         }
@@ -459,17 +523,15 @@ public class CursoService {
 
     // Método para verificar se um usuário tem acesso a um curso
     public boolean verificarAcessoAoCurso(String email, Long cursoId) {
-        // Recupera o usuário do banco
-        Usuario usuario = this.usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
-
-        // Verifica se o cursoId está na lista de cursos associados ao usuário
-        return usuario.getCursos().stream()
-                .anyMatch(curso -> curso.getId().equals(cursoId));
+        // Cursos do usuário vêm do contexto de autorização em cache
+        return autorizacaoContextoService.obter(email).temAcessoAoCurso(cursoId);
     }
 
     // Método para atualizar uma foto de capa
-    @CacheEvict(value = "cursos", key = "#cursoId", allEntries = true)
+    @Caching(evict = {
+        @CacheEvict(value = "cursos", key = "#cursoId"),
+        @CacheEvict(value = "cursos", key = "'all'")
+    })
     public CursoDTO atualizarFotoCapa(Long cursoId, MultipartFile file, String username) throws IOException {
         // Verificar se o curso existe
         Curso curso = cursoRepository.findById(cursoId)
@@ -491,12 +553,16 @@ public class CursoService {
 
         // Salvar curso atualizado
         Curso cursoAtualizado = cursoRepository.save(curso);
+        evictUsuariosDoCurso(cursoId);
 
         return toCursoDTO(cursoAtualizado);
     }
 
     // Método para excluir uma foto de capa
-    @CacheEvict(value = "cursos", key = "#cursoId", allEntries = true)
+    @Caching(evict = {
+        @CacheEvict(value = "cursos", key = "#cursoId"),
+        @CacheEvict(value = "cursos", key = "'all'")
+    })
     public void excluirFotoCapa(Long cursoId, String username) {
         Curso curso = cursoRepository.findById(cursoId)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Curso não encontrado com o ID: " + cursoId));
@@ -512,6 +578,7 @@ public class CursoService {
         excluirImagem(curso.getFotoCapa());
         curso.setFotoCapa(null);
         cursoRepository.save(curso);
+        evictUsuariosDoCurso(cursoId);
     }
 
     // Método para baixar uma foto de capa
@@ -566,7 +633,9 @@ public class CursoService {
         Files.createDirectories(targetLocation.getParent());
         Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
 
-        return "/" + this.baseStorageLocation + "/" + uniqueFileName;
+        String fotoCapa = "/" + this.baseStorageLocation + "/" + uniqueFileName;
+        imagemDerivadaService.gerarVariantes(fotoCapa);
+        return fotoCapa;
     }
 
     // Método para excluir uma imagem
@@ -574,6 +643,7 @@ public class CursoService {
         try {
             Path targetLocation = resolveFotoPath(fileName);
             Files.deleteIfExists(targetLocation);
+            imagemDerivadaService.excluirVariantes(targetLocation);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -607,30 +677,14 @@ public class CursoService {
         return this.fileStorageLocation.resolve(normalized).normalize();
     }
 
-    // Método auxiliar para copiar curso para audit log
-    private Curso copyCursoForAudit(Curso curso) {
-        try {
-            // Usar ObjectMapper para criar uma cópia profunda do objeto
-            String json = objectMapper.writeValueAsString(curso);
-            return objectMapper.readValue(json, Curso.class);
-        } catch (Exception e) {
-            // Se falhar a cópia profunda, criar manualmente uma cópia superficial
-            Curso copy = new Curso();
-            copy.setId(curso.getId());
-            copy.setNome(curso.getNome());
-            copy.setDescricao(curso.getDescricao());
-            copy.setFotoCapa(curso.getFotoCapa());
-            copy.setAtivo(curso.getAtivo());
-            copy.setTipoCurso(curso.getTipoCurso());
-            copy.setUnidadeAcademica(curso.getUnidadeAcademica());
-            return copy;
-        }
-    }
-
     private CursoDTO toCursoDTO(Curso curso) {
         Long tipoId = curso.getTipoCurso() != null ? curso.getTipoCurso().getId() : null;
         Long unidadeId = curso.getUnidadeAcademica() != null ? curso.getUnidadeAcademica().getId() : null;
         return new CursoDTO(curso.getId(), curso.getNome(), curso.getDescricao(), curso.getFotoCapa(), curso.getAtivo(), tipoId, unidadeId);
     }
 
+    // UsuarioDTO inclui os dados dos cursos do usuário
+    private void evictUsuariosDoCurso(Long cursoId) {
+        cacheInvalidacaoService.evict("usuarios", cursoRepository.findUsuarioIdsByCursoId(cursoId));
+    }
 }
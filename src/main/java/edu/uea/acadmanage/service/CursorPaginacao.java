@@ -0,0 +1,85 @@
+package edu.uea.acadmanage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import edu.uea.acadmanage.DTO.CursorPageDTO;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+/**
+ * Paginação por cursor (keyset). O cursor é opaco para o cliente: codifica a ordenação,
+ * o id e a chave de ordenação do último item da página, e a próxima consulta continua a
+ * partir dele ({@code WHERE (chave, id) > (:chave, :id)}) em vez de descartar linhas com
+ * OFFSET. Também não há consulta de contagem.
+ */
+public final class CursorPaginacao {
+
+    public static final int TAMANHO_MAXIMO = 100;
+
+    private static final String SEPARADOR = "|";
+
+    private CursorPaginacao() {
+    }
+
+    // Posição decodificada: id e chave de ordenação do último item já entregue
+    public record Cursor(Long id, String chave) {
+    }
+
+    /**
+     * Decodifica o parâmetro {@code after}. Vazio significa primeira página (retorna null).
+     * Cursores gerados para outra ordenação são rejeitados.
+     */
+    public static Cursor decodificar(String after, String ordenacao) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        String[] partes;
+        try {
+            partes = new String(Base64.getUrlDecoder().decode(after.trim()), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARADOR, 3);
+        } catch (IllegalArgumentException e) {
+            throw new ValidacaoException("Cursor de paginação inválido.");
+        }
+        if (partes.length != 3 || !partes[0].equals(ordenacao)) {
+            throw new ValidacaoException("Cursor de paginação inválido para esta consulta.");
+        }
+        try {
+            return new Cursor(Long.valueOf(partes[1]), partes[2]);
+        } catch (NumberFormatException e) {
+            throw new ValidacaoException("Cursor de paginação inválido.");
+        }
+    }
+
+    public static String codificar(String ordenacao, Long id, String chave) {
+        String valor = ordenacao + SEPARADOR + id + SEPARADOR + chave;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int validarTamanho(int size) {
+        if (size < 1 || size > TAMANHO_MAXIMO) {
+            throw new ValidacaoException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO + ".");
+        }
+        return size;
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou {@code size + 1} itens: o item
+     * excedente só indica que existe próxima página.
+     */
+    public static <T> CursorPageDTO<T> montarPagina(List<T> itens,
+                                                    int size,
+                                                    String ordenacao,
+                                                    Function<T, Long> id,
+                                                    Function<T, ?> chave) {
+        boolean hasNext = itens.size() > size;
+        List<T> conteudo = hasNext ? itens.subList(0, size) : itens;
+        String nextCursor = null;
+        if (hasNext) {
+            T ultimo = conteudo.get(conteudo.size() - 1);
+            nextCursor = codificar(ordenacao, id.apply(ultimo), String.valueOf(chave.apply(ultimo)));
+        }
+        return new CursorPageDTO<>(List.copyOf(conteudo), size, nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,109 @@
+package edu.uea.acadmanage.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.uea.acadmanage.DTO.DashboardDTO;
+import edu.uea.acadmanage.service.event.AtividadeAlteradaEvent;
+import edu.uea.acadmanage.service.event.CursoAlteradoEvent;
+import edu.uea.acadmanage.service.event.PessoaAlteradaEvent;
+import edu.uea.acadmanage.service.event.UsuarioAlteradoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache das respostas do dashboard. O resultado depende apenas do perfil
+ * (administrador ou não) e do conjunto de cursos do usuário, que formam a chave.
+ * Alterações em atividades, cursos, pessoas e usuários removem apenas as chaves
+ * afetadas: a visão do administrador e as que contêm os cursos alterados.
+ */
+@Component
+public class DashboardCache {
+
+    private final Cache<Chave, DashboardDTO> cache;
+
+    public DashboardCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.dashboard.cache.max-size:1000}") long tamanhoMaximo,
+            @Value("${app.dashboard.cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "dashboard");
+    }
+
+    public DashboardDTO obter(boolean admin, Collection<Long> cursoIds, Supplier<DashboardDTO> carregar) {
+        return cache.get(Chave.de(admin, cursoIds), chave -> carregar.get());
+    }
+
+    /**
+     * Remove a visão do administrador e todas as entradas que incluem algum dos cursos informados.
+     */
+    public void invalidarCursos(Collection<Long> cursoIds) {
+        Set<Long> afetados = Set.copyOf(cursoIds);
+        cache.asMap().keySet().removeIf(chave ->
+                chave.admin() || chave.cursoIds().stream().anyMatch(afetados::contains));
+    }
+
+    public void invalidarTudo() {
+        cache.invalidateAll();
+    }
+
+    // Executados depois da atualização do snapshot de métricas (DashboardMetricasListener)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAtividadeAlterada(AtividadeAlteradaEvent evento) {
+        Set<Long> cursoIds = new HashSet<>();
+        if (evento.antes() != null && evento.antes().cursoId() != null) {
+            cursoIds.add(evento.antes().cursoId());
+        }
+        if (evento.depois() != null && evento.depois().cursoId() != null) {
+            cursoIds.add(evento.depois().cursoId());
+        }
+        invalidarCursos(cursoIds);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCursoAlterado(CursoAlteradoEvent evento) {
+        invalidarCursos(List.of(evento.cursoId()));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent evento) {
+        invalidarCursos(evento.cursoIds());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoaAlterada(PessoaAlteradaEvent evento) {
+        invalidarCursos(evento.cursoIds());
+    }
+
+    private record Chave(boolean admin, List<Long> cursoIds) {
+
+        private static Chave de(boolean admin, Collection<Long> cursoIds) {
+            // Administradores enxergam todos os cursos; a lista não faz parte da chave
+            if (admin || cursoIds == null) {
+                return new Chave(true, List.of());
+            }
+            return new Chave(false, cursoIds.stream().distinct().sorted().toList());
+        }
+    }
+}
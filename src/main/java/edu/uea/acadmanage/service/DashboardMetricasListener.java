@@ -0,0 +1,71 @@
+package edu.uea.acadmanage.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import edu.uea.acadmanage.service.event.AtividadeAlteradaEvent;
+import edu.uea.acadmanage.service.event.CursoAlteradoEvent;
+import edu.uea.acadmanage.service.event.UsuarioAlteradoEvent;
+
+/**
+ * Propaga as alterações de atividades, cursos e usuários para o snapshot do dashboard
+ * após a confirmação da transação de origem. Falhas não afetam a operação original;
+ * a reconciliação diária corrige eventuais divergências.
+ */
+@Component
+public class DashboardMetricasListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardMetricasListener.class);
+
+    private final DashboardMetricasService dashboardMetricasService;
+
+    public DashboardMetricasListener(DashboardMetricasService dashboardMetricasService) {
+        this.dashboardMetricasService = dashboardMetricasService;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAtividadeAlterada(AtividadeAlteradaEvent evento) {
+        try {
+            dashboardMetricasService.aplicarAlteracaoAtividade(evento);
+        } catch (Exception e) {
+            logger.warn("Falha ao atualizar métricas do dashboard para atividade {}: {}",
+                    evento.atividadeId(), e.getMessage());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCursoAlterado(CursoAlteradoEvent evento) {
+        try {
+            switch (evento.operacao()) {
+                case CRIADO -> dashboardMetricasService.reconstruirCurso(evento.cursoId());
+                case EXCLUIDO -> dashboardMetricasService.removerCurso(evento.cursoId());
+                case USUARIOS_ALTERADOS -> dashboardMetricasService.atualizarUsuarios(List.of(evento.cursoId()));
+                case ATUALIZADO -> {
+                    // Nome e status são lidos diretamente do curso; nada a atualizar
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Falha ao atualizar métricas do dashboard para curso {}: {}",
+                    evento.cursoId(), e.getMessage());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent evento) {
+        try {
+            dashboardMetricasService.atualizarUsuarios(evento.cursoIds());
+        } catch (Exception e) {
+            logger.warn("Falha ao atualizar métricas do dashboard para usuário {}: {}",
+                    evento.usuarioId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package edu.uea.acadmanage.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.uea.acadmanage.model.DashboardMetrica;
+import edu.uea.acadmanage.model.DashboardMetricaCategoria;
+import edu.uea.acadmanage.model.DashboardMetricaMensal;
+import edu.uea.acadmanage.repository.AtividadeRepository;
+import edu.uea.acadmanage.repository.CursoRepository;
+import edu.uea.acadmanage.repository.DashboardMetricaCategoriaRepository;
+import edu.uea.acadmanage.repository.DashboardMetricaMensalRepository;
+import edu.uea.acadmanage.repository.DashboardMetricaRepository;
+import edu.uea.acadmanage.service.event.AtividadeAlteradaEvent;
+
+/**
+ * Mantém o snapshot de métricas do dashboard por curso ({@code dashboard_metrics}).
+ * As alterações de atividades são aplicadas como incrementos; cursos sem snapshot
+ * ou com snapshot de outro dia são reconstruídos a partir das tabelas de origem.
+ */
+@Service
+public class DashboardMetricasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardMetricasService.class);
+
+    // Quantidade de cursos reconstruídos por consulta na reconciliação completa
+    private static final int TAMANHO_LOTE = 500;
+
+    private final DashboardMetricaRepository metricaRepository;
+    private final DashboardMetricaCategoriaRepository metricaCategoriaRepository;
+    private final DashboardMetricaMensalRepository metricaMensalRepository;
+    private final AtividadeRepository atividadeRepository;
+    private final CursoRepository cursoRepository;
+    private final TransactionTemplate transacaoPropria;
+
+    public DashboardMetricasService(
+            DashboardMetricaRepository metricaRepository,
+            DashboardMetricaCategoriaRepository metricaCategoriaRepository,
+            DashboardMetricaMensalRepository metricaMensalRepository,
+            AtividadeRepository atividadeRepository,
+            CursoRepository cursoRepository,
+            PlatformTransactionManager transactionManager) {
+        this.metricaRepository = metricaRepository;
+        this.metricaCategoriaRepository = metricaCategoriaRepository;
+        this.metricaMensalRepository = metricaMensalRepository;
+        this.atividadeRepository = atividadeRepository;
+        this.cursoRepository = cursoRepository;
+        this.transacaoPropria = new TransactionTemplate(transactionManager);
+        this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Garante que os cursos informados (ou todos, quando {@code cursoIds} é nulo)
+     * possuam snapshot calculado para o dia corrente.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void garantirAtualizado(Collection<Long> cursoIds) {
+        LocalDate hoje = LocalDate.now();
+        Set<Long> pendentes;
+        if (cursoIds == null) {
+            pendentes = new HashSet<>(cursoRepository.findAllIds());
+            pendentes.removeAll(metricaRepository.findCursoIdsAtualizados(hoje));
+        } else {
+            if (cursoIds.isEmpty()) {
+                return;
+            }
+            pendentes = new HashSet<>(cursoIds);
+            pendentes.removeAll(metricaRepository.findCursoIdsAtualizadosIn(cursoIds, hoje));
+        }
+        if (!pendentes.isEmpty()) {
+            reconstruir(pendentes, hoje);
+        }
+    }
+
+    /**
+     * Aplica ao snapshot a diferença entre o estado anterior e o novo estado de uma atividade.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void aplicarAlteracaoAtividade(AtividadeAlteradaEvent evento) {
+        AtividadeAlteradaEvent.Estado antes = evento.antes();
+        AtividadeAlteradaEvent.Estado depois = evento.depois();
+        if (Objects.equals(antes, depois)) {
+            return;
+        }
+
+        Set<Long> cursoIds = new LinkedHashSet<>();
+        if (antes != null && antes.cursoId() != null) {
+            cursoIds.add(antes.cursoId());
+        }
+        if (depois != null && depois.cursoId() != null) {
+            cursoIds.add(depois.cursoId());
+        }
+        if (cursoIds.isEmpty()) {
+            return;
+        }
+
+        // Cursos sem snapshot do dia são reconstruídos; a alteração já está refletida nas tabelas de origem
+        LocalDate hoje = LocalDate.now();
+        Set<Long> pendentes = new HashSet<>(cursoIds);
+        pendentes.removeAll(metricaRepository.findCursoIdsAtualizadosIn(cursoIds, hoje));
+        if (!pendentes.isEmpty()) {
+            reconstruir(pendentes, hoje);
+        }
+
+        if (antes != null && antes.cursoId() != null && !pendentes.contains(antes.cursoId())) {
+            aplicar(antes, -1, hoje);
+        }
+        if (depois != null && depois.cursoId() != null && !pendentes.contains(depois.cursoId())) {
+            aplicar(depois, 1, hoje);
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void atualizarUsuarios(Collection<Long> cursoIds) {
+        if (cursoIds == null || cursoIds.isEmpty()) {
+            return;
+        }
+        LocalDate hoje = LocalDate.now();
+        LocalDateTime agora = LocalDateTime.now();
+        Set<Long> pendentes = new HashSet<>(cursoIds);
+        pendentes.removeAll(metricaRepository.findCursoIdsAtualizadosIn(cursoIds, hoje));
+        for (Long cursoId : cursoIds) {
+            if (pendentes.contains(cursoId)) {
+                continue;
+            }
+            cursoRepository.countUsuariosByCursoId(cursoId).ifPresentOrElse(
+                    total -> metricaRepository.atualizarTotalUsuarios(cursoId, total, agora),
+                    () -> pendentes.add(cursoId));
+        }
+        if (!pendentes.isEmpty()) {
+            reconstruir(pendentes, hoje);
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void reconstruirCurso(Long cursoId) {
+        reconstruir(List.of(cursoId), LocalDate.now());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void removerCurso(Long cursoId) {
+        List<Long> cursoIds = List.of(cursoId);
+        metricaCategoriaRepository.deleteByCursoIds(cursoIds);
+        metricaMensalRepository.deleteByCursoIds(cursoIds);
+        metricaRepository.deleteAllById(cursoIds);
+    }
+
+    /**
+     * Reconstrução completa executada diariamente para corrigir eventuais divergências
+     * e recalcular as atividades finalizadas com a nova data de referência.
+     */
+    @Scheduled(cron = "${app.dashboard.metricas.reconciliacao-cron:0 5 0 * * *}")
+    @Transactional
+    public void reconstruirTudo() {
+        long inicio = System.currentTimeMillis();
+        metricaCategoriaRepository.deleteOrfaos();
+        metricaMensalRepository.deleteOrfaos();
+        metricaRepository.deleteOrfaos();
+
+        LocalDate hoje = LocalDate.now();
+        List<Long> cursoIds = cursoRepository.findAllIds();
+        for (int i = 0; i < cursoIds.size(); i += TAMANHO_LOTE) {
+            reconstruir(cursoIds.subList(i, Math.min(i + TAMANHO_LOTE, cursoIds.size())), hoje);
+        }
+        logger.info("Métricas do dashboard reconstruídas para {} cursos em {} ms",
+                cursoIds.size(), System.currentTimeMillis() - inicio);
+    }
+
+    private void aplicar(AtividadeAlteradaEvent.Estado estado, int sinal, LocalDate hoje) {
+        Long cursoId = estado.cursoId();
+        boolean finalizada = estado.dataFim() != null && estado.dataFim().isBefore(hoje);
+        metricaRepository.incrementarAtividades(cursoId,
+                sinal,
+                estado.publicada() ? sinal : 0,
+                finalizada ? sinal : 0,
+                LocalDateTime.now());
+
+        if (estado.categoriaId() != null
+                && metricaCategoriaRepository.incrementar(cursoId, estado.categoriaId(), sinal) == 0) {
+            criarLinhaZerada(() -> metricaCategoriaRepository.save(
+                    new DashboardMetricaCategoria(cursoId, estado.categoriaId(), 0L)));
+            metricaCategoriaRepository.incrementar(cursoId, estado.categoriaId(), sinal);
+        }
+
+        if (estado.dataRealizacao() != null) {
+            LocalDate competencia = estado.dataRealizacao().withDayOfMonth(1);
+            long publicadas = estado.publicada() ? sinal : 0;
+            if (metricaMensalRepository.incrementar(cursoId, competencia, sinal, publicadas) == 0) {
+                criarLinhaZerada(() -> metricaMensalRepository.save(
+                        new DashboardMetricaMensal(cursoId, competencia, 0L, 0L)));
+                metricaMensalRepository.incrementar(cursoId, competencia, sinal, publicadas);
+            }
+        }
+    }
+
+    /*
+     * Cria a linha ainda inexistente com contadores zerados, em transação própria, para que o
+     * incremento seguinte a encontre. Dois chamadores podem tentar criar a mesma linha: o
+     * segundo esbarra na restrição única (o que não afeta a transação do incremento) e
+     * incrementa a linha criada pelo primeiro, sem perder a alteração.
+     */
+    private void criarLinhaZerada(Runnable inserir) {
+        try {
+            transacaoPropria.executeWithoutResult(status -> inserir.run());
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Linha de métrica criada por outra transação: {}", e.getMessage());
+        }
+    }
+
+    private void reconstruir(Collection<Long> cursoIds, LocalDate hoje) {
+        LocalDateTime agora = LocalDateTime.now();
+        metricaCategoriaRepository.deleteByCursoIds(cursoIds);
+        metricaMensalRepository.deleteByCursoIds(cursoIds);
+
+        Map<Long, DashboardMetrica> metricas = new HashMap<>();
+        for (Object[] linha : cursoRepository.resumirParaMetricas(cursoIds)) {
+            Long cursoId = paraLong(linha[0]);
+            DashboardMetrica metrica = metricaRepository.findById(cursoId).orElseGet(() -> new DashboardMetrica(cursoId));
+            metrica.setCursoCriadoEm((LocalDateTime) linha[1]);
+            metrica.setTotalUsuarios(paraLong(linha[2]));
+            metrica.setTotalAtividades(0L);
+            metrica.setAtividadesPublicadas(0L);
+            metrica.setAtividadesFinalizadas(0L);
+            metrica.setDataReferencia(hoje);
+            metrica.setAtualizadoEm(agora);
+            metricas.put(cursoId, metrica);
+        }
+
+        // Cursos que não existem mais não mantêm snapshot
+        List<Long> removidos = cursoIds.stream().filter(id -> !metricas.containsKey(id)).toList();
+        if (!removidos.isEmpty()) {
+            metricaRepository.deleteAllById(removidos);
+        }
+        if (metricas.isEmpty()) {
+            return;
+        }
+
+        for (Object[] linha : atividadeRepository.resumirPorCurso(metricas.keySet(), hoje)) {
+            DashboardMetrica metrica = metricas.get(paraLong(linha[0]));
+            metrica.setTotalAtividades(paraLong(linha[1]));
+            metrica.setAtividadesPublicadas(paraLong(linha[2]));
+            metrica.setAtividadesFinalizadas(paraLong(linha[3]));
+        }
+        metricaRepository.saveAll(metricas.values());
+
+        List<DashboardMetricaCategoria> categorias = new ArrayList<>();
+        for (Object[] linha : atividadeRepository.contarPorCursoECategoria(metricas.keySet())) {
+            categorias.add(new DashboardMetricaCategoria(paraLong(linha[0]), paraLong(linha[1]), paraLong(linha[2])));
+        }
+        metricaCategoriaRepository.saveAll(categorias);
+
+        List<DashboardMetricaMensal> meses = new ArrayList<>();
+        for (Object[] linha : atividadeRepository.contarPorCursoEMes(metricas.keySet())) {
+            LocalDate competencia = LocalDate.of((int) paraLong(linha[1]), (int) paraLong(linha[2]), 1);
+            meses.add(new DashboardMetricaMensal(paraLong(linha[0]), competencia, paraLong(linha[3]), paraLong(linha[4])));
+        }
+        metricaMensalRepository.saveAll(meses);
+    }
+
+    private static long paraLong(Object valor) {
+        return valor instanceof Number numero ? numero.longValue() : 0L;
+    }
+}
@@ -3,11 +3,14 @@ package edu.uea.acadmanage.service;
 import edu.uea.acadmanage.DTO.*;
 import edu.uea.acadmanage.model.*;
 import edu.uea.acadmanage.repository.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,6 +25,12 @@ public class DashboardService {
     private final PessoaRepository pessoaRepository;
     private final FonteFinanciadoraRepository fonteFinanciadoraRepository;
     private final CategoriaRepository categoriaRepository;
+    private final DashboardMetricaRepository metricaRepository;
+    private final DashboardMetricaCategoriaRepository metricaCategoriaRepository;
+    private final DashboardMetricaMensalRepository metricaMensalRepository;
+    private final DashboardMetricasService dashboardMetricasService;
+    private final DashboardCache dashboardCache;
+    private final AutorizacaoContextoService autorizacaoContextoService;
 
     public DashboardService(
             CursoRepository cursoRepository,
@@ -29,13 +38,25 @@ public class DashboardService {
             UsuarioRepository usuarioRepository,
             PessoaRepository pessoaRepository,
             FonteFinanciadoraRepository fonteFinanciadoraRepository,
-            CategoriaRepository categoriaRepository) {
+            CategoriaRepository categoriaRepository,
+            DashboardMetricaRepository metricaRepository,
+            DashboardMetricaCategoriaRepository metricaCategoriaRepository,
+            DashboardMetricaMensalRepository metricaMensalRepository,
+            DashboardMetricasService dashboardMetricasService,
+            DashboardCache dashboardCache,
+            AutorizacaoContextoService autorizacaoContextoService) {
         this.cursoRepository = cursoRepository;
         this.atividadeRepository = atividadeRepository;
         this.usuarioRepository = usuarioRepository;
         this.pessoaRepository = pessoaRepository;
         this.fonteFinanciadoraRepository = fonteFinanciadoraRepository;
         this.categoriaRepository = categoriaRepository;
+        this.metricaRepository = metricaRepository;
+        this.metricaCategoriaRepository = metricaCategoriaRepository;
+        this.metricaMensalRepository = metricaMensalRepository;
+        this.dashboardMetricasService = dashboardMetricasService;
+        this.dashboardCache = dashboardCache;
+        this.autorizacaoContextoService = autorizacaoContextoService;
     }
 
     public DashboardDTO obterDadosDashboard(String username) {
@@ -45,19 +66,16 @@ public class DashboardService {
                 return criarDashboardVazio();
             }
             
-            // Buscar usuário e verificar se é administrador
-            Usuario usuario = usuarioRepository.findByEmail(username)
-                    .orElseThrow(() -> new org.springframework.security.core.userdetails.UsernameNotFoundException("Usuário não encontrado: " + username));
-            
-            boolean isAdmin = usuario.getRoles().stream()
-                    .anyMatch(role -> role.getNome().equals("ROLE_ADMINISTRADOR"));
+            // Perfis e cursos do usuário (ids apenas), do contexto de autorização em cache
+            AutorizacaoContexto contexto = autorizacaoContextoService.obter(username);
+            boolean isAdmin = contexto.isAdmin();
             
             // Se for admin, não filtra por cursos (null = todos os cursos)
             // Se não for admin, filtra por cursos associados ao usuário
             List<Long> cursoIds = null;
             if (!isAdmin) {
-                cursoIds = usuario.getCursos().stream()
-                        .map(Curso::getId)
+                cursoIds = contexto.cursoIds().stream()
+                        .sorted()
                         .collect(Collectors.toList());
                 
                 // Se não tiver cursos associados, retorna dashboard vazio
@@ -65,38 +83,10 @@ public class DashboardService {
                     return criarDashboardVazio();
                 }
             }
-            
-            LocalDate agora = LocalDate.now();
-            LocalDate umMesAtras = agora.minusMonths(1);
-            LocalDate doisMesesAtras = agora.minusMonths(2);
-
-            // Métricas gerais
-            MetricasGeraisDTO metricasGerais = calcularMetricasGerais(umMesAtras, doisMesesAtras, cursoIds);
-
-            // Atividades por categoria
-            List<AtividadePorCategoriaDTO> atividadesPorCategoria = calcularAtividadesPorCategoria(cursoIds);
-
-            // Status de publicação
-            StatusPublicacaoDTO statusPublicacao = calcularStatusPublicacao(cursoIds);
-
-            // Distribuição de usuários (só admin vê)
-            List<DistribuicaoUsuarioDTO> distribuicaoUsuarios = isAdmin ? calcularDistribuicaoUsuarios() : new ArrayList<>();
 
-            // Cursos em destaque (top 4)
-            List<CursoDestaqueDTO> cursosDestaque = calcularCursosDestaque(4, cursoIds);
-
-            // Atividades recentes
-            List<AtividadeRecenteDTO> atividadesRecentes = calcularAtividadesRecentes(6, cursoIds);
-
-            return new DashboardDTO(
-                    metricasGerais,
-                    atividadesPorCategoria,
-                    statusPublicacao,
-                    distribuicaoUsuarios,
-                    cursosDestaque,
-                    atividadesRecentes,
-                    new ArrayList<>()
-            );
+            // O resultado depende apenas do perfil e dos cursos do usuário
+            List<Long> cursosDoUsuario = cursoIds;
+            return dashboardCache.obter(isAdmin, cursoIds, () -> calcularDashboard(isAdmin, cursosDoUsuario));
         } catch (org.springframework.dao.DataAccessException e) {
             // Capturar erros de acesso ao banco de dados (ex: problemas com queries)
             // Retornar dashboard vazio em vez de erro 500
@@ -107,6 +97,45 @@ public class DashboardService {
             return criarDashboardVazio();
         }
     }
+
+    private DashboardDTO calcularDashboard(boolean isAdmin, List<Long> cursoIds) {
+        // Snapshot por curso: reconstrói apenas cursos sem métricas do dia
+        garantirMetricasAtualizadas(cursoIds);
+
+        // Comparações mês a mês usam a situação ao final do mês anterior
+        LocalDateTime inicioMes = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+
+        // Contagens de atividades (soma das linhas do snapshot dos cursos)
+        ResumoAtividades resumo = resumirAtividades(inicioMes.toLocalDate(), cursoIds);
+
+        // Métricas gerais
+        MetricasGeraisDTO metricasGerais = calcularMetricasGerais(resumo, inicioMes, cursoIds);
+
+        // Atividades por categoria
+        List<AtividadePorCategoriaDTO> atividadesPorCategoria = calcularAtividadesPorCategoria(cursoIds);
+
+        // Status de publicação
+        StatusPublicacaoDTO statusPublicacao = calcularStatusPublicacao(resumo);
+
+        // Distribuição de usuários (só admin vê)
+        List<DistribuicaoUsuarioDTO> distribuicaoUsuarios = isAdmin ? calcularDistribuicaoUsuarios() : new ArrayList<>();
+
+        // Cursos em destaque (top 4)
+        List<CursoDestaqueDTO> cursosDestaque = calcularCursosDestaque(4, cursoIds);
+
+        // Atividades recentes
+        List<AtividadeRecenteDTO> atividadesRecentes = calcularAtividadesRecentes(6, cursoIds);
+
+        return new DashboardDTO(
+                metricasGerais,
+                atividadesPorCategoria,
+                statusPublicacao,
+                distribuicaoUsuarios,
+                cursosDestaque,
+                atividadesRecentes,
+                new ArrayList<>()
+        );
+    }
     
     private DashboardDTO criarDashboardVazio() {
         MetricasGeraisDTO metricasVazias = new MetricasGeraisDTO(
@@ -130,42 +159,42 @@ public class DashboardService {
         );
     }
 
-    private MetricasGeraisDTO calcularMetricasGerais(LocalDate umMesAtras, LocalDate doisMesesAtras, List<Long> cursoIds) {
+    private MetricasGeraisDTO calcularMetricasGerais(ResumoAtividades resumo, LocalDateTime inicioMes, List<Long> cursoIds) {
         // Total de cursos
         long totalCursos = contarCursos(cursoIds);
-        long cursosMesAnterior = contarCursosCriadosAte(umMesAtras, cursoIds);
+        long cursosMesAnterior = contarCursosCriadosAntes(inicioMes, cursoIds);
         MetricaDTO metricasCursos = calcularMetrica(totalCursos, cursosMesAnterior, "mais que o mês anterior");
 
         // Atividades ativas (com data de realização futura ou recente)
-        long atividadesAtivas = contarAtividades(cursoIds);
-        long atividadesAtivasMesAnterior = contarAtividadesAtivasAte(umMesAtras, cursoIds);
+        long atividadesAtivas = resumo.total();
+        long atividadesAtivasMesAnterior = resumo.realizadasAntesDoMes();
         MetricaDTO metricasAtividades = calcularMetrica(atividadesAtivas, atividadesAtivasMesAnterior, "de crescimento");
 
         // Usuários cadastrados (só para admin, senão conta usuários dos cursos)
         long totalUsuarios = contarUsuarios(cursoIds);
-        long usuariosMesAnterior = contarUsuariosCriadosAte(umMesAtras, cursoIds);
+        long usuariosMesAnterior = contarUsuariosCriadosAntes(inicioMes, cursoIds);
         MetricaDTO metricasUsuarios = calcularMetrica(totalUsuarios, usuariosMesAnterior, "de aumento");
 
         // Pessoas cadastradas (só para admin, senão conta pessoas dos cursos)
         long totalPessoas = contarPessoas(cursoIds);
-        long pessoasMesAnterior = contarPessoasCriadasAte(umMesAtras, cursoIds);
+        long pessoasMesAnterior = contarPessoasCriadasAntes(inicioMes, cursoIds);
         MetricaDTO metricasPessoas = calcularMetrica(totalPessoas, pessoasMesAnterior, "de aumento");
 
         // Fontes financiadoras (relacionadas às atividades dos cursos)
         long totalFontes = contarFontesFinanciadoras(cursoIds);
-        long fontesMesAnterior = totalFontes; // Assumindo que não temos createdAt para FonteFinanciadora
+        long fontesMesAnterior = contarFontesFinanciadorasCriadasAntes(inicioMes, cursoIds);
         MetricaDTO metricasFontes = calcularMetrica(totalFontes, fontesMesAnterior, "novas fontes este mês");
 
         // Publicações (atividades publicadas)
-        long totalPublicacoes = contarPublicacoes(cursoIds);
-        long publicacoesMesAnterior = contarPublicacoesAte(umMesAtras, cursoIds);
+        long totalPublicacoes = resumo.publicadas();
+        long publicacoesMesAnterior = resumo.publicadasAntesDoMes();
         MetricaDTO metricasPublicacoes = calcularMetrica(totalPublicacoes, publicacoesMesAnterior, "mais publicações");
 
         // Taxa de conclusão (estimativa: atividades finalizadas / total)
-        long atividadesFinalizadas = contarAtividadesFinalizadas(cursoIds);
+        long atividadesFinalizadas = resumo.finalizadas();
         long totalAtividadesParaCalculo = Math.max(atividadesAtivas, 1);
         double taxaConclusaoAtual = (atividadesFinalizadas * 100.0) / totalAtividadesParaCalculo;
-        double taxaConclusaoAnterior = calcularTaxaConclusaoAnterior(umMesAtras, cursoIds);
+        double taxaConclusaoAnterior = calcularTaxaConclusaoAnterior(resumo);
         double diferencaTaxa = taxaConclusaoAtual - taxaConclusaoAnterior;
         MetricaDTO metricasTaxaConclusao = new MetricaDTO(
                 diferencaTaxa,
@@ -194,6 +223,37 @@ public class DashboardService {
         return new MetricaDTO(percentual, atual, descricao);
     }
 
+    private void garantirMetricasAtualizadas(List<Long> cursoIds) {
+        try {
+            dashboardMetricasService.garantirAtualizado(cursoIds);
+        } catch (Exception e) {
+            // Falha na reconstrução não impede a leitura do snapshot existente
+        }
+    }
+
+    // Contagens de atividades somadas a partir do snapshot de métricas por curso
+    private ResumoAtividades resumirAtividades(LocalDate inicioMes, List<Long> cursoIds) {
+        try {
+            List<Object[]> totais = cursoIds == null ?
+                    metricaRepository.somarAtividades() :
+                    metricaRepository.somarAtividadesPorCursoIds(cursoIds);
+            List<Object[]> anteriores = cursoIds == null ?
+                    metricaMensalRepository.somarAntesDe(inicioMes) :
+                    metricaMensalRepository.somarAntesDePorCursoIds(cursoIds, inicioMes);
+            Object[] total = primeiraLinha(totais, 3);
+            Object[] anterior = primeiraLinha(anteriores, 2);
+            return new ResumoAtividades(
+                    paraLong(total[0]),
+                    paraLong(total[1]),
+                    paraLong(total[2]),
+                    paraLong(anterior[0]),
+                    paraLong(anterior[1]));
+        } catch (Exception e) {
+            // Se houver erro na query, considerar contagens zeradas
+            return ResumoAtividades.VAZIO;
+        }
+    }
+
     // Métodos auxiliares para contar entidades (filtradas por cursoIds se fornecido)
     private long contarCursos(List<Long> cursoIds) {
         if (cursoIds == null) {
@@ -202,40 +262,11 @@ public class DashboardService {
         return cursoIds.size();
     }
     
-    private long contarCursosCriadosAte(LocalDate data, List<Long> cursoIds) {
-        // Como Curso não tem createdAt, vamos assumir que todos os cursos existiam antes
-        return contarCursos(cursoIds);
-    }
-    
-    private long contarAtividades(List<Long> cursoIds) {
+    private long contarCursosCriadosAntes(LocalDateTime data, List<Long> cursoIds) {
         if (cursoIds == null) {
-            return atividadeRepository.count();
-        }
-        return atividadeRepository.findByCursoIds(cursoIds).size();
-    }
-
-    private long contarAtividadesAtivasAte(LocalDate data, List<Long> cursoIds) {
-        try {
-            if (cursoIds == null) {
-                // Evitar usar findByFiltros que pode ter problemas com LOWER() em tabelas vazias
-                // Usar findAll() e filtrar em memória
-                List<Atividade> todasAtividades = atividadeRepository.findAll();
-                if (todasAtividades == null || todasAtividades.isEmpty()) {
-                    return 0L;
-                }
-                return todasAtividades.stream()
-                        .filter(a -> a != null && a.getDataRealizacao() != null && 
-                                (a.getDataRealizacao().isBefore(data) || a.getDataRealizacao().isEqual(data)))
-                        .count();
-            }
-            return atividadeRepository.findByCursoIds(cursoIds).stream()
-                    .filter(a -> a != null && a.getDataRealizacao() != null && 
-                            (a.getDataRealizacao().isBefore(data) || a.getDataRealizacao().isEqual(data)))
-                    .count();
-        } catch (Exception e) {
-            // Se houver erro na query, retornar 0
-            return 0L;
+            return metricaRepository.countCursosCriadosAntes(data);
         }
+        return metricaRepository.countCursosCriadosAntesPorCursoIds(cursoIds, data);
     }
 
     private long contarUsuarios(List<Long> cursoIds) {
@@ -243,19 +274,16 @@ public class DashboardService {
             return usuarioRepository.count();
         }
         // Contar usuários únicos associados aos cursos
-        Set<Long> usuariosIds = new HashSet<>();
-        for (Long cursoId : cursoIds) {
-            Curso curso = cursoRepository.findById(cursoId).orElse(null);
-            if (curso != null && curso.getUsuarios() != null) {
-                curso.getUsuarios().forEach(u -> usuariosIds.add(u.getId()));
-            }
-        }
-        return usuariosIds.size();
+        return cursoRepository.countUsuariosDistintosByCursoIds(cursoIds);
     }
     
-    private long contarUsuariosCriadosAte(LocalDate data, List<Long> cursoIds) {
-        // Por enquanto, retorna o mesmo valor que contarUsuarios
-        return contarUsuarios(cursoIds);
+    private long contarUsuariosCriadosAntes(LocalDateTime data, List<Long> cursoIds) {
+        // Usuario.createdAt é java.util.Date
+        Date limite = Date.from(data.atZone(ZoneId.systemDefault()).toInstant());
+        if (cursoIds == null) {
+            return usuarioRepository.countByCreatedAtBefore(limite);
+        }
+        return cursoRepository.countUsuariosDistintosCriadosAntesByCursoIds(cursoIds, limite);
     }
 
     private long contarPessoas(List<Long> cursoIds) {
@@ -263,23 +291,14 @@ public class DashboardService {
             return pessoaRepository.count();
         }
         // Contar pessoas únicas associadas aos cursos (via usuários)
-        Set<Long> pessoasIds = new HashSet<>();
-        for (Long cursoId : cursoIds) {
-            Curso curso = cursoRepository.findById(cursoId).orElse(null);
-            if (curso != null && curso.getUsuarios() != null) {
-                curso.getUsuarios().forEach(u -> {
-                    if (u.getPessoa() != null) {
-                        pessoasIds.add(u.getPessoa().getId());
-                    }
-                });
-            }
-        }
-        return pessoasIds.size();
+        return cursoRepository.countPessoasDistintasByCursoIds(cursoIds);
     }
     
-    private long contarPessoasCriadasAte(LocalDate data, List<Long> cursoIds) {
-        // Por enquanto, retorna o mesmo valor que contarPessoas
-        return contarPessoas(cursoIds);
+    private long contarPessoasCriadasAntes(LocalDateTime data, List<Long> cursoIds) {
+        if (cursoIds == null) {
+            return pessoaRepository.countByCreatedAtBefore(data);
+        }
+        return cursoRepository.countPessoasDistintasCriadasAntesByCursoIds(cursoIds, data);
     }
     
     private long contarFontesFinanciadoras(List<Long> cursoIds) {
@@ -287,79 +306,20 @@ public class DashboardService {
             return fonteFinanciadoraRepository.count();
         }
         // Contar fontes financiadoras únicas associadas às atividades dos cursos
-        Set<Long> fontesIds = new HashSet<>();
-        List<Atividade> atividades = atividadeRepository.findByCursoIds(cursoIds);
-        for (Atividade atividade : atividades) {
-            if (atividade.getFontesFinanciadora() != null) {
-                atividade.getFontesFinanciadora().forEach(f -> fontesIds.add(f.getId()));
-            }
-        }
-        return fontesIds.size();
-    }
-
-    private long contarPublicacoes(List<Long> cursoIds) {
-        try {
-            if (cursoIds == null) {
-                List<Atividade> atividades = atividadeRepository.findByStatusPublicacao(true);
-                return atividades != null ? atividades.size() : 0L;
-            }
-            return atividadeRepository.findByCursoIds(cursoIds).stream()
-                    .filter(a -> a != null && Boolean.TRUE.equals(a.getStatusPublicacao()))
-                    .count();
-        } catch (Exception e) {
-            return 0L;
-        }
-    }
-    
-    private long contarPublicacoesAte(LocalDate data, List<Long> cursoIds) {
-        try {
-            if (cursoIds == null) {
-                // Evitar usar findByFiltros que pode ter problemas com LOWER() em tabelas vazias
-                // Usar findByStatusPublicacao e filtrar em memória
-                List<Atividade> atividades = atividadeRepository.findByStatusPublicacao(true);
-                if (atividades == null || atividades.isEmpty()) {
-                    return 0L;
-                }
-                return atividades.stream()
-                        .filter(a -> a != null && a.getDataRealizacao() != null &&
-                                (a.getDataRealizacao().isBefore(data) || a.getDataRealizacao().isEqual(data)) &&
-                                Boolean.TRUE.equals(a.getStatusPublicacao()))
-                        .count();
-            }
-            return atividadeRepository.findByCursoIds(cursoIds).stream()
-                    .filter(a -> a != null && a.getDataRealizacao() != null &&
-                            Boolean.TRUE.equals(a.getStatusPublicacao()) &&
-                            (a.getDataRealizacao().isBefore(data) || a.getDataRealizacao().isEqual(data)))
-                    .count();
-        } catch (Exception e) {
-            return 0L;
-        }
+        return atividadeRepository.countFontesFinanciadorasDistintasByCursoIds(cursoIds);
     }
 
-    private long contarAtividadesFinalizadas(List<Long> cursoIds) {
-        try {
-            LocalDate agora = LocalDate.now();
-            List<Atividade> atividades = cursoIds == null ?
-                    atividadeRepository.findAll() :
-                    atividadeRepository.findByCursoIds(cursoIds);
-            
-            if (atividades == null || atividades.isEmpty()) {
-                return 0L;
-            }
-            
-            return atividades.stream()
-                    .filter(a -> a != null && a.getDataFim() != null && a.getDataFim().isBefore(agora))
-                    .count();
-        } catch (Exception e) {
-            return 0L;
+    private long contarFontesFinanciadorasCriadasAntes(LocalDateTime data, List<Long> cursoIds) {
+        if (cursoIds == null) {
+            return fonteFinanciadoraRepository.countByCreatedAtBefore(data);
         }
+        return atividadeRepository.countFontesFinanciadorasDistintasCriadasAntesByCursoIds(cursoIds, data);
     }
 
-    private double calcularTaxaConclusaoAnterior(LocalDate data, List<Long> cursoIds) {
-        long atividadesFinalizadas = contarAtividadesFinalizadas(cursoIds);
-        long totalAtividades = contarAtividadesAtivasAte(data, cursoIds);
+    private double calcularTaxaConclusaoAnterior(ResumoAtividades resumo) {
+        long totalAtividades = resumo.realizadasAntesDoMes();
         if (totalAtividades == 0) return 0.0;
-        return (atividadesFinalizadas * 100.0) / totalAtividades;
+        return (resumo.finalizadas() * 100.0) / totalAtividades;
     }
 
     private List<AtividadePorCategoriaDTO> calcularAtividadesPorCategoria(List<Long> cursoIds) {
@@ -371,16 +331,14 @@ public class DashboardService {
             
             Map<String, Long> contadorPorCategoria = new HashMap<>();
 
-            List<Atividade> atividades = cursoIds == null ?
-                    atividadeRepository.findAll() :
-                    atividadeRepository.findByCursoIds(cursoIds);
+            List<Object[]> contagens = cursoIds == null ?
+                    metricaCategoriaRepository.somarPorCategoria() :
+                    metricaCategoriaRepository.somarPorCategoriaPorCursoIds(cursoIds);
             
-            if (atividades != null) {
-                for (Atividade atividade : atividades) {
-                    if (atividade != null && atividade.getCategoria() != null && atividade.getCategoria().getNome() != null) {
-                        String nomeCategoria = atividade.getCategoria().getNome();
-                        contadorPorCategoria.put(nomeCategoria,
-                                contadorPorCategoria.getOrDefault(nomeCategoria, 0L) + 1);
+            if (contagens != null) {
+                for (Object[] linha : contagens) {
+                    if (linha != null && linha[0] != null) {
+                        contadorPorCategoria.put((String) linha[0], paraLong(linha[1]));
                     }
                 }
             }
@@ -401,44 +359,27 @@ public class DashboardService {
         }
     }
 
-    private StatusPublicacaoDTO calcularStatusPublicacao(List<Long> cursoIds) {
-        try {
-            List<Atividade> atividades = cursoIds == null ?
-                    atividadeRepository.findAll() :
-                    atividadeRepository.findByCursoIds(cursoIds);
-            
-            if (atividades == null || atividades.isEmpty()) {
-                return new StatusPublicacaoDTO(0L, 0L, 0.0);
-            }
-            
-            long publicadas = atividades.stream()
-                    .filter(a -> a != null && Boolean.TRUE.equals(a.getStatusPublicacao()))
-                    .count();
-            long naoPublicadas = atividades.size() - publicadas;
-            double percentual = atividades.isEmpty() ? 0.0 :
-                    (publicadas * 100.0) / atividades.size();
-
-            return new StatusPublicacaoDTO(publicadas, naoPublicadas, percentual);
-        } catch (Exception e) {
-            // Em caso de erro, retornar valores zerados
+    private StatusPublicacaoDTO calcularStatusPublicacao(ResumoAtividades resumo) {
+        if (resumo.total() == 0) {
             return new StatusPublicacaoDTO(0L, 0L, 0.0);
         }
+
+        long publicadas = resumo.publicadas();
+        long naoPublicadas = resumo.total() - publicadas;
+        double percentual = (publicadas * 100.0) / resumo.total();
+
+        return new StatusPublicacaoDTO(publicadas, naoPublicadas, percentual);
     }
 
     private List<DistribuicaoUsuarioDTO> calcularDistribuicaoUsuarios() {
         try {
             List<DistribuicaoUsuarioDTO> distribuicao = new ArrayList<>();
 
-            // Buscar usuários por role
-            Set<Usuario> usuariosAdmin = usuarioRepository.findAllByRoleName("ROLE_ADMINISTRADOR");
-            Set<Usuario> usuariosGerente = usuarioRepository.findAllByRoleName("ROLE_GERENTE");
-            Set<Usuario> usuariosSecretario = usuarioRepository.findAllByRoleName("ROLE_SECRETARIO");
-            Set<Usuario> usuariosCoordenador = usuarioRepository.findAllByRoleName("ROLE_COORDENADOR_ATIVIDADE");
-
-            distribuicao.add(new DistribuicaoUsuarioDTO("Administradores", usuariosAdmin != null ? (long) usuariosAdmin.size() : 0L));
-            distribuicao.add(new DistribuicaoUsuarioDTO("Gerentes", usuariosGerente != null ? (long) usuariosGerente.size() : 0L));
-            distribuicao.add(new DistribuicaoUsuarioDTO("Secretários", usuariosSecretario != null ? (long) usuariosSecretario.size() : 0L));
-            distribuicao.add(new DistribuicaoUsuarioDTO("Coordenadores de Atividade", usuariosCoordenador != null ? (long) usuariosCoordenador.size() : 0L));
+            // Contar usuários por role
+            distribuicao.add(new DistribuicaoUsuarioDTO("Administradores", usuarioRepository.countByRoleName("ROLE_ADMINISTRADOR")));
+            distribuicao.add(new DistribuicaoUsuarioDTO("Gerentes", usuarioRepository.countByRoleName("ROLE_GERENTE")));
+            distribuicao.add(new DistribuicaoUsuarioDTO("Secretários", usuarioRepository.countByRoleName("ROLE_SECRETARIO")));
+            distribuicao.add(new DistribuicaoUsuarioDTO("Coordenadores de Atividade", usuarioRepository.countByRoleName("ROLE_COORDENADOR_ATIVIDADE")));
 
             return distribuicao;
         } catch (Exception e) {
@@ -449,30 +390,26 @@ public class DashboardService {
 
     private List<CursoDestaqueDTO> calcularCursosDestaque(int limite, List<Long> cursoIds) {
         try {
-            List<Curso> cursos = cursoIds == null ?
-                    cursoRepository.findAll() :
-                    cursoIds.stream()
-                            .map(id -> cursoRepository.findById(id).orElse(null))
-                            .filter(c -> c != null)
-                            .collect(Collectors.toList());
+            List<Object[]> cursos = cursoIds == null ?
+                    metricaRepository.findCursosDestaque() :
+                    new ArrayList<>(metricaRepository.findCursosDestaquePorCursoIds(cursoIds));
             
             if (cursos == null || cursos.isEmpty()) {
                 return new ArrayList<>();
             }
+
+            // Manter a ordem dos cursos do usuário como critério de desempate
+            if (cursoIds != null) {
+                cursos.sort(Comparator.comparingInt(linha -> cursoIds.indexOf(paraLong(linha[0]))));
+            }
             
             return cursos.stream()
-                    .filter(curso -> curso != null && curso.getNome() != null)
-                    .map(curso -> {
-                        long quantidadeAtividades = curso.getAtividades() != null ?
-                                curso.getAtividades().size() : 0;
-                        long quantidadeUsuarios = curso.getUsuarios() != null ?
-                                curso.getUsuarios().size() : 0;
-                        return new CursoDestaqueDTO(
-                                curso.getNome(),
-                                quantidadeAtividades,
-                                quantidadeUsuarios
-                        );
-                    })
+                    .filter(linha -> linha != null && linha[1] != null)
+                    .map(linha -> new CursoDestaqueDTO(
+                            (String) linha[1],
+                            paraLong(linha[2]),
+                            paraLong(linha[3])
+                    ))
                     .sorted((a, b) -> Long.compare(b.quantidadeAtividades(), a.quantidadeAtividades()))
                     .limit(limite)
                     .collect(Collectors.toList());
@@ -486,35 +423,31 @@ public class DashboardService {
         try {
             List<AtividadeRecenteDTO> recentes = new ArrayList<>();
 
-            // Buscar atividades recentes ordenadas por data de realização
-            List<Atividade> atividades = cursoIds == null ?
-                    atividadeRepository.findAll() :
-                    atividadeRepository.findByCursoIds(cursoIds);
+            // Buscar apenas as atividades mais recentes ordenadas por data de realização
+            Pageable candidatas = PageRequest.of(0, limite * 2);
+            List<Object[]> atividades = cursoIds == null ?
+                    atividadeRepository.findResumoRecentes(candidatas) :
+                    atividadeRepository.findResumoRecentesByCursoIds(cursoIds, candidatas);
             
             if (atividades == null || atividades.isEmpty()) {
                 return new ArrayList<>();
             }
-            
-            atividades.sort((a, b) -> {
-                if (a == null || a.getDataRealizacao() == null) return 1;
-                if (b == null || b.getDataRealizacao() == null) return -1;
-                return b.getDataRealizacao().compareTo(a.getDataRealizacao());
-            });
 
             LocalDateTime agora = LocalDateTime.now();
 
-            for (Atividade atividade : atividades.stream().limit(limite * 2).toList()) {
-                if (atividade != null && 
-                    atividade.getDataRealizacao() != null &&
-                    atividade.getNome() != null &&
-                    Boolean.TRUE.equals(atividade.getStatusPublicacao())) {
-                    LocalDateTime dataAtividade = atividade.getDataRealizacao()
+            for (Object[] atividade : atividades) {
+                String nome = (String) atividade[0];
+                LocalDate dataRealizacao = (LocalDate) atividade[1];
+                if (dataRealizacao != null &&
+                    nome != null &&
+                    Boolean.TRUE.equals(atividade[2])) {
+                    LocalDateTime dataAtividade = dataRealizacao
                             .atStartOfDay()
                             .plusHours(10); // Assumir 10h como horário padrão
                     String tempoDecorrido = calcularTempoDecorrido(dataAtividade, agora);
                     recentes.add(new AtividadeRecenteDTO(
                             "Publicação",
-                            "Atividade \"" + atividade.getNome() + "\" publicada",
+                            "Atividade \"" + nome + "\" publicada",
                             dataAtividade,
                             tempoDecorrido
                     ));
@@ -532,6 +465,17 @@ public class DashboardService {
         }
     }
 
+    private static Object[] primeiraLinha(List<Object[]> linhas, int colunas) {
+        if (linhas == null || linhas.isEmpty() || linhas.get(0) == null) {
+            return new Object[colunas];
+        }
+        return linhas.get(0);
+    }
+
+    private static long paraLong(Object valor) {
+        return valor instanceof Number numero ? numero.longValue() : 0L;
+    }
+
     private String calcularTempoDecorrido(LocalDateTime inicio, LocalDateTime fim) {
         long dias = ChronoUnit.DAYS.between(inicio, fim);
         long horas = ChronoUnit.HOURS.between(inicio, fim);
@@ -546,5 +490,14 @@ public class DashboardService {
         }
     }
 
-}
+    private record ResumoAtividades(
+            long total,
+            long publicadas,
+            long finalizadas,
+            long realizadasAntesDoMes,
+            long publicadasAntesDoMes) {
 
+        private static final ResumoAtividades VAZIO = new ResumoAtividades(0L, 0L, 0L, 0L, 0L);
+    }
+
+}
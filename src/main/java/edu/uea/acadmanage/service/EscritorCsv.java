@@ -0,0 +1,78 @@
+package edu.uea.acadmanage.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escrita de CSV campo a campo direto no {@link Writer}, sem montar a linha nem cópias
+ * escapadas de cada valor. Aspas são duplicadas e quebras de linha viram espaço; o campo vai
+ * entre aspas se tiver vírgula, aspas ou espaços no início ou no fim.
+ */
+final class EscritorCsv {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Writer writer;
+    private boolean inicioLinha = true;
+
+    EscritorCsv(Writer writer) {
+        this.writer = writer;
+    }
+
+    void campo(String valor) throws IOException {
+        separar();
+        if (valor == null || valor.isEmpty()) {
+            return;
+        }
+        boolean aspas = valor.charAt(0) <= ' ' || valor.charAt(valor.length() - 1) <= ' '
+                || valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0;
+        if (aspas) {
+            writer.write('"');
+        }
+        int inicio = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\n' || c == '\r') {
+                writer.write(valor, inicio, i - inicio);
+                writer.write(c == '"' ? "\"\"" : " ");
+                inicio = i + 1;
+            }
+        }
+        writer.write(valor, inicio, valor.length() - inicio);
+        if (aspas) {
+            writer.write('"');
+        }
+    }
+
+    void campo(Long valor) throws IOException {
+        separar();
+        if (valor != null) {
+            writer.write(Long.toString(valor));
+        }
+    }
+
+    void campo(LocalDateTime valor) throws IOException {
+        separar();
+        if (valor != null) {
+            DATE_FORMATTER.formatTo(valor, writer);
+        }
+    }
+
+    void campo(Enum<?> valor) throws IOException {
+        campo(valor != null ? valor.name() : null);
+    }
+
+    void fimLinha() throws IOException {
+        writer.write('\n');
+        inicioLinha = true;
+    }
+
+    private void separar() throws IOException {
+        if (!inicioLinha) {
+            writer.write(',');
+        }
+        inicioLinha = false;
+    }
+}
@@ -0,0 +1,526 @@
+package edu.uea.acadmanage.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escrita de arquivos Apache Parquet em streaming, sem depender do Hadoop. Cobre o que as
+ * exportações de log usam: esquema plano, colunas obrigatórias ou opcionais, codificação
+ * PLAIN, páginas de dados v1 compactadas com GZIP e estatísticas (nulos, mínimo e máximo das
+ * colunas inteiras) por grupo de linhas.
+ *
+ * <p>Só o grupo de linhas corrente fica em memória; cada grupo completo é escrito na saída
+ * e o rodapé (metadados em Thrift compact protocol) vai no fim, em {@link #concluir()}. Um
+ * grupo fecha ao atingir 50.000 linhas ou 32 MiB em memória, o que vier antes, para que
+ * linhas com textos longos (valores JSON, User-Agent) não acumulem mais que isso.
+ */
+final class EscritorParquet {
+
+    enum Tipo {
+        INT64, TIMESTAMP, BOOLEAN, STRING, ENUM, JSON
+    }
+
+    record Coluna(String nome, Tipo tipo, boolean obrigatoria) {
+
+        static Coluna obrigatoria(String nome, Tipo tipo) {
+            return new Coluna(nome, tipo, true);
+        }
+
+        static Coluna opcional(String nome, Tipo tipo) {
+            return new Coluna(nome, tipo, false);
+        }
+    }
+
+    private static final byte[] MAGICO = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    static final int LINHAS_POR_GRUPO = 50_000;
+    static final long BYTES_POR_GRUPO = 32L << 20;
+    static final int TAMANHO_PAGINA = 1 << 20;
+    // created_by no formato "<aplicação> version <versão>": leitores como o parquet-mr descartam
+    // as estatísticas de colunas binárias quando não conseguem interpretá-lo
+    static final String CRIADO_POR = "portifolium version 1.0";
+
+    // Constantes de parquet.thrift
+    private static final int TIPO_BOOLEAN = 0;
+    private static final int TIPO_INT64 = 2;
+    private static final int TIPO_BYTE_ARRAY = 6;
+    private static final int REPETICAO_REQUIRED = 0;
+    private static final int REPETICAO_OPTIONAL = 1;
+    private static final int CONVERTIDO_UTF8 = 0;
+    private static final int CONVERTIDO_ENUM = 4;
+    private static final int CONVERTIDO_TIMESTAMP_MILLIS = 9;
+    private static final int CONVERTIDO_JSON = 19;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_RLE = 3;
+    private static final int CODEC_GZIP = 2;
+    private static final int PAGINA_DADOS = 0;
+
+    private final OutputStream saida;
+    private final String nome;
+    private final List<Coluna> colunas;
+    private final List<BufferColuna> buffers = new ArrayList<>();
+    private final List<Grupo> grupos = new ArrayList<>();
+    private final ZoneId fuso = ZoneId.systemDefault();
+    private final int linhasPorGrupo;
+    private final long bytesPorGrupo;
+    private final int tamanhoPagina;
+    private long posicao;
+    private int linhasGrupo;
+
+    EscritorParquet(OutputStream saida, String nome, List<Coluna> colunas) throws IOException {
+        this(saida, nome, colunas, LINHAS_POR_GRUPO, BYTES_POR_GRUPO, TAMANHO_PAGINA);
+    }
+
+    // Limites configuráveis só para os testes exercitarem várias páginas e grupos com poucos dados
+    EscritorParquet(OutputStream saida, String nome, List<Coluna> colunas, int linhasPorGrupo, long bytesPorGrupo,
+            int tamanhoPagina) throws IOException {
+        this.saida = saida;
+        this.nome = nome;
+        this.colunas = List.copyOf(colunas);
+        this.linhasPorGrupo = linhasPorGrupo;
+        this.bytesPorGrupo = bytesPorGrupo;
+        this.tamanhoPagina = tamanhoPagina;
+        for (Coluna coluna : this.colunas) {
+            buffers.add(new BufferColuna(coluna));
+        }
+        escrever(MAGICO);
+    }
+
+    /**
+     * Acrescenta uma linha, com um valor por coluna na ordem do esquema ({@code null} nas
+     * colunas opcionais sem valor).
+     */
+    void linha(Object... valores) throws IOException {
+        if (valores.length != colunas.size()) {
+            throw new IllegalArgumentException("Esperados " + colunas.size() + " valores, recebidos " + valores.length);
+        }
+        long bytesGrupo = 0;
+        for (int i = 0; i < valores.length; i++) {
+            BufferColuna buffer = buffers.get(i);
+            buffer.adicionar(valores[i]);
+            bytesGrupo += buffer.bytesEmMemoria();
+        }
+        if (++linhasGrupo >= linhasPorGrupo || bytesGrupo >= bytesPorGrupo) {
+            fecharGrupo();
+        }
+    }
+
+    /**
+     * Escreve o último grupo de linhas e o rodapé. Não fecha a saída.
+     */
+    void concluir() throws IOException {
+        fecharGrupo();
+        Thrift metadados = new Thrift();
+        metadados.i32(1, 1);
+        metadados.lista(2, Thrift.STRUCT, colunas.size() + 1);
+        metadados.inicioElemento();
+        metadados.string(4, nome);
+        metadados.i32(5, colunas.size());
+        metadados.fimStruct();
+        for (Coluna coluna : colunas) {
+            metadados.inicioElemento();
+            esquema(metadados, coluna);
+            metadados.fimStruct();
+        }
+        metadados.i64(3, grupos.stream().mapToLong(Grupo::linhas).sum());
+        metadados.lista(4, Thrift.STRUCT, grupos.size());
+        for (Grupo grupo : grupos) {
+            metadados.inicioElemento();
+            grupo.serializar(metadados);
+            metadados.fimStruct();
+        }
+        metadados.string(6, CRIADO_POR);
+        metadados.fim();
+        byte[] rodape = metadados.bytes();
+        escrever(rodape);
+        escrever(new byte[] {
+                (byte) rodape.length, (byte) (rodape.length >>> 8), (byte) (rodape.length >>> 16),
+                (byte) (rodape.length >>> 24) });
+        escrever(MAGICO);
+        saida.flush();
+    }
+
+    private void fecharGrupo() throws IOException {
+        if (linhasGrupo == 0) {
+            return;
+        }
+        List<Trecho> trechos = new ArrayList<>(buffers.size());
+        for (BufferColuna buffer : buffers) {
+            buffer.fecharPagina();
+            trechos.add(buffer.escreverTrecho());
+        }
+        grupos.add(new Grupo(linhasGrupo, trechos));
+        linhasGrupo = 0;
+        saida.flush();
+    }
+
+    private void escrever(byte[] bytes) throws IOException {
+        saida.write(bytes);
+        posicao += bytes.length;
+    }
+
+    private static void esquema(Thrift thrift, Coluna coluna) {
+        thrift.i32(1, switch (coluna.tipo()) {
+            case INT64, TIMESTAMP -> TIPO_INT64;
+            case BOOLEAN -> TIPO_BOOLEAN;
+            case STRING, ENUM, JSON -> TIPO_BYTE_ARRAY;
+        });
+        thrift.i32(3, coluna.obrigatoria() ? REPETICAO_REQUIRED : REPETICAO_OPTIONAL);
+        thrift.string(4, coluna.nome());
+        Integer convertido = switch (coluna.tipo()) {
+            case STRING -> CONVERTIDO_UTF8;
+            case ENUM -> CONVERTIDO_ENUM;
+            case JSON -> CONVERTIDO_JSON;
+            case TIMESTAMP -> CONVERTIDO_TIMESTAMP_MILLIS;
+            default -> null;
+        };
+        if (convertido == null) {
+            return;
+        }
+        thrift.i32(6, convertido);
+        // LogicalType (union): STRING = 1, ENUM = 4, TIMESTAMP = 8, JSON = 12
+        thrift.inicioStruct(10);
+        switch (coluna.tipo()) {
+            case STRING -> thrift.structVazia(1);
+            case ENUM -> thrift.structVazia(4);
+            case JSON -> thrift.structVazia(12);
+            default -> {
+                thrift.inicioStruct(8);
+                thrift.bool(1, true);
+                thrift.inicioStruct(2);
+                thrift.structVazia(1);
+                thrift.fimStruct();
+                thrift.fimStruct();
+            }
+        }
+        thrift.fimStruct();
+    }
+
+    private record Trecho(Coluna coluna, long posicao, long valores, long nulos, long tamanhoDescomprimido,
+                          long tamanhoComprimido, Long minimo, Long maximo) {
+
+        void serializar(Thrift thrift) {
+            thrift.i64(2, posicao);
+            thrift.inicioStruct(3);
+            thrift.i32(1, coluna.tipo() == Tipo.BOOLEAN ? TIPO_BOOLEAN
+                    : coluna.tipo() == Tipo.INT64 || coluna.tipo() == Tipo.TIMESTAMP ? TIPO_INT64 : TIPO_BYTE_ARRAY);
+            thrift.lista(2, Thrift.I32, 2);
+            thrift.elementoI32(ENCODING_PLAIN);
+            thrift.elementoI32(ENCODING_RLE);
+            thrift.lista(3, Thrift.BINARY, 1);
+            thrift.elementoString(coluna.nome());
+            thrift.i32(4, CODEC_GZIP);
+            thrift.i64(5, valores);
+            thrift.i64(6, tamanhoDescomprimido);
+            thrift.i64(7, tamanhoComprimido);
+            thrift.i64(9, posicao);
+            thrift.inicioStruct(12);
+            thrift.i64(3, nulos);
+            if (minimo != null) {
+                thrift.binario(5, int64(maximo));
+                thrift.binario(6, int64(minimo));
+            }
+            thrift.fimStruct();
+            thrift.fimStruct();
+        }
+    }
+
+    private record Grupo(long linhas, List<Trecho> trechos) {
+
+        void serializar(Thrift thrift) {
+            thrift.lista(1, Thrift.STRUCT, trechos.size());
+            for (Trecho trecho : trechos) {
+                thrift.inicioElemento();
+                trecho.serializar(thrift);
+                thrift.fimStruct();
+            }
+            thrift.i64(2, trechos.stream().mapToLong(Trecho::tamanhoDescomprimido).sum());
+            thrift.i64(3, linhas);
+            thrift.i64(5, trechos.get(0).posicao());
+            thrift.i64(6, trechos.stream().mapToLong(Trecho::tamanhoComprimido).sum());
+        }
+    }
+
+    private static byte[] int64(long valor) {
+        byte[] bytes = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (valor >>> (8 * i));
+        }
+        return bytes;
+    }
+
+    // Valores e níveis de definição de uma coluna no grupo de linhas corrente
+    private final class BufferColuna {
+
+        private final Coluna coluna;
+        private final ByteArrayOutputStream valores = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream niveis = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream paginas = new ByteArrayOutputStream();
+        private int nivelCorrente = -1;
+        private int repeticoes;
+        private int valoresPagina;
+        private int bitsPendentes;
+        private int bytePendente;
+        private long valoresGrupo;
+        private long nulosGrupo;
+        private long tamanhoDescomprimido;
+        private Long minimo;
+        private Long maximo;
+
+        private BufferColuna(Coluna coluna) {
+            this.coluna = coluna;
+        }
+
+        private void adicionar(Object valor) throws IOException {
+            if (valor == null) {
+                if (coluna.obrigatoria()) {
+                    throw new IllegalArgumentException("Coluna obrigatória sem valor: " + coluna.nome());
+                }
+                nivel(0);
+                nulosGrupo++;
+            } else {
+                if (!coluna.obrigatoria()) {
+                    nivel(1);
+                }
+                escreverValor(valor);
+            }
+            valoresPagina++;
+            valoresGrupo++;
+            if (valores.size() >= tamanhoPagina) {
+                fecharPagina();
+            }
+        }
+
+        // Páginas já compactadas do grupo mais a página aberta
+        private long bytesEmMemoria() {
+            return paginas.size() + valores.size() + niveis.size();
+        }
+
+        private void escreverValor(Object valor) throws IOException {
+            switch (coluna.tipo()) {
+                case INT64, TIMESTAMP -> {
+                    long numero = valor instanceof LocalDateTime data
+                            ? data.atZone(fuso).toInstant().toEpochMilli()
+                            : ((Number) valor).longValue();
+                    valores.write(int64(numero));
+                    minimo = minimo == null ? numero : Math.min(minimo, numero);
+                    maximo = maximo == null ? numero : Math.max(maximo, numero);
+                }
+                case BOOLEAN -> {
+                    if ((Boolean) valor) {
+                        bytePendente |= 1 << bitsPendentes;
+                    }
+                    if (++bitsPendentes == 8) {
+                        valores.write(bytePendente);
+                        bitsPendentes = 0;
+                        bytePendente = 0;
+                    }
+                }
+                default -> {
+                    byte[] bytes = (valor instanceof Enum<?> constante ? constante.name() : valor.toString())
+                            .getBytes(StandardCharsets.UTF_8);
+                    valores.write(bytes.length);
+                    valores.write(bytes.length >>> 8);
+                    valores.write(bytes.length >>> 16);
+                    valores.write(bytes.length >>> 24);
+                    valores.write(bytes);
+                }
+            }
+        }
+
+        // Níveis de definição em RLE (largura de 1 bit): cada sequência é (repetições << 1) e o valor
+        private void nivel(int nivel) {
+            if (nivel != nivelCorrente && repeticoes > 0) {
+                fecharSequencia();
+            }
+            nivelCorrente = nivel;
+            repeticoes++;
+        }
+
+        private void fecharSequencia() {
+            Thrift.varint(niveis, (long) repeticoes << 1);
+            niveis.write(nivelCorrente);
+            repeticoes = 0;
+        }
+
+        private void fecharPagina() throws IOException {
+            if (valoresPagina == 0) {
+                return;
+            }
+            if (bitsPendentes > 0) {
+                valores.write(bytePendente);
+                bitsPendentes = 0;
+                bytePendente = 0;
+            }
+            ByteArrayOutputStream corpo = new ByteArrayOutputStream(valores.size() + niveis.size() + 16);
+            if (!coluna.obrigatoria()) {
+                fecharSequencia();
+                int tamanho = niveis.size();
+                corpo.write(new byte[] {
+                        (byte) tamanho, (byte) (tamanho >>> 8), (byte) (tamanho >>> 16), (byte) (tamanho >>> 24) });
+                niveis.writeTo(corpo);
+            }
+            valores.writeTo(corpo);
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(corpo.size() / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+                corpo.writeTo(gzip);
+            }
+
+            Thrift cabecalho = new Thrift();
+            cabecalho.i32(1, PAGINA_DADOS);
+            cabecalho.i32(2, corpo.size());
+            cabecalho.i32(3, comprimido.size());
+            cabecalho.inicioStruct(5);
+            cabecalho.i32(1, valoresPagina);
+            cabecalho.i32(2, ENCODING_PLAIN);
+            cabecalho.i32(3, ENCODING_RLE);
+            cabecalho.i32(4, ENCODING_RLE);
+            cabecalho.fimStruct();
+            cabecalho.fim();
+            byte[] bytesCabecalho = cabecalho.bytes();
+
+            paginas.write(bytesCabecalho);
+            comprimido.writeTo(paginas);
+            tamanhoDescomprimido += bytesCabecalho.length + corpo.size();
+            valores.reset();
+            niveis.reset();
+            nivelCorrente = -1;
+            valoresPagina = 0;
+        }
+
+        private Trecho escreverTrecho() throws IOException {
+            Trecho trecho = new Trecho(coluna, posicao, valoresGrupo, nulosGrupo, tamanhoDescomprimido,
+                    paginas.size(), minimo, maximo);
+            escrever(paginas.toByteArray());
+            paginas.reset();
+            valoresGrupo = 0;
+            nulosGrupo = 0;
+            tamanhoDescomprimido = 0;
+            minimo = null;
+            maximo = null;
+            return trecho;
+        }
+    }
+
+    // Thrift compact protocol, só com o necessário para os metadados do Parquet
+    static final class Thrift {
+
+        static final int I32 = 5;
+        static final int BINARY = 8;
+        static final int STRUCT = 12;
+        private static final int BOOL_TRUE = 1;
+        private static final int BOOL_FALSE = 2;
+        private static final int I64 = 6;
+        private static final int LIST = 9;
+
+        private final ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        private final Deque<Integer> campos = new ArrayDeque<>();
+        private int ultimoCampo;
+
+        void i32(int campo, int valor) {
+            cabecalho(campo, I32);
+            varint(saida, zigzag(valor));
+        }
+
+        void i64(int campo, long valor) {
+            cabecalho(campo, I64);
+            varint(saida, zigzag(valor));
+        }
+
+        void bool(int campo, boolean valor) {
+            cabecalho(campo, valor ? BOOL_TRUE : BOOL_FALSE);
+        }
+
+        void string(int campo, String valor) {
+            binario(campo, valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void binario(int campo, byte[] valor) {
+            cabecalho(campo, BINARY);
+            varint(saida, valor.length);
+            saida.writeBytes(valor);
+        }
+
+        void inicioStruct(int campo) {
+            cabecalho(campo, STRUCT);
+            inicioElemento();
+        }
+
+        void structVazia(int campo) {
+            inicioStruct(campo);
+            fimStruct();
+        }
+
+        void inicioElemento() {
+            campos.push(ultimoCampo);
+            ultimoCampo = 0;
+        }
+
+        void fimStruct() {
+            saida.write(0);
+            ultimoCampo = campos.pop();
+        }
+
+        void lista(int campo, int tipoElemento, int tamanho) {
+            cabecalho(campo, LIST);
+            if (tamanho < 15) {
+                saida.write((tamanho << 4) | tipoElemento);
+            } else {
+                saida.write(0xF0 | tipoElemento);
+                varint(saida, tamanho);
+            }
+        }
+
+        void elementoI32(int valor) {
+            varint(saida, zigzag(valor));
+        }
+
+        void elementoString(String valor) {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            varint(saida, bytes.length);
+            saida.writeBytes(bytes);
+        }
+
+        // Fim da estrutura de nível mais alto
+        void fim() {
+            saida.write(0);
+        }
+
+        byte[] bytes() {
+            return saida.toByteArray();
+        }
+
+        private void cabecalho(int campo, int tipo) {
+            int delta = campo - ultimoCampo;
+            if (delta > 0 && delta <= 15) {
+                saida.write((delta << 4) | tipo);
+            } else {
+                saida.write(tipo);
+                varint(saida, zigzag(campo));
+            }
+            ultimoCampo = campo;
+        }
+
+        // Calculado em 64 bits: o resultado em int de um i32 negativo ou >= 2^30 teria o bit de
+        // sinal ligado e, estendido para long, viraria um varint de 10 bytes com outro valor
+        static long zigzag(long valor) {
+            return (valor << 1) ^ (valor >> 63);
+        }
+
+        static void varint(ByteArrayOutputStream saida, long valor) {
+            while ((valor & ~0x7FL) != 0) {
+                saida.write((int) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            saida.write((int) valor);
+        }
+    }
+}
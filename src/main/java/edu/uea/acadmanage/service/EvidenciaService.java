@@ -34,7 +34,7 @@ import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
 import edu.uea.acadmanage.service.exception.ValidacaoException;
 import edu.uea.acadmanage.model.AuditLog;
 import edu.uea.acadmanage.model.ActionLog;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class EvidenciaService {
@@ -45,7 +45,7 @@ public class EvidenciaService {
     private final AtividadeAutorizacaoService atividadeAutorizacaoService;
     private final AuditLogService auditLogService;
     private final ActionLogService actionLogService;
-    private final ObjectMapper objectMapper;
+    private final ImagemDerivadaService imagemDerivadaService;
     private final Path fileStorageLocation;
     private final String baseStorageLocation;
 
@@ -56,7 +56,7 @@ public class EvidenciaService {
             AtividadeAutorizacaoService atividadeAutorizacaoService,
             AuditLogService auditLogService,
             ActionLogService actionLogService,
-            ObjectMapper objectMapper,
+            ImagemDerivadaService imagemDerivadaService,
             FileStorageProperties fileStorageProperties) throws IOException {
         this.evidenciaRepository = evidenciaRepository;
         this.atividadeRepository = atividadeRepository;
@@ -64,7 +64,7 @@ public class EvidenciaService {
         this.atividadeAutorizacaoService = atividadeAutorizacaoService;
         this.auditLogService = auditLogService;
         this.actionLogService = actionLogService;
-        this.objectMapper = objectMapper;
+        this.imagemDerivadaService = imagemDerivadaService;
         this.baseStorageLocation = "/evidencias";
         this.fileStorageLocation = Paths.get(fileStorageProperties.getStorageLocation()+this.baseStorageLocation).toAbsolutePath().normalize();
         Files.createDirectories(this.fileStorageLocation);
@@ -185,16 +185,16 @@ public class EvidenciaService {
                     "Usuário não tem permissão para gerenciar evidências desta atividade: " + atividadeId);
         }
 
-        // salva a foto no disco
-        String uniqueFileName = salvarImagem(atividade, file);
-
         // Criar a entidade Evidência
         Evidencia evidencia = new Evidencia();
-        evidencia.setUrlFoto(uniqueFileName);
         evidencia.setLegenda(legenda);
         evidencia.setCriadoPor(username);
         evidencia.setAtividade(atividade);
         evidencia.setOrdem(proximaOrdem(atividadeId));
+
+        // salva a foto no disco
+        salvarImagem(evidencia, file);
+        String uniqueFileName = evidencia.getUrlFoto();
         // Salvar no banco
         Evidencia evidenciaSalva = evidenciaRepository.save(evidencia);
 
@@ -231,7 +231,7 @@ public class EvidenciaService {
                         "Evidência não encontrada com o ID: " + evidenciaId));
 
         // Capturar estado antigo para audit log
-        Evidencia oldState = copyEvidenciaForAudit(evidenciaExistente);
+        JsonNode oldState = auditLogService.capturar(evidenciaExistente);
         String oldUrlFoto = evidenciaExistente.getUrlFoto();
 
         // Buscar a atividade da evidência e verificar permissão
@@ -248,7 +248,7 @@ public class EvidenciaService {
             if (!excluirImagem(evidenciaExistente.getUrlFoto())) {
                 throw new ErroProcessamentoArquivoException("O arquivo anterior não pode ser removido.");
             }
-            evidenciaExistente.setUrlFoto(salvarImagem(evidenciaExistente.getAtividade(), file));
+            salvarImagem(evidenciaExistente, file);
             evidenciaExistente.setCriadoPor(username);
         }
 
@@ -338,25 +338,6 @@ public class EvidenciaService {
                         () -> new RecursoNaoEncontradoException("Evidência não encontrada com ID: " + evidenciaId));
     }
 
-    // Método auxiliar para copiar evidência para audit log
-    private Evidencia copyEvidenciaForAudit(Evidencia evidencia) {
-        try {
-            // Usar ObjectMapper para criar uma cópia profunda do objeto
-            String json = objectMapper.writeValueAsString(evidencia);
-            return objectMapper.readValue(json, Evidencia.class);
-        } catch (Exception e) {
-            // Se falhar a cópia profunda, criar manualmente uma cópia superficial
-            Evidencia copy = new Evidencia();
-            copy.setId(evidencia.getId());
-            copy.setUrlFoto(evidencia.getUrlFoto());
-            copy.setLegenda(evidencia.getLegenda());
-            copy.setOrdem(evidencia.getOrdem());
-            copy.setCriadoPor(evidencia.getCriadoPor());
-            copy.setAtividade(evidencia.getAtividade());
-            return copy;
-        }
-    }
-
     private EvidenciaDTO toEvidenciaDTO(Evidencia evidencia) {
         return new EvidenciaDTO(
                 evidencia.getId(),
@@ -397,7 +378,8 @@ public class EvidenciaService {
         return true;
     }
 
-    private String salvarImagem(Atividade atividade, MultipartFile file) throws IOException {
+    // Grava o arquivo e preenche na evidência o caminho, as dimensões e a orientação EXIF
+    private void salvarImagem(Evidencia evidencia, MultipartFile file) throws IOException {
         // Verificar se o arquivo enviado é uma imagem JPG ou PNG
         validarImagem(file);
 
@@ -407,13 +389,19 @@ public class EvidenciaService {
             throw new ArquivoInvalidoException("O arquivo enviado não possui um nome válido.");
         }
         String fileExtension = originalFilename.substring(originalFilename.lastIndexOf('.'));
+        Atividade atividade = evidencia.getAtividade();
         String uniqueFileName = atividade.getCurso().getId() + "/" + atividade.getId() + "/"
                 + UUID.randomUUID().toString() + fileExtension;
         Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName).normalize();
         Files.createDirectories(targetLocation.getParent());
         Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
 
-        return this.baseStorageLocation + "/" + uniqueFileName;
+        // Só o cabeçalho é lido; relatórios usam os valores gravados em vez de abrir o arquivo
+        ImagemMetadados.lerOuDesconhecida(targetLocation).aplicarEm(evidencia);
+
+        String urlFoto = this.baseStorageLocation + "/" + uniqueFileName;
+        evidencia.setUrlFoto(urlFoto);
+        imagemDerivadaService.gerarVariantes(urlFoto);
     }
 
     // Método para excluir uma imagem
@@ -443,6 +431,7 @@ public class EvidenciaService {
 
             Path targetLocation = this.fileStorageLocation.resolve(normalized).normalize();
             Files.deleteIfExists(targetLocation);
+            imagemDerivadaService.excluirVariantes(targetLocation);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
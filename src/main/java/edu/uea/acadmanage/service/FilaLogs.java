@@ -0,0 +1,240 @@
+package edu.uea.acadmanage.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.repository.LogLoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Gravação assíncrona (write-behind) dos logs de auditoria e de ação. Os registros entram
+ * em uma fila limitada e uma única thread os grava em lotes a cada {@code tamanhoLote}
+ * registros ou {@code intervalo}, o que vier primeiro.
+ *
+ * <p>Com a fila cheia, a política {@code DESCARTAR} descarta o registro na hora e
+ * {@code AGUARDAR} bloqueia quem registra por até {@code esperaMaxima} antes de descartar.
+ * Os registros pendentes são gravados no desligamento da aplicação.
+ *
+ * <p>Com o {@link SpoolLogs} habilitado, os lotes vão para o spool em disco, e não direto
+ * para o banco.
+ */
+@Component
+public class FilaLogs implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilaLogs.class);
+    // Acorda a thread de gravação no desligamento; ignorado na gravação
+    private static final Object PARAR = new Object();
+
+    public enum PoliticaFilaCheia {
+        DESCARTAR, AGUARDAR
+    }
+
+    private final LogLoteRepository logLoteRepository;
+    private final SpoolLogs spoolLogs;
+    private final BlockingQueue<Object> fila;
+    private final int tamanhoLote;
+    private final Duration intervalo;
+    private final PoliticaFilaCheia politica;
+    private final Duration esperaMaxima;
+    private final Counter descartados;
+    private final Counter gravados;
+    private final Counter falhas;
+    private final Thread gravador;
+    private volatile boolean ativo = true;
+
+    public FilaLogs(
+            LogLoteRepository logLoteRepository,
+            SpoolLogs spoolLogs,
+            MeterRegistry meterRegistry,
+            @Value("${app.logs.fila.capacidade:10000}") int capacidade,
+            @Value("${app.logs.lote.tamanho:200}") int tamanhoLote,
+            @Value("${app.logs.lote.intervalo:500ms}") Duration intervalo,
+            @Value("${app.logs.fila.politica:DESCARTAR}") PoliticaFilaCheia politica,
+            @Value("${app.logs.fila.espera-maxima:50ms}") Duration esperaMaxima) {
+        this.logLoteRepository = logLoteRepository;
+        this.spoolLogs = spoolLogs;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoLote = tamanhoLote;
+        this.intervalo = intervalo;
+        this.politica = politica;
+        this.esperaMaxima = esperaMaxima;
+        Gauge.builder("app.logs.fila.tamanho", fila, BlockingQueue::size)
+                .description("Registros de log aguardando gravação")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("app.logs.descartados")
+                .description("Registros de log descartados com a fila cheia")
+                .register(meterRegistry);
+        this.gravados = Counter.builder("app.logs.gravados").register(meterRegistry);
+        this.falhas = Counter.builder("app.logs.falhas")
+                .description("Registros de log perdidos por falha na gravação do lote")
+                .register(meterRegistry);
+        this.gravador = new Thread(this::executar, "log-gravador");
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    /**
+     * Enfileira um {@link AuditLog} ou {@link ActionLog}. Retorna {@code false} se o registro
+     * foi descartado por a fila estar cheia.
+     */
+    public boolean enfileirar(Object registro) {
+        if (registro instanceof AuditLog auditLog) {
+            if (auditLog.getEventoId() == null) {
+                auditLog.setEventoId(UUID.randomUUID().toString());
+            }
+        } else if (registro instanceof ActionLog actionLog) {
+            if (actionLog.getEventoId() == null) {
+                actionLog.setEventoId(UUID.randomUUID().toString());
+            }
+        } else {
+            throw new IllegalArgumentException("Tipo de log não suportado: " + registro);
+        }
+        boolean aceito;
+        if (politica == PoliticaFilaCheia.AGUARDAR && ativo) {
+            try {
+                aceito = fila.offer(registro, esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aceito = false;
+            }
+        } else {
+            aceito = fila.offer(registro);
+        }
+        if (!aceito) {
+            descartados.increment();
+            // Um aviso a cada 1000 descartes para não inundar o log da aplicação
+            if ((long) descartados.count() % 1000 == 1) {
+                LOGGER.warn("Fila de logs cheia: {} registro(s) descartado(s) até agora", (long) descartados.count());
+            }
+        }
+        return aceito;
+    }
+
+    /**
+     * Com uma transação em andamento, enfileira o registro só depois do commit, para que uma
+     * operação desfeita (inclusive no flush ou no próprio commit) não deixe registro; sem
+     * transação, enfileira na hora.
+     */
+    public void enfileirarAposCommit(Object registro) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enfileirar(registro);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enfileirar(registro);
+            }
+        });
+    }
+
+    public int pendentes() {
+        return fila.size();
+    }
+
+    // Para a thread de gravação (sem interrompê-la no meio de um lote) e grava o que ainda estiver na fila
+    @Override
+    public void destroy() throws InterruptedException {
+        ativo = false;
+        fila.offer(PARAR);
+        gravador.join(TimeUnit.SECONDS.toMillis(30));
+        descarregar();
+    }
+
+    /**
+     * Grava imediatamente todos os registros pendentes, em lotes. Usado no desligamento e
+     * nos testes.
+     */
+    public synchronized void descarregar() {
+        List<Object> lote = new ArrayList<>(tamanhoLote);
+        while (fila.drainTo(lote, tamanhoLote) > 0) {
+            gravar(lote);
+            lote.clear();
+        }
+    }
+
+    private void executar() {
+        List<Object> lote = new ArrayList<>(tamanhoLote);
+        while (ativo) {
+            try {
+                Object primeiro = fila.poll(intervalo.toMillis(), TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                // Espera o lote encher até o fim do intervalo contado a partir do primeiro registro
+                long limite = System.nanoTime() + intervalo.toNanos();
+                while (ativo && lote.size() < tamanhoLote) {
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                    long restante = limite - System.nanoTime();
+                    if (lote.size() >= tamanhoLote || restante <= 0) {
+                        break;
+                    }
+                    Object proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo != null) {
+                        lote.add(proximo);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // O lote atual é gravado abaixo e o restante em destroy()
+                ativo = false;
+            }
+            if (!lote.isEmpty()) {
+                synchronized (this) {
+                    gravar(lote);
+                }
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<Object> lote) {
+        List<AuditLog> auditLogs = new ArrayList<>();
+        List<ActionLog> actionLogs = new ArrayList<>();
+        for (Object registro : lote) {
+            if (registro instanceof AuditLog auditLog) {
+                auditLogs.add(auditLog);
+            } else if (registro instanceof ActionLog actionLog) {
+                actionLogs.add(actionLog);
+            }
+        }
+        int total = auditLogs.size() + actionLogs.size();
+        if (total == 0) {
+            return;
+        }
+        if (spoolLogs.isHabilitado()) {
+            try {
+                spoolLogs.anexar(lote);
+                gravados.increment(total);
+                return;
+            } catch (IOException e) {
+                LOGGER.error("Erro ao gravar lote de {} registros de log no spool; gravando direto no banco", total, e);
+            }
+        }
+        try {
+            logLoteRepository.gravar(auditLogs, actionLogs);
+            gravados.increment(total);
+        } catch (RuntimeException e) {
+            falhas.increment(total);
+            LOGGER.error("Erro ao gravar lote de {} registros de log", total, e);
+        }
+    }
+}
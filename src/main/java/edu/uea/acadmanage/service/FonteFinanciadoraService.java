@@ -9,22 +9,19 @@ import edu.uea.acadmanage.model.AuditLog;
 import edu.uea.acadmanage.repository.FonteFinanciadoraRepository;
 import edu.uea.acadmanage.repository.UsuarioRepository;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class FonteFinanciadoraService {
 
         private final FonteFinanciadoraRepository fonteFinanciadoraRepository;
         private final AuditLogService auditLogService;
-        private final ObjectMapper objectMapper;
 
         public FonteFinanciadoraService(FonteFinanciadoraRepository fonteFinanciadoraRepository, 
                                         UsuarioRepository usuarioRepository, 
-                                        AuditLogService auditLogService, 
-                                        ObjectMapper objectMapper) {
+                                        AuditLogService auditLogService) {
                 this.fonteFinanciadoraRepository = fonteFinanciadoraRepository;
                 this.auditLogService = auditLogService;
-                this.objectMapper = objectMapper;
         }
         
         public List<FonteFinanciadora> listarTodasFontesFinanciadoras() {
@@ -83,7 +80,7 @@ public class FonteFinanciadoraService {
                 FonteFinanciadora financiadoraExistente =  this.recuperarFinanciadoraPorId(financiadoraId);
                 
                 // Capturar estado antigo para audit log
-                FonteFinanciadora oldState = copyFonteFinanciadoraForAudit(financiadoraExistente);
+                JsonNode oldState = auditLogService.capturar(financiadoraExistente);
                 
                 // Atualizando os campos permitidos
                 financiadoraExistente.setNome(novaFinanciadora.getNome());
@@ -108,18 +105,4 @@ public class FonteFinanciadoraService {
                 return fonteFinanciadoraRepository.existsById(financiadoraId);
         }
 
-        // Método auxiliar para copiar fonte financiadora para audit log
-        private FonteFinanciadora copyFonteFinanciadoraForAudit(FonteFinanciadora fonteFinanciadora) {
-            try {
-                String json = objectMapper.writeValueAsString(fonteFinanciadora);
-                return objectMapper.readValue(json, FonteFinanciadora.class);
-            } catch (Exception e) {
-                // Se falhar a cópia profunda, criar manualmente uma cópia superficial
-                FonteFinanciadora copy = new FonteFinanciadora();
-                copy.setId(fonteFinanciadora.getId());
-                copy.setNome(fonteFinanciadora.getNome());
-                return copy;
-            }
-        }
-
 }
\ No newline at end of file
@@ -0,0 +1,341 @@
+package edu.uea.acadmanage.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import edu.uea.acadmanage.config.FileStorageProperties;
+import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+/**
+ * Gera e localiza as variantes redimensionadas das imagens enviadas (evidências e
+ * fotos de capa). Cada variante é gravada ao lado do original, com o sufixo do tamanho
+ * ({@code <uuid>_thumb.jpg}), já com a orientação EXIF aplicada.
+ *
+ * <p>As variantes são geradas em segundo plano logo após o upload (tarefa enviada ao
+ * {@code imagemTaskExecutor}) e, se ainda não existirem, na primeira requisição. Quando o original já cabe no tamanho pedido e não
+ * precisa de rotação, o próprio original é usado.
+ */
+@Service
+public class ImagemDerivadaService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImagemDerivadaService.class);
+    private static final float QUALIDADE_JPEG = 0.85f;
+
+    public enum Tamanho {
+        THUMB("thumb", 320),
+        MEDIUM("medium", 1024),
+        PRINT("print", 2000);
+
+        private final String sufixo;
+        private final int ladoMaior;
+
+        Tamanho(String sufixo, int ladoMaior) {
+            this.sufixo = sufixo;
+            this.ladoMaior = ladoMaior;
+        }
+
+        public String getSufixo() {
+            return sufixo;
+        }
+
+        public int getLadoMaior() {
+            return ladoMaior;
+        }
+
+        public static Tamanho fromSufixo(String valor) {
+            for (Tamanho tamanho : values()) {
+                if (tamanho.sufixo.equalsIgnoreCase(valor)) {
+                    return tamanho;
+                }
+            }
+            throw new ValidacaoException("Tamanho de imagem inválido: " + valor
+                    + ". Valores aceitos: thumb, medium, print.");
+        }
+    }
+
+    private final Path storageLocation;
+    private final Executor executor;
+    private final boolean gerarNoUpload;
+
+    // Variantes em geração, para que requisições simultâneas não gerem o mesmo arquivo
+    private final Map<Path, CompletableFuture<Path>> emGeracao = new ConcurrentHashMap<>();
+
+    public ImagemDerivadaService(
+            FileStorageProperties fileStorageProperties,
+            @Qualifier("imagemTaskExecutor") Executor executor,
+            @Value("${app.imagens.gerar-no-upload:true}") boolean gerarNoUpload) {
+        this.storageLocation = Paths.get(fileStorageProperties.getStorageLocation()).toAbsolutePath().normalize();
+        this.executor = executor;
+        this.gerarNoUpload = gerarNoUpload;
+    }
+
+    /**
+     * Resolve o caminho relativo ao diretório de arquivos (o mesmo usado em
+     * {@code /api/files/**}, por exemplo {@code evidencias/1/2/foto.jpg}) e retorna a variante
+     * do tamanho pedido, gerando-a se necessário.
+     */
+    public Path obterVariante(String caminho, Tamanho tamanho) {
+        Path original = resolverOriginal(caminho);
+        if (original == null || !Files.isRegularFile(original)) {
+            throw new RecursoNaoEncontradoException("Imagem não encontrada: " + caminho);
+        }
+        return obterVariante(original, tamanho);
+    }
+
+    /**
+     * Retorna a variante do arquivo original, gerando-a se necessário. Se a geração
+     * falhar (formato não suportado, arquivo corrompido), retorna o próprio original.
+     */
+    public Path obterVariante(Path original, Tamanho tamanho) {
+        Path destino = caminhoVariante(original, tamanho);
+        if (estaAtualizada(destino, original)) {
+            return destino;
+        }
+        CompletableFuture<Path> geracao = new CompletableFuture<>();
+        CompletableFuture<Path> existente = emGeracao.putIfAbsent(destino, geracao);
+        if (existente != null) {
+            try {
+                return existente.join();
+            } catch (CompletionException e) {
+                return original;
+            }
+        }
+        try {
+            Path resultado = gerar(original, destino, tamanho);
+            geracao.complete(resultado);
+            return resultado;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Não foi possível gerar a variante '{}' de {}: {}", tamanho.getSufixo(), original, e.getMessage());
+            geracao.complete(original);
+            return original;
+        } finally {
+            emGeracao.remove(destino, geracao);
+        }
+    }
+
+    /**
+     * Agenda a geração de todas as variantes de uma imagem recém-enviada e retorna em
+     * seguida, sem esperar a decodificação. {@code caminho} é o valor gravado na entidade
+     * (com ou sem barra inicial).
+     */
+    public void gerarVariantes(String caminho) {
+        if (!gerarNoUpload) {
+            return;
+        }
+        Path original = resolverOriginal(caminho);
+        if (original == null || !Files.isRegularFile(original)) {
+            return;
+        }
+        // Com a fila cheia a tarefa é descartada e a variante é gerada na primeira requisição
+        executor.execute(() -> {
+            for (Tamanho tamanho : Tamanho.values()) {
+                obterVariante(original, tamanho);
+            }
+        });
+    }
+
+    public void excluirVariantes(Path original) {
+        for (Tamanho tamanho : Tamanho.values()) {
+            try {
+                Files.deleteIfExists(caminhoVariante(original, tamanho));
+            } catch (IOException e) {
+                LOGGER.warn("Não foi possível excluir a variante '{}' de {}: {}", tamanho.getSufixo(), original, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Caminho absoluto do original dentro do diretório de arquivos, ou {@code null} se
+     * o caminho for vazio ou apontar para fora dele.
+     */
+    public Path resolverOriginal(String caminho) {
+        if (caminho == null || caminho.isBlank()) {
+            return null;
+        }
+        String normalizado = caminho.replace('\\', '/');
+        while (normalizado.startsWith("/")) {
+            normalizado = normalizado.substring(1);
+        }
+        Path arquivo = storageLocation.resolve(normalizado).normalize();
+        return arquivo.startsWith(storageLocation) ? arquivo : null;
+    }
+
+    static Path caminhoVariante(Path original, Tamanho tamanho) {
+        String nome = original.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        String base = ponto > 0 ? nome.substring(0, ponto) : nome;
+        String extensao = ponto > 0 ? nome.substring(ponto) : "";
+        return original.resolveSibling(base + "_" + tamanho.getSufixo() + extensao);
+    }
+
+    private static boolean estaAtualizada(Path variante, Path original) {
+        try {
+            return Files.isRegularFile(variante)
+                    && !Files.getLastModifiedTime(variante).toInstant().isBefore(Files.getLastModifiedTime(original).toInstant());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path gerar(Path original, Path destino, Tamanho tamanho) throws IOException {
+        ImagemMetadados metadados = ImagemMetadados.ler(original);
+        if (metadados == null) {
+            return original;
+        }
+        int orientacao = metadados.orientacaoExif();
+        if (metadados.ladoMaior() <= tamanho.getLadoMaior() && orientacao == ImagemMetadados.ORIENTACAO_NORMAL) {
+            return original;
+        }
+
+        boolean png = isPng(original);
+        BufferedImage origem = decodificar(original, metadados, tamanho);
+        double escala = Math.min(1.0, (double) tamanho.getLadoMaior() / Math.max(origem.getWidth(), origem.getHeight()));
+        int largura = Math.max(1, (int) Math.round(origem.getWidth() * escala));
+        int altura = Math.max(1, (int) Math.round(origem.getHeight() * escala));
+
+        boolean girada = orientacao >= 5 && orientacao <= 8;
+        BufferedImage resultado = new BufferedImage(girada ? altura : largura, girada ? largura : altura,
+                png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        AffineTransform transformacao = transformacaoOrientacao(orientacao, largura, altura);
+        transformacao.scale((double) largura / origem.getWidth(), (double) altura / origem.getHeight());
+
+        Graphics2D g = resultado.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(origem, transformacao, null);
+        } finally {
+            g.dispose();
+        }
+
+        // Grava em arquivo temporário e move, para que nenhum leitor veja a variante incompleta
+        Path temporario = Files.createTempFile(destino.getParent(), ".variante-", ".tmp");
+        try {
+            try (OutputStream saida = Files.newOutputStream(temporario)) {
+                if (png) {
+                    ImageIO.write(resultado, "png", saida);
+                } else {
+                    escreverJpeg(resultado, saida);
+                }
+            }
+            try {
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+        return destino;
+    }
+
+    // Decodifica com subamostragem para não carregar em memória a resolução total de fotos grandes
+    private static BufferedImage decodificar(Path original, ImagemMetadados metadados, Tamanho tamanho) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Formato de imagem não suportado");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam parametros = reader.getDefaultReadParam();
+                // Mantém ao menos o dobro do tamanho final para o redimensionamento preservar a nitidez
+                int fator = Math.max(1, metadados.ladoMaior() / (tamanho.getLadoMaior() * 2));
+                parametros.setSourceSubsampling(fator, fator, 0, 0);
+                return reader.read(0, parametros);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Transformação que leva a imagem armazenada (largura x altura) à orientação de exibição
+    static AffineTransform transformacaoOrientacao(int orientacao, int largura, int altura) {
+        AffineTransform t = new AffineTransform();
+        switch (orientacao) {
+            case 2 -> {
+                t.translate(largura, 0);
+                t.scale(-1, 1);
+            }
+            case 3 -> {
+                t.translate(largura, altura);
+                t.rotate(Math.PI);
+            }
+            case 4 -> {
+                t.translate(0, altura);
+                t.scale(1, -1);
+            }
+            case 5 -> {
+                t.rotate(-Math.PI / 2);
+                t.scale(-1, 1);
+            }
+            case 6 -> {
+                t.translate(altura, 0);
+                t.rotate(Math.PI / 2);
+            }
+            case 7 -> {
+                t.scale(-1, 1);
+                t.translate(-altura, largura);
+                t.rotate(3 * Math.PI / 2);
+            }
+            case 8 -> {
+                t.translate(0, largura);
+                t.rotate(3 * Math.PI / 2);
+            }
+            default -> {
+                // 1: sem transformação
+            }
+        }
+        return t;
+    }
+
+    private static void escreverJpeg(BufferedImage imagem, OutputStream saida) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(saida)) {
+            writer.setOutput(output);
+            ImageWriteParam parametros = writer.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(QUALIDADE_JPEG);
+            writer.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static boolean isPng(Path arquivo) {
+        return arquivo.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".png");
+    }
+}
@@ -0,0 +1,227 @@
+package edu.uea.acadmanage.service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Objects;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import edu.uea.acadmanage.model.Evidencia;
+
+/**
+ * Dimensões e orientação EXIF de uma imagem, lidas apenas do cabeçalho do arquivo
+ * (os pixels não são decodificados).
+ *
+ * <p>{@code largura} e {@code altura} são as dimensões armazenadas; para as orientações
+ * EXIF 5 a 8 a imagem é exibida girada 90°, e {@link #larguraExibida()} e
+ * {@link #alturaExibida()} já consideram essa rotação.
+ */
+public record ImagemMetadados(int largura, int altura, int orientacaoExif) {
+
+    public static final int ORIENTACAO_NORMAL = 1;
+
+    /** Imagem cujo formato não foi reconhecido (ou cujo cabeçalho não pôde ser lido). */
+    public static final ImagemMetadados DESCONHECIDA = new ImagemMetadados(0, 0, ORIENTACAO_NORMAL);
+
+    private static final int TAG_ORIENTACAO = 0x0112;
+
+    /**
+     * Lê o cabeçalho da imagem. Retorna {@code null} se o formato não for reconhecido.
+     */
+    public static ImagemMetadados ler(Path arquivo) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(arquivo.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int largura = reader.getWidth(0);
+                int altura = reader.getHeight(0);
+                if (largura <= 0 || altura <= 0) {
+                    return null;
+                }
+                return new ImagemMetadados(largura, altura, lerOrientacaoExif(arquivo));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Como {@link #ler(Path)}, mas retorna {@link #DESCONHECIDA} em vez de {@code null} ou de
+     * erro de leitura (arquivo corrompido, por exemplo).
+     */
+    public static ImagemMetadados lerOuDesconhecida(Path arquivo) {
+        try {
+            return Objects.requireNonNullElse(ler(arquivo), DESCONHECIDA);
+        } catch (IOException e) {
+            return DESCONHECIDA;
+        }
+    }
+
+    /**
+     * Metadados gravados na evidência, ou {@code null} se ainda não foram lidos.
+     */
+    public static ImagemMetadados daEvidencia(Evidencia evidencia) {
+        if (evidencia.getLargura() == null || evidencia.getAltura() == null) {
+            return null;
+        }
+        return new ImagemMetadados(evidencia.getLargura(), evidencia.getAltura(),
+                Objects.requireNonNullElse(evidencia.getOrientacaoExif(), ORIENTACAO_NORMAL));
+    }
+
+    public void aplicarEm(Evidencia evidencia) {
+        evidencia.setLargura(largura);
+        evidencia.setAltura(altura);
+        evidencia.setOrientacaoExif(orientacaoExif);
+    }
+
+    public boolean isReconhecida() {
+        return largura > 0 && altura > 0;
+    }
+
+    /**
+     * Orientação da imagem como exibida: {@code horizontal}, {@code vertical},
+     * {@code quadrada} ou {@code desconhecida}.
+     */
+    public String orientacaoExibida() {
+        if (!isReconhecida()) {
+            return "desconhecida";
+        }
+        int larguraExibida = larguraExibida();
+        int alturaExibida = alturaExibida();
+        if (larguraExibida > alturaExibida) {
+            return "horizontal";
+        } else if (alturaExibida > larguraExibida) {
+            return "vertical";
+        }
+        return "quadrada";
+    }
+
+    public boolean isGirada() {
+        return orientacaoExif >= 5 && orientacaoExif <= 8;
+    }
+
+    public int larguraExibida() {
+        return isGirada() ? altura : largura;
+    }
+
+    public int alturaExibida() {
+        return isGirada() ? largura : altura;
+    }
+
+    public int ladoMaior() {
+        return Math.max(largura, altura);
+    }
+
+    /**
+     * Orientação EXIF (1 a 8) de um JPEG, ou {@link #ORIENTACAO_NORMAL} quando ausente,
+     * inválida ou quando o arquivo não é JPEG. Percorre apenas os segmentos anteriores
+     * aos dados da imagem.
+     */
+    public static int lerOrientacaoExif(Path arquivo) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            if (input.readUnsignedShort() != 0xFFD8) {
+                return ORIENTACAO_NORMAL;
+            }
+            while (true) {
+                int marcador = input.readUnsignedShort();
+                if ((marcador & 0xFF00) != 0xFF00 || marcador == 0xFFDA || marcador == 0xFFD9) {
+                    // Início dos dados (SOS), fim da imagem ou cabeçalho corrompido
+                    return ORIENTACAO_NORMAL;
+                }
+                int tamanho = input.readUnsignedShort() - 2;
+                if (tamanho < 0) {
+                    return ORIENTACAO_NORMAL;
+                }
+                if (marcador == 0xFFE1) {
+                    byte[] segmento = new byte[tamanho];
+                    input.readFully(segmento);
+                    Integer orientacao = orientacaoDoSegmentoExif(segmento);
+                    if (orientacao != null) {
+                        return orientacao;
+                    }
+                } else {
+                    pular(input, tamanho);
+                }
+            }
+        } catch (IOException e) {
+            return ORIENTACAO_NORMAL;
+        }
+    }
+
+    // Segmento APP1: "Exif\0\0" seguido de um cabeçalho TIFF; a orientação fica no IFD0
+    private static Integer orientacaoDoSegmentoExif(byte[] segmento) {
+        if (segmento.length < 14 || segmento[0] != 'E' || segmento[1] != 'x' || segmento[2] != 'i'
+                || segmento[3] != 'f' || segmento[4] != 0 || segmento[5] != 0) {
+            return null;
+        }
+        int tiff = 6;
+        boolean littleEndian;
+        if (segmento[tiff] == 'I' && segmento[tiff + 1] == 'I') {
+            littleEndian = true;
+        } else if (segmento[tiff] == 'M' && segmento[tiff + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return null;
+        }
+        if (lerShort(segmento, tiff + 2, littleEndian) != 42) {
+            return null;
+        }
+        long ifd0 = lerInt(segmento, tiff + 4, littleEndian);
+        int inicio = tiff + (int) ifd0;
+        if (ifd0 < 8 || inicio + 2 > segmento.length) {
+            return null;
+        }
+        int entradas = lerShort(segmento, inicio, littleEndian);
+        for (int i = 0; i < entradas; i++) {
+            int entrada = inicio + 2 + i * 12;
+            if (entrada + 12 > segmento.length) {
+                return null;
+            }
+            if (lerShort(segmento, entrada, littleEndian) == TAG_ORIENTACAO) {
+                int valor = lerShort(segmento, entrada + 8, littleEndian);
+                return valor >= 1 && valor <= 8 ? valor : ORIENTACAO_NORMAL;
+            }
+        }
+        return null;
+    }
+
+    private static int lerShort(byte[] dados, int posicao, boolean littleEndian) {
+        int b0 = dados[posicao] & 0xFF;
+        int b1 = dados[posicao + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static long lerInt(byte[] dados, int posicao, boolean littleEndian) {
+        long alto = lerShort(dados, posicao + (littleEndian ? 2 : 0), littleEndian);
+        long baixo = lerShort(dados, posicao + (littleEndian ? 0 : 2), littleEndian);
+        return (alto << 16) | baixo;
+    }
+
+    private static void pular(InputStream input, long bytes) throws IOException {
+        while (bytes > 0) {
+            long pulados = input.skip(bytes);
+            if (pulados <= 0) {
+                if (input.read() < 0) {
+                    throw new EOFException();
+                }
+                pulados = 1;
+            }
+            bytes -= pulados;
+        }
+    }
+}
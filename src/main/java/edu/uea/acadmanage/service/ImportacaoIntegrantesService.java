@@ -0,0 +1,427 @@
+package edu.uea.acadmanage.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.Atividade;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.model.Papel;
+import edu.uea.acadmanage.model.Pessoa;
+import edu.uea.acadmanage.repository.AtividadePessoaPapelLoteRepository;
+import edu.uea.acadmanage.repository.AtividadePessoaPapelLoteRepository.Associacao;
+import edu.uea.acadmanage.repository.AtividadeRepository;
+import edu.uea.acadmanage.repository.PessoaLoteRepository;
+import edu.uea.acadmanage.service.event.PessoaAlteradaEvent;
+import edu.uea.acadmanage.service.exception.AcessoNegadoException;
+import edu.uea.acadmanage.service.exception.ErroProcessamentoArquivoException;
+import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
+
+/**
+ * Importação de integrantes de uma atividade a partir de CSV ({@code nome;cpf[;papel]} ou com
+ * vírgulas, cabeçalho opcional, papel padrão PARTICIPANTE), em blocos de {@value #TAMANHO_BLOCO}
+ * linhas. Para cada bloco, em uma transação própria:
+ * <ol>
+ * <li>os CPFs são resolvidos com uma consulta;</li>
+ * <li>as pessoas que faltam são criadas com INSERTs de várias linhas, que devolvem os ids;</li>
+ * <li>as associações são inseridas com INSERTs de várias linhas, exceto as de pessoas já
+ * associadas à atividade, lidas uma única vez no início da importação, que são ignoradas.</li>
+ * </ol>
+ * Linhas inválidas (formato, nome, CPF, papel ou CPF repetido no arquivo) não interrompem a
+ * importação: o resultado de cada linha é entregue ao fim do seu bloco, na ordem do arquivo.
+ * Um bloco já gravado não é desfeito por erros em blocos seguintes.
+ */
+@Service
+public class ImportacaoIntegrantesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoIntegrantesService.class);
+
+    private static final int TAMANHO_BLOCO = 5000;
+    private static final int LIMITE_ERROS = 1000;
+
+    public enum Situacao { ASSOCIADA, IGNORADA, ERRO }
+
+    /** Atividade de destino, já validada, e o usuário que importa. */
+    public record Destino(Long atividadeId, String nomeAtividade, String usuario) {}
+
+    /** Resultado de uma linha do arquivo; {@code pessoaId} e {@code papel} são nulos em erros. */
+    public record ResultadoLinha(int linha, Situacao situacao, String cpf, Long pessoaId, Papel papel,
+                                 String mensagem) {}
+
+    public record Resumo(int totalProcessados, int totalAssociadas, int totalIgnoradas, int totalErros,
+                         int totalPessoasCriadas, List<String> erros, long duracaoMs) {}
+
+    private final AtividadeRepository atividadeRepository;
+    private final PessoaLoteRepository pessoaLoteRepository;
+    private final AtividadePessoaPapelLoteRepository papelLoteRepository;
+    private final CursoService cursoService;
+    private final AuditLogService auditLogService;
+    private final ActionLogService actionLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditorAware<String> auditorAware;
+    private final TransactionTemplate transactionTemplate;
+
+    public ImportacaoIntegrantesService(AtividadeRepository atividadeRepository,
+                                        PessoaLoteRepository pessoaLoteRepository,
+                                        AtividadePessoaPapelLoteRepository papelLoteRepository,
+                                        CursoService cursoService,
+                                        AuditLogService auditLogService,
+                                        ActionLogService actionLogService,
+                                        ApplicationEventPublisher eventPublisher,
+                                        AuditorAware<String> auditorAware,
+                                        PlatformTransactionManager transactionManager) {
+        this.atividadeRepository = atividadeRepository;
+        this.pessoaLoteRepository = pessoaLoteRepository;
+        this.papelLoteRepository = papelLoteRepository;
+        this.cursoService = cursoService;
+        this.auditLogService = auditLogService;
+        this.actionLogService = actionLogService;
+        this.eventPublisher = eventPublisher;
+        this.auditorAware = auditorAware;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Valida a atividade e a permissão do usuário antes de qualquer leitura do arquivo, para
+     * que erros de acesso sejam respondidos antes do início do relatório.
+     */
+    public Destino preparar(Long atividadeId, String username) {
+        Atividade atividade = atividadeRepository.findById(atividadeId)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Atividade não encontrada"));
+
+        if (!cursoService.verificarAcessoAoCurso(username, atividade.getCurso().getId())) {
+            throw new AcessoNegadoException(
+                    "Usuário não tem permissão incluir integrante em atividades do curso: " + atividade.getCurso().getId());
+        }
+        return new Destino(atividadeId, atividade.getNome(), auditorAware.getCurrentAuditor().orElse(username));
+    }
+
+    /**
+     * Escreve em {@code saida} o relatório CSV da importação ({@code linha,situacao,cpf,mensagem})
+     * com as linhas ignoradas e com erro, enviado ao fim de cada bloco, e uma linha final
+     * RESUMO com os totais.
+     */
+    public void escreverRelatorioCsv(Destino destino, InputStream entrada, String nomeArquivo,
+                                     OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 65536);
+        EscritorCsv csv = new EscritorCsv(writer);
+        writer.write("linha,situacao,cpf,mensagem\n");
+        writer.flush();
+
+        Resumo resumo = importar(destino, entrada, nomeArquivo, resultado -> {
+            if (resultado.situacao() == Situacao.ASSOCIADA) {
+                return;
+            }
+            try {
+                csv.campo((long) resultado.linha());
+                csv.campo(resultado.situacao());
+                csv.campo(resultado.cpf());
+                csv.campo(resultado.mensagem());
+                csv.fimLinha();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, () -> flush(writer));
+
+        csv.campo((String) null);
+        csv.campo("RESUMO");
+        csv.campo((String) null);
+        csv.campo(String.format("%d linha(s): %d associada(s), %d ignorada(s) por já estarem associadas, "
+                + "%d com erro; %d pessoa(s) cadastrada(s) em %dms", resumo.totalProcessados(),
+                resumo.totalAssociadas(), resumo.totalIgnoradas(), resumo.totalErros(),
+                resumo.totalPessoasCriadas(), resumo.duracaoMs()));
+        csv.fimLinha();
+        writer.flush();
+    }
+
+    public Resumo importar(Destino destino, InputStream entrada, String nomeArquivo,
+                           Consumer<ResultadoLinha> resultados) {
+        return importar(destino, entrada, nomeArquivo, resultados, () -> {});
+    }
+
+    // fimBloco é chamado depois que os resultados de cada bloco foram entregues
+    private Resumo importar(Destino destino, InputStream entrada, String nomeArquivo,
+                            Consumer<ResultadoLinha> resultados, Runnable fimBloco) {
+        long inicio = System.nanoTime();
+        Contagem contagem = new Contagem(resultados);
+        long[] jaAssociadas = papelLoteRepository.pessoasAssociadas(destino.atividadeId());
+        long ultimoIdAnterior = pessoaLoteRepository.maiorId();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 65536)) {
+            List<LinhaIntegrante> bloco = new ArrayList<>(TAMANHO_BLOCO);
+            String linha;
+            int numeroLinha = 0;
+            boolean cabecalhoVerificado = false;
+
+            while ((linha = leitor.readLine()) != null) {
+                numeroLinha++;
+                String texto = (numeroLinha == 1 && linha.startsWith("\uFEFF") ? linha.substring(1) : linha).trim();
+                if (texto.isEmpty()) {
+                    continue;
+                }
+                String[] partes = dividirLinhaCsv(texto);
+                if (!cabecalhoVerificado) {
+                    cabecalhoVerificado = true;
+                    if (isCabecalhoCsv(partes)) {
+                        continue;
+                    }
+                }
+                bloco.add(validar(numeroLinha, partes, contagem.cpfsVistos));
+                if (bloco.size() == TAMANHO_BLOCO) {
+                    processarBloco(destino, bloco, jaAssociadas, contagem);
+                    fimBloco.run();
+                    bloco.clear();
+                }
+            }
+            processarBloco(destino, bloco, jaAssociadas, contagem);
+            fimBloco.run();
+        } catch (IOException | UncheckedIOException e) {
+            actionLogService.log(
+                ActionLog.ActionType.IMPORT_CSV,
+                false,
+                "Erro ao importar integrantes via CSV na atividade " + destino.atividadeId(),
+                e.getMessage(),
+                new HashMap<>()
+            );
+            throw new ErroProcessamentoArquivoException("Não foi possível ler o arquivo CSV.", e);
+        }
+
+        long duracaoMs = Math.max((System.nanoTime() - inicio) / 1_000_000, 1);
+        Resumo resumo = new Resumo(contagem.totalProcessados, contagem.totalAssociadas, contagem.totalIgnoradas,
+                contagem.totalErros, contagem.totalPessoasCriadas, contagem.erros, duracaoMs);
+        logger.info("Importacao de integrantes via CSV na atividade {}: {} linha(s), {} associada(s), {} erro(s) em {}ms ({} linhas/s)",
+                destino.atividadeId(), resumo.totalProcessados(), resumo.totalAssociadas(), resumo.totalErros(),
+                duracaoMs, resumo.totalProcessados() * 1000L / duracaoMs);
+        registrarConclusao(destino, resumo, nomeArquivo);
+
+        if (resumo.totalPessoasCriadas() > 0) {
+            eventPublisher.publishEvent(PessoaAlteradaEvent.importacao(ultimoIdAnterior));
+        }
+        return resumo;
+    }
+
+    private static LinhaIntegrante validar(int numero, String[] partes, CpfsVistos cpfsVistos) {
+        if (partes.length < 2) {
+            return LinhaIntegrante.erro(numero, null, "Formato inválido. Informe nome, CPF e, opcionalmente, papel.");
+        }
+        String nome = partes[0].trim();
+        String cpf = partes[1].replaceAll("\\D", "");
+        if (nome.isEmpty()) {
+            return LinhaIntegrante.erro(numero, cpf, "Nome é obrigatório.");
+        }
+        if (!ImportacaoPessoasService.isCpfValido(cpf)) {
+            return LinhaIntegrante.erro(numero, cpf, "CPF inválido.");
+        }
+        String papelTexto = partes.length >= 3 ? partes[2].trim() : "";
+        Papel papel;
+        try {
+            papel = papelTexto.isEmpty() ? Papel.PARTICIPANTE : Papel.valueOf(papelTexto.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            String valores = List.of(Papel.values()).stream()
+                    .map(Enum::name)
+                    .collect(Collectors.joining(", "));
+            return LinhaIntegrante.erro(numero, cpf, "Papel inválido: " + papelTexto + ". Valores permitidos: " + valores);
+        }
+        if (!cpfsVistos.adicionar(Long.parseLong(cpf))) {
+            return LinhaIntegrante.erro(numero, cpf, "CPF repetido no arquivo.");
+        }
+        return new LinhaIntegrante(numero, nome, cpf, papel, null);
+    }
+
+    private void processarBloco(Destino destino, List<LinhaIntegrante> bloco, long[] jaAssociadas, Contagem contagem) {
+        List<LinhaIntegrante> validas = bloco.stream().filter(linha -> linha.erro() == null).toList();
+        Map<Integer, ResultadoLinha> resultadosValidas = new HashMap<>();
+        if (!validas.isEmpty()) {
+            try {
+                contagem.totalPessoasCriadas += transactionTemplate.execute(
+                        status -> gravarBloco(destino, validas, jaAssociadas, resultadosValidas));
+            } catch (DuplicateKeyException e) {
+                // Pessoa ou associação gravada por outra operação durante a importação: nada do bloco fica
+                for (LinhaIntegrante linha : validas) {
+                    resultadosValidas.put(linha.numero(), new ResultadoLinha(linha.numero(), Situacao.ERRO,
+                            linha.cpf(), null, null,
+                            "Bloco não importado por alteração simultânea nos integrantes. Reenvie a linha."));
+                }
+            }
+        }
+        for (LinhaIntegrante linha : bloco) {
+            contagem.registrar(linha.erro() != null
+                    ? new ResultadoLinha(linha.numero(), Situacao.ERRO, linha.cpf(), null, null, linha.erro())
+                    : resultadosValidas.get(linha.numero()));
+        }
+    }
+
+    // Retorna a quantidade de pessoas cadastradas no bloco
+    private int gravarBloco(Destino destino, List<LinhaIntegrante> validas, long[] jaAssociadas,
+                            Map<Integer, ResultadoLinha> resultados) {
+        Map<String, Long> idsPorCpf = pessoaLoteRepository.idsPorCpf(validas.stream().map(LinhaIntegrante::cpf).toList());
+
+        List<Pessoa> novas = new ArrayList<>();
+        for (LinhaIntegrante linha : validas) {
+            if (!idsPorCpf.containsKey(linha.cpf())) {
+                novas.add(new Pessoa(null, linha.nome(), linha.cpf()));
+            }
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        for (int inicio = 0; inicio < novas.size(); inicio += PessoaLoteRepository.LINHAS_POR_INSERT) {
+            List<Pessoa> lote = novas.subList(inicio, Math.min(inicio + PessoaLoteRepository.LINHAS_POR_INSERT, novas.size()));
+            List<Long> ids = pessoaLoteRepository.inserirComIds(lote, agora, destino.usuario());
+            for (int i = 0; i < lote.size(); i++) {
+                idsPorCpf.put(lote.get(i).getCpfNormalizado(), ids.get(i));
+            }
+        }
+
+        // Associações criadas nesta importação não precisam ser consultadas: os CPFs do arquivo são únicos
+        List<Associacao> inserir = new ArrayList<>(validas.size());
+        for (LinhaIntegrante linha : validas) {
+            Long pessoaId = idsPorCpf.get(linha.cpf());
+            if (Arrays.binarySearch(jaAssociadas, pessoaId) >= 0) {
+                resultados.put(linha.numero(), new ResultadoLinha(linha.numero(), Situacao.IGNORADA,
+                        linha.cpf(), pessoaId, null, "Pessoa já associada a esta atividade."));
+            } else {
+                inserir.add(new Associacao(pessoaId, linha.papel()));
+                resultados.put(linha.numero(), new ResultadoLinha(linha.numero(), Situacao.ASSOCIADA,
+                        linha.cpf(), pessoaId, linha.papel(), null));
+            }
+        }
+        papelLoteRepository.inserir(destino.atividadeId(), inserir);
+        return novas.size();
+    }
+
+    private void registrarConclusao(Destino destino, Resumo resumo, String nomeArquivo) {
+        HashMap<String, Object> metadata = new HashMap<>();
+        metadata.put("atividadeId", destino.atividadeId());
+        metadata.put("totalProcessados", resumo.totalProcessados());
+        metadata.put("totalAssociadas", resumo.totalAssociadas());
+        metadata.put("totalIgnoradas", resumo.totalIgnoradas());
+        metadata.put("totalErros", resumo.totalErros());
+        metadata.put("totalPessoasCriadas", resumo.totalPessoasCriadas());
+        metadata.put("nomeArquivo", nomeArquivo);
+        metadata.put("duracaoMs", resumo.duracaoMs());
+
+        actionLogService.log(
+            ActionLog.ActionType.IMPORT_CSV,
+            resumo.totalErros() == 0,
+            "Importacao de integrantes via CSV na atividade " + destino.atividadeId() + ": "
+                + resumo.totalAssociadas() + " associados, " + resumo.totalErros() + " erro(s)",
+            resumo.erros().isEmpty() ? null : String.join("; ", resumo.erros()),
+            metadata
+        );
+
+        if (resumo.totalAssociadas() == 0) {
+            return;
+        }
+        // Um único registro de auditoria para o lote
+        HashMap<String, Object> lote = new HashMap<>();
+        lote.put("nomeArquivo", nomeArquivo);
+        lote.put("totalAssociadas", resumo.totalAssociadas());
+        lote.put("totalPessoasCriadas", resumo.totalPessoasCriadas());
+        auditLogService.log(
+            AuditLog.AuditAction.CREATE,
+            "AtividadePessoaPapel",
+            destino.atividadeId(),
+            null,
+            lote,
+            "Integrantes importados via CSV na atividade " + destino.nomeAtividade() + ": " + resumo.totalAssociadas()
+        );
+    }
+
+    private static String[] dividirLinhaCsv(String texto) {
+        String[] partes = texto.split(";");
+        if (partes.length <= 1) {
+            partes = texto.split(",");
+        }
+        return partes;
+    }
+
+    private static boolean isCabecalhoCsv(String[] partes) {
+        if (partes.length < 2) {
+            return false;
+        }
+
+        return normalizarCabecalho(partes[0]).equals("nome")
+                && normalizarCabecalho(partes[1]).equals("cpf")
+                && (partes.length < 3 || normalizarCabecalho(partes[2]).equals("papel"));
+    }
+
+    private static String normalizarCabecalho(String valor) {
+        return valor
+                .replace("\uFEFF", "")
+                .replace("\"", "")
+                .trim()
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // erro nulo: linha válida, a gravar
+    private record LinhaIntegrante(int numero, String nome, String cpf, Papel papel, String erro) {
+
+        private static LinhaIntegrante erro(int numero, String cpf, String mensagem) {
+            return new LinhaIntegrante(numero, null, cpf, null, mensagem);
+        }
+    }
+
+    // Totais da importação; só as primeiras mensagens de erro são guardadas
+    private static final class Contagem {
+
+        private final CpfsVistos cpfsVistos = new CpfsVistos();
+        private final List<String> erros = new ArrayList<>();
+        private final Consumer<ResultadoLinha> resultados;
+        private int totalProcessados;
+        private int totalAssociadas;
+        private int totalIgnoradas;
+        private int totalErros;
+        private int totalPessoasCriadas;
+
+        private Contagem(Consumer<ResultadoLinha> resultados) {
+            this.resultados = resultados;
+        }
+
+        private void registrar(ResultadoLinha resultado) {
+            totalProcessados++;
+            switch (resultado.situacao()) {
+                case ASSOCIADA -> totalAssociadas++;
+                case IGNORADA -> totalIgnoradas++;
+                case ERRO -> {
+                    totalErros++;
+                    if (erros.size() < LIMITE_ERROS) {
+                        erros.add("Linha " + resultado.linha() + ": " + resultado.mensagem());
+                    }
+                }
+            }
+            resultados.accept(resultado);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package edu.uea.acadmanage.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import edu.uea.acadmanage.DTO.PessoaImportResponseDTO;
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.model.Pessoa;
+import edu.uea.acadmanage.repository.PessoaLoteRepository;
+import edu.uea.acadmanage.repository.PessoaRepository;
+import edu.uea.acadmanage.service.event.PessoaAlteradaEvent;
+import edu.uea.acadmanage.service.exception.ConflitoException;
+import edu.uea.acadmanage.service.exception.ErroProcessamentoArquivoException;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+/**
+ * Importação de pessoas a partir de CSV ({@code nome,cpf} ou {@code nome;cpf}, com cabeçalho
+ * opcional), tudo ou nada, em três etapas:
+ * <ol>
+ * <li>leitura em streaming, em blocos de {@value #TAMANHO_BLOCO} linhas validados em paralelo
+ * (formato, nome e dígitos do CPF) no {@code importacaoTaskExecutor};</li>
+ * <li>na ordem do arquivo, checagem de CPFs repetidos no arquivo e de CPFs já cadastrados, com
+ * uma consulta {@code findByCpfIn} por bloco. As linhas válidas vão para um arquivo temporário;</li>
+ * <li>sem nenhum erro, inserção em uma única transação, com INSERTs de várias linhas.</li>
+ * </ol>
+ *
+ * <p>A transação cobre só a inserção, não a leitura do arquivo. Fora o conjunto de CPFs já vistos
+ * (cerca de 16 bytes por linha), a memória usada não depende do tamanho do arquivo.
+ */
+@Service
+public class ImportacaoPessoasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoPessoasService.class);
+
+    private static final int TAMANHO_BLOCO = 5000;
+    private static final int BLOCOS_EM_VALIDACAO = 4;
+    private static final int LIMITE_ERROS = 1000;
+    private static final int LIMITE_NOMES_RESPOSTA = 1000;
+    private static final int TAMANHO_CPF = 11;
+
+    private final PessoaRepository pessoaRepository;
+    private final PessoaLoteRepository pessoaLoteRepository;
+    private final AuditLogService auditLogService;
+    private final ActionLogService actionLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditorAware<String> auditorAware;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    public ImportacaoPessoasService(PessoaRepository pessoaRepository,
+                                    PessoaLoteRepository pessoaLoteRepository,
+                                    AuditLogService auditLogService,
+                                    ActionLogService actionLogService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    AuditorAware<String> auditorAware,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier("importacaoTaskExecutor") Executor executor) {
+        this.pessoaRepository = pessoaRepository;
+        this.pessoaLoteRepository = pessoaLoteRepository;
+        this.auditLogService = auditLogService;
+        this.actionLogService = actionLogService;
+        this.eventPublisher = eventPublisher;
+        this.auditorAware = auditorAware;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    public PessoaImportResponseDTO importarCsv(MultipartFile arquivo) {
+        if (arquivo == null || arquivo.isEmpty()) {
+            throw new ValidacaoException("Arquivo CSV nao informado.");
+        }
+        try (InputStream entrada = arquivo.getInputStream()) {
+            return importarCsv(entrada, arquivo.getOriginalFilename(), arquivo.getSize());
+        } catch (IOException e) {
+            throw falhaLeitura(e);
+        }
+    }
+
+    /**
+     * Importa o CSV lido de {@code entrada}, sem carregá-lo inteiro em memória. O tamanho é
+     * informativo (vai para o log de ação) e pode ser -1 quando desconhecido.
+     */
+    public PessoaImportResponseDTO importarCsv(InputStream entrada, String nomeArquivo, long tamanhoArquivo) {
+        long inicio = System.nanoTime();
+        Path validas = null;
+        try {
+            validas = Files.createTempFile("importacao-pessoas-", ".txt");
+            Verificacao verificacao = verificar(entrada, validas);
+
+            if (verificacao.totalProcessados == 0) {
+                verificacao.erro("O arquivo CSV nao possui registros para importar.");
+            }
+            if (verificacao.totalErros > 0) {
+                throw cancelamento(verificacao, nomeArquivo, tamanhoArquivo);
+            }
+
+            long ultimoIdAnterior = pessoaLoteRepository.maiorId();
+            inserir(validas);
+            long duracaoMs = Math.max((System.nanoTime() - inicio) / 1_000_000, 1);
+            long linhasPorSegundo = verificacao.totalProcessados * 1000L / duracaoMs;
+            logger.info("Importacao de pessoas via CSV: {} linha(s), {} cadastrada(s) em {}ms ({} linhas/s)",
+                    verificacao.totalProcessados, verificacao.totalValidas, duracaoMs, linhasPorSegundo);
+            registrarConclusao(verificacao, nomeArquivo, tamanhoArquivo, duracaoMs, linhasPorSegundo);
+
+            eventPublisher.publishEvent(PessoaAlteradaEvent.importacao(ultimoIdAnterior));
+
+            return new PessoaImportResponseDTO(verificacao.totalProcessados, verificacao.totalValidas,
+                    verificacao.nomes, verificacao.totalValidas > verificacao.nomes.size(), List.of(),
+                    duracaoMs, linhasPorSegundo);
+        } catch (IOException | UncheckedIOException e) {
+            throw falhaLeitura(e);
+        } finally {
+            apagar(validas);
+        }
+    }
+
+    private Verificacao verificar(InputStream entrada, Path validas) throws IOException {
+        Verificacao verificacao = new Verificacao();
+        Deque<CompletableFuture<List<LinhaValidada>>> pendentes = new ArrayDeque<>();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 65536);
+             BufferedWriter saida = Files.newBufferedWriter(validas, StandardCharsets.UTF_8)) {
+            List<LinhaCsv> bloco = new ArrayList<>(TAMANHO_BLOCO);
+            String linha;
+            int numeroLinha = 0;
+            boolean cabecalhoVerificado = false;
+
+            while ((linha = leitor.readLine()) != null) {
+                numeroLinha++;
+                String texto = (numeroLinha == 1 && linha.startsWith("\uFEFF") ? linha.substring(1) : linha).trim();
+                if (texto.isEmpty()) {
+                    continue;
+                }
+                if (!cabecalhoVerificado) {
+                    cabecalhoVerificado = true;
+                    String textoLower = texto.toLowerCase();
+                    if (textoLower.contains("nome") && textoLower.contains("cpf")) {
+                        continue;
+                    }
+                }
+                bloco.add(new LinhaCsv(numeroLinha, texto));
+                if (bloco.size() == TAMANHO_BLOCO) {
+                    pendentes.add(validarEmParalelo(bloco));
+                    bloco = new ArrayList<>(TAMANHO_BLOCO);
+                    // Janela limitada de blocos em validação, conferidos na ordem do arquivo
+                    if (pendentes.size() >= BLOCOS_EM_VALIDACAO) {
+                        conferir(pendentes.poll().join(), verificacao, saida);
+                    }
+                }
+            }
+            if (!bloco.isEmpty()) {
+                pendentes.add(validarEmParalelo(bloco));
+            }
+            while (!pendentes.isEmpty()) {
+                conferir(pendentes.poll().join(), verificacao, saida);
+            }
+        } finally {
+            pendentes.forEach(pendente -> pendente.cancel(false));
+        }
+        return verificacao;
+    }
+
+    private CompletableFuture<List<LinhaValidada>> validarEmParalelo(List<LinhaCsv> bloco) {
+        return CompletableFuture.supplyAsync(() -> bloco.stream().map(ImportacaoPessoasService::validar).toList(),
+                executor);
+    }
+
+    private static LinhaValidada validar(LinhaCsv linha) {
+        String[] partes = dividirLinhaCsv(linha.texto());
+        if (partes.length < 2) {
+            return new LinhaValidada(linha.numero(), null, null,
+                    List.of("Linha " + linha.numero() + ": formato invalido. Informe nome e CPF."));
+        }
+        String nome = partes[0].trim();
+        String cpf = partes[1].replaceAll("\\D", "");
+        List<String> erros = new ArrayList<>(0);
+        if (nome.isEmpty()) {
+            erros.add("Linha " + linha.numero() + ": nome e obrigatorio.");
+        }
+        if (!isCpfValido(cpf)) {
+            erros.add("Linha " + linha.numero() + ": CPF invalido.");
+        }
+        return new LinhaValidada(linha.numero(), nome, cpf, erros);
+    }
+
+    // CPFs repetidos no arquivo e já cadastrados; as linhas válidas vão para o arquivo temporário
+    private void conferir(List<LinhaValidada> bloco, Verificacao verificacao, BufferedWriter saida)
+            throws IOException {
+        List<LinhaValidada> candidatas = new ArrayList<>(bloco.size());
+        for (LinhaValidada linha : bloco) {
+            verificacao.totalProcessados++;
+            if (!linha.erros().isEmpty()) {
+                linha.erros().forEach(verificacao::erro);
+            } else if (!verificacao.cpfsVistos.adicionar(Long.parseLong(linha.cpf()))) {
+                verificacao.erro("Linha " + linha.numero() + ": CPF duplicado no arquivo para " + linha.nome() + ".");
+            } else {
+                candidatas.add(linha);
+            }
+        }
+        if (candidatas.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> existentes = pessoaRepository.findByCpfIn(candidatas.stream().map(LinhaValidada::cpf).toList())
+                .stream()
+                .collect(Collectors.toMap(Pessoa::getCpfNormalizado, Pessoa::getNome));
+        for (LinhaValidada linha : candidatas) {
+            String existente = existentes.get(linha.cpf());
+            if (existente != null) {
+                verificacao.erro("Linha " + linha.numero() + ": CPF ja cadastrado para a pessoa " + existente + ".");
+                continue;
+            }
+            // Depois do primeiro erro nada será inserido: as linhas seguintes só são conferidas
+            if (verificacao.totalErros == 0) {
+                saida.write(linha.cpf());
+                saida.write(linha.nome());
+                saida.newLine();
+            }
+            verificacao.totalValidas++;
+            if (verificacao.nomes.size() < LIMITE_NOMES_RESPOSTA) {
+                verificacao.nomes.add(linha.nome());
+            }
+        }
+    }
+
+    private void inserir(Path validas) {
+        LocalDateTime agora = LocalDateTime.now();
+        String usuario = auditorAware.getCurrentAuditor().orElse("system");
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (BufferedReader leitor = Files.newBufferedReader(validas, StandardCharsets.UTF_8)) {
+                    List<Pessoa> lote = new ArrayList<>(PessoaLoteRepository.LINHAS_POR_INSERT);
+                    String linha;
+                    while ((linha = leitor.readLine()) != null) {
+                        lote.add(new Pessoa(null, linha.substring(TAMANHO_CPF), linha.substring(0, TAMANHO_CPF)));
+                        if (lote.size() == PessoaLoteRepository.LINHAS_POR_INSERT) {
+                            pessoaLoteRepository.inserir(lote, agora, usuario);
+                            lote.clear();
+                        }
+                    }
+                    pessoaLoteRepository.inserir(lote, agora, usuario);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            throw new ConflitoException(
+                    "Importacao cancelada. Um CPF do arquivo foi cadastrado por outra operacao durante a importacao.");
+        }
+    }
+
+    private ValidacaoException cancelamento(Verificacao verificacao, String nomeArquivo, long tamanhoArquivo) {
+        HashMap<String, Object> metadata = new HashMap<>();
+        metadata.put("totalProcessados", verificacao.totalProcessados);
+        metadata.put("totalErros", verificacao.totalErros);
+        metadata.put("nomeArquivo", nomeArquivo);
+        metadata.put("tamanhoArquivo", tamanhoArquivo);
+
+        actionLogService.log(
+            ActionLog.ActionType.IMPORT_CSV,
+            false,
+            "Importacao de pessoas via CSV cancelada por erros de validacao",
+            String.join("; ", verificacao.erros),
+            metadata
+        );
+
+        List<String> erros = new ArrayList<>(verificacao.erros);
+        if (verificacao.totalErros > erros.size()) {
+            erros.add("... e mais " + (verificacao.totalErros - erros.size()) + " erro(s).");
+        }
+        return new ValidacaoException(
+            "Importacao cancelada. Nenhuma pessoa foi cadastrada porque o arquivo possui erros.",
+            erros
+        );
+    }
+
+    private void registrarConclusao(Verificacao verificacao, String nomeArquivo, long tamanhoArquivo,
+                                    long duracaoMs, long linhasPorSegundo) {
+        HashMap<String, Object> metadata = new HashMap<>();
+        metadata.put("totalProcessados", verificacao.totalProcessados);
+        metadata.put("totalCadastrados", verificacao.totalValidas);
+        metadata.put("totalDuplicados", 0);
+        metadata.put("nomeArquivo", nomeArquivo);
+        metadata.put("tamanhoArquivo", tamanhoArquivo);
+        metadata.put("duracaoMs", duracaoMs);
+        metadata.put("linhasPorSegundo", linhasPorSegundo);
+
+        actionLogService.log(
+            ActionLog.ActionType.IMPORT_CSV,
+            true,
+            "Importacao de pessoas via CSV concluida: " + verificacao.totalValidas + " cadastradas, 0 duplicadas/ignoradas",
+            null,
+            metadata
+        );
+
+        // Um único registro de auditoria para o lote (não há uma entidade só: entityId 0)
+        HashMap<String, Object> resumo = new HashMap<>();
+        resumo.put("nomeArquivo", nomeArquivo);
+        resumo.put("totalCadastrados", verificacao.totalValidas);
+        auditLogService.log(
+            AuditLog.AuditAction.CREATE,
+            "Pessoa",
+            0L,
+            null,
+            resumo,
+            "Pessoas criadas via importacao CSV: " + verificacao.totalValidas
+        );
+    }
+
+    private ErroProcessamentoArquivoException falhaLeitura(Exception e) {
+        actionLogService.log(
+            ActionLog.ActionType.IMPORT_CSV,
+            false,
+            "Erro ao importar pessoas via CSV",
+            e.getMessage(),
+            new HashMap<>()
+        );
+        return new ErroProcessamentoArquivoException("Nao foi possivel ler o arquivo CSV.", e);
+    }
+
+    private static void apagar(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            logger.warn("Nao foi possivel apagar o arquivo temporario {}", arquivo, e);
+        }
+    }
+
+    private static String[] dividirLinhaCsv(String texto) {
+        String[] partes = texto.split(";");
+        if (partes.length <= 1) {
+            partes = texto.split(",");
+        }
+        return partes;
+    }
+
+    static boolean isCpfValido(String cpf) {
+        if (cpf == null || !cpf.matches("\\d{11}") || cpf.chars().distinct().count() == 1) {
+            return false;
+        }
+
+        int primeiroDigito = calcularDigitoCpf(cpf, 9, 10);
+        int segundoDigito = calcularDigitoCpf(cpf, 10, 11);
+        return primeiroDigito == Character.getNumericValue(cpf.charAt(9))
+                && segundoDigito == Character.getNumericValue(cpf.charAt(10));
+    }
+
+    private static int calcularDigitoCpf(String cpf, int quantidadeDigitos, int pesoInicial) {
+        int soma = 0;
+        for (int i = 0; i < quantidadeDigitos; i++) {
+            soma += Character.getNumericValue(cpf.charAt(i)) * (pesoInicial - i);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private record LinhaCsv(int numero, String texto) {}
+
+    private record LinhaValidada(int numero, String nome, String cpf, List<String> erros) {}
+
+    // Totais da conferência; só as primeiras mensagens de erro e nomes são guardados
+    private static final class Verificacao {
+
+        private final CpfsVistos cpfsVistos = new CpfsVistos();
+        private final List<String> erros = new ArrayList<>();
+        private final List<String> nomes = new ArrayList<>();
+        private int totalProcessados;
+        private int totalValidas;
+        private int totalErros;
+
+        private void erro(String mensagem) {
+            if (erros.size() < LIMITE_ERROS) {
+                erros.add(mensagem);
+            }
+            totalErros++;
+        }
+    }
+}
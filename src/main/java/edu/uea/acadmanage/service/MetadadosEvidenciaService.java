@@ -0,0 +1,95 @@
+package edu.uea.acadmanage.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.uea.acadmanage.repository.EvidenciaRepository;
+
+/**
+ * Preenche as dimensões e a orientação EXIF das evidências enviadas antes de esses dados
+ * serem gravados no upload. Lê apenas o cabeçalho de cada arquivo ({@link ImagemMetadados}).
+ *
+ * <p>Roda pouco depois da inicialização e depois uma vez por dia. Evidências cujo arquivo
+ * não existe continuam sem dimensões (os relatórios as tratam como sem imagem); formatos
+ * não reconhecidos ficam com largura e altura 0, para não serem relidos.
+ */
+@Service
+public class MetadadosEvidenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetadadosEvidenciaService.class);
+
+    private static final int TAMANHO_PAGINA = 200;
+
+    private final EvidenciaRepository evidenciaRepository;
+    private final ImagemDerivadaService imagemDerivadaService;
+    private final TransactionTemplate transactionTemplate;
+
+    public MetadadosEvidenciaService(EvidenciaRepository evidenciaRepository,
+                                     ImagemDerivadaService imagemDerivadaService,
+                                     PlatformTransactionManager transactionManager) {
+        this.evidenciaRepository = evidenciaRepository;
+        this.imagemDerivadaService = imagemDerivadaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.imagens.metadados.atraso-inicial:PT1M}",
+            fixedDelayString = "${app.imagens.metadados.intervalo:P1D}")
+    public void executar() {
+        int preenchidas = preencherPendentes();
+        if (preenchidas > 0) {
+            logger.info("Dimensões gravadas para {} evidência(s) enviadas antes do registro no upload", preenchidas);
+        }
+    }
+
+    private record Leitura(String urlFoto, ImagemMetadados metadados) {
+    }
+
+    /**
+     * Lê o cabeçalho das evidências sem dimensões e grava os valores, página a página.
+     * Retorna quantas foram preenchidas; evidências cuja foto foi trocada ou cujas dimensões
+     * foram gravadas por um upload durante a leitura ficam como estão.
+     */
+    public int preencherPendentes() {
+        int preenchidas = 0;
+        long ultimoId = 0;
+        List<Object[]> pagina;
+        do {
+            pagina = evidenciaRepository.findSemDimensoesPorCursor(ultimoId, Limit.of(TAMANHO_PAGINA));
+            // Arquivos lidos fora da transação; só as atualizações ficam dentro dela
+            Map<Long, Leitura> lidos = new LinkedHashMap<>();
+            for (Object[] linha : pagina) {
+                Long id = (Long) linha[0];
+                String urlFoto = (String) linha[1];
+                ultimoId = id;
+                Path original = imagemDerivadaService.resolverOriginal(urlFoto);
+                if (original != null && Files.isRegularFile(original)) {
+                    lidos.put(id, new Leitura(urlFoto, ImagemMetadados.lerOuDesconhecida(original)));
+                }
+            }
+            if (!lidos.isEmpty()) {
+                Integer atualizadas = transactionTemplate.execute(status -> {
+                    int total = 0;
+                    for (Map.Entry<Long, Leitura> lido : lidos.entrySet()) {
+                        ImagemMetadados metadados = lido.getValue().metadados();
+                        total += evidenciaRepository.atualizarDimensoes(lido.getKey(), lido.getValue().urlFoto(),
+                                metadados.largura(), metadados.altura(), metadados.orientacaoExif());
+                    }
+                    return total;
+                });
+                preenchidas += atualizadas == null ? 0 : atualizadas;
+            }
+        } while (pagina.size() == TAMANHO_PAGINA);
+        return preenchidas;
+    }
+}
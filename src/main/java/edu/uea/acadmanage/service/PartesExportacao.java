@@ -0,0 +1,99 @@
+package edu.uea.acadmanage.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import edu.uea.acadmanage.DTO.ParteExportacaoDTO;
+import edu.uea.acadmanage.model.LogResumoDiario;
+import edu.uea.acadmanage.repository.ActionLogRepository;
+import edu.uea.acadmanage.repository.AuditLogRepository;
+import edu.uea.acadmanage.repository.LogResumoDiarioRepository;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+/**
+ * Divisão do período de uma exportação de logs em partes de tamanho parecido, para o cliente
+ * baixar as partes em paralelo (uma requisição por faixa). Os totais vêm dos resumos diários;
+ * os dias ainda não consolidados são contados no banco, pela faixa de {@code timestamp}.
+ *
+ * <p>A menor unidade é o dia: um dia com mais registros que o tamanho pedido vira uma parte
+ * sozinho. As partes são contíguas e não se sobrepõem (cada uma termina no último
+ * microssegundo do seu dia).
+ */
+@Component
+public class PartesExportacao {
+
+    private final LogResumoDiarioRepository resumoRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final ActionLogRepository actionLogRepository;
+
+    public PartesExportacao(LogResumoDiarioRepository resumoRepository,
+                            AuditLogRepository auditLogRepository,
+                            ActionLogRepository actionLogRepository) {
+        this.resumoRepository = resumoRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.actionLogRepository = actionLogRepository;
+    }
+
+    public List<ParteExportacaoDTO> dividir(LogResumoDiario.Origem origem, LocalDateTime inicio, LocalDateTime fim,
+                                            long registrosPorParte) {
+        if (fim.isBefore(inicio)) {
+            throw new ValidacaoException("A data final deve ser igual ou posterior à data inicial.");
+        }
+        if (registrosPorParte < 1) {
+            throw new ValidacaoException("O número de registros por parte deve ser pelo menos 1.");
+        }
+        Map<LocalDate, Long> totais = totaisPorDia(origem, inicio.toLocalDate(), fim.toLocalDate());
+
+        List<ParteExportacaoDTO> partes = new ArrayList<>();
+        LocalDateTime inicioParte = inicio;
+        long acumulado = 0;
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(fim.toLocalDate()); dia = dia.plusDays(1)) {
+            acumulado += totais.getOrDefault(dia, 0L);
+            LocalDateTime proximoDia = dia.plusDays(1).atStartOfDay();
+            if (acumulado >= registrosPorParte && proximoDia.isBefore(fim)) {
+                partes.add(new ParteExportacaoDTO(inicioParte, proximoDia.minusNanos(1000), acumulado));
+                inicioParte = proximoDia;
+                acumulado = 0;
+            }
+        }
+        partes.add(new ParteExportacaoDTO(inicioParte, fim, acumulado));
+        return partes;
+    }
+
+    private Map<LocalDate, Long> totaisPorDia(LogResumoDiario.Origem origem, LocalDate primeiro, LocalDate ultimo) {
+        Map<LocalDate, Long> totais = new HashMap<>();
+        for (Object[] linha : resumoRepository.totaisPorDia(origem, primeiro, ultimo)) {
+            totais.put((LocalDate) linha[0], ((Number) linha[1]).longValue());
+        }
+
+        // Dias depois do último consolidado (ou todos, se ainda não houver resumos)
+        LocalDate ultimoConsolidado = resumoRepository.findUltimoDia();
+        LocalDate dia;
+        if (ultimoConsolidado != null) {
+            dia = ultimoConsolidado.plusDays(1);
+        } else {
+            LocalDateTime primeiroRegistro = origem == LogResumoDiario.Origem.AUDITORIA
+                    ? auditLogRepository.findPrimeiroTimestamp()
+                    : actionLogRepository.findPrimeiroTimestamp();
+            if (primeiroRegistro == null) {
+                return totais;
+            }
+            dia = primeiroRegistro.toLocalDate();
+        }
+        for (dia = dia.isBefore(primeiro) ? primeiro : dia; !dia.isAfter(ultimo); dia = dia.plusDays(1)) {
+            LocalDateTime inicioDia = dia.atStartOfDay();
+            LocalDateTime fimDia = dia.plusDays(1).atStartOfDay();
+            long total = origem == LogResumoDiario.Origem.AUDITORIA
+                    ? auditLogRepository.contarPeriodo(inicioDia, fimDia)
+                    : actionLogRepository.contarPeriodo(inicioDia, fimDia);
+            totais.put(dia, total);
+        }
+        return totais;
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,7 @@ import edu.uea.acadmanage.model.Usuario;
 import edu.uea.acadmanage.model.ActionLog;
 import edu.uea.acadmanage.repository.RecoveryCodeRepository;
 import edu.uea.acadmanage.repository.UsuarioRepository;
+import edu.uea.acadmanage.service.event.CredenciaisAlteradasEvent;
 import edu.uea.acadmanage.service.exception.AcessoNegadoException;
 
 @Service
@@ -24,18 +26,21 @@ public class PasswordRecoveryService {
     private final RecoveryCodeRepository recoveryCodeRepository;
     private final ActionLogService actionLogService;
     private final String frontendUrl;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PasswordRecoveryService(
             UsuarioRepository usuarioRepository,
             EmailService emailService,
             RecoveryCodeRepository recoveryCodeRepository,
             ActionLogService actionLogService,
-            @Value("${app.frontend.url:http://localhost:4200}") String frontendUrl) {
+            @Value("${app.frontend.url:http://localhost:4200}") String frontendUrl,
+            ApplicationEventPublisher eventPublisher) {
         this.usuarioRepository = usuarioRepository;
         this.emailService = emailService;
         this.recoveryCodeRepository = recoveryCodeRepository;
         this.actionLogService = actionLogService;
         this.frontendUrl = frontendUrl;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -107,6 +112,7 @@ public class PasswordRecoveryService {
                 
         usuario.setSenha(new BCryptPasswordEncoder().encode(newPassword));
         usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new CredenciaisAlteradasEvent(usuario.getEmail()));
 
         // Remover o código de recuperação após o uso
         recoveryCodeRepository.deleteByCode(recoveryCode);
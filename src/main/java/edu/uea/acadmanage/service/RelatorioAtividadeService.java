@@ -1,9 +1,9 @@
 package edu.uea.acadmanage.service;
 
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,7 +12,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
@@ -43,8 +42,6 @@ import edu.uea.acadmanage.repository.EvidenciaRepository;
 import edu.uea.acadmanage.service.exception.AcessoNegadoException;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
 
-import javax.imageio.ImageIO;
-
 @Service
 public class RelatorioAtividadeService {
 
@@ -57,6 +54,7 @@ public class RelatorioAtividadeService {
     private final AtividadePessoaPapelRepository atividadePessoaPapelRepository;
     private final AtividadeAutorizacaoService atividadeAutorizacaoService;
     private final TemplateEngine templateEngine;
+    private final ImagemDerivadaService imagemDerivadaService;
     private final Path evidenciasBasePath;
 
     public RelatorioAtividadeService(
@@ -65,12 +63,14 @@ public class RelatorioAtividadeService {
             AtividadePessoaPapelRepository atividadePessoaPapelRepository,
             AtividadeAutorizacaoService atividadeAutorizacaoService,
             TemplateEngine templateEngine,
+            ImagemDerivadaService imagemDerivadaService,
             FileStorageProperties fileStorageProperties) throws IOException {
         this.atividadeRepository = atividadeRepository;
         this.evidenciaRepository = evidenciaRepository;
         this.atividadePessoaPapelRepository = atividadePessoaPapelRepository;
         this.atividadeAutorizacaoService = atividadeAutorizacaoService;
         this.templateEngine = templateEngine;
+        this.imagemDerivadaService = imagemDerivadaService;
         this.evidenciasBasePath = Paths.get(fileStorageProperties.getStorageLocation())
                 .resolve("evidencias")
                 .toAbsolutePath()
@@ -82,6 +82,23 @@ public class RelatorioAtividadeService {
     public byte[] gerarRelatorioAtividade(Long atividadeId,
                                           String introducao,
                                           String solicitanteEmail) {
+        RelatorioPdf relatorio = prepararRelatorioAtividade(atividadeId, introducao, solicitanteEmail);
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            escreverPdf(relatorio, outputStream);
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao gerar o relatório em PDF", e);
+        }
+    }
+
+    /**
+     * Valida o acesso, carrega os dados e monta o HTML do relatório. As imagens das
+     * evidências são lidas do disco apenas em {@link #escreverPdf}.
+     */
+    @Transactional(readOnly = true)
+    public RelatorioPdf prepararRelatorioAtividade(Long atividadeId,
+                                                   String introducao,
+                                                   String solicitanteEmail) {
         if (solicitanteEmail == null || solicitanteEmail.isBlank()) {
             throw new AcessoNegadoException("Usuário não autenticado.");
         }
@@ -104,17 +121,33 @@ public class RelatorioAtividadeService {
         RelatorioDados dados = prepararDados(atividade, evidencias, participantes);
 
         // Renderizar HTML
-        String html = renderizarHtmlRelatorio(dados, introducao);
+        RelatorioImagemStreamFactory imagens = new RelatorioImagemStreamFactory();
+        String html = renderizarHtmlRelatorio(dados, introducao, imagens);
+        return new RelatorioPdf(html, imagens);
+    }
 
-        // Gerar PDF
-        return gerarPdf(html);
+    public void escreverPdf(RelatorioPdf relatorio, OutputStream saida) throws IOException {
+        try {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            builder.useProtocolsStreamImplementation(relatorio.imagens(), RelatorioImagemStreamFactory.PROTOCOLO);
+            builder.withHtmlContent(relatorio.html(), resolverBaseUri());
+            configurarPdfA(builder);
+            builder.toStream(saida);
+            builder.run();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.error("Falha ao transformar HTML em PDF. Conteúdo HTML (parcial): {}", resumirHtml(relatorio.html()));
+            throw new IllegalStateException("Erro ao gerar o relatório em PDF", e);
+        }
     }
 
     private RelatorioDados prepararDados(Atividade atividade, List<Evidencia> evidencias, int participantes) {
         return new RelatorioDados(atividade, evidencias, participantes);
     }
 
-    private String renderizarHtmlRelatorio(RelatorioDados dados, String introducao) {
+    private String renderizarHtmlRelatorio(RelatorioDados dados, String introducao, RelatorioImagemStreamFactory imagens) {
         Atividade atividade = dados.atividade();
         Curso curso = atividade.getCurso();
         Categoria categoria = atividade.getCategoria();
@@ -157,7 +190,7 @@ public class RelatorioAtividadeService {
         List<String> introducaoParagrafos = dividirParagrafos(introducaoSanitizada);
 
         // Evidências
-        List<ViewEvidencia> viewEvidencias = mapearEvidencias(dados.evidencias());
+        List<ViewEvidencia> viewEvidencias = mapearEvidencias(dados.evidencias(), imagens);
 
         // Preparar contexto para o template
         Context ctx = new Context(LOCALE_PT_BR);
@@ -192,7 +225,7 @@ public class RelatorioAtividadeService {
         }
     }
 
-    private List<ViewEvidencia> mapearEvidencias(List<Evidencia> evidencias) {
+    private List<ViewEvidencia> mapearEvidencias(List<Evidencia> evidencias, RelatorioImagemStreamFactory imagens) {
         if (evidencias == null || evidencias.isEmpty()) {
             return List.of();
         }
@@ -211,17 +244,23 @@ public class RelatorioAtividadeService {
         });
 
         return evidenciasOrdenadas.stream()
-                .map(this::mapearEvidencia)
+                .map(evidencia -> mapearEvidencia(evidencia, imagens))
                 .toList();
     }
 
-    private ViewEvidencia mapearEvidencia(Evidencia evidencia) {
+    private ViewEvidencia mapearEvidencia(Evidencia evidencia, RelatorioImagemStreamFactory imagens) {
         String legenda = Optional.ofNullable(evidencia.getLegenda())
                 .map(String::trim)
                 .filter(s -> !s.isBlank())
                 .orElse("Sem legenda");
-        String orientacao = determinarOrientacao(evidencia);
-        return new ViewEvidencia(construirDataUriEvidencia(evidencia), legenda, orientacao);
+        Path imagePath = resolverArquivoEvidencia(evidencia);
+        if (imagePath == null) {
+            return new ViewEvidencia(null, legenda, "desconhecida");
+        }
+        String orientacao = determinarOrientacao(evidencia, imagePath);
+        // Variante de impressão: já rotacionada e com no máximo 2000 px no lado maior
+        imagePath = imagemDerivadaService.obterVariante(imagePath, ImagemDerivadaService.Tamanho.PRINT);
+        return new ViewEvidencia(imagens.registrar(imagePath), legenda, orientacao);
     }
 
     private String normalizarTexto(String valor) {
@@ -251,59 +290,21 @@ public class RelatorioAtividadeService {
         return count != null ? count.intValue() : 0;
     }
 
-    private String construirDataUriEvidencia(Evidencia evidencia) {
+    private Path resolverArquivoEvidencia(Evidencia evidencia) {
         if (evidencia.getUrlFoto() == null || evidencia.getUrlFoto().isBlank()) {
             return null;
         }
-
-        try {
-            Path imagePath = resolveEvidenciaPath(evidencia.getUrlFoto());
-            if (!Files.exists(imagePath)) {
-                return null;
-            }
-
-            byte[] bytes = Files.readAllBytes(imagePath);
-            String base64 = Base64.getEncoder().encodeToString(bytes);
-            String contentType = Optional.ofNullable(Files.probeContentType(imagePath))
-                    .orElse("image/jpeg");
-            return "data:" + contentType + ";base64," + base64;
-        } catch (IOException ex) {
-            return null;
-        }
+        Path imagePath = resolveEvidenciaPath(evidencia.getUrlFoto());
+        return Files.exists(imagePath) ? imagePath : null;
     }
 
-    private String determinarOrientacao(Evidencia evidencia) {
-        if (evidencia.getUrlFoto() == null || evidencia.getUrlFoto().isBlank()) {
-            return "desconhecida";
-        }
-
-        try {
-            Path imagePath = resolveEvidenciaPath(evidencia.getUrlFoto());
-            if (!Files.exists(imagePath)) {
-                return "desconhecida";
-            }
-
-            try (InputStream input = Files.newInputStream(imagePath)) {
-                BufferedImage imagem = ImageIO.read(input);
-                if (imagem == null) {
-                    return "desconhecida";
-                }
-                int largura = imagem.getWidth();
-                int altura = imagem.getHeight();
-                if (largura <= 0 || altura <= 0) {
-                    return "desconhecida";
-                }
-                if (largura > altura) {
-                    return "horizontal";
-                } else if (altura > largura) {
-                    return "vertical";
-                } else {
-                    return "quadrada";
-                }
-            }
-        } catch (IOException ex) {
-            return "desconhecida";
+    // Dimensões gravadas no upload; o cabeçalho do original só é lido para evidências ainda sem elas
+    private String determinarOrientacao(Evidencia evidencia, Path original) {
+        ImagemMetadados metadados = ImagemMetadados.daEvidencia(evidencia);
+        if (metadados == null) {
+            metadados = ImagemMetadados.lerOuDesconhecida(original);
         }
+        return metadados.orientacaoExibida();
     }
 
     private Path resolveEvidenciaPath(String urlFoto) {
@@ -317,21 +318,6 @@ public class RelatorioAtividadeService {
         return evidenciasBasePath.resolve(normalized).normalize();
     }
 
-    private byte[] gerarPdf(String html) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.useFastMode();
-            builder.withHtmlContent(html, resolverBaseUri());
-            configurarPdfA(builder);
-            builder.toStream(outputStream);
-            builder.run();
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            LOGGER.error("Falha ao transformar HTML em PDF. Conteúdo HTML (parcial): {}", resumirHtml(html));
-            throw new IllegalStateException("Erro ao gerar o relatório em PDF", e);
-        }
-    }
-
     private String resumirHtml(String html) {
         if (html == null) {
             return "[null]";
@@ -362,7 +348,7 @@ public class RelatorioAtividadeService {
                                   int participantes) {
     }
 
-    private record ViewEvidencia(String imgDataUri,
+    private record ViewEvidencia(String imgSrc,
                                  String legenda,
                                  String orientacao) {
     }
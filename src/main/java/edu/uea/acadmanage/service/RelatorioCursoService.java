@@ -1,9 +1,9 @@
 package edu.uea.acadmanage.service;
 
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,7 +12,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -24,6 +23,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -51,7 +52,6 @@ import edu.uea.acadmanage.service.exception.AcessoNegadoException;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
-import javax.imageio.ImageIO;
 
 @Service
 public class RelatorioCursoService {
@@ -59,6 +59,8 @@ public class RelatorioCursoService {
     private static final Locale LOCALE_PT_BR = Locale.forLanguageTag("pt-BR");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy").withLocale(LOCALE_PT_BR);
     private static final Logger LOGGER = LoggerFactory.getLogger(RelatorioCursoService.class);
+    // Memória máxima do documento PDF em construção; o excedente vai para arquivo temporário
+    private static final long PDF_MEMORIA_MAXIMA_BYTES = 16L * 1024 * 1024;
 
     private final CursoRepository cursoRepository;
     private final AtividadeRepository atividadeRepository;
@@ -67,6 +69,7 @@ public class RelatorioCursoService {
     private final CursoService cursoService;
     private final UsuarioRepository usuarioRepository;
     private final TemplateEngine templateEngine;
+    private final ImagemDerivadaService imagemDerivadaService;
     private final Path evidenciasBasePath;
 
     public RelatorioCursoService(
@@ -77,6 +80,7 @@ public class RelatorioCursoService {
             CursoService cursoService,
             UsuarioRepository usuarioRepository,
             TemplateEngine templateEngine,
+            ImagemDerivadaService imagemDerivadaService,
             FileStorageProperties fileStorageProperties) throws IOException {
         this.cursoRepository = cursoRepository;
         this.atividadeRepository = atividadeRepository;
@@ -85,6 +89,7 @@ public class RelatorioCursoService {
         this.cursoService = cursoService;
         this.usuarioRepository = usuarioRepository;
         this.templateEngine = templateEngine;
+        this.imagemDerivadaService = imagemDerivadaService;
         this.evidenciasBasePath = Paths.get(fileStorageProperties.getStorageLocation())
                 .resolve("evidencias")
                 .toAbsolutePath()
@@ -99,6 +104,27 @@ public class RelatorioCursoService {
                                       List<Long> categorias,
                                       String introducao,
                                       String solicitanteEmail) {
+        RelatorioPdf relatorio = prepararRelatorioCurso(cursoId, dataInicio, dataFim, categorias, introducao, solicitanteEmail);
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            escreverPdf(relatorio, outputStream);
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao gerar o relatório em PDF", e);
+        }
+    }
+
+    /**
+     * Valida o acesso, carrega os dados e monta o HTML do relatório. As imagens das
+     * evidências não são lidas aqui: o HTML apenas as referencia e {@link #escreverPdf}
+     * as lê do disco durante a renderização.
+     */
+    @Transactional(readOnly = true)
+    public RelatorioPdf prepararRelatorioCurso(Long cursoId,
+                                               LocalDate dataInicio,
+                                               LocalDate dataFim,
+                                               List<Long> categorias,
+                                               String introducao,
+                                               String solicitanteEmail) {
         if (solicitanteEmail == null || solicitanteEmail.isBlank()) {
             throw new AcessoNegadoException("Usuário não autenticado.");
         }
@@ -107,7 +133,7 @@ public class RelatorioCursoService {
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Curso não encontrado com o ID: " + cursoId));
 
         // Verificar se o usuário é ADMINISTRADOR
-        Usuario usuario = usuarioRepository.findByEmail(solicitanteEmail)
+        Usuario usuario = usuarioRepository.findComRolesByEmail(solicitanteEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + solicitanteEmail));
         
         boolean isAdmin = usuario.getRoles().stream()
@@ -178,8 +204,31 @@ public class RelatorioCursoService {
 
         RelatorioDados dados = agruparDados(curso, atividades, evidenciasMap, participantesMap);
 
-        String html = renderizarHtmlRelatorio(dados, dataInicio, dataFim, introducao);
-        return gerarPdf(html);
+        RelatorioImagemStreamFactory imagens = new RelatorioImagemStreamFactory();
+        String html = renderizarHtmlRelatorio(dados, dataInicio, dataFim, introducao, imagens);
+        return new RelatorioPdf(html, imagens);
+    }
+
+    /**
+     * Renderiza o PDF diretamente em {@code saida}. As imagens são lidas do disco uma a uma
+     * e o documento em construção passa para arquivo temporário acima de 16 MB.
+     */
+    public void escreverPdf(RelatorioPdf relatorio, OutputStream saida) throws IOException {
+        try (PDDocument documento = new PDDocument(MemoryUsageSetting.setupMixed(PDF_MEMORIA_MAXIMA_BYTES))) {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            builder.usePDDocument(documento);
+            builder.useProtocolsStreamImplementation(relatorio.imagens(), RelatorioImagemStreamFactory.PROTOCOLO);
+            builder.withHtmlContent(relatorio.html(), resolverBaseUri());
+            configurarPdfA(builder);
+            builder.toStream(saida);
+            builder.run();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.error("Falha ao transformar HTML em PDF. Conteúdo HTML (parcial): {}", resumirHtml(relatorio.html()));
+            throw new IllegalStateException("Erro ao gerar o relatório em PDF", e);
+        }
     }
 
     private RelatorioDados agruparDados(Curso curso,
@@ -221,7 +270,8 @@ public class RelatorioCursoService {
     private String renderizarHtmlRelatorio(RelatorioDados dados,
                                            LocalDate dataInicio,
                                            LocalDate dataFim,
-                                           String introducao) {
+                                           String introducao,
+                                           RelatorioImagemStreamFactory imagens) {
         String cursoNome = Optional.ofNullable(dados.curso().getNome()).orElse("Curso sem nome");
         String tipoCurso = Optional.ofNullable(dados.curso().getTipoCurso())
                 .map(tipo -> Optional.ofNullable(tipo.getNome()).orElse(""))
@@ -241,7 +291,7 @@ public class RelatorioCursoService {
         String introducaoSanitizada = normalizarTexto(introducao);
         List<String> introducaoParagrafos = dividirParagrafos(introducaoSanitizada);
         ViewTotais totais = new ViewTotais(dados.totalAtividades(), dados.totalEvidencias(), dados.totalParticipantes());
-        List<ViewCategoria> viewCategorias = mapearCategorias(dados.categorias());
+        List<ViewCategoria> viewCategorias = mapearCategorias(dados.categorias(), imagens);
 
         Context ctx = new Context(LOCALE_PT_BR);
         ctx.setVariable("tituloPagina", "Relatório de Atividades");
@@ -259,19 +309,19 @@ public class RelatorioCursoService {
         return templateEngine.process("relatorio/relatorio-curso", ctx);
     }
 
-    private List<ViewCategoria> mapearCategorias(List<RelatorioCategoria> categorias) {
+    private List<ViewCategoria> mapearCategorias(List<RelatorioCategoria> categorias, RelatorioImagemStreamFactory imagens) {
         if (categorias == null || categorias.isEmpty()) {
             return List.of();
         }
         return categorias.stream()
-                .map(this::mapearCategoria)
+                .map(categoria -> mapearCategoria(categoria, imagens))
                 .toList();
     }
 
-    private ViewCategoria mapearCategoria(RelatorioCategoria categoria) {
+    private ViewCategoria mapearCategoria(RelatorioCategoria categoria, RelatorioImagemStreamFactory imagens) {
         String nomeCategoria = Optional.ofNullable(categoria.categoria().getNome()).orElse("Categoria sem nome");
         List<ViewAtividade> atividades = categoria.atividades().stream()
-                .map(this::mapearAtividade)
+                .map(atividade -> mapearAtividade(atividade, imagens))
                 .toList();
         return new ViewCategoria(
                 nomeCategoria,
@@ -282,11 +332,11 @@ public class RelatorioCursoService {
         );
     }
 
-    private ViewAtividade mapearAtividade(RelatorioAtividade atividade) {
+    private ViewAtividade mapearAtividade(RelatorioAtividade atividade, RelatorioImagemStreamFactory imagens) {
         String status = Boolean.TRUE.equals(atividade.getStatusPublicacao()) ? "Publicado" : "Não publicado";
         String coordenador = normalizarTexto(atividade.getCoordenadorNome());
         List<String> fontes = atividade.getFontesFinanciadorasNomes();
-        List<ViewEvidencia> evidencias = mapearEvidencias(atividade.getEvidencias());
+        List<ViewEvidencia> evidencias = mapearEvidencias(atividade.getEvidencias(), imagens);
         
         String dataFormatada = formatarDataAtividade(atividade.getDataRealizacao(), atividade.getDataFim());
 
@@ -313,7 +363,7 @@ public class RelatorioCursoService {
         }
     }
 
-    private List<ViewEvidencia> mapearEvidencias(List<Evidencia> evidencias) {
+    private List<ViewEvidencia> mapearEvidencias(List<Evidencia> evidencias, RelatorioImagemStreamFactory imagens) {
         if (evidencias == null || evidencias.isEmpty()) {
             return List.of();
         }
@@ -328,17 +378,23 @@ public class RelatorioCursoService {
         });
 
         return evidenciasOrdenadas.stream()
-                .map(this::mapearEvidencia)
+                .map(evidencia -> mapearEvidencia(evidencia, imagens))
                 .toList();
     }
 
-    private ViewEvidencia mapearEvidencia(Evidencia evidencia) {
+    private ViewEvidencia mapearEvidencia(Evidencia evidencia, RelatorioImagemStreamFactory imagens) {
         String legenda = Optional.ofNullable(evidencia.getLegenda())
                 .map(String::trim)
                 .filter(s -> !s.isBlank())
                 .orElse("Sem legenda");
-        String orientacao = determinarOrientacao(evidencia);
-        return new ViewEvidencia(construirDataUriEvidencia(evidencia), legenda, orientacao);
+        Path imagePath = resolverArquivoEvidencia(evidencia);
+        if (imagePath == null) {
+            return new ViewEvidencia(null, legenda, "desconhecida");
+        }
+        String orientacao = determinarOrientacao(evidencia, imagePath);
+        // Variante de impressão: já rotacionada e com no máximo 2000 px no lado maior
+        imagePath = imagemDerivadaService.obterVariante(imagePath, ImagemDerivadaService.Tamanho.PRINT);
+        return new ViewEvidencia(imagens.registrar(imagePath), legenda, orientacao);
     }
 
 
@@ -392,59 +448,21 @@ public class RelatorioCursoService {
         return "Período não informado";
     }
 
-    private String construirDataUriEvidencia(Evidencia evidencia) {
+    private Path resolverArquivoEvidencia(Evidencia evidencia) {
         if (evidencia.getUrlFoto() == null || evidencia.getUrlFoto().isBlank()) {
             return null;
         }
-
-        try {
-            Path imagePath = resolveEvidenciaPath(evidencia.getUrlFoto());
-            if (!Files.exists(imagePath)) {
-                return null;
-            }
-
-            byte[] bytes = Files.readAllBytes(imagePath);
-            String base64 = Base64.getEncoder().encodeToString(bytes);
-            String contentType = Optional.ofNullable(Files.probeContentType(imagePath))
-                    .orElse("image/jpeg");
-            return "data:" + contentType + ";base64," + base64;
-        } catch (IOException ex) {
-            return null;
-        }
+        Path imagePath = resolveEvidenciaPath(evidencia.getUrlFoto());
+        return Files.exists(imagePath) ? imagePath : null;
     }
 
-    private String determinarOrientacao(Evidencia evidencia) {
-        if (evidencia.getUrlFoto() == null || evidencia.getUrlFoto().isBlank()) {
-            return "desconhecida";
-        }
-
-        try {
-            Path imagePath = resolveEvidenciaPath(evidencia.getUrlFoto());
-            if (!Files.exists(imagePath)) {
-                return "desconhecida";
-            }
-
-            try (InputStream input = Files.newInputStream(imagePath)) {
-                BufferedImage imagem = ImageIO.read(input);
-                if (imagem == null) {
-                    return "desconhecida";
-                }
-                int largura = imagem.getWidth();
-                int altura = imagem.getHeight();
-                if (largura <= 0 || altura <= 0) {
-                    return "desconhecida";
-                }
-                if (largura > altura) {
-                    return "horizontal";
-                } else if (altura > largura) {
-                    return "vertical";
-                } else {
-                    return "quadrada";
-                }
-            }
-        } catch (IOException ex) {
-            return "desconhecida";
+    // Dimensões gravadas no upload; o cabeçalho do original só é lido para evidências ainda sem elas
+    private String determinarOrientacao(Evidencia evidencia, Path original) {
+        ImagemMetadados metadados = ImagemMetadados.daEvidencia(evidencia);
+        if (metadados == null) {
+            metadados = ImagemMetadados.lerOuDesconhecida(original);
         }
+        return metadados.orientacaoExibida();
     }
 
     private Path resolveEvidenciaPath(String urlFoto) {
@@ -458,21 +476,6 @@ public class RelatorioCursoService {
         return evidenciasBasePath.resolve(normalized).normalize();
     }
 
-    private byte[] gerarPdf(String html) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.useFastMode();
-            builder.withHtmlContent(html, resolverBaseUri());
-            configurarPdfA(builder);
-            builder.toStream(outputStream);
-            builder.run();
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            LOGGER.error("Falha ao transformar HTML em PDF. Conteúdo HTML (parcial): {}", resumirHtml(html));
-            throw new IllegalStateException("Erro ao gerar o relatório em PDF", e);
-        }
-    }
-
     private String resumirHtml(String html) {
         if (html == null) {
             return "[null]";
@@ -584,7 +587,7 @@ public class RelatorioCursoService {
                               int totalParticipantes) {
     }
 
-    private record ViewEvidencia(String imgDataUri,
+    private record ViewEvidencia(String imgSrc,
                                  String legenda,
                                  String orientacao) {
     }
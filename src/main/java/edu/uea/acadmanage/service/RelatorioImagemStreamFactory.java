@@ -0,0 +1,77 @@
+package edu.uea.acadmanage.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.openhtmltopdf.extend.FSStream;
+import com.openhtmltopdf.extend.FSStreamFactory;
+
+/**
+ * Resolve as imagens dos relatórios em PDF a partir do disco. O HTML referencia cada
+ * imagem por {@code evidencia:<n>} e o arquivo só é aberto quando o renderizador
+ * precisa dele, evitando embutir as imagens no HTML como data URI.
+ */
+public class RelatorioImagemStreamFactory implements FSStreamFactory {
+
+    public static final String PROTOCOLO = "evidencia";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RelatorioImagemStreamFactory.class);
+
+    private final Map<String, Path> imagens = new LinkedHashMap<>();
+    // Imagens já lidas pelo renderizador, para acompanhar o progresso
+    private final Set<String> lidas = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Registra o arquivo e retorna a URI a ser usada no atributo {@code src} da imagem.
+     */
+    public String registrar(Path arquivo) {
+        String uri = PROTOCOLO + ":" + imagens.size();
+        imagens.put(uri, arquivo);
+        return uri;
+    }
+
+    public int total() {
+        return imagens.size();
+    }
+
+    public int lidas() {
+        return lidas.size();
+    }
+
+    @Override
+    public FSStream getUrl(String url) {
+        Path arquivo = imagens.get(url);
+        if (arquivo != null) {
+            lidas.add(url);
+        }
+        return new FSStream() {
+            @Override
+            public InputStream getStream() {
+                if (arquivo == null) {
+                    return null;
+                }
+                try {
+                    return Files.newInputStream(arquivo);
+                } catch (IOException ex) {
+                    LOGGER.warn("Imagem do relatório indisponível: {}", arquivo);
+                    return null;
+                }
+            }
+
+            @Override
+            public Reader getReader() {
+                return null;
+            }
+        };
+    }
+}
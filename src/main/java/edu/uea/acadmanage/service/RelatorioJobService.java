@@ -0,0 +1,287 @@
+package edu.uea.acadmanage.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import edu.uea.acadmanage.DTO.RelatorioJobDTO;
+import edu.uea.acadmanage.service.exception.AcessoNegadoException;
+import edu.uea.acadmanage.service.exception.ConflitoException;
+import edu.uea.acadmanage.service.exception.LimiteExcedidoException;
+import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+/**
+ * Fila de geração de relatórios em PDF. A requisição apenas enfileira o relatório; um
+ * executor dedicado ({@code relatorioTaskExecutor}) carrega os dados em uma transação
+ * curta, libera a conexão e só então renderiza o PDF, gravado em disco até expirar.
+ *
+ * <p>Os jobs ficam em memória: o status e o download precisam ser consultados no mesmo
+ * nó que recebeu o pedido, e jobs em andamento se perdem se a aplicação reiniciar.
+ */
+@Service
+public class RelatorioJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RelatorioJobService.class);
+
+    private static final Pattern ARQUIVO_DE_JOB = Pattern.compile(
+            "\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}(\\.pdf|\\d+\\.tmp)");
+
+    public enum StatusRelatorioJob {
+        PENDENTE, CARREGANDO_DADOS, RENDERIZANDO, CONCLUIDO, FALHOU;
+
+        public boolean isFinalizado() {
+            return this == CONCLUIDO || this == FALHOU;
+        }
+    }
+
+    /**
+     * Escreve o PDF de um relatório preparado (ver {@code escreverPdf} dos serviços de relatório).
+     */
+    @FunctionalInterface
+    public interface EscritorPdf {
+        void escrever(RelatorioPdf relatorio, OutputStream saida) throws IOException;
+    }
+
+    private final Executor executor;
+    private final Path diretorio;
+    private final Duration ttl;
+    private final int maximoPorUsuario;
+    private final Map<String, RelatorioJob> jobs = new ConcurrentHashMap<>();
+
+    public RelatorioJobService(
+            @Qualifier("relatorioTaskExecutor") Executor executor,
+            @Value("${app.relatorios.jobs.diretorio:${java.io.tmpdir}/acadmanage-relatorios}") String diretorio,
+            @Value("${app.relatorios.jobs.ttl:1h}") Duration ttl,
+            @Value("${app.relatorios.jobs.max-por-usuario:2}") int maximoPorUsuario) throws IOException {
+        this.executor = executor;
+        this.diretorio = Paths.get(diretorio).toAbsolutePath().normalize();
+        this.ttl = ttl;
+        this.maximoPorUsuario = maximoPorUsuario;
+        Files.createDirectories(this.diretorio);
+        limparArquivosOrfaos();
+    }
+
+    /**
+     * Enfileira um relatório. {@code preparar} deve validar o acesso e carregar os dados
+     * (método transacional do serviço de relatório); {@code escritor} renderiza o PDF.
+     */
+    public RelatorioJobDTO enfileirar(String tipo,
+                                      String solicitante,
+                                      String nomeArquivo,
+                                      Supplier<RelatorioPdf> preparar,
+                                      EscritorPdf escritor) {
+        if (solicitante == null || solicitante.isBlank()) {
+            throw new AcessoNegadoException("Usuário não autenticado.");
+        }
+        RelatorioJob job = new RelatorioJob(UUID.randomUUID().toString(), tipo, solicitante, nomeArquivo, Instant.now());
+        // Sincronizado para que pedidos simultâneos do mesmo usuário não ultrapassem o limite
+        synchronized (this) {
+            long ativos = jobs.values().stream()
+                    .filter(existente -> existente.dono.equals(solicitante) && !existente.status.isFinalizado())
+                    .count();
+            if (ativos >= maximoPorUsuario) {
+                throw new LimiteExcedidoException("Você já possui " + ativos
+                        + " relatório(s) em geração. Aguarde a conclusão antes de solicitar outro.");
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            executor.execute(() -> executar(job, preparar, escritor));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new LimiteExcedidoException("A fila de geração de relatórios está cheia. Tente novamente em alguns minutos.");
+        }
+        return toDTO(job);
+    }
+
+    public RelatorioJobDTO consultar(String jobId, String solicitante) {
+        return toDTO(buscar(jobId, solicitante));
+    }
+
+    /**
+     * Arquivo do relatório concluído. Lança {@link ConflitoException} se o relatório
+     * ainda estiver em geração ou tiver falhado.
+     */
+    public RelatorioArquivo obterArquivo(String jobId, String solicitante) {
+        RelatorioJob job = buscar(jobId, solicitante);
+        if (job.status != StatusRelatorioJob.CONCLUIDO) {
+            throw new ConflitoException(job.status == StatusRelatorioJob.FALHOU
+                    ? "A geração do relatório falhou: " + job.mensagem
+                    : "O relatório ainda está em geração.");
+        }
+        if (!Files.isRegularFile(job.arquivo)) {
+            throw new RecursoNaoEncontradoException("Relatório não encontrado ou expirado: " + jobId);
+        }
+        return new RelatorioArquivo(job.arquivo, job.nomeArquivo);
+    }
+
+    // Remove jobs finalizados há mais tempo que o TTL e seus arquivos
+    @Scheduled(fixedDelay = 300000) // A cada 5 minutos
+    public void removerExpirados() {
+        Instant agora = Instant.now();
+        jobs.values().removeIf(job -> {
+            if (job.finalizadoEm == null || agora.isBefore(job.finalizadoEm.plus(ttl))) {
+                return false;
+            }
+            excluirArquivo(job);
+            return true;
+        });
+    }
+
+    private void executar(RelatorioJob job, Supplier<RelatorioPdf> preparar, EscritorPdf escritor) {
+        Path temporario = null;
+        try {
+            job.status = StatusRelatorioJob.CARREGANDO_DADOS;
+            // A transação de leitura termina aqui; a renderização não segura conexão com o banco
+            RelatorioPdf relatorio = preparar.get();
+
+            job.imagens = relatorio.imagens();
+            job.status = StatusRelatorioJob.RENDERIZANDO;
+            temporario = Files.createTempFile(diretorio, job.id, ".tmp");
+            try (OutputStream saida = Files.newOutputStream(temporario)) {
+                escritor.escrever(relatorio, saida);
+            }
+            Path destino = diretorio.resolve(job.id + ".pdf");
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+            job.arquivo = destino;
+            finalizar(job, StatusRelatorioJob.CONCLUIDO, null);
+        } catch (RecursoNaoEncontradoException | AcessoNegadoException | ValidacaoException e) {
+            finalizar(job, StatusRelatorioJob.FALHOU, e.getMessage());
+        } catch (Exception e) {
+            LOGGER.error("Falha ao gerar o relatório {} ({})", job.id, job.tipo, e);
+            finalizar(job, StatusRelatorioJob.FALHOU, "Erro ao gerar o relatório em PDF.");
+        } finally {
+            job.imagens = null;
+            if (temporario != null) {
+                try {
+                    Files.deleteIfExists(temporario);
+                } catch (IOException e) {
+                    LOGGER.warn("Não foi possível excluir o arquivo temporário {}", temporario);
+                }
+            }
+        }
+    }
+
+    private void finalizar(RelatorioJob job, StatusRelatorioJob status, String mensagem) {
+        job.mensagem = mensagem;
+        job.finalizadoEm = Instant.now();
+        job.status = status;
+    }
+
+    // Jobs de outros usuários são tratados como inexistentes
+    private RelatorioJob buscar(String jobId, String solicitante) {
+        RelatorioJob job = jobs.get(jobId);
+        if (job == null || !Objects.equals(job.dono, solicitante)) {
+            throw new RecursoNaoEncontradoException("Relatório não encontrado ou expirado: " + jobId);
+        }
+        return job;
+    }
+
+    private RelatorioJobDTO toDTO(RelatorioJob job) {
+        StatusRelatorioJob status = job.status;
+        Instant finalizadoEm = job.finalizadoEm;
+        return new RelatorioJobDTO(
+                job.id,
+                job.tipo,
+                status.name(),
+                progresso(job, status),
+                job.mensagem,
+                paraData(job.criadoEm),
+                paraData(finalizadoEm),
+                finalizadoEm != null ? paraData(finalizadoEm.plus(ttl)) : null,
+                status == StatusRelatorioJob.CONCLUIDO ? "/api/relatorios/jobs/" + job.id + "/arquivo" : null);
+    }
+
+    // Percentual estimado: dados até 40%, renderização proporcional às imagens já lidas
+    private static int progresso(RelatorioJob job, StatusRelatorioJob status) {
+        return switch (status) {
+            case PENDENTE -> 0;
+            case CARREGANDO_DADOS -> 10;
+            case RENDERIZANDO -> {
+                RelatorioImagemStreamFactory imagens = job.imagens;
+                if (imagens == null || imagens.total() == 0) {
+                    yield 40;
+                }
+                yield 40 + (55 * Math.min(imagens.lidas(), imagens.total())) / imagens.total();
+            }
+            case CONCLUIDO, FALHOU -> 100;
+        };
+    }
+
+    private LocalDateTime paraData(Instant instante) {
+        return instante != null ? LocalDateTime.ofInstant(instante, ZoneId.systemDefault()) : null;
+    }
+
+    private void excluirArquivo(RelatorioJob job) {
+        if (job.arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.arquivo);
+        } catch (IOException e) {
+            LOGGER.warn("Não foi possível excluir o relatório expirado {}", job.arquivo);
+        }
+    }
+
+    // Arquivos de uma execução anterior não têm mais job associado
+    // O diretório é configurável e pode ser compartilhado: só apaga o que o próprio job grava
+    // ("<id>.pdf" e o temporário "<id><número>.tmp", com o id do job em formato UUID)
+    private void limparArquivosOrfaos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio,
+                arquivo -> ARQUIVO_DE_JOB.matcher(arquivo.getFileName().toString()).matches()
+                        && Files.isRegularFile(arquivo, LinkOption.NOFOLLOW_LINKS))) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    public record RelatorioArquivo(Path caminho, String nomeArquivo) {
+    }
+
+    private static final class RelatorioJob {
+        private final String id;
+        private final String tipo;
+        private final String dono;
+        private final String nomeArquivo;
+        private final Instant criadoEm;
+        private volatile StatusRelatorioJob status = StatusRelatorioJob.PENDENTE;
+        private volatile String mensagem;
+        private volatile Instant finalizadoEm;
+        private volatile Path arquivo;
+        private volatile RelatorioImagemStreamFactory imagens;
+
+        private RelatorioJob(String id, String tipo, String dono, String nomeArquivo, Instant criadoEm) {
+            this.id = id;
+            this.tipo = tipo;
+            this.dono = dono;
+            this.nomeArquivo = nomeArquivo;
+            this.criadoEm = criadoEm;
+        }
+    }
+}
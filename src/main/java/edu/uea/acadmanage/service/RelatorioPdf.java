@@ -0,0 +1,7 @@
+package edu.uea.acadmanage.service;
+
+/**
+ * Relatório pronto para renderização: HTML e as imagens que ele referencia.
+ */
+public record RelatorioPdf(String html, RelatorioImagemStreamFactory imagens) {
+}
@@ -0,0 +1,206 @@
+package edu.uea.acadmanage.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.model.LogResumoDiario;
+import edu.uea.acadmanage.repository.ActionLogRepository;
+import edu.uea.acadmanage.repository.AuditLogRepository;
+import edu.uea.acadmanage.repository.LogResumoDiarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ciclo de vida dos logs de auditoria e de ação. Uma vez por dia:
+ * <ol>
+ * <li>consolida os dias encerrados em {@link LogResumoDiario} (o último dia consolidado é
+ * refeito, para contar registros que chegaram atrasados pelo spool);</li>
+ * <li>move para o {@link ArquivoLogs} os meses anteriores à janela de retenção, apagando
+ * do banco, dia a dia, os registros já arquivados.</li>
+ * </ol>
+ *
+ * <p>Cada mês faz o papel de uma partição: é arquivado e removido por inteiro, pela faixa
+ * de {@code timestamp} (indexada). Os resumos não são apagados.
+ */
+@Service
+public class RetencaoLogsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetencaoLogsService.class);
+
+    private static final int TAMANHO_PAGINA = 1000;
+
+    private final AuditLogRepository auditLogRepository;
+    private final ActionLogRepository actionLogRepository;
+    private final LogResumoDiarioRepository resumoRepository;
+    private final ArquivoLogs arquivoLogs;
+    private final TransactionTemplate transactionTemplate;
+    private final int mesesRetencao;
+    private final Counter arquivados;
+
+    public RetencaoLogsService(AuditLogRepository auditLogRepository,
+                               ActionLogRepository actionLogRepository,
+                               LogResumoDiarioRepository resumoRepository,
+                               ArquivoLogs arquivoLogs,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.logs.retencao.meses:6}") int mesesRetencao) {
+        if (mesesRetencao < 1) {
+            throw new IllegalArgumentException("app.logs.retencao.meses deve ser pelo menos 1");
+        }
+        this.auditLogRepository = auditLogRepository;
+        this.actionLogRepository = actionLogRepository;
+        this.resumoRepository = resumoRepository;
+        this.arquivoLogs = arquivoLogs;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mesesRetencao = mesesRetencao;
+        this.arquivados = Counter.builder("app.logs.arquivados")
+                .description("Registros de log movidos do banco para o arquivo")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.logs.retencao.cron:0 30 1 * * *}")
+    public void executar() {
+        executar(LocalDate.now());
+    }
+
+    void executar(LocalDate hoje) {
+        // Os resumos vêm antes: um mês só sai do banco depois de consolidado
+        consolidarResumos(hoje);
+        if (arquivoLogs.isHabilitado()) {
+            arquivar(YearMonth.from(hoje).minusMonths(mesesRetencao));
+        }
+    }
+
+    /**
+     * Consolida os dias anteriores a {@code hoje} ainda sem resumo, refazendo o último.
+     */
+    public void consolidarResumos(LocalDate hoje) {
+        LocalDate inicio = resumoRepository.findUltimoDia();
+        if (inicio == null) {
+            inicio = maisAntigo(auditLogRepository.findPrimeiroTimestamp(), actionLogRepository.findPrimeiroTimestamp());
+            if (inicio == null) {
+                return;
+            }
+        }
+        for (LocalDate dia = inicio; dia.isBefore(hoje); dia = dia.plusDays(1)) {
+            LocalDate consolidado = dia;
+            transactionTemplate.executeWithoutResult(status -> consolidarDia(consolidado));
+        }
+    }
+
+    private void consolidarDia(LocalDate dia) {
+        LocalDateTime inicio = dia.atStartOfDay();
+        LocalDateTime fim = dia.plusDays(1).atStartOfDay();
+        List<LogResumoDiario> resumos = new ArrayList<>();
+        for (Object[] linha : auditLogRepository.resumirPeriodo(inicio, fim)) {
+            resumos.add(new LogResumoDiario(dia, LogResumoDiario.Origem.AUDITORIA, (String) linha[0],
+                    (String) linha[1], ((AuditLog.AuditAction) linha[2]).name(), ((Number) linha[3]).longValue(), 0L));
+        }
+        for (Object[] linha : actionLogRepository.resumirPeriodo(inicio, fim)) {
+            resumos.add(new LogResumoDiario(dia, LogResumoDiario.Origem.ACAO, (String) linha[0], "",
+                    ((ActionLog.ActionType) linha[1]).name(), ((Number) linha[2]).longValue(),
+                    ((Number) linha[3]).longValue()));
+        }
+        resumoRepository.deleteByDia(dia);
+        resumoRepository.saveAll(resumos);
+    }
+
+    private void arquivar(YearMonth limite) {
+        arquivarTabela(ArquivoLogs.AUDIT_LOG, limite, auditLogRepository::findPrimeiroTimestamp,
+                auditLogRepository::findPeriodoPorCursor, AuditLog::getTimestamp, AuditLog::getId,
+                auditLogRepository::deleteByPeriodo);
+        arquivarTabela(ArquivoLogs.ACTION_LOG, limite, actionLogRepository::findPrimeiroTimestamp,
+                actionLogRepository::findPeriodoPorCursor, ActionLog::getTimestamp, ActionLog::getId,
+                actionLogRepository::deleteByPeriodo);
+    }
+
+    // Arquiva, do mais antigo para o mais recente, os meses da tabela anteriores ao limite
+    private <T> void arquivarTabela(String tabela, YearMonth limite, Supplier<LocalDateTime> primeiroTimestamp,
+                                    PaginaPeriodo<T> pagina, Function<T, LocalDateTime> timestamp,
+                                    Function<T, Long> id, Remocao remocao) {
+        LocalDateTime primeiro = primeiroTimestamp.get();
+        while (primeiro != null && YearMonth.from(primeiro).isBefore(limite)) {
+            YearMonth mes = YearMonth.from(primeiro);
+            try {
+                arquivarMes(tabela, mes, pagina, timestamp, id, remocao);
+            } catch (IOException e) {
+                logger.error("Erro ao arquivar {} de {}; os registros continuam no banco", tabela, mes, e);
+                return;
+            }
+            primeiro = primeiroTimestamp.get();
+        }
+    }
+
+    private <T> void arquivarMes(String tabela, YearMonth mes, PaginaPeriodo<T> pagina,
+                                 Function<T, LocalDateTime> timestamp, Function<T, Long> id,
+                                 Remocao remocao) throws IOException {
+        long inicioExecucao = System.currentTimeMillis();
+        LocalDateTime inicio = mes.atDay(1).atStartOfDay();
+        LocalDateTime fim = mes.plusMonths(1).atDay(1).atStartOfDay();
+        long total = 0;
+        try (ArquivoLogs.Gravacao gravacao = arquivoLogs.abrir(tabela, mes)) {
+            LocalDateTime ultimoTimestamp = null;
+            Long ultimoId = null;
+            List<T> registros;
+            do {
+                registros = pagina.buscar(inicio, fim, ultimoTimestamp, ultimoId, Limit.of(TAMANHO_PAGINA));
+                for (T registro : registros) {
+                    if (gravacao.gravar(registro)) {
+                        total++;
+                    }
+                }
+                if (!registros.isEmpty()) {
+                    T ultimo = registros.get(registros.size() - 1);
+                    ultimoTimestamp = timestamp.apply(ultimo);
+                    ultimoId = id.apply(ultimo);
+                }
+            } while (registros.size() == TAMANHO_PAGINA);
+            gravacao.concluir();
+        }
+
+        // Remoção dia a dia, para não manter uma única transação longa sobre o mês inteiro
+        long apagados = 0;
+        for (LocalDateTime dia = inicio; dia.isBefore(fim); dia = dia.plusDays(1)) {
+            LocalDateTime inicioDia = dia;
+            apagados += transactionTemplate.execute(status -> remocao.apagar(inicioDia, inicioDia.plusDays(1)));
+        }
+        arquivados.increment(apagados);
+        logger.info("{} de {} arquivado: {} registro(s) novo(s) no arquivo, {} removido(s) do banco em {}ms",
+                tabela, mes, total, apagados, System.currentTimeMillis() - inicioExecucao);
+    }
+
+    private static LocalDate maisAntigo(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a != null ? a.toLocalDate() : b != null ? b.toLocalDate() : null;
+        }
+        return (a.isBefore(b) ? a : b).toLocalDate();
+    }
+
+    @FunctionalInterface
+    private interface PaginaPeriodo<T> {
+        List<T> buscar(LocalDateTime inicio, LocalDateTime fim, LocalDateTime ultimoTimestamp, Long ultimoId,
+                       Limit limit);
+    }
+
+    @FunctionalInterface
+    private interface Remocao {
+        int apagar(LocalDateTime inicio, LocalDateTime fim);
+    }
+}
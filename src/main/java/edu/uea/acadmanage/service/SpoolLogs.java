@@ -0,0 +1,484 @@
+package edu.uea.acadmanage.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.repository.LogLoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Spool local dos logs de auditoria e de ação. Os lotes da {@link FilaLogs} são anexados
+ * a arquivos de segmento em disco ({@code spool-<n>.log}, gravação sequencial com
+ * {@code force}) e um envio periódico os copia para o banco, avançando um checkpoint
+ * ({@code spool.checkpoint}) só depois do commit. Com o banco lento ou fora do ar os
+ * registros ficam no disco e o envio é retomado com espera crescente.
+ *
+ * <p>Um lote que falha {@code app.logs.spool.tentativas-por-lote} vezes seguidas é reenviado
+ * registro a registro; os que o banco recusa (valor inválido ou fora do limite da coluna)
+ * vão para {@code rejeitados.ndjson}, no mesmo diretório, para não travar os seguintes.
+ *
+ * <p>Cada quadro tem tamanho, CRC32C e tipo; um quadro incompleto ou corrompido (queda no
+ * meio de uma gravação) encerra a leitura do segmento. Registros reenviados após uma queda
+ * entre o commit e o checkpoint são ignorados pelo {@code eventoId}.
+ *
+ * <p>Com {@code app.logs.spool.diretorio} vazio o spool fica desligado e os lotes vão
+ * direto para o banco.
+ */
+@Component
+public class SpoolLogs implements HealthIndicator, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoolLogs.class);
+
+    private static final byte TIPO_AUDIT_LOG = 1;
+    private static final byte TIPO_ACTION_LOG = 2;
+    // tamanho do conteúdo (int) + CRC32C (int) + tipo (byte)
+    private static final int CABECALHO = 9;
+    private static final String PREFIXO_SEGMENTO = "spool-";
+    private static final String EXTENSAO_SEGMENTO = ".log";
+    private static final String CHECKPOINT = "spool.checkpoint";
+    private static final String REJEITADOS = "rejeitados.ndjson";
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(1);
+
+    private final LogLoteRepository logLoteRepository;
+    private final ObjectMapper objectMapper;
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+    private final int tamanhoLote;
+    private final int tentativasPorLote;
+    private final Counter rejeitados;
+
+    // Escrita (thread da FilaLogs) sob o monitor deste objeto; o envio só lê a posição final
+    private FileChannel escrita;
+    private long segmentoEscrita;
+    private long fimEscrita;
+
+    // Estado do envio (uma execução por vez, pelo agendador)
+    private volatile Posicao checkpoint;
+    private volatile LocalDateTime pendenteDesde;
+    private volatile String ultimoErro;
+    private Duration espera = Duration.ZERO;
+    private Instant proximaTentativa = Instant.MIN;
+    private int falhasSeguidas;
+
+    public SpoolLogs(
+            LogLoteRepository logLoteRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.logs.spool.diretorio:./data/logs-spool}") String diretorio,
+            @Value("${app.logs.spool.tamanho-segmento:67108864}") long tamanhoSegmento,
+            @Value("${app.logs.lote.tamanho:200}") int tamanhoLote,
+            @Value("${app.logs.spool.tentativas-por-lote:5}") int tentativasPorLote) throws IOException {
+        this.logLoteRepository = logLoteRepository;
+        this.objectMapper = objectMapper;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.tamanhoLote = tamanhoLote;
+        this.tentativasPorLote = Math.max(1, tentativasPorLote);
+        this.rejeitados = Counter.builder("app.logs.spool.rejeitados")
+                .description("Registros de log recusados pelo banco e movidos para o arquivo de rejeitados")
+                .register(meterRegistry);
+        if (diretorio == null || diretorio.isBlank()) {
+            this.diretorio = null;
+            return;
+        }
+        this.diretorio = Paths.get(diretorio).toAbsolutePath().normalize();
+        Files.createDirectories(this.diretorio);
+        this.checkpoint = lerCheckpoint();
+        // Cada execução grava em um segmento novo; o final do anterior pode estar incompleto
+        TreeMap<Long, Path> existentes = segmentos();
+        abrirSegmento(Math.max(checkpoint.segmento(), existentes.isEmpty() ? 0 : existentes.lastKey() + 1));
+
+        Gauge.builder("app.logs.spool.bytes-pendentes", this, SpoolLogs::bytesPendentes)
+                .description("Bytes do spool de logs ainda não enviados ao banco")
+                .register(meterRegistry);
+        Gauge.builder("app.logs.spool.atraso", this, SpoolLogs::atrasoSegundos)
+                .description("Idade, em segundos, do registro de log mais antigo ainda não enviado")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isHabilitado() {
+        return diretorio != null;
+    }
+
+    /**
+     * Anexa os registros ({@link AuditLog} ou {@link ActionLog}) ao segmento atual e força a
+     * gravação em disco antes de retornar.
+     */
+    public synchronized void anexar(List<?> registros) throws IOException {
+        ByteBuffer quadros = codificar(registros);
+        if (fimEscrita > 0 && fimEscrita + quadros.remaining() > tamanhoSegmento) {
+            escrita.close();
+            abrirSegmento(segmentoEscrita + 1);
+        }
+        int tamanho = quadros.remaining();
+        while (quadros.hasRemaining()) {
+            escrita.write(quadros);
+        }
+        escrita.force(false);
+        fimEscrita += tamanho;
+    }
+
+    /**
+     * Envia ao banco tudo o que estiver no spool, em lotes. Em caso de falha, a próxima
+     * tentativa espera o dobro da anterior (até um minuto).
+     */
+    @Scheduled(fixedDelay = 1000) // A cada segundo
+    public void enviar() {
+        if (!isHabilitado() || Instant.now().isBefore(proximaTentativa)) {
+            return;
+        }
+        try {
+            while (true) {
+                Leitura leitura = ler(checkpoint, tamanhoLote);
+                if (leitura.registros().isEmpty()) {
+                    avancarCheckpoint(leitura.proxima());
+                    pendenteDesde = null;
+                    break;
+                }
+                pendenteDesde = timestamp(leitura.registros().get(0));
+                try {
+                    logLoteRepository.gravar(leitura.auditLogs(), leitura.actionLogs());
+                } catch (RuntimeException e) {
+                    if (++falhasSeguidas < tentativasPorLote) {
+                        throw e;
+                    }
+                    // Falhas seguidas no mesmo lote: pode ser um registro que o banco nunca aceitará
+                    enviarUmPorVez(leitura.registros().size());
+                }
+                falhasSeguidas = 0;
+                avancarCheckpoint(leitura.proxima());
+            }
+            if (ultimoErro != null) {
+                LOGGER.info("Envio do spool de logs retomado");
+            }
+            ultimoErro = null;
+            espera = Duration.ZERO;
+        } catch (IOException | RuntimeException e) {
+            espera = espera.isZero() ? Duration.ofSeconds(1) : min(espera.multipliedBy(2), ESPERA_MAXIMA);
+            proximaTentativa = Instant.now().plus(espera);
+            if (ultimoErro == null) {
+                LOGGER.warn("Falha ao enviar o spool de logs ao banco; nova tentativa em {}", espera, e);
+            }
+            ultimoErro = Objects.toString(e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    /*
+     * Envia os próximos registros um a um, avançando o checkpoint após cada um. Os recusados
+     * pelo banco vão para o arquivo de rejeitados; qualquer outra falha (banco fora do ar)
+     * interrompe o envio, que é retomado do registro em que parou.
+     */
+    private void enviarUmPorVez(int quantidade) throws IOException {
+        for (int i = 0; i < quantidade; i++) {
+            Leitura leitura = ler(checkpoint, 1);
+            if (leitura.registros().isEmpty()) {
+                break;
+            }
+            try {
+                logLoteRepository.gravar(leitura.auditLogs(), leitura.actionLogs());
+            } catch (RuntimeException e) {
+                if (!recusadoPeloBanco(e)) {
+                    throw e;
+                }
+                rejeitar(leitura.registros().get(0), e);
+            }
+            avancarCheckpoint(leitura.proxima());
+        }
+    }
+
+    // Falha do próprio registro, e não de conexão ou transação
+    private static boolean recusadoPeloBanco(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException
+                || !(e instanceof DataAccessException || e instanceof TransactionException);
+    }
+
+    private void rejeitar(Object registro, RuntimeException erro) throws IOException {
+        ObjectNode linha = objectMapper.createObjectNode();
+        linha.put("tipo", registro.getClass().getSimpleName());
+        linha.put("erro", Objects.toString(erro.getMessage(), erro.getClass().getSimpleName()));
+        linha.set("registro", objectMapper.valueToTree(registro));
+        byte[] conteudo = (objectMapper.writeValueAsString(linha) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel canal = FileChannel.open(diretorio.resolve(REJEITADOS), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(conteudo);
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        }
+        rejeitados.increment();
+        LOGGER.error("Registro de log recusado pelo banco e movido para {}: {}", REJEITADOS, erro.getMessage());
+    }
+
+    @Override
+    public Health health() {
+        if (!isHabilitado()) {
+            return Health.up().withDetail("habilitado", false).build();
+        }
+        Health.Builder health = Health.up()
+                .withDetail("bytesPendentes", bytesPendentes())
+                .withDetail("atrasoSegundos", atrasoSegundos())
+                .withDetail("rejeitados", (long) rejeitados.count());
+        if (ultimoErro != null) {
+            health.withDetail("ultimoErro", ultimoErro);
+        }
+        return health.build();
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (escrita != null) {
+            escrita.close();
+        }
+    }
+
+    long bytesPendentes() {
+        Posicao inicio = checkpoint;
+        long total = 0;
+        try {
+            for (var segmento : segmentos().tailMap(inicio.segmento()).entrySet()) {
+                long tamanho = Files.size(segmento.getValue());
+                total += segmento.getKey() == inicio.segmento() ? Math.max(0, tamanho - inicio.offset()) : tamanho;
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return total;
+    }
+
+    long atrasoSegundos() {
+        LocalDateTime desde = pendenteDesde;
+        return desde != null ? Math.max(0, Duration.between(desde, LocalDateTime.now()).toSeconds()) : 0;
+    }
+
+    /*
+     * Lê até {@code maximo} registros a partir da posição, passando para o segmento seguinte
+     * quando o atual termina. No segmento em escrita, só até o que já foi forçado em disco.
+     */
+    Leitura ler(Posicao inicio, int maximo) throws IOException {
+        List<Object> registros = new ArrayList<>();
+        Posicao posicao = inicio;
+        while (registros.size() < maximo) {
+            long segmentoAtivo;
+            long limiteAtivo;
+            synchronized (this) {
+                segmentoAtivo = segmentoEscrita;
+                limiteAtivo = fimEscrita;
+            }
+            Path arquivo = caminhoSegmento(posicao.segmento());
+            if (posicao.segmento() > segmentoAtivo) {
+                break;
+            }
+            if (!Files.exists(arquivo)) {
+                if (posicao.segmento() >= segmentoAtivo) {
+                    break;
+                }
+                posicao = new Posicao(posicao.segmento() + 1, 0);
+                continue;
+            }
+            boolean ativo = posicao.segmento() == segmentoAtivo;
+            long limite = ativo ? limiteAtivo : Files.size(arquivo);
+            long offset = lerQuadros(arquivo, posicao.offset(), limite, maximo, registros);
+            posicao = new Posicao(posicao.segmento(), offset);
+            if (registros.size() >= maximo || ativo) {
+                break;
+            }
+            if (offset < limite) {
+                LOGGER.warn("Final incompleto ou corrompido no segmento {} a partir do byte {}; {} byte(s) ignorado(s)",
+                        arquivo.getFileName(), offset, limite - offset);
+            }
+            posicao = new Posicao(posicao.segmento() + 1, 0);
+        }
+        return new Leitura(registros, posicao);
+    }
+
+    // Retorna o offset logo após o último quadro válido lido
+    private long lerQuadros(Path arquivo, long offset, long limite, int maximo, List<Object> registros)
+            throws IOException {
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+            while (registros.size() < maximo && offset + CABECALHO <= limite) {
+                cabecalho.clear();
+                lerCompleto(leitura, cabecalho, offset);
+                cabecalho.flip();
+                int tamanho = cabecalho.getInt();
+                int crc = cabecalho.getInt();
+                byte tipo = cabecalho.get();
+                if (tamanho < 0 || offset + CABECALHO + tamanho > limite) {
+                    break;
+                }
+                ByteBuffer conteudo = ByteBuffer.allocate(tamanho);
+                lerCompleto(leitura, conteudo, offset + CABECALHO);
+                if (crc(tipo, conteudo.array()) != crc) {
+                    break;
+                }
+                registros.add(decodificar(tipo, conteudo.array()));
+                offset += CABECALHO + tamanho;
+            }
+        }
+        return offset;
+    }
+
+    private ByteBuffer codificar(List<?> registros) throws IOException {
+        List<byte[]> conteudos = new ArrayList<>(registros.size());
+        List<Byte> tipos = new ArrayList<>(registros.size());
+        int total = 0;
+        for (Object registro : registros) {
+            byte tipo;
+            if (registro instanceof AuditLog) {
+                tipo = TIPO_AUDIT_LOG;
+            } else if (registro instanceof ActionLog) {
+                tipo = TIPO_ACTION_LOG;
+            } else {
+                continue;
+            }
+            byte[] conteudo = objectMapper.writeValueAsBytes(registro);
+            conteudos.add(conteudo);
+            tipos.add(tipo);
+            total += CABECALHO + conteudo.length;
+        }
+        ByteBuffer quadros = ByteBuffer.allocate(total);
+        for (int i = 0; i < conteudos.size(); i++) {
+            byte[] conteudo = conteudos.get(i);
+            quadros.putInt(conteudo.length).putInt(crc(tipos.get(i), conteudo)).put(tipos.get(i)).put(conteudo);
+        }
+        return quadros.flip();
+    }
+
+    private Object decodificar(byte tipo, byte[] conteudo) throws IOException {
+        return switch (tipo) {
+            case TIPO_AUDIT_LOG -> objectMapper.readValue(conteudo, AuditLog.class);
+            case TIPO_ACTION_LOG -> objectMapper.readValue(conteudo, ActionLog.class);
+            default -> throw new IOException("Tipo de quadro desconhecido no spool de logs: " + tipo);
+        };
+    }
+
+    private static int crc(byte tipo, byte[] conteudo) {
+        CRC32C crc = new CRC32C();
+        crc.update(tipo);
+        crc.update(conteudo);
+        return (int) crc.getValue();
+    }
+
+    private static void lerCompleto(FileChannel canal, ByteBuffer destino, long posicao) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicao + destino.position()) < 0) {
+                throw new IOException("Fim inesperado do segmento do spool de logs");
+            }
+        }
+    }
+
+    private void abrirSegmento(long segmento) throws IOException {
+        escrita = FileChannel.open(caminhoSegmento(segmento),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentoEscrita = segmento;
+        fimEscrita = escrita.size();
+    }
+
+    // Grava o checkpoint (arquivo temporário + move atômico) e apaga os segmentos já enviados
+    private void avancarCheckpoint(Posicao proxima) throws IOException {
+        if (proxima.equals(checkpoint)) {
+            return;
+        }
+        Path temporario = diretorio.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.write(ByteBuffer.wrap((proxima.segmento() + " " + proxima.offset()).getBytes(StandardCharsets.US_ASCII)));
+            canal.force(true);
+        }
+        Files.move(temporario, diretorio.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = proxima;
+        for (Path anterior : segmentos().headMap(proxima.segmento()).values()) {
+            Files.deleteIfExists(anterior);
+        }
+    }
+
+    private Posicao lerCheckpoint() throws IOException {
+        Path arquivo = diretorio.resolve(CHECKPOINT);
+        if (!Files.exists(arquivo)) {
+            TreeMap<Long, Path> existentes = segmentos();
+            return new Posicao(existentes.isEmpty() ? 0 : existentes.firstKey(), 0);
+        }
+        String[] partes = Files.readString(arquivo, StandardCharsets.US_ASCII).trim().split(" ");
+        return new Posicao(Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+    }
+
+    private TreeMap<Long, Path> segmentos() throws IOException {
+        TreeMap<Long, Path> segmentos = new TreeMap<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio,
+                PREFIXO_SEGMENTO + "*" + EXTENSAO_SEGMENTO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                try {
+                    segmentos.put(Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(),
+                            nome.length() - EXTENSAO_SEGMENTO.length())), arquivo);
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("Arquivo ignorado no diretório do spool de logs: {}", nome);
+                }
+            }
+        }
+        return segmentos;
+    }
+
+    private Path caminhoSegmento(long segmento) {
+        return diretorio.resolve(String.format("%s%020d%s", PREFIXO_SEGMENTO, segmento, EXTENSAO_SEGMENTO));
+    }
+
+    private static LocalDateTime timestamp(Object registro) {
+        return registro instanceof AuditLog auditLog ? auditLog.getTimestamp() : ((ActionLog) registro).getTimestamp();
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    record Posicao(long segmento, long offset) {
+    }
+
+    record Leitura(List<Object> registros, Posicao proxima) {
+
+        List<AuditLog> auditLogs() {
+            return registros.stream().filter(AuditLog.class::isInstance).map(AuditLog.class::cast).toList();
+        }
+
+        List<ActionLog> actionLogs() {
+            return registros.stream().filter(ActionLog.class::isInstance).map(ActionLog.class::cast).toList();
+        }
+    }
+}
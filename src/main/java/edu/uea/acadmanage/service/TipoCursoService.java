@@ -14,7 +14,7 @@ import edu.uea.acadmanage.service.exception.ConflitoException;
 import edu.uea.acadmanage.service.exception.TipoCursoEmUsoException;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
 import edu.uea.acadmanage.service.exception.ValidacaoException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class TipoCursoService {
@@ -22,14 +22,12 @@ public class TipoCursoService {
         private final TipoCursoRepository tipoCursoRepository;
         private final CursoRepository cursoRepository;
         private final AuditLogService auditLogService;
-        private final ObjectMapper objectMapper;
 
         public TipoCursoService(TipoCursoRepository tipoCursoRepository, CursoRepository cursoRepository,
-                                AuditLogService auditLogService, ObjectMapper objectMapper) {
+                                AuditLogService auditLogService) {
                 this.tipoCursoRepository = tipoCursoRepository;
                 this.cursoRepository = cursoRepository;
                 this.auditLogService = auditLogService;
-                this.objectMapper = objectMapper;
         }
         
         public List<TipoCurso> listarTodos() {
@@ -83,7 +81,7 @@ public class TipoCursoService {
                 TipoCurso existente = this.recuperarPorId(id);
 
                 // Capturar estado antigo para audit log
-                TipoCurso oldState = copyTipoCursoForAudit(existente);
+                JsonNode oldState = auditLogService.capturar(existente);
 
                 // Normalizar o nome (trim e validar)
                 if (novo.getNome() == null || novo.getNome().trim().isEmpty()) {
@@ -139,19 +137,5 @@ public class TipoCursoService {
                 }
         }
 
-        // Método auxiliar para copiar tipo curso para audit log
-        private TipoCurso copyTipoCursoForAudit(TipoCurso tipoCurso) {
-            try {
-                String json = objectMapper.writeValueAsString(tipoCurso);
-                return objectMapper.readValue(json, TipoCurso.class);
-            } catch (Exception e) {
-                // Se falhar a cópia profunda, criar manualmente uma cópia superficial
-                TipoCurso copy = new TipoCurso();
-                copy.setId(tipoCurso.getId());
-                copy.setNome(tipoCurso.getNome());
-                return copy;
-            }
-        }
 }
 
-
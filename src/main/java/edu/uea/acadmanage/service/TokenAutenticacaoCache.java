@@ -0,0 +1,119 @@
+package edu.uea.acadmanage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.uea.acadmanage.service.event.CredenciaisAlteradasEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache de tokens JWT já verificados, evitando validar a assinatura e consultar o
+ * usuário no banco a cada requisição. A chave é o SHA-256 do token (o token em si
+ * não fica em memória) e cada entrada vale no máximo {@code app.security.token-cache.ttl}
+ * ou até a expiração do token, o que vier primeiro.
+ *
+ * <p>As entradas de um usuário são removidas quando a senha, o perfil ou o e-mail
+ * mudam ou quando o usuário é excluído. A remoção vale apenas para este nó; nos demais
+ * o TTL curto limita o tempo em que o token antigo continua aceito.
+ */
+@Component
+public class TokenAutenticacaoCache {
+
+    private final Cache<String, Entrada> cache;
+
+    // Incrementada a cada invalidação; entradas carregadas antes dela não são guardadas
+    private final AtomicLong versao = new AtomicLong();
+
+    public TokenAutenticacaoCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.token-cache.max-size:10000}") long tamanhoMaximo,
+            @Value("${app.security.token-cache.ttl:60s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokens");
+    }
+
+    /**
+     * Retorna o principal autenticado pelo token, ou {@code null} se o token não
+     * estiver em cache ou já tiver expirado.
+     */
+    public Entrada obter(String token) {
+        String chave = hash(token);
+        Entrada entrada = cache.getIfPresent(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.expiraEm() <= System.currentTimeMillis()) {
+            cache.invalidate(chave);
+            return null;
+        }
+        return entrada;
+    }
+
+    public long versao() {
+        return versao.get();
+    }
+
+    /**
+     * Guarda o principal de um token verificado. Se alguma invalidação ocorreu desde
+     * {@code versaoLida}, o principal pode estar desatualizado e não é guardado.
+     */
+    public Entrada guardar(String token, UserDetails principal, Date expiracao, long versaoLida) {
+        Entrada entrada = new Entrada(principal, List.<GrantedAuthority>copyOf(principal.getAuthorities()), expiracao.getTime());
+        if (versao.get() == versaoLida) {
+            cache.put(hash(token), entrada);
+        }
+        return entrada;
+    }
+
+    public void invalidarUsuario(String username) {
+        if (username == null) {
+            return;
+        }
+        versao.incrementAndGet();
+        cache.asMap().values().removeIf(entrada -> username.equals(entrada.principal().getUsername()));
+    }
+
+    // Após o commit, para que uma nova autenticação já leia o estado alterado
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredenciaisAlteradas(CredenciaisAlteradasEvent evento) {
+        invalidarUsuario(evento.email());
+    }
+
+    public void invalidarTudo() {
+        versao.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    public record Entrada(UserDetails principal, Collection<GrantedAuthority> authorities, long expiraEm) {
+    }
+}
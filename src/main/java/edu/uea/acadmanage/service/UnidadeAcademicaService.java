@@ -11,7 +11,7 @@ import edu.uea.acadmanage.repository.CursoRepository;
 import edu.uea.acadmanage.repository.UnidadeAcademicaRepository;
 import edu.uea.acadmanage.service.exception.ConflitoException;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class UnidadeAcademicaService {
@@ -19,14 +19,12 @@ public class UnidadeAcademicaService {
     private final UnidadeAcademicaRepository unidadeAcademicaRepository;
     private final CursoRepository cursoRepository;
     private final AuditLogService auditLogService;
-    private final ObjectMapper objectMapper;
 
     public UnidadeAcademicaService(UnidadeAcademicaRepository unidadeAcademicaRepository,
-            CursoRepository cursoRepository, AuditLogService auditLogService, ObjectMapper objectMapper) {
+            CursoRepository cursoRepository, AuditLogService auditLogService) {
         this.unidadeAcademicaRepository = unidadeAcademicaRepository;
         this.cursoRepository = cursoRepository;
         this.auditLogService = auditLogService;
-        this.objectMapper = objectMapper;
     }
 
     public UnidadeAcademicaDTO salvar(UnidadeAcademicaDTO dto) {
@@ -53,7 +51,7 @@ public class UnidadeAcademicaService {
         UnidadeAcademica unidade = buscarEntidade(id);
         
         // Capturar estado antigo para audit log
-        UnidadeAcademica oldState = copyUnidadeAcademicaForAudit(unidade);
+        JsonNode oldState = auditLogService.capturar(unidade);
         
         unidade.setNome(dto.nome());
         unidade.setDescricao(dto.descricao());
@@ -115,21 +113,6 @@ public class UnidadeAcademicaService {
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Unidade acadêmica não encontrada: " + id));
     }
 
-    // Método auxiliar para copiar unidade acadêmica para audit log
-    private UnidadeAcademica copyUnidadeAcademicaForAudit(UnidadeAcademica unidade) {
-        try {
-            String json = objectMapper.writeValueAsString(unidade);
-            return objectMapper.readValue(json, UnidadeAcademica.class);
-        } catch (Exception e) {
-            // Se falhar a cópia profunda, criar manualmente uma cópia superficial
-            UnidadeAcademica copy = new UnidadeAcademica();
-            copy.setId(unidade.getId());
-            copy.setNome(unidade.getNome());
-            copy.setDescricao(unidade.getDescricao());
-            return copy;
-        }
-    }
-
     private UnidadeAcademicaDTO toDTO(UnidadeAcademica unidade) {
         return new UnidadeAcademicaDTO(unidade.getId(), unidade.getNome(), unidade.getDescricao());
     }
@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -27,6 +28,10 @@ import edu.uea.acadmanage.model.Role;
 import edu.uea.acadmanage.model.Usuario;
 import edu.uea.acadmanage.repository.CursoRepository;
 import edu.uea.acadmanage.repository.UsuarioRepository;
+import edu.uea.acadmanage.service.event.CredenciaisAlteradasEvent;
+import edu.uea.acadmanage.service.event.PermissoesAlteradasEvent;
+import edu.uea.acadmanage.service.event.PessoaAlteradaEvent;
+import edu.uea.acadmanage.service.event.UsuarioAlteradoEvent;
 import edu.uea.acadmanage.service.exception.AcessoNegadoException;
 import edu.uea.acadmanage.service.exception.ConflitoException;
 import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
@@ -34,7 +39,7 @@ import edu.uea.acadmanage.service.exception.SenhaIncorretaException;
 import edu.uea.acadmanage.service.exception.ValidacaoException;
 import edu.uea.acadmanage.model.AuditLog;
 import edu.uea.acadmanage.model.ActionLog;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.transaction.Transactional;
 
 @Service
@@ -47,11 +52,13 @@ public class UsuarioService {
     private final edu.uea.acadmanage.repository.PessoaRepository pessoaRepository;
     private final AuditLogService auditLogService;
     private final ActionLogService actionLogService;
-    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidacaoService cacheInvalidacaoService;
 
     public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder, RoleService roleService,
             CursoRepository cursoRepository, edu.uea.acadmanage.repository.PessoaRepository pessoaRepository,
-            AuditLogService auditLogService, ActionLogService actionLogService, ObjectMapper objectMapper) {
+            AuditLogService auditLogService, ActionLogService actionLogService,
+            ApplicationEventPublisher eventPublisher, CacheInvalidacaoService cacheInvalidacaoService) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
         this.roleService = roleService;
@@ -59,12 +66,15 @@ public class UsuarioService {
         this.pessoaRepository = pessoaRepository;
         this.auditLogService = auditLogService;
         this.actionLogService = actionLogService;
-        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidacaoService = cacheInvalidacaoService;
     }
 
 
 
-     // Listar todos os usuários (sem paginação - mantido para compatibilidade)
+     // Listar todos os usuários (sem paginação - mantido para compatibilidade).
+     // Papéis e cursos são carregados em lotes (@BatchSize), não um usuário por vez.
+    @Transactional
     public List<UsuarioDTO> getAllUsuarios() {
         return usuarioRepository.findAll().stream()
                 .map(usuario -> new UsuarioDTO(usuario.getId(), usuario.getPessoa().getNome(), usuario.getPessoa().getCpf(), usuario.getEmail(),
@@ -79,6 +89,7 @@ public class UsuarioService {
     }
 
     // Listar usuários com paginação
+    @Transactional
     public Page<UsuarioDTO> getAllUsuariosPaginados(Pageable pageable) {
         return usuarioRepository.findAll(pageable)
                 .map(usuario -> new UsuarioDTO(
@@ -96,6 +107,7 @@ public class UsuarioService {
     }
 
     // Listar usuários com paginação e filtro por nome
+    @Transactional
     public Page<UsuarioDTO> getAllUsuariosPaginadosComFiltro(String nome, Pageable pageable) {
         if (nome == null || nome.trim().isEmpty()) {
             // Se o filtro não for informado, retorna todos os usuários
@@ -119,9 +131,9 @@ public class UsuarioService {
     }
 
     // Buscar um único usuário por ID
-    @Cacheable(value = "usuarios", key = "#usuarioId")
+    @Cacheable(value = "usuarios", key = "#usuarioId", sync = true)
     public UsuarioDTO getUsuarioById(Long usuarioId) {
-        Usuario usuario = usuarioRepository.findById(usuarioId)
+        Usuario usuario = usuarioRepository.findCompletoById(usuarioId)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado com ID: " + usuarioId));
         
         return toUsuarioDTO(usuario);
@@ -129,7 +141,6 @@ public class UsuarioService {
 
     // Método para salvar um usuário
     @Transactional
-    @CacheEvict(value = "usuarios", allEntries = true)
     public UsuarioDTO save(UsuarioDTO usuario) {
         // Validar se role existe
         Role role = roleService.getRoleByNome(usuario.role().toUpperCase());
@@ -172,12 +183,16 @@ public class UsuarioService {
             "Usuário criado: " + usuarioSalvo.getEmail()
         );
 
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuarioSalvo.getId(), idsDosCursos(cursosExistentes)));
+        // A pessoa foi criada junto com o usuário
+        eventPublisher.publishEvent(new PessoaAlteradaEvent(usuarioSalvo.getPessoa().getId(), idsDosCursos(cursosExistentes)));
+
         // Converter para DTO e retornar
         return toUsuarioDTO(usuarioSalvo);
     }
 
     @Transactional
-    @CacheEvict(value = {"usuarios", "pessoas"}, allEntries = true)
+    @CacheEvict(value = "pessoas", key = "#request.pessoaId()")
     public UsuarioDTO criarUsuarioParaPessoa(UsuarioPessoaRequestDTO request) {
         String roleNome = request.role().toUpperCase();
         Role role = roleService.getRoleByNome(roleNome);
@@ -222,23 +237,26 @@ public class UsuarioService {
             salvo,
             "Usuário criado para pessoa: " + pessoa.getNome() + " (" + salvo.getEmail() + ")"
         );
+
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(salvo.getId(), idsDosCursos(cursosAssociados)));
         
         return toUsuarioDTO(salvo);
     }
 
     // Método para atualizar um usuário
     @Transactional
-    @CacheEvict(value = {"usuarios", "pessoas"}, key = "#userId", allEntries = true)
+    @CacheEvict(value = "usuarios", key = "#userId")
     public UsuarioDTO update(Long userId, UsuarioDTO usuario, String emailUsuarioLogado) {
         // Buscar o usuário existente
         Usuario usuarioExistente = usuarioRepository.findById(userId)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado: " + userId));
         
         // Capturar estado antigo para audit log (antes das modificações)
-        Usuario oldState = copyUsuarioForAudit(usuarioExistente);
+        JsonNode oldState = auditLogService.capturar(usuarioExistente);
+        String emailAnterior = usuarioExistente.getEmail();
 
         // Buscar usuário logado
-        Usuario usuarioLogado = usuarioRepository.findByEmail(emailUsuarioLogado)
+        Usuario usuarioLogado = usuarioRepository.findComRolesByEmail(emailUsuarioLogado)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário logado não encontrado: " + emailUsuarioLogado));
 
         // Verificar se o usuário é administrador ou está atualizando seus próprios dados
@@ -321,12 +339,23 @@ public class UsuarioService {
             "Usuário atualizado: " + usuarioAtualizado.getEmail()
         );
 
+        // Nome e CPF da pessoa vinculada podem ter mudado
+        cacheInvalidacaoService.evict("pessoas", usuarioAtualizado.getPessoa().getId());
+
+        Set<Long> cursosAfetados = idsDosCursos(cursosAntigos);
+        cursosAfetados.addAll(idsDosCursos(cursosAtualizados));
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuarioAtualizado.getId(), cursosAfetados));
+        eventPublisher.publishEvent(new PessoaAlteradaEvent(usuarioAtualizado.getPessoa().getId(), cursosAfetados));
+        // Senha, perfil ou e-mail podem ter mudado: tokens em cache deixam de valer
+        eventPublisher.publishEvent(new CredenciaisAlteradasEvent(emailAnterior));
+        eventPublisher.publishEvent(new PermissoesAlteradasEvent(usuarioAtualizado.getId()));
+
         // Retornar o DTO do usuário atualizado
         return toUsuarioDTO(usuarioAtualizado);
     }
 
     @Transactional
-    @CacheEvict(value = {"usuarios", "pessoas", "cursos"}, key = "#usuarioId", allEntries = true)
+    @CacheEvict(value = "usuarios", key = "#usuarioId")
     public void deleteUsuario(Long usuarioId) {
         // Buscar o usuário
         Usuario usuario = usuarioRepository.findById(usuarioId)
@@ -341,6 +370,8 @@ public class UsuarioService {
         if (pessoaAssociada != null) {
             pessoaAssociada.setUsuario(null);
             usuario.setPessoa(null);
+            // PessoaDTO indica se a pessoa possui usuário
+            cacheInvalidacaoService.evict("pessoas", pessoaAssociada.getId());
         }
         
         // Remover associações com cursos (lado inverso do relacionamento)
@@ -368,6 +399,10 @@ public class UsuarioService {
             null,
             "Usuário excluído: " + usuarioEmail
         );
+
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuarioIdValue, idsDosCursos(cursosAssociados)));
+        eventPublisher.publishEvent(new CredenciaisAlteradasEvent(usuarioEmail));
+        eventPublisher.publishEvent(new PermissoesAlteradasEvent(usuarioIdValue));
     }
     
     @Transactional
@@ -377,7 +412,7 @@ public class UsuarioService {
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
 
         // Busca usuario logado
-        Usuario usuarioLogado = usuarioRepository.findByEmail(username)
+        Usuario usuarioLogado = usuarioRepository.findComRolesByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
          //Verificar se usuário tem permissão para trocar senha
          if (!usuarioLogado.getRoles().stream()
@@ -393,6 +428,7 @@ public class UsuarioService {
         // Atualizar a senha
         usuario.setSenha(passwordEncoder.encode(passwordChangeRequest.getNewPassword()));
         usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new CredenciaisAlteradasEvent(usuario.getEmail()));
         
         // CAMADA 3: Action Log - Alteração de senha
         actionLogService.log(
@@ -412,7 +448,8 @@ public class UsuarioService {
     }
 
     public UsuarioDTO getUsuarioByEmailAsDTO(String email) {
-        Usuario usuario = getUsuarioByEmail(email);
+        Usuario usuario = usuarioRepository.findCompletoByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
         return toUsuarioDTO(usuario);
     }
 
@@ -432,7 +469,7 @@ public class UsuarioService {
     // Método para buscar cursos associados a um usuário
     public List<CursoDTO> getCursosByUsuarioEmail(String email) {
         // Recupera o usuário do banco
-        Usuario usuario = usuarioRepository.findByEmail(email)
+        Usuario usuario = usuarioRepository.findCompletoByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
 
         // Recupera os cursos associados ao usuário
@@ -513,30 +550,6 @@ public class UsuarioService {
         return new CursoDTO(curso.getId(), curso.getNome(), curso.getDescricao(), curso.getFotoCapa(), curso.getAtivo(), tipoId, unidadeId);
     }
 
-    // Método auxiliar para copiar usuário para audit log
-    private Usuario copyUsuarioForAudit(Usuario usuario) {
-        try {
-            // Usar ObjectMapper para criar uma cópia profunda do objeto
-            String json = objectMapper.writeValueAsString(usuario);
-            return objectMapper.readValue(json, Usuario.class);
-        } catch (Exception e) {
-            // Se falhar a cópia profunda, criar manualmente uma cópia superficial
-            Usuario copy = new Usuario();
-            copy.setId(usuario.getId());
-            copy.setEmail(usuario.getEmail());
-            if (usuario.getPessoa() != null) {
-                copy.setPessoa(new Pessoa(
-                    usuario.getPessoa().getId(),
-                    usuario.getPessoa().getNome(),
-                    usuario.getPessoa().getCpfNormalizado()
-                ));
-            }
-            // Roles é um Set, então usar HashSet
-            copy.setRoles(new java.util.HashSet<>(usuario.getRoles()));
-            return copy;
-        }
-    }
-
     private String normalizarCpf(String cpf) {
         if (cpf == null) {
             return null;
@@ -545,4 +558,9 @@ public class UsuarioService {
         return somenteDigitos.isEmpty() ? null : somenteDigitos;
     }
 
+    private Set<Long> idsDosCursos(List<Curso> cursos) {
+        return cursos.stream()
+                .map(Curso::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
 }
@@ -0,0 +1,35 @@
+package edu.uea.acadmanage.service.event;
+
+import java.time.LocalDate;
+
+import edu.uea.acadmanage.model.Atividade;
+
+/**
+ * Publicado quando uma atividade é criada, atualizada ou excluída.
+ * {@code antes} é nulo na criação e {@code depois} é nulo na exclusão.
+ */
+public record AtividadeAlteradaEvent(Long atividadeId, Estado antes, Estado depois) {
+
+    /**
+     * Campos da atividade relevantes para as métricas agregadas.
+     */
+    public record Estado(
+            Long cursoId,
+            Long categoriaId,
+            LocalDate dataRealizacao,
+            LocalDate dataFim,
+            boolean publicada) {
+
+        public static Estado de(Atividade atividade) {
+            if (atividade == null) {
+                return null;
+            }
+            return new Estado(
+                    atividade.getCurso() != null ? atividade.getCurso().getId() : null,
+                    atividade.getCategoria() != null ? atividade.getCategoria().getId() : null,
+                    atividade.getDataRealizacao(),
+                    atividade.getDataFim(),
+                    Boolean.TRUE.equals(atividade.getStatusPublicacao()));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package edu.uea.acadmanage.service.event;
+
+/**
+ * Publicado quando a senha, o perfil ou o e-mail de um usuário muda ou quando ele é excluído.
+ * {@code email} é o e-mail anterior à alteração (o subject dos tokens já emitidos).
+ */
+public record CredenciaisAlteradasEvent(String email) {
+}
@@ -0,0 +1,14 @@
+package edu.uea.acadmanage.service.event;
+
+/**
+ * Publicado quando um curso ou a lista de usuários associados a ele é alterada.
+ */
+public record CursoAlteradoEvent(Long cursoId, Operacao operacao) {
+
+    public enum Operacao {
+        CRIADO,
+        ATUALIZADO,
+        EXCLUIDO,
+        USUARIOS_ALTERADOS
+    }
+}
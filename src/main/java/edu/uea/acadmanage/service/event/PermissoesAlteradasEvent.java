@@ -0,0 +1,8 @@
+package edu.uea.acadmanage.service.event;
+
+/**
+ * Publicado quando os perfis ou os cursos associados a um usuário mudam,
+ * ou quando o usuário é excluído.
+ */
+public record PermissoesAlteradasEvent(Long usuarioId) {
+}
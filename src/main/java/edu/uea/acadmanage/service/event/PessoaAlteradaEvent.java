@@ -0,0 +1,25 @@
+package edu.uea.acadmanage.service.event;
+
+import java.util.Set;
+
+/**
+ * Publicado quando uma pessoa é criada, atualizada ou excluída.
+ * {@code cursoIds} contém os cursos do usuário vinculado à pessoa, se houver.
+ * Em alterações em lote (importação) {@code pessoaId} é nulo e {@code importadasAposId} é o
+ * maior id de pessoa antes da importação: as pessoas importadas têm ids maiores que ele.
+ */
+public record PessoaAlteradaEvent(Long pessoaId, Set<Long> cursoIds, Long importadasAposId) {
+
+    public PessoaAlteradaEvent {
+        cursoIds = cursoIds == null ? Set.of() : Set.copyOf(cursoIds);
+    }
+
+    public PessoaAlteradaEvent(Long pessoaId, Set<Long> cursoIds) {
+        this(pessoaId, cursoIds, null);
+    }
+
+    // Pessoas importadas ainda não possuem usuário, portanto não afetam cursos
+    public static PessoaAlteradaEvent importacao(long ultimoIdAnterior) {
+        return new PessoaAlteradaEvent(null, Set.of(), ultimoIdAnterior);
+    }
+}
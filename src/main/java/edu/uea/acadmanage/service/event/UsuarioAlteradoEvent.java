@@ -0,0 +1,14 @@
+package edu.uea.acadmanage.service.event;
+
+import java.util.Set;
+
+/**
+ * Publicado quando um usuário é criado, atualizado ou excluído.
+ * {@code cursoIds} reúne os cursos associados antes e depois da alteração.
+ */
+public record UsuarioAlteradoEvent(Long usuarioId, Set<Long> cursoIds) {
+
+    public UsuarioAlteradoEvent {
+        cursoIds = cursoIds == null ? Set.of() : Set.copyOf(cursoIds);
+    }
+}
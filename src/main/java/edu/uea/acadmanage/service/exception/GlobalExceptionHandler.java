@@ -61,6 +61,13 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.CONFLICT, "Conflito", ex.getMessage(), request);
     }
 
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<ApiErrorResponse> handleLimiteExcedido(
+            LimiteExcedidoException ex,
+            HttpServletRequest request) {
+        return build(HttpStatus.TOO_MANY_REQUESTS, "Limite excedido", ex.getMessage(), request);
+    }
+
     @ExceptionHandler(ValidacaoException.class)
     public ResponseEntity<ApiErrorResponse> handleValidacao(
             ValidacaoException ex,
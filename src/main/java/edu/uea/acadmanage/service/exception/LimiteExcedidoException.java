@@ -0,0 +1,7 @@
+package edu.uea.acadmanage.service.exception;
+
+public class LimiteExcedidoException extends RuntimeException {
+    public LimiteExcedidoException(String message) {
+        super(message);
+    }
+}
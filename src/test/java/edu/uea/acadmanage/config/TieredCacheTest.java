@@ -0,0 +1,176 @@
+package edu.uea.acadmanage.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Dois nós compartilhando um mapa em memória no lugar do Redis (L2) e um canal
+ * de invalidação síncrono no lugar do pub/sub.
+ */
+class TieredCacheTest {
+
+    private ConcurrentMapCache redis;
+    private List<TieredCache> nos;
+    private TieredCache no1;
+    private TieredCache no2;
+
+    @BeforeEach
+    void setUp() {
+        redis = new ConcurrentMapCache("cursos", false);
+        nos = new ArrayList<>();
+        no1 = criarNo(redis, true);
+        no2 = criarNo(redis, true);
+    }
+
+    @Test
+    void deveCarregarUmaVezECompartilharPeloL2() {
+        AtomicInteger carregamentos = new AtomicInteger();
+
+        assertEquals("Curso 1", no1.get(1L, () -> "Curso " + carregamentos.incrementAndGet()));
+        assertEquals("Curso 1", no2.get(1L, () -> "Curso " + carregamentos.incrementAndGet()));
+
+        assertEquals(1, carregamentos.get());
+        assertNotNullNoL1(no2, 1L);
+    }
+
+    @Test
+    void evictDeveInvalidarL1DosOutrosNos() {
+        no1.put(1L, "Curso antigo");
+        assertEquals("Curso antigo", no2.get(1L, String.class));
+
+        no1.evict(1L);
+
+        assertNull(no2.getLocal().get(1L));
+        assertNull(redis.get(1L));
+        assertEquals("Curso novo", no2.get(1L, () -> "Curso novo"));
+    }
+
+    @Test
+    void clearDeveLimparL1DosOutrosNos() {
+        no2.put(1L, "A");
+        no2.put(2L, "B");
+
+        no1.clear();
+
+        assertNull(no2.getLocal().get(1L));
+        assertNull(no2.getLocal().get(2L));
+    }
+
+    @Test
+    void deveUsarApenasL1EnquantoRedisIndisponivel() throws InterruptedException {
+        FalhaRedis remoto = new FalhaRedis(redis);
+        TieredCache cache = criarNo(remoto, false, Duration.ofMillis(50));
+        AtomicInteger carregamentos = new AtomicInteger();
+
+        remoto.falhar = true;
+        assertEquals(1, cache.get(1L, carregamentos::incrementAndGet));
+        assertFalse(cache.isRemotoDisponivel());
+        // Sem Redis, o L1 evita recarregar a cada chamada
+        assertEquals(1, cache.get(1L, carregamentos::incrementAndGet));
+        assertEquals(1, carregamentos.get());
+
+        remoto.falhar = false;
+        Thread.sleep(80);
+        // Ao voltar, o L1 é descartado e o valor é carregado novamente e gravado no Redis
+        assertEquals(2, cache.get(1L, carregamentos::incrementAndGet));
+        assertTrue(cache.isRemotoDisponivel());
+        assertEquals(2, redis.get(1L).get());
+    }
+
+    @Test
+    void modoRedisNaoDeveManterL1() {
+        TieredCache cache = criarNo(redis, false);
+
+        cache.put(1L, "Curso");
+
+        assertNull(cache.getLocal().get(1L));
+        assertEquals("Curso", cache.get(1L, String.class));
+    }
+
+    @Test
+    void deveCodificarChavesDaMensagemDeInvalidacao() {
+        assertEquals(10L, RedisCacheInvalidacao.decodificar(RedisCacheInvalidacao.codificar(10L)));
+        assertEquals(7, RedisCacheInvalidacao.decodificar(RedisCacheInvalidacao.codificar(7)));
+        assertEquals("a|b", RedisCacheInvalidacao.decodificar(RedisCacheInvalidacao.codificar("a|b")));
+        assertNull(RedisCacheInvalidacao.decodificar(RedisCacheInvalidacao.codificar(null)));
+        assertNull(RedisCacheInvalidacao.decodificar(RedisCacheInvalidacao.codificar(List.of(1L))));
+    }
+
+    private TieredCache criarNo(Cache remoto, boolean usarLocal) {
+        return criarNo(remoto, usarLocal, Duration.ofSeconds(30));
+    }
+
+    private TieredCache criarNo(Cache remoto, boolean usarLocal, Duration indisponivelPor) {
+        CaffeineCache local = new CaffeineCache("cursos", Caffeine.newBuilder().maximumSize(100).build(), false);
+        Consumer<Object> publicador = chave -> nos.stream()
+                .filter(no -> no.getLocal() != local)
+                .forEach(no -> no.invalidarLocal(chave));
+        TieredCache cache = new TieredCache(local, remoto, usarLocal, publicador, indisponivelPor);
+        nos.add(cache);
+        return cache;
+    }
+
+    private static void assertNotNullNoL1(TieredCache cache, Object chave) {
+        assertThat(cache.getLocal().get(chave)).isNotNull();
+    }
+
+    // Redis simulado que pode ficar inacessível
+    private static class FalhaRedis extends ConcurrentMapCache {
+
+        private final ConcurrentMapCache delegado;
+        private volatile boolean falhar;
+
+        FalhaRedis(ConcurrentMapCache delegado) {
+            super("cursos", false);
+            this.delegado = delegado;
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            verificar();
+            return delegado.get(key);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            verificar();
+            delegado.put(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            verificar();
+            delegado.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            verificar();
+            delegado.clear();
+        }
+
+        private void verificar() {
+            if (falhar) {
+                throw new RedisConnectionFailureException("Redis indisponível");
+            }
+        }
+    }
+}
@@ -334,8 +334,11 @@ class AtividadePessoaPapelControllerIT {
         .then()
             .log().all()
             .statusCode(201)
-            .body("$", hasSize(1))
-            .body("[0].papel", equalTo("PARTICIPANTE"));
+            .body("totalAssociadas", equalTo(1))
+            .body("linhas", hasSize(1))
+            .body("linhas[0].linha", equalTo(2))
+            .body("linhas[0].situacao", equalTo("ASSOCIADA"))
+            .body("linhas[0].papel", equalTo("PARTICIPANTE"));
     }
 
     @Test
@@ -353,8 +356,153 @@ class AtividadePessoaPapelControllerIT {
         .then()
             .log().all()
             .statusCode(201)
-            .body("$", hasSize(1))
-            .body("[0].papel", equalTo("BOLSISTA"));
+            .body("linhas", hasSize(1))
+            .body("linhas[0].situacao", equalTo("ASSOCIADA"))
+            .body("linhas[0].papel", equalTo("BOLSISTA"));
+    }
+
+    @Test
+    void deveImportarLinhasValidasERelatarIgnoradasEComErro() {
+        Long atividadeId = 15L;
+        String cpfNovo = gerarCpfValido();
+        String csv = """
+            nome;cpf;papel
+            Participante Parcial;%s;BOLSISTA
+            Administrador do Sistema;314.520.120-40
+            CPF Invalido;12345678900
+            """.formatted(cpfNovo);
+
+        // Garante a pessoa 1 associada (outro teste pode tê-la removido)
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+            .param("papel", "COORDENADOR")
+        .when()
+            .post("/api/atividades-pessoas/{atividadeId}/pessoas/{pessoaId}", atividadeId, 1L)
+        .then()
+            .statusCode(anyOf(is(201), is(409)));
+
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+            .multiPart("file", "participantes-parcial.csv", csv.getBytes(StandardCharsets.UTF_8), "text/csv")
+        .when()
+            .post("/api/atividades-pessoas/{atividadeId}/pessoas/import", atividadeId)
+        .then()
+            .statusCode(201)
+            .body("totalProcessados", equalTo(3))
+            .body("totalAssociadas", equalTo(1))
+            .body("totalIgnoradas", equalTo(1))
+            .body("totalErros", equalTo(1))
+            .body("linhas.linha", contains(2, 3, 4))
+            .body("linhas.situacao", contains("ASSOCIADA", "IGNORADA", "ERRO"))
+            .body("linhas[1].pessoaId", equalTo(1))
+            .body("linhas[1].mensagem", equalTo("Pessoa já associada a esta atividade."))
+            .body("linhas[2].mensagem", equalTo("CPF inválido."));
+
+        // Reenviar o mesmo arquivo não cria nada: 200 com as linhas ignoradas
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+            .multiPart("file", "participantes-parcial.csv", csv.getBytes(StandardCharsets.UTF_8), "text/csv")
+        .when()
+            .post("/api/atividades-pessoas/{atividadeId}/pessoas/import", atividadeId)
+        .then()
+            .statusCode(200)
+            .body("totalAssociadas", equalTo(0))
+            .body("linhas.situacao", contains("IGNORADA", "IGNORADA", "ERRO"));
+    }
+
+    @Test
+    void deveImportarParticipantesEmLoteComRelatorioPorLinha() {
+        Long atividadeId = 15L;
+        String cpfNovo = gerarCpfValido();
+        String csv = """
+            nome;cpf;papel
+            Participante Lote;%s;BOLSISTA
+            Administrador do Sistema;314.520.120-40
+            CPF Invalido;12345678900
+            Participante Lote Repetido;%s
+            Papel Invalido;%s;MONITOR
+            """.formatted(cpfNovo, cpfNovo, gerarCpfValido());
+
+        // Garante a pessoa 1 associada (outro teste pode tê-la removido)
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+            .param("papel", "COORDENADOR")
+        .when()
+            .post("/api/atividades-pessoas/{atividadeId}/pessoas/{pessoaId}", atividadeId, 1L)
+        .then()
+            .statusCode(anyOf(is(201), is(409)));
+
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+            .multiPart("file", "participantes-lote.csv", csv.getBytes(StandardCharsets.UTF_8), "text/csv")
+        .when()
+            .post("/api/atividades-pessoas/{atividadeId}/pessoas/import/lote", atividadeId)
+        .then()
+            .statusCode(200)
+            .contentType(containsString("text/csv"))
+            .body(startsWith("linha,situacao,cpf,mensagem\n"))
+            .body(not(containsString("\n2,")))
+            .body(containsString("3,IGNORADA,31452012040,"))
+            .body(containsString("4,ERRO,12345678900,CPF inválido."))
+            .body(containsString("5,ERRO," + cpfNovo + ",CPF repetido no arquivo."))
+            .body(containsString("6,ERRO,"))
+            .body(containsString(",RESUMO,,\"5 linha(s): 1 associada(s), 1 ignorada(s)"));
+
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+        .when()
+            .get("/api/atividades-pessoas/{atividadeId}/pessoas", atividadeId)
+        .then()
+            .statusCode(200)
+            .body("find { it.cpf == '%s' }.papel".formatted(formatarCpf(cpfNovo)), equalTo("BOLSISTA"));
+    }
+
+    @Test
+    void deveImportarListaGrandeDeParticipantesEmLote() {
+        Long atividadeId = 14L;
+        // Mais de um bloco de leitura; ids gerados ficam abaixo dos usados como inexistentes (9999)
+        int total = 6_000;
+        StringBuilder csv = new StringBuilder("nome;cpf\n");
+        java.util.Set<String> cpfs = new java.util.HashSet<>();
+        while (cpfs.size() < total) {
+            String cpf = gerarCpfValido();
+            if (cpfs.add(cpf)) {
+                csv.append("Participante ").append(cpfs.size()).append(';').append(cpf).append('\n');
+            }
+        }
+
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+            .multiPart("file", "participantes-grande.csv", csv.toString().getBytes(StandardCharsets.UTF_8), "text/csv")
+        .when()
+            .post("/api/atividades-pessoas/{atividadeId}/pessoas/import/lote", atividadeId)
+        .then()
+            .statusCode(200)
+            .body(containsString(",RESUMO,,\"%d linha(s): %d associada(s), 0 ignorada(s) por já estarem associadas, 0 com erro; %d pessoa(s) cadastrada(s)"
+                    .formatted(total, total, total)));
+    }
+
+    @Test
+    void naoDeveImportarEmLoteSemPermissaoNoCurso() {
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getSecretarioToken())
+            .multiPart("file", "participantes.csv", ("Participante;" + gerarCpfValido() + "\n").getBytes(StandardCharsets.UTF_8), "text/csv")
+        .when()
+            .post("/api/atividades-pessoas/{atividadeId}/pessoas/import/lote", 15L)
+        .then()
+            .statusCode(403);
+    }
+
+    private static String formatarCpf(String cpf) {
+        return cpf.replaceFirst("(\\d{3})(\\d{3})(\\d{3})(\\d{2})", "$1.$2.$3-$4");
     }
 
     // ========== PUT /api/atividades-pessoas/{atividadeId}/pessoas/{pessoaId} ==========
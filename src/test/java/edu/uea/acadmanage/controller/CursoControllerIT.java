@@ -2,6 +2,7 @@ package edu.uea.acadmanage.controller;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -872,6 +873,71 @@ class CursoControllerIT {
             .statusCode(403);
     }
 
+    // ========== POST /api/cursos/{cursoId}/relatorios/jobs ==========
+
+    @Test
+    void deveGerarRelatorioPdfDoCursoEmSegundoPlano() throws InterruptedException {
+        String jobId = given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+            .contentType(ContentType.JSON)
+            .body("""
+                {
+                  "dataInicio": "2023-01-01",
+                  "dataFim": "2023-12-31",
+                  "introducao": "Relatório em segundo plano."
+                }
+            """)
+            .log().all()
+        .when()
+            .post("/api/cursos/{cursoId}/relatorios/jobs", 1L)
+        .then()
+            .log().all()
+            .statusCode(202)
+            .header("Location", containsString("/api/relatorios/jobs/"))
+            .body("id", notNullValue())
+            .body("tipo", equalTo("CURSO"))
+            .extract()
+            .path("id");
+
+        String status = null;
+        for (int tentativa = 0; tentativa < 100; tentativa++) {
+            status = given()
+                .port(port)
+                .header("Authorization", "Bearer " + getAdminToken())
+            .when()
+                .get("/api/relatorios/jobs/{jobId}", jobId)
+            .then()
+                .statusCode(200)
+                .extract()
+                .path("status");
+            if ("CONCLUIDO".equals(status) || "FALHOU".equals(status)) {
+                break;
+            }
+            Thread.sleep(200);
+        }
+        assertEquals("CONCLUIDO", status);
+
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getAdminToken())
+        .when()
+            .get("/api/relatorios/jobs/{jobId}/arquivo", jobId)
+        .then()
+            .statusCode(200)
+            .contentType("application/pdf")
+            .header("Content-Disposition", containsString("relatorio-curso-1.pdf"));
+
+        // O job só é visível para quem o solicitou
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + getGerenteToken())
+        .when()
+            .get("/api/relatorios/jobs/{jobId}", jobId)
+        .then()
+            .statusCode(404);
+    }
+
     // ========== PUT /api/cursos/foto-capa/{cursoId} e GET /api/cursos/foto-capa/{cursoId} ==========
     // Nota: Testes de upload/download de arquivo podem ser complexos e podem precisar de arquivos reais
     // Por enquanto, vou criar testes básicos
@@ -4,7 +4,9 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
 import java.util.Random;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -254,6 +256,8 @@ class PessoaControllerIT {
                 .statusCode(201)
                 .body("totalProcessados", equalTo(3))
                 .body("totalCadastrados", equalTo(3))
+                .body("cadastrados", hasSize(3))
+                .body("cadastradosTruncados", equalTo(false))
                 .body("duplicados", empty());
     }
 
@@ -292,6 +296,36 @@ class PessoaControllerIT {
                 .statusCode(204);
     }
 
+    @Test
+    void devePermitirImportarCsvEnviadoNoCorpoDaRequisicao() {
+        // Mais linhas que um bloco de validação e que um INSERT em lote
+        Set<String> cpfs = new LinkedHashSet<>();
+        while (cpfs.size() < 12000) {
+            cpfs.add(gerarCpfValido());
+        }
+        StringBuilder csv = new StringBuilder("nome;cpf\n");
+        int numero = 0;
+        for (String cpf : cpfs) {
+            csv.append("Pessoa Lote ").append(++numero).append(';').append(cpf).append('\n');
+        }
+
+        given()
+                .port(port)
+                .header("Authorization", "Bearer " + getAdminToken())
+                .contentType("text/csv")
+                .queryParam("nomeArquivo", "pessoas-lote.csv")
+                .body(csv.toString().getBytes(StandardCharsets.UTF_8))
+        .when()
+                .post("/api/pessoas/import")
+        .then()
+                .statusCode(201)
+                .body("totalProcessados", equalTo(12000))
+                .body("totalCadastrados", equalTo(12000))
+                .body("cadastrados", hasSize(1000))
+                .body("cadastradosTruncados", equalTo(true))
+                .body("linhasPorSegundo", greaterThan(0));
+    }
+
     @Test
     void devePermitirCriacaoParaGerente() {
         String cpf = gerarCpfValido();
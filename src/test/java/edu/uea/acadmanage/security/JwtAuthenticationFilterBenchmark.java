@@ -0,0 +1,132 @@
+package edu.uea.acadmanage.security;
+
+import java.io.IOException;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import edu.uea.acadmanage.model.Role;
+import edu.uea.acadmanage.model.Usuario;
+import edu.uea.acadmanage.service.JwtService;
+import edu.uea.acadmanage.service.TokenAutenticacaoCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+/**
+ * Custo do {@link JwtAuthenticationFilter} por requisição autenticada.
+ * <ul>
+ *   <li>{@code legado}: fluxo anterior (chave e parser recriados e token verificado três vezes);</li>
+ *   <li>{@code tokenForaDoCache}: filtro atual sem acerto no cache (uma verificação por requisição);</li>
+ *   <li>{@code tokenEmCache}: filtro atual com o token já verificado.</li>
+ * </ul>
+ * A busca do usuário é simulada em memória; em produção ela é uma consulta ao banco,
+ * portanto a economia real do cache é maior que a medida aqui.
+ *
+ * <p>Execução: {@code mvn test-compile} e depois o método {@link #main} com o classpath de teste.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private TokenAutenticacaoCache tokenCache;
+    private JwtAuthenticationFilter filtro;
+    private MockHttpServletRequest request;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        Role role = new Role();
+        role.setNome("ROLE_GERENTE");
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("gerente@uea.edu.br");
+        usuario.setSenha("{noop}senha");
+        usuario.getRoles().add(role);
+
+        jwtService = new JwtService(SECRET, 3_600_000L);
+        userDetailsService = username -> usuario;
+        tokenCache = new TokenAutenticacaoCache(new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(1));
+        filtro = new JwtAuthenticationFilter(jwtService, userDetailsService, (req, res, handler, ex) -> null, tokenCache);
+
+        token = jwtService.generateToken(usuario);
+        request = new MockHttpServletRequest("GET", "/api/atividades");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public void legado(Blackhole blackhole) {
+        String username = extrairClaimsLegado(token).getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        boolean valido = extrairClaimsLegado(token).getSubject().equals(userDetails.getUsername())
+                && !extrairClaimsLegado(token).getExpiration().before(new Date());
+        blackhole.consume(valido);
+        blackhole.consume(userDetails.getAuthorities());
+    }
+
+    @Benchmark
+    public Object tokenForaDoCache() throws ServletException, IOException {
+        tokenCache.invalidarTudo();
+        return filtrar();
+    }
+
+    @Benchmark
+    public Object tokenEmCache() throws ServletException, IOException {
+        return filtrar();
+    }
+
+    private Object filtrar() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    // Reproduz o JwtService anterior: chave e parser criados a cada chamada
+    private static Claims extrairClaimsLegado(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,165 @@
+package edu.uea.acadmanage.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import edu.uea.acadmanage.DTO.AtividadeDTO;
+import edu.uea.acadmanage.DTO.CategoriaResumidaDTO;
+import edu.uea.acadmanage.DTO.CursoResumidoDTO;
+import edu.uea.acadmanage.DTO.FonteFinanciadoraResumidaDTO;
+import edu.uea.acadmanage.DTO.PessoaPapelDTO;
+import edu.uea.acadmanage.model.BaseAuditableEntity;
+import edu.uea.acadmanage.model.Categoria;
+import edu.uea.acadmanage.model.Curso;
+import edu.uea.acadmanage.model.FonteFinanciadora;
+import edu.uea.acadmanage.model.TipoCurso;
+import edu.uea.acadmanage.model.UnidadeAcademica;
+
+/**
+ * Tamanho e custo de serialização de uma página de {@code /api/atividades/filtros} (10 atividades).
+ * <ul>
+ *   <li>{@code legado}: AtividadeDTO anterior, com as entidades Curso (com tipo e unidade
+ *   acadêmica), Categoria e FonteFinanciadora, incluindo os campos de auditoria de cada uma;</li>
+ *   <li>{@code resumido}: AtividadeDTO atual, só com id e nome de curso, categoria e fontes.</li>
+ * </ul>
+ * Mede apenas a serialização. No banco, a diferença é que a listagem não carrega mais as
+ * entidades (nem o contexto de persistência para elas), apenas as colunas do DTO.
+ *
+ * <p>Execução: {@code mvn test-compile} e depois o método {@link #main} com o classpath de teste;
+ * o tamanho de cada resposta é impresso antes das medições.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtividadeDTOPayloadBenchmark {
+
+    private static final int ATIVIDADES_POR_PAGINA = 10;
+
+    // Formato anterior de AtividadeDTO
+    record AtividadeDTOLegado(
+            Long id,
+            String nome,
+            String objetivo,
+            String publicoAlvo,
+            Boolean statusPublicacao,
+            String fotoCapa,
+            String coordenador,
+            LocalDate dataRealizacao,
+            LocalDate dataFim,
+            @JsonIgnoreProperties({"atividades", "usuarios"})
+            Curso curso,
+            @JsonIgnoreProperties({"atividades"})
+            Categoria categoria,
+            List<FonteFinanciadora> fontesFinanciadora,
+            List<PessoaPapelDTO> integrantes) {}
+
+    private ObjectMapper objectMapper;
+    private List<AtividadeDTOLegado> paginaLegado;
+    private List<AtividadeDTO> paginaResumida;
+
+    @Setup
+    public void setUp() {
+        // Datas em ISO-8601, como no ObjectMapper da aplicação
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        TipoCurso tipoCurso = auditado(new TipoCurso());
+        tipoCurso.setId(1L);
+        tipoCurso.setNome("Graduação");
+        UnidadeAcademica unidade = auditado(new UnidadeAcademica());
+        unidade.setId(1L);
+        unidade.setNome("Escola Superior de Tecnologia");
+        unidade.setDescricao("Unidade acadêmica de cursos de tecnologia e engenharia");
+        Curso curso = auditado(new Curso(1L));
+        curso.setNome("Engenharia de Computação");
+        curso.setDescricao("Curso de graduação com ênfase em sistemas embarcados, redes e computação aplicada");
+        curso.setFotoCapa("cursos/1/capa.jpg");
+        curso.setTipoCurso(tipoCurso);
+        curso.setUnidadeAcademica(unidade);
+        Categoria categoria = auditado(new Categoria(1L));
+        categoria.setNome("Extensão");
+        List<FonteFinanciadora> fontes = new ArrayList<>();
+        for (long f = 1; f <= 2; f++) {
+            FonteFinanciadora fonte = auditado(new FonteFinanciadora(f));
+            fonte.setNome("Fonte " + f);
+            fontes.add(fonte);
+        }
+
+        paginaLegado = new ArrayList<>();
+        paginaResumida = new ArrayList<>();
+        for (long a = 1; a <= ATIVIDADES_POR_PAGINA; a++) {
+            List<PessoaPapelDTO> integrantes = List.of(
+                    new PessoaPapelDTO(a * 10 + 1, "Coordenador " + a, "12345678901", "COORDENADOR"),
+                    new PessoaPapelDTO(a * 10 + 2, "Bolsista " + a, "12345678902", "BOLSISTA"),
+                    new PessoaPapelDTO(a * 10 + 3, "Voluntário " + a, "12345678903", "VOLUNTARIO"));
+            paginaLegado.add(new AtividadeDTOLegado(a, "Atividade " + a, "Objetivo da atividade " + a,
+                    "Comunidade acadêmica", true, "atividades/" + a + "/capa.jpg", "Coordenador " + a,
+                    LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 5), curso, categoria, fontes, integrantes));
+            paginaResumida.add(new AtividadeDTO(a, "Atividade " + a, "Objetivo da atividade " + a,
+                    "Comunidade acadêmica", true, "atividades/" + a + "/capa.jpg", "Coordenador " + a,
+                    LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 5),
+                    new CursoResumidoDTO(curso.getId(), curso.getNome()),
+                    new CategoriaResumidaDTO(categoria.getId(), categoria.getNome()),
+                    fontes.stream().map(fonte -> new FonteFinanciadoraResumidaDTO(fonte.getId(), fonte.getNome()))
+                            .toList(),
+                    integrantes));
+        }
+    }
+
+    @Benchmark
+    public byte[] legado() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paginaLegado);
+    }
+
+    @Benchmark
+    public byte[] resumido() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paginaResumida);
+    }
+
+    private static <T extends BaseAuditableEntity> T auditado(T entidade) {
+        LocalDateTime agora = LocalDateTime.of(2026, 1, 15, 10, 30);
+        entidade.setCreatedAt(agora);
+        entidade.setCreatedBy("admin@uea.edu.br");
+        entidade.setUpdatedAt(agora);
+        entidade.setUpdatedBy("admin@uea.edu.br");
+        return entidade;
+    }
+
+    public static void main(String[] args) throws RunnerException, JsonProcessingException {
+        AtividadeDTOPayloadBenchmark benchmark = new AtividadeDTOPayloadBenchmark();
+        benchmark.setUp();
+        System.out.printf("Resposta com %d atividades: legado %d bytes, resumido %d bytes%n",
+                ATIVIDADES_POR_PAGINA, benchmark.legado().length, benchmark.resumido().length);
+
+        new Runner(new OptionsBuilder()
+                .include(AtividadeDTOPayloadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.uea.acadmanage.DTO.AtividadeDTO;
+import edu.uea.acadmanage.DTO.CategoriaResumidaDTO;
+import edu.uea.acadmanage.DTO.CursoResumidoDTO;
+import edu.uea.acadmanage.DTO.FonteFinanciadoraResumidaDTO;
+import edu.uea.acadmanage.DTO.PessoaPapelDTO;
+import edu.uea.acadmanage.model.AtividadePessoaPapel;
+import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+import jakarta.persistence.EntityManager;
+
+// Garante que a edição dos integrantes grava só a diferença, sem recriar as associações.
+// Transacional (como a sessão aberta por requisição), com rollback ao final de cada teste.
+@SpringBootTest
+@Transactional
+class AtividadeIntegrantesSincronizacaoTest {
+
+    private static final String ADMIN = "admin@uea.edu.br";
+
+    @Autowired
+    private AtividadeService atividadeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void deveGravarApenasAsAssociacoesAlteradas() {
+        AtividadeDTO criada = atividadeService.salvarAtividade(atividade(null, List.of(
+                integrante(1L, "COORDENADOR"),
+                integrante(2L, "BOLSISTA"),
+                integrante(3L, "BOLSISTA"),
+                integrante(4L, "VOLUNTARIO"),
+                integrante(5L, "VOLUNTARIO"))), ADMIN);
+        sincronizarComBanco();
+
+        statistics.clear();
+        AtividadeDTO atualizada = atividadeService.atualizarAtividade(criada.id(), atividade(criada.id(), List.of(
+                integrante(1L, "COORDENADOR"),
+                integrante(2L, "SUBCOORDENADOR"),
+                integrante(3L, "BOLSISTA"),
+                integrante(4L, "VOLUNTARIO"),
+                integrante(6L, "PARTICIPANTE"))), ADMIN);
+        entityManager.flush();
+
+        EntityStatistics associacoes = statistics.getEntityStatistics(AtividadePessoaPapel.class.getName());
+        assertThat(associacoes.getInsertCount()).isEqualTo(1);
+        assertThat(associacoes.getUpdateCount()).isEqualTo(1);
+        assertThat(associacoes.getDeleteCount()).isEqualTo(1);
+        assertThat(atualizada.integrantes())
+                .extracting(PessoaPapelDTO::id, PessoaPapelDTO::papel)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, "COORDENADOR"),
+                        tuple(2L, "SUBCOORDENADOR"),
+                        tuple(3L, "BOLSISTA"),
+                        tuple(4L, "VOLUNTARIO"),
+                        tuple(6L, "PARTICIPANTE"));
+    }
+
+    @Test
+    void naoDeveGravarNadaQuandoIntegrantesNaoMudam() {
+        List<PessoaPapelDTO> integrantes = List.of(integrante(1L, "COORDENADOR"), integrante(2L, "BOLSISTA"));
+        AtividadeDTO criada = atividadeService.salvarAtividade(atividade(null, integrantes), ADMIN);
+        sincronizarComBanco();
+
+        statistics.clear();
+        atividadeService.atualizarAtividade(criada.id(), atividade(criada.id(), integrantes), ADMIN);
+        entityManager.flush();
+
+        EntityStatistics associacoes = statistics.getEntityStatistics(AtividadePessoaPapel.class.getName());
+        assertThat(associacoes.getInsertCount() + associacoes.getUpdateCount() + associacoes.getDeleteCount())
+                .isZero();
+    }
+
+    @Test
+    void deveRejeitarPessoaInexistenteOuRepetida() {
+        AtividadeDTO criada = atividadeService.salvarAtividade(
+                atividade(null, List.of(integrante(1L, "COORDENADOR"))), ADMIN);
+
+        assertThatThrownBy(() -> atividadeService.atualizarAtividade(criada.id(),
+                atividade(criada.id(), List.of(integrante(1L, "COORDENADOR"), integrante(999_999L, "BOLSISTA"))),
+                ADMIN))
+                .isInstanceOf(RecursoNaoEncontradoException.class);
+        assertThatThrownBy(() -> atividadeService.atualizarAtividade(criada.id(),
+                atividade(criada.id(), List.of(integrante(1L, "COORDENADOR"), integrante(1L, "BOLSISTA"))),
+                ADMIN))
+                .isInstanceOf(ValidacaoException.class);
+    }
+
+    // Grava o estado atual e esvazia o contexto, como entre duas requisições
+    private void sincronizarComBanco() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static AtividadeDTO atividade(Long id, List<PessoaPapelDTO> integrantes) {
+        return new AtividadeDTO(id, "Atividade com integrantes", "Objetivo", "Estudantes", true, null, null,
+                LocalDate.of(2026, 3, 1), null, new CursoResumidoDTO(1L, null), new CategoriaResumidaDTO(1L, null),
+                List.of(new FonteFinanciadoraResumidaDTO(1L, null)), integrantes);
+    }
+
+    private static PessoaPapelDTO integrante(Long pessoaId, String papel) {
+        return new PessoaPapelDTO(pessoaId, null, null, papel);
+    }
+}
@@ -0,0 +1,129 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import edu.uea.acadmanage.DTO.AtividadeDTO;
+import edu.uea.acadmanage.DTO.AtividadeFiltroDTO;
+import edu.uea.acadmanage.DTO.CursorPageDTO;
+import edu.uea.acadmanage.DTO.PessoaPapelDTO;
+import jakarta.persistence.EntityManagerFactory;
+
+// Garante que as listagens de atividades executam um número fixo de consultas (sem N+1)
+@SpringBootTest
+class AtividadeServiceConsultasTest {
+
+    private static final AtividadeFiltroDTO SEM_FILTRO = new AtividadeFiltroDTO(null, null, null, null, null, null);
+
+    @Autowired
+    private AtividadeService atividadeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void paginaDeveUsarMesmaQuantidadeDeConsultasIndependenteDoTamanho() {
+        long consultasPaginaPequena = contarConsultas(
+                () -> atividadeService.getAtividadesPorFiltrosPaginado(SEM_FILTRO, PageRequest.of(0, 1)));
+
+        statistics.clear();
+        Page<AtividadeDTO> pagina = atividadeService.getAtividadesPorFiltrosPaginado(SEM_FILTRO, PageRequest.of(0, 12));
+        long consultasPaginaGrande = statistics.getPrepareStatementCount();
+
+        assertThat(pagina.getContent()).hasSize(12);
+        assertThat(pagina.getContent()).extracting(AtividadeDTO::id).isSorted();
+        // Páginas cheias: IDs da página, contagem, atividades com associações e integrantes
+        assertThat(consultasPaginaGrande).isEqualTo(consultasPaginaPequena).isLessThanOrEqualTo(4);
+        assertThat(pagina.getContent()).anySatisfy(atividade -> assertThat(atividade.integrantes()).isNotEmpty());
+    }
+
+    @Test
+    void listagemDeveUsarQuantidadeFixaDeConsultas() {
+        long consultas = contarConsultas(() -> atividadeService.getAtividadesPorFiltros(SEM_FILTRO));
+
+        assertThat(consultas).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void devePreencherCoordenadorAPartirDosIntegrantes() {
+        List<AtividadeDTO> atividades = atividadeService.getAtividadesPorFiltros(SEM_FILTRO);
+
+        assertThat(atividades).isNotEmpty().allSatisfy(atividade -> {
+            assertThat(atividade.curso().nome()).isNotBlank();
+            assertThat(atividade.categoria().nome()).isNotBlank();
+            String coordenador = atividade.integrantes().stream()
+                    .filter(integrante -> "COORDENADOR".equals(integrante.papel()))
+                    .map(PessoaPapelDTO::nome)
+                    .findFirst()
+                    .orElse(null);
+            assertThat(atividade.coordenador()).isEqualTo(coordenador);
+        });
+    }
+
+    @Test
+    void paginacaoPorCursorDevePercorrerTodasAsAtividadesSemContagem() {
+        List<AtividadeDTO> todas = atividadeService.getAtividadesPorFiltros(SEM_FILTRO);
+        List<Long> percorridas = new ArrayList<>();
+        String after = "";
+        do {
+            statistics.clear();
+            CursorPageDTO<AtividadeDTO> pagina = atividadeService.getAtividadesPorFiltrosCursor(
+                    SEM_FILTRO, AtividadeService.ORDENACAO_DATA_DESC, after, 4);
+            // IDs da página, atividades com associações e integrantes
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+            pagina.content().forEach(atividade -> percorridas.add(atividade.id()));
+            after = pagina.nextCursor();
+        } while (after != null);
+
+        List<Long> esperadas = todas.stream()
+                .sorted(Comparator.comparing(AtividadeDTO::dataRealizacao).thenComparing(AtividadeDTO::id).reversed())
+                .map(AtividadeDTO::id)
+                .toList();
+        assertThat(percorridas).isEqualTo(esperadas);
+    }
+
+    @Test
+    void paginacaoPorCursorPorNomeDevePercorrerTodasAsAtividades() {
+        List<AtividadeDTO> todas = atividadeService.getAtividadesPorFiltros(SEM_FILTRO);
+        List<Long> percorridas = new ArrayList<>();
+        String after = "";
+        do {
+            CursorPageDTO<AtividadeDTO> pagina = atividadeService.getAtividadesPorFiltrosCursor(
+                    SEM_FILTRO, AtividadeService.ORDENACAO_NOME, after, 5);
+            pagina.content().forEach(atividade -> percorridas.add(atividade.id()));
+            after = pagina.nextCursor();
+        } while (after != null);
+
+        List<Long> esperadas = todas.stream()
+                .sorted(Comparator.comparing(AtividadeDTO::nome).thenComparing(AtividadeDTO::id))
+                .map(AtividadeDTO::id)
+                .toList();
+        assertThat(percorridas).isEqualTo(esperadas);
+    }
+
+    private long contarConsultas(Runnable consulta) {
+        statistics.clear();
+        consulta.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,96 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.uea.acadmanage.DTO.AuditLogFilterDTO;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.model.AuditLog.AuditAction;
+import edu.uea.acadmanage.repository.LogExportacaoRepository;
+
+class AuditLogExportServiceTest {
+
+    private static final AuditLogFilterDTO SEM_FILTRO = new AuditLogFilterDTO(null, null, null, null, null, null);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final LogExportacaoRepository logExportacaoRepository = mock(LogExportacaoRepository.class);
+    private final AuditLogExportService service = new AuditLogExportService(logExportacaoRepository,
+            mock(ArquivoLogs.class), objectMapper);
+    private final List<AuditLog> logs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 2_500; id++) {
+            AuditLog log = new AuditLog();
+            log.setId(id);
+            log.setEntityName("Curso");
+            log.setEntityId(id % 7);
+            log.setAction(id % 2 == 0 ? AuditAction.UPDATE : AuditAction.CREATE);
+            log.setUserEmail("admin@uea.edu.br");
+            log.setTimestamp(LocalDateTime.of(2026, 3, 1, 8, 0).plusSeconds(id));
+            log.setDescription(id % 3 == 0 ? null : "Descrição \"" + id + "\"\nem duas linhas");
+            log.setNewValues(id % 2 == 0 ? "{\"nome\":\"Curso " + id + "\"}" : null);
+            logs.add(log);
+        }
+        doAnswer(invocacao -> {
+            Consumer<AuditLog> consumidor = invocacao.getArgument(1);
+            logs.forEach(consumidor);
+            return null;
+        }).when(logExportacaoRepository).percorrerAuditLogs(any(), any());
+    }
+
+    @Test
+    void ndjsonDeveTerUmObjetoPorLinhaComOsCamposDaApi() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        service.exportToNdjson(SEM_FILTRO, saida);
+
+        String conteudo;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            conteudo = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(conteudo).endsWith("\n");
+        List<String> linhas = conteudo.lines().toList();
+        assertThat(linhas).hasSize(logs.size());
+        List<AuditLog> lidos = new ArrayList<>();
+        for (String linha : linhas) {
+            lidos.add(objectMapper.readValue(linha, AuditLog.class));
+        }
+        assertThat(lidos).isEqualTo(logs);
+    }
+
+    @Test
+    void parquetDeveConterTodasAsLinhasDoFiltro() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        service.exportToParquet(SEM_FILTRO, saida);
+
+        LeitorParquet arquivo = new LeitorParquet(saida.toByteArray());
+        assertThat(arquivo.linhas()).isEqualTo(logs.size());
+        assertThat(arquivo.coluna("id")).isEqualTo(logs.stream().map(log -> (Object) log.getId()).toList());
+        assertThat(arquivo.coluna("action")).extracting(LeitorParquet::texto)
+                .isEqualTo(logs.stream().map(log -> log.getAction().name()).toList());
+        assertThat(arquivo.coluna("description"))
+                .extracting(valor -> valor == null ? null : LeitorParquet.texto(valor))
+                .isEqualTo(logs.stream().map(AuditLog::getDescription).toList());
+        assertThat(arquivo.coluna("old_values")).containsOnlyNulls();
+    }
+}
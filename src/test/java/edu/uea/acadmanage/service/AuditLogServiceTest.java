@@ -0,0 +1,167 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import edu.uea.acadmanage.DTO.AuditLogHistoricoDTO;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.model.Curso;
+import edu.uea.acadmanage.model.UnidadeAcademica;
+import edu.uea.acadmanage.repository.AuditLogRepository;
+import edu.uea.acadmanage.service.AuditLogService.ModoAuditoria;
+
+class AuditLogServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final FilaLogs filaLogs = mock(FilaLogs.class);
+    private final AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+    private final AuditLogService service = new AuditLogService(filaLogs, objectMapper, auditLogRepository,
+            arquivoDesabilitado(), ModoAuditoria.DIFF);
+
+    @Test
+    void deveGravarAtualizacaoComoDiffComEntidadesRelacionadasPorReferencia() throws Exception {
+        Curso curso = curso("Computação");
+        JsonNode antes = service.capturar(curso);
+        curso.setNome("Ciência da Computação");
+
+        service.log(AuditLog.AuditAction.UPDATE, "Curso", 1L, antes, curso, "Curso atualizado");
+
+        ArgumentCaptor<Object> registro = ArgumentCaptor.forClass(Object.class);
+        verify(filaLogs).enfileirarAposCommit(registro.capture());
+        AuditLog log = (AuditLog) registro.getValue();
+        assertThat(log.getOldValues()).isNull();
+        assertThat(log.getNewValues()).isNull();
+        assertThat(objectMapper.readTree(log.getAlteracoes())).isEqualTo(objectMapper.readTree(
+                "[{\"op\":\"replace\",\"path\":\"/nome\",\"value\":\"Ciência da Computação\"}]"));
+        // A unidade acadêmica entra só com id e nome, sem os cursos dela
+        assertThat(antes.get("unidadeAcademica").toString()).isEqualTo("{\"id\":5,\"nome\":\"EST\"}");
+    }
+
+    @Test
+    void deveCortarTextosNoTamanhoDasColunas() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.addHeader("User-Agent", "x".repeat(2000));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            service.log(AuditLog.AuditAction.LOGIN, "Usuario", 1L, null, null, "d".repeat(800));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        ArgumentCaptor<Object> registro = ArgumentCaptor.forClass(Object.class);
+        verify(filaLogs).enfileirarAposCommit(registro.capture());
+        AuditLog log = (AuditLog) registro.getValue();
+        assertThat(log.getUserAgent()).hasSize(500);
+        assertThat(log.getDescription()).hasSize(500);
+        assertThat(log.getEndpoint()).isEqualTo("/api/auth/login");
+    }
+
+    @Test
+    void deveReconstruirHistoricoAPartirDasAlteracoes() {
+        List<AuditLog> logs = new ArrayList<>();
+        logs.add(log(1L, AuditLog.AuditAction.CREATE, null, "{\"id\":1,\"nome\":\"Computação\",\"ativo\":true}", null));
+        logs.add(log(2L, AuditLog.AuditAction.UPDATE, null, null,
+                "[{\"op\":\"replace\",\"path\":\"/nome\",\"value\":\"Ciência da Computação\"}]"));
+        // Registro antigo, gravado no modo SNAPSHOT
+        logs.add(log(3L, AuditLog.AuditAction.UPDATE, "{\"id\":1,\"nome\":\"Ciência da Computação\",\"ativo\":true}",
+                "{\"id\":1,\"nome\":\"Ciência da Computação\",\"ativo\":false}", null));
+        logs.add(log(4L, AuditLog.AuditAction.DELETE, "{\"id\":1}", null, null));
+        // O repositório devolve do mais recente para o mais antigo
+        when(auditLogRepository.findHistoryByEntity("Curso", 1L)).thenReturn(reverso(logs));
+
+        List<AuditLogHistoricoDTO> historico = service.historico("Curso", 1L);
+
+        assertThat(historico).extracting(AuditLogHistoricoDTO::id).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(historico.get(0).estado()).isNull();
+        assertThat(historico.get(1).estado().get("ativo").asBoolean()).isFalse();
+        assertThat(historico.get(1).alteracoes().get(0).get("path").asText()).isEqualTo("/ativo");
+        assertThat(historico.get(2).estado().get("nome").asText()).isEqualTo("Ciência da Computação");
+        assertThat(historico.get(2).estado().get("ativo").asBoolean()).isTrue();
+        assertThat(historico.get(3).estado().get("nome").asText()).isEqualTo("Computação");
+    }
+
+    @Test
+    void historicoSemCriacaoDeveDeixarEstadoDesconhecidoAteUmRegistroCompleto() {
+        List<AuditLog> logs = new ArrayList<>();
+        // Curso da carga inicial: a primeira alteração troca a referência à unidade acadêmica
+        logs.add(log(1L, AuditLog.AuditAction.UPDATE, null, null,
+                "[{\"op\":\"replace\",\"path\":\"/unidadeAcademica/id\",\"value\":6},"
+                        + "{\"op\":\"replace\",\"path\":\"/unidadeAcademica/nome\",\"value\":\"ENS\"}]"));
+        logs.add(log(2L, AuditLog.AuditAction.UPDATE, null, null,
+                "[{\"op\":\"replace\",\"path\":\"/tipoCurso/unidade/id\",\"value\":2}]"));
+        logs.add(log(3L, AuditLog.AuditAction.UPDATE, "{\"id\":1,\"nome\":\"Computação\",\"ativo\":true}",
+                "{\"id\":1,\"nome\":\"Computação\",\"ativo\":false}", null));
+        logs.add(log(4L, AuditLog.AuditAction.UPDATE, null, null,
+                "[{\"op\":\"replace\",\"path\":\"/nome\",\"value\":\"Ciência da Computação\"}]"));
+        when(auditLogRepository.findHistoryByEntity("Curso", 1L)).thenReturn(reverso(logs));
+
+        List<AuditLogHistoricoDTO> historico = service.historico("Curso", 1L);
+
+        assertThat(historico).extracting(AuditLogHistoricoDTO::id).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(historico.get(3).alteracoes().get(0).get("path").asText()).isEqualTo("/unidadeAcademica/id");
+        assertThat(historico.get(3).estado()).isNull();
+        assertThat(historico.get(2).estado()).isNull();
+        assertThat(historico.get(1).estado().get("ativo").asBoolean()).isFalse();
+        assertThat(historico.get(0).estado().get("nome").asText()).isEqualTo("Ciência da Computação");
+    }
+
+    private ArquivoLogs arquivoDesabilitado() {
+        try {
+            return new ArquivoLogs(objectMapper, "");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<AuditLog> reverso(List<AuditLog> logs) {
+        List<AuditLog> reverso = new ArrayList<>(logs);
+        Collections.reverse(reverso);
+        return reverso;
+    }
+
+    private static Curso curso(String nome) {
+        UnidadeAcademica unidade = new UnidadeAcademica();
+        unidade.setId(5L);
+        unidade.setNome("EST");
+        unidade.setDescricao("Escola Superior de Tecnologia");
+        Curso curso = new Curso();
+        curso.setId(1L);
+        curso.setNome(nome);
+        curso.setUnidadeAcademica(unidade);
+        return curso;
+    }
+
+    private static AuditLog log(Long id, AuditLog.AuditAction action, String oldValues, String newValues,
+                                String alteracoes) {
+        AuditLog log = new AuditLog();
+        log.setId(id);
+        log.setAction(action);
+        log.setEntityName("Curso");
+        log.setEntityId(1L);
+        log.setUserEmail("admin@uea.edu.br");
+        log.setTimestamp(LocalDateTime.now().plusMinutes(id));
+        log.setOldValues(oldValues);
+        log.setNewValues(newValues);
+        log.setAlteracoes(alteracoes);
+        return log;
+    }
+}
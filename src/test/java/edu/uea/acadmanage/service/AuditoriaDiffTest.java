@@ -0,0 +1,67 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+class AuditoriaDiffTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void deveGerarSoOsCamposAlterados() throws JsonProcessingException {
+        JsonNode antes = json("{\"id\":1,\"nome\":\"Oficina\",\"curso\":{\"id\":2,\"nome\":\"Computação\"},\"dataFim\":null}");
+        JsonNode depois = json("{\"id\":1,\"nome\":\"Oficina de Robótica\",\"curso\":{\"id\":3,\"nome\":\"Computação\"},\"objetivo\":\"Ensinar\"}");
+
+        ArrayNode operacoes = AuditoriaDiff.diff(antes, depois);
+
+        assertThat(operacoes).isEqualTo(json("""
+                [{"op":"replace","path":"/nome","value":"Oficina de Robótica"},
+                 {"op":"replace","path":"/curso/id","value":3},
+                 {"op":"remove","path":"/dataFim"},
+                 {"op":"add","path":"/objetivo","value":"Ensinar"}]"""));
+        assertThat(AuditoriaDiff.aplicar(antes, operacoes)).isEqualTo(depois);
+        assertThat(AuditoriaDiff.diff(depois, depois)).isEmpty();
+    }
+
+    @Test
+    void deveSubstituirListasEEscaparCaminhos() throws JsonProcessingException {
+        JsonNode antes = json("{\"fontes\":[{\"id\":1}],\"a/b~c\":1}");
+        JsonNode depois = json("{\"fontes\":[{\"id\":1},{\"id\":2}],\"a/b~c\":2}");
+
+        ArrayNode operacoes = AuditoriaDiff.diff(antes, depois);
+
+        assertThat(operacoes.get(0).get("path").asText()).isEqualTo("/fontes");
+        assertThat(operacoes.get(1).get("path").asText()).isEqualTo("/a~1b~0c");
+        assertThat(AuditoriaDiff.aplicar(antes, operacoes)).isEqualTo(depois);
+    }
+
+    @Test
+    void deveTratarEstadoNuloComoObjetoVazio() throws JsonProcessingException {
+        JsonNode criado = json("{\"id\":1,\"nome\":\"Oficina\"}");
+
+        assertThat(AuditoriaDiff.aplicar(null, AuditoriaDiff.diff(null, criado))).isEqualTo(criado);
+    }
+
+    @Test
+    void deveRecusarCaminhoAusenteNoEstadoComIllegalArgumentException() throws JsonProcessingException {
+        JsonNode semCurso = json("{\"id\":1,\"nome\":\"Oficina\"}");
+
+        assertThatThrownBy(() -> AuditoriaDiff.aplicar(semCurso,
+                json("[{\"op\":\"replace\",\"path\":\"/curso/id\",\"value\":3}]")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AuditoriaDiff.aplicar(semCurso,
+                json("[{\"op\":\"replace\",\"path\":\"/curso/unidade/id\",\"value\":3}]")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private JsonNode json(String conteudo) throws JsonProcessingException {
+        return objectMapper.readTree(conteudo);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import edu.uea.acadmanage.DTO.CursoDTO;
+import edu.uea.acadmanage.model.Usuario;
+import edu.uea.acadmanage.repository.CursoRepository;
+import edu.uea.acadmanage.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+class AutorizacaoContextoServiceTest {
+
+    private static final String ADMIN = "admin@uea.edu.br";
+
+    @Autowired
+    private AutorizacaoContextoService autorizacaoContextoService;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Long cursoCriado;
+
+    @AfterEach
+    void tearDown() {
+        if (cursoCriado != null) {
+            cursoRepository.deleteById(cursoCriado);
+        }
+    }
+
+    @Test
+    void deveRecarregarContextoDosUsuariosAssociadosAoCursoCriado() {
+        // Contexto já em cache antes da criação do curso
+        assertThat(autorizacaoContextoService.obter(ADMIN).cursoIds()).isNotEmpty();
+        Usuario admin = usuarioRepository.findCompletoByEmail(ADMIN).orElseThrow();
+
+        cursoCriado = cursoService.saveCurso(
+                new CursoDTO(null, "Curso para contexto de autorização", null, null, true, 1L, 1L), admin).id();
+
+        assertThat(autorizacaoContextoService.obter(ADMIN).temAcessoAoCurso(cursoCriado)).isTrue();
+    }
+
+    @Test
+    void outroNoDeveEnxergarAlteracoesDePermissoesNaVerificacaoSeguinte() {
+        // Instância sem os eventos desta aplicação, com TTL longo: só a versão no banco a atualiza
+        AutorizacaoContextoService outroNo = new AutorizacaoContextoService(
+                usuarioRepository, new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        long versaoInicial = usuarioRepository.findVersaoPermissoesByEmail(ADMIN).orElseThrow();
+        int cursosIniciais = outroNo.obter(ADMIN).cursoIds().size();
+        Usuario admin = usuarioRepository.findCompletoByEmail(ADMIN).orElseThrow();
+
+        cursoCriado = cursoService.saveCurso(
+                new CursoDTO(null, "Curso visto por outro nó", null, null, true, 1L, 1L), admin).id();
+
+        assertThat(outroNo.obter(ADMIN).temAcessoAoCurso(cursoCriado)).isTrue();
+
+        cursoService.excluirCurso(cursoCriado);
+
+        assertThat(outroNo.obter(ADMIN).temAcessoAoCurso(cursoCriado)).isFalse();
+        assertThat(outroNo.obter(ADMIN).cursoIds()).hasSize(cursosIniciais);
+        assertThat(usuarioRepository.findVersaoPermissoesByEmail(ADMIN)).contains(versaoInicial + 2);
+        cursoCriado = null;
+    }
+}
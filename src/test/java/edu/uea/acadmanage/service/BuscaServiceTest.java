@@ -0,0 +1,206 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import edu.uea.acadmanage.DTO.BuscaRespostaDTO;
+import edu.uea.acadmanage.DTO.BuscaResultadoDTO;
+import edu.uea.acadmanage.repository.AtividadeRepository;
+import edu.uea.acadmanage.repository.CursoRepository;
+import edu.uea.acadmanage.repository.PessoaRepository;
+import edu.uea.acadmanage.service.BuscaService.TipoDocumento;
+import edu.uea.acadmanage.service.event.AtividadeAlteradaEvent;
+import edu.uea.acadmanage.service.event.CursoAlteradoEvent;
+import edu.uea.acadmanage.service.event.PessoaAlteradaEvent;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+@ExtendWith(MockitoExtension.class)
+class BuscaServiceTest {
+
+    private static final EnumSet<TipoDocumento> TODOS = EnumSet.allOf(TipoDocumento.class);
+
+    @Mock
+    private AtividadeRepository atividadeRepository;
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private PessoaRepository pessoaRepository;
+
+    private final List<Object[]> atividades = new ArrayList<>();
+    private final List<Object[]> cursos = new ArrayList<>();
+    private final List<Object[]> pessoas = new ArrayList<>();
+
+    private BuscaService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        atividades.add(new Object[] { 1L, "Projeto de Extensão em Saúde", "Atendimento à comunidade", "Estudantes", 10L });
+        atividades.add(new Object[] { 2L, "Semana de Computação", "Palestras sobre extensão universitária", null, 10L });
+        cursos.add(new Object[] { 10L, "Engenharia de Software", "Formação em desenvolvimento de sistemas" });
+        pessoas.add(new Object[] { 100L, "José Antônio", });
+
+        lenient().when(atividadeRepository.findDadosBuscaApos(anyLong(), any(Limit.class)))
+                .thenAnswer(chamada -> apos(atividades, chamada.getArgument(0)));
+        lenient().when(cursoRepository.findDadosBuscaApos(anyLong(), any(Limit.class)))
+                .thenAnswer(chamada -> apos(cursos, chamada.getArgument(0)));
+        lenient().when(pessoaRepository.findDadosBuscaApos(anyLong(), any(Limit.class)))
+                .thenAnswer(chamada -> apos(pessoas, chamada.getArgument(0)));
+
+        service = new BuscaService(atividadeRepository, cursoRepository, pessoaRepository, Runnable::run, "", 1, false);
+        service.reindexarTudo();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.destroy();
+    }
+
+    @Test
+    void deveIgnorarAcentosEMaiusculas() {
+        assertThat(ids(service.buscar("EXTENSAO saude", TODOS, 10))).containsExactly("ATIVIDADE:1");
+        assertThat(ids(service.buscar("jose antonio", TODOS, 10))).containsExactly("PESSOA:100");
+    }
+
+    @Test
+    void devePesquisarPorPrefixoEOrdenarPorRelevancia() {
+        BuscaRespostaDTO resposta = service.buscar("exten", TODOS, 10);
+
+        // O termo no nome pesa mais que no texto
+        assertThat(ids(resposta)).containsExactly("ATIVIDADE:1", "ATIVIDADE:2");
+        BuscaResultadoDTO primeiro = resposta.resultados().get(0);
+        assertThat(primeiro.titulo()).isEqualTo("Projeto de Extensão em Saúde");
+        assertThat(primeiro.cursoId()).isEqualTo(10L);
+        assertThat(primeiro.resumo()).startsWith("Atendimento à comunidade");
+        assertThat(resposta.total()).isEqualTo(2);
+    }
+
+    @Test
+    void deveFiltrarPorTipo() {
+        assertThat(ids(service.buscar("software", EnumSet.of(TipoDocumento.CURSO), 10))).containsExactly("CURSO:10");
+        assertThat(service.buscar("software", EnumSet.of(TipoDocumento.ATIVIDADE), 10).resultados()).isEmpty();
+    }
+
+    @Test
+    void deveAtualizarIndiceComEventos() {
+        when(atividadeRepository.findDadosBuscaById(3L))
+                .thenReturn(List.<Object[]>of(new Object[] { 3L, "Oficina de Robótica", null, null, 10L }));
+        service.onAtividadeAlterada(new AtividadeAlteradaEvent(3L, null, null));
+        assertThat(ids(service.buscar("robotica", TODOS, 10))).containsExactly("ATIVIDADE:3");
+
+        // Entidade ausente no banco: documento removido
+        when(atividadeRepository.findDadosBuscaById(3L)).thenReturn(List.of());
+        service.onAtividadeAlterada(new AtividadeAlteradaEvent(3L, null, null));
+        assertThat(service.buscar("robotica", TODOS, 10).resultados()).isEmpty();
+
+        // Exclusão do curso remove também as atividades dele
+        when(cursoRepository.findDadosBuscaById(10L)).thenReturn(List.of());
+        service.onCursoAlterado(new CursoAlteradoEvent(10L, CursoAlteradoEvent.Operacao.EXCLUIDO));
+        assertThat(service.buscar("extensao", TODOS, 10).resultados()).isEmpty();
+        assertThat(service.buscar("software", TODOS, 10).resultados()).isEmpty();
+    }
+
+    @Test
+    void importacaoDeveIndexarSoAsPessoasNovas() {
+        pessoas.add(new Object[] { 101L, "Maria Importada" });
+        pessoas.add(new Object[] { 102L, "Joana Importada" });
+        clearInvocations(pessoaRepository);
+
+        service.onPessoaAlterada(PessoaAlteradaEvent.importacao(100L));
+
+        assertThat(ids(service.buscar("importada", TODOS, 10))).containsExactlyInAnyOrder("PESSOA:101", "PESSOA:102");
+        verify(pessoaRepository, never()).findDadosBuscaApos(eq(0L), any(Limit.class));
+    }
+
+    @Test
+    void reconstrucaoDeveRemoverEntidadesExcluidas() {
+        pessoas.clear();
+
+        service.reindexarTudo();
+
+        assertThat(service.buscar("jose", TODOS, 10).resultados()).isEmpty();
+        assertThat(service.buscar("computacao", TODOS, 10).resultados()).hasSize(1);
+    }
+
+    @Test
+    void exclusaoDuranteReconstrucaoNaoDeveSerDesfeita() {
+        // A pessoa é excluída depois de lida pela reconstrução e antes de ser regravada no índice
+        when(pessoaRepository.findDadosBuscaById(100L)).thenReturn(List.of());
+        when(pessoaRepository.findDadosBuscaApos(anyLong(), any(Limit.class))).thenAnswer(chamada -> {
+            List<Object[]> lote = apos(pessoas, chamada.getArgument(0));
+            if (!lote.isEmpty()) {
+                pessoas.clear();
+                service.onPessoaAlterada(new PessoaAlteradaEvent(100L, Set.of()));
+            }
+            return lote;
+        });
+
+        service.reindexarTudo();
+
+        assertThat(service.buscar("jose", TODOS, 10).resultados()).isEmpty();
+    }
+
+    @Test
+    void gravacaoDuranteReconstrucaoNaoDeveSerSobrescritaPelaLeituraAntiga() {
+        // A pessoa é renomeada depois de lida pela reconstrução e antes de ser regravada no índice
+        Object[] renomeada = { 100L, "José Renomeado" };
+        when(pessoaRepository.findDadosBuscaById(100L)).thenReturn(List.<Object[]>of(renomeada));
+        when(pessoaRepository.findDadosBuscaApos(anyLong(), any(Limit.class))).thenAnswer(chamada -> {
+            List<Object[]> lote = apos(pessoas, chamada.getArgument(0));
+            if (!lote.isEmpty() && pessoas.get(0) != renomeada) {
+                pessoas.set(0, renomeada);
+                service.onPessoaAlterada(new PessoaAlteradaEvent(100L, Set.of()));
+            }
+            return lote;
+        });
+
+        service.reindexarTudo();
+
+        assertThat(ids(service.buscar("renomeado", TODOS, 10))).containsExactly("PESSOA:100");
+        assertThat(service.buscar("antonio", TODOS, 10).resultados()).isEmpty();
+    }
+
+    @Test
+    void deveValidarParametros() {
+        assertThrows(ValidacaoException.class, () -> service.buscar(" ", TODOS, 10));
+        assertThrows(ValidacaoException.class, () -> service.buscar("extensao", TODOS, BuscaService.LIMITE_MAXIMO + 1));
+        assertThat(service.buscar("!!!", TODOS, 10).resultados()).isEmpty();
+    }
+
+    private static List<String> ids(BuscaRespostaDTO resposta) {
+        return resposta.resultados().stream()
+                .map(resultado -> resultado.tipo() + ":" + resultado.id())
+                .toList();
+    }
+
+    // Simula a consulta em lotes (tamanho 1) ordenada por id
+    private static List<Object[]> apos(List<Object[]> linhas, Long ultimoId) {
+        return linhas.stream()
+                .filter(linha -> (Long) linha[0] > ultimoId)
+                .limit(1)
+                .toList();
+    }
+}
@@ -0,0 +1,55 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.uea.acadmanage.DTO.CursorPageDTO;
+import edu.uea.acadmanage.DTO.PessoaDTO;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+class CursorPaginacaoTest {
+
+    @Test
+    void deveCodificarEDecodificarCursor() {
+        String token = CursorPaginacao.codificar("nome", 42L, "Ana | Maria");
+
+        CursorPaginacao.Cursor cursor = CursorPaginacao.decodificar(token, "nome");
+
+        assertThat(cursor.id()).isEqualTo(42L);
+        assertThat(cursor.chave()).isEqualTo("Ana | Maria");
+        assertThat(CursorPaginacao.decodificar("", "nome")).isNull();
+    }
+
+    @Test
+    void deveRejeitarCursorInvalidoOuDeOutraOrdenacao() {
+        String token = CursorPaginacao.codificar("timestamp,desc", 1L, "2024-01-01T10:00");
+
+        assertThrows(ValidacaoException.class, () -> CursorPaginacao.decodificar(token, "nome"));
+        assertThrows(ValidacaoException.class, () -> CursorPaginacao.decodificar("@@não-é-base64@@", "nome"));
+        assertThrows(ValidacaoException.class, () -> CursorPaginacao.validarTamanho(0));
+        assertThrows(ValidacaoException.class, () -> CursorPaginacao.validarTamanho(CursorPaginacao.TAMANHO_MAXIMO + 1));
+    }
+
+    @Test
+    void deveMontarPaginaDescartandoItemExcedente() {
+        List<PessoaDTO> itens = List.of(
+                new PessoaDTO(1L, "Ana", "1", false),
+                new PessoaDTO(2L, "Bruno", "2", false),
+                new PessoaDTO(3L, "Carla", "3", false));
+
+        CursorPageDTO<PessoaDTO> pagina = CursorPaginacao.montarPagina(itens, 2, "nome", PessoaDTO::id, PessoaDTO::nome);
+
+        assertThat(pagina.content()).extracting(PessoaDTO::nome).containsExactly("Ana", "Bruno");
+        assertThat(pagina.hasNext()).isTrue();
+        assertThat(CursorPaginacao.decodificar(pagina.nextCursor(), "nome"))
+                .isEqualTo(new CursorPaginacao.Cursor(2L, "Bruno"));
+
+        CursorPageDTO<PessoaDTO> ultima = CursorPaginacao.montarPagina(itens, 3, "nome", PessoaDTO::id, PessoaDTO::nome);
+        assertThat(ultima.hasNext()).isFalse();
+        assertThat(ultima.nextCursor()).isNull();
+    }
+}
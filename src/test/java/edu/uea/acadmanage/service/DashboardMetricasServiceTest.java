@@ -0,0 +1,157 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import edu.uea.acadmanage.model.DashboardMetrica;
+import edu.uea.acadmanage.model.DashboardMetricaCategoria;
+import edu.uea.acadmanage.model.DashboardMetricaMensal;
+import edu.uea.acadmanage.repository.AtividadeRepository;
+import edu.uea.acadmanage.repository.CursoRepository;
+import edu.uea.acadmanage.repository.DashboardMetricaCategoriaRepository;
+import edu.uea.acadmanage.repository.DashboardMetricaMensalRepository;
+import edu.uea.acadmanage.repository.DashboardMetricaRepository;
+import edu.uea.acadmanage.service.event.AtividadeAlteradaEvent;
+import edu.uea.acadmanage.service.event.AtividadeAlteradaEvent.Estado;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardMetricasServiceTest {
+
+    private static final Long CURSO = 1L;
+    private static final Long CATEGORIA = 5L;
+    private static final LocalDate REALIZACAO = LocalDate.of(2026, 3, 10);
+    private static final LocalDate COMPETENCIA = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private DashboardMetricaRepository metricaRepository;
+
+    @Mock
+    private DashboardMetricaCategoriaRepository metricaCategoriaRepository;
+
+    @Mock
+    private DashboardMetricaMensalRepository metricaMensalRepository;
+
+    @Mock
+    private AtividadeRepository atividadeRepository;
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardMetricasService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DashboardMetricasService(metricaRepository, metricaCategoriaRepository, metricaMensalRepository,
+                atividadeRepository, cursoRepository, transactionManager);
+    }
+
+    @Test
+    void deveIncrementarContadoresAoCriarAtividade() {
+        snapshotDoDia();
+        when(metricaCategoriaRepository.incrementar(CURSO, CATEGORIA, 1)).thenReturn(1);
+        when(metricaMensalRepository.incrementar(CURSO, COMPETENCIA, 1, 1)).thenReturn(1);
+
+        service.aplicarAlteracaoAtividade(new AtividadeAlteradaEvent(10L, null,
+                new Estado(CURSO, CATEGORIA, REALIZACAO, null, true)));
+
+        verify(metricaRepository).incrementarAtividades(eq(CURSO), eq(1L), eq(1L), eq(0L), any(LocalDateTime.class));
+        verify(metricaCategoriaRepository, never()).save(any());
+        verify(metricaMensalRepository, never()).save(any());
+    }
+
+    @Test
+    void deveDecrementarContadoresAoExcluirAtividade() {
+        snapshotDoDia();
+        when(metricaCategoriaRepository.incrementar(CURSO, CATEGORIA, -1)).thenReturn(1);
+        when(metricaMensalRepository.incrementar(CURSO, COMPETENCIA, -1, 0)).thenReturn(1);
+
+        // Finalizada (dataFim no passado) e não publicada
+        service.aplicarAlteracaoAtividade(new AtividadeAlteradaEvent(10L,
+                new Estado(CURSO, CATEGORIA, REALIZACAO, LocalDate.of(2026, 3, 12), false), null));
+
+        verify(metricaRepository).incrementarAtividades(eq(CURSO), eq(-1L), eq(0L), eq(-1L), any(LocalDateTime.class));
+        verify(metricaCategoriaRepository).incrementar(CURSO, CATEGORIA, -1);
+        verify(metricaMensalRepository).incrementar(CURSO, COMPETENCIA, -1, 0);
+    }
+
+    @Test
+    void naoDevePerderIncrementoQuandoOutraTransacaoCriaALinha() {
+        snapshotDoDia();
+        // Linhas ainda inexistentes: a da categoria é criada por outro chamador no meio tempo
+        when(metricaCategoriaRepository.incrementar(CURSO, CATEGORIA, 1)).thenReturn(0, 1);
+        when(metricaCategoriaRepository.save(any(DashboardMetricaCategoria.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_dashboard_metrics_categoria"));
+        when(metricaMensalRepository.incrementar(CURSO, COMPETENCIA, 1, 0)).thenReturn(0, 1);
+
+        service.aplicarAlteracaoAtividade(new AtividadeAlteradaEvent(10L, null,
+                new Estado(CURSO, CATEGORIA, REALIZACAO, null, false)));
+
+        verify(metricaCategoriaRepository, times(2)).incrementar(CURSO, CATEGORIA, 1);
+        verify(metricaMensalRepository, times(2)).incrementar(CURSO, COMPETENCIA, 1, 0);
+        // A linha nova nasce zerada; o valor vem sempre do incremento
+        ArgumentCaptor<DashboardMetricaMensal> mensal = ArgumentCaptor.forClass(DashboardMetricaMensal.class);
+        verify(metricaMensalRepository).save(mensal.capture());
+        assertThat(mensal.getValue().getRealizadas()).isZero();
+        assertThat(mensal.getValue().getPublicadas()).isZero();
+    }
+
+    @Test
+    void deveReconstruirSnapshotAPartirDasTabelasDeOrigem() {
+        LocalDateTime criadoEm = LocalDateTime.of(2025, 2, 1, 8, 0);
+        when(cursoRepository.resumirParaMetricas(List.of(CURSO)))
+                .thenReturn(List.<Object[]>of(new Object[] { CURSO, criadoEm, 3 }));
+        when(metricaRepository.findById(CURSO)).thenReturn(Optional.empty());
+        when(atividadeRepository.resumirPorCurso(anyCollection(), any(LocalDate.class)))
+                .thenReturn(List.<Object[]>of(new Object[] { CURSO, 4L, 2L, 1L }));
+        when(atividadeRepository.contarPorCursoECategoria(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { CURSO, CATEGORIA, 4L }));
+        when(atividadeRepository.contarPorCursoEMes(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { CURSO, 2026, 3, 4L, 2L }));
+
+        service.reconstruirCurso(CURSO);
+
+        verify(metricaCategoriaRepository).deleteByCursoIds(List.of(CURSO));
+        verify(metricaMensalRepository).deleteByCursoIds(List.of(CURSO));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<DashboardMetrica>> metricas = ArgumentCaptor.forClass(Iterable.class);
+        verify(metricaRepository).saveAll(metricas.capture());
+        DashboardMetrica metrica = metricas.getValue().iterator().next();
+        assertThat(metrica.getCursoCriadoEm()).isEqualTo(criadoEm);
+        assertThat(metrica.getTotalUsuarios()).isEqualTo(3L);
+        assertThat(metrica.getTotalAtividades()).isEqualTo(4L);
+        assertThat(metrica.getAtividadesPublicadas()).isEqualTo(2L);
+        assertThat(metrica.getAtividadesFinalizadas()).isEqualTo(1L);
+        assertThat(metrica.getDataReferencia()).isEqualTo(LocalDate.now());
+        verify(metricaCategoriaRepository).saveAll(List.of(new DashboardMetricaCategoria(CURSO, CATEGORIA, 4L)));
+        verify(metricaMensalRepository).saveAll(List.of(new DashboardMetricaMensal(CURSO, COMPETENCIA, 4L, 2L)));
+        verify(metricaRepository, never()).incrementarAtividades(anyLong(), anyLong(), anyLong(), anyLong(), any());
+    }
+
+    private void snapshotDoDia() {
+        when(metricaRepository.findCursoIdsAtualizadosIn(anyCollection(), eq(LocalDate.now()))).thenReturn(List.of(CURSO));
+    }
+}
@@ -0,0 +1,45 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class EscritorCsvTest {
+
+    @Test
+    void deveEscaparCamposComoAExportacaoAnterior() throws IOException {
+        StringWriter saida = new StringWriter();
+        EscritorCsv csv = new EscritorCsv(saida);
+
+        csv.campo(42L);
+        csv.campo(LocalDateTime.of(2026, 3, 1, 8, 5, 9));
+        csv.campo("simples");
+        csv.campo("{\"nome\":\"Oficina, turma A\"}");
+        csv.campo("linha 1\nlinha 2");
+        csv.campo(" espaço");
+        csv.campo((String) null);
+        csv.campo("");
+        csv.fimLinha();
+        csv.campo("segunda");
+        csv.fimLinha();
+
+        assertThat(saida.toString()).isEqualTo(
+                "42,2026-03-01 08:05:09,simples,\"{\"\"nome\"\":\"\"Oficina, turma A\"\"}\",linha 1 linha 2,\" espaço\",,\n"
+                        + "segunda\n");
+    }
+
+    @Test
+    void deveColocarEntreAspasValorQueTerminaComQuebraDeLinha() throws IOException {
+        StringWriter saida = new StringWriter();
+        EscritorCsv csv = new EscritorCsv(saida);
+
+        csv.campo("fim\r\n");
+        csv.fimLinha();
+
+        assertThat(saida.toString()).isEqualTo("\"fim  \"\n");
+    }
+}
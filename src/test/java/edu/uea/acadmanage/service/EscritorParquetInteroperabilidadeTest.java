@@ -0,0 +1,198 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.parquet.CorruptStatistics;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type.Repetition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import edu.uea.acadmanage.DTO.AuditLogFilterDTO;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.model.AuditLog.AuditAction;
+import edu.uea.acadmanage.repository.LogExportacaoRepository;
+import edu.uea.acadmanage.service.EscritorParquet.Coluna;
+import edu.uea.acadmanage.service.EscritorParquet.Tipo;
+
+/**
+ * Confere os arquivos do {@link EscritorParquet} com o leitor de referência (parquet-mr), o
+ * mesmo usado por Spark, Hive e afins: esquema, tipos lógicos, estatísticas e valores.
+ */
+class EscritorParquetInteroperabilidadeTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 3, 1, 8, 0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parquetMrDeveLerTodosOsTiposEmVariosGruposEPaginas() throws IOException {
+        List<Coluna> colunas = List.of(
+                Coluna.obrigatoria("id", Tipo.INT64),
+                Coluna.obrigatoria("timestamp", Tipo.TIMESTAMP),
+                Coluna.obrigatoria("sucesso", Tipo.BOOLEAN),
+                Coluna.opcional("acao", Tipo.ENUM),
+                Coluna.opcional("descricao", Tipo.STRING),
+                Coluna.opcional("dados", Tipo.JSON));
+        Path arquivo = tempDir.resolve("log.parquet");
+        try (OutputStream saida = Files.newOutputStream(arquivo)) {
+            EscritorParquet parquet = new EscritorParquet(saida, "log", colunas, 1_000, Long.MAX_VALUE, 1_024);
+            for (int i = 0; i < 2_500; i++) {
+                parquet.linha((long) i - 100, INICIO.plusSeconds(i), i % 3 == 0,
+                        i % 4 == 0 ? null : AuditAction.values()[i % AuditAction.values().length],
+                        i % 5 == 0 ? null : "descrição " + i, i % 2 == 0 ? null : "{\"i\":" + i + "}");
+            }
+            parquet.concluir();
+        }
+
+        Lido lido = ler(arquivo);
+
+        MessageType esquema = lido.esquema();
+        assertThat(esquema.getName()).isEqualTo("log");
+        assertThat(esquema.getType("id").asPrimitiveType().getPrimitiveTypeName()).isEqualTo(PrimitiveTypeName.INT64);
+        assertThat(esquema.getType("id").getRepetition()).isEqualTo(Repetition.REQUIRED);
+        assertThat(esquema.getType("timestamp").getLogicalTypeAnnotation())
+                .isEqualTo(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS));
+        assertThat(esquema.getType("sucesso").asPrimitiveType().getPrimitiveTypeName())
+                .isEqualTo(PrimitiveTypeName.BOOLEAN);
+        assertThat(esquema.getType("acao").getLogicalTypeAnnotation()).isEqualTo(LogicalTypeAnnotation.enumType());
+        assertThat(esquema.getType("acao").getRepetition()).isEqualTo(Repetition.OPTIONAL);
+        assertThat(esquema.getType("descricao").getLogicalTypeAnnotation()).isEqualTo(LogicalTypeAnnotation.stringType());
+        assertThat(esquema.getType("dados").getLogicalTypeAnnotation()).isEqualTo(LogicalTypeAnnotation.jsonType());
+
+        assertThat(lido.grupos()).extracting(BlockMetaData::getRowCount).containsExactly(1_000L, 1_000L, 500L);
+        assertThat(lido.linhas()).hasSize(2_500);
+        long milis = INICIO.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (int i = 0; i < 2_500; i++) {
+            Group linha = lido.linhas().get(i);
+            assertThat(linha.getLong("id", 0)).isEqualTo(i - 100L);
+            assertThat(linha.getLong("timestamp", 0)).isEqualTo(milis + i * 1_000L);
+            assertThat(linha.getBoolean("sucesso", 0)).isEqualTo(i % 3 == 0);
+            assertThat(texto(linha, "acao"))
+                    .isEqualTo(i % 4 == 0 ? null : AuditAction.values()[i % AuditAction.values().length].name());
+            assertThat(texto(linha, "descricao")).isEqualTo(i % 5 == 0 ? null : "descrição " + i);
+            assertThat(texto(linha, "dados")).isEqualTo(i % 2 == 0 ? null : "{\"i\":" + i + "}");
+        }
+
+        // Estatísticas do primeiro grupo (linhas 0 a 999)
+        Statistics<?> id = estatisticas(lido.grupos().get(0), "id");
+        assertThat(id.genericGetMin()).isEqualTo(-100L);
+        assertThat(id.genericGetMax()).isEqualTo(899L);
+        assertThat(id.getNumNulls()).isZero();
+        assertThat(estatisticas(lido.grupos().get(0), "acao").getNumNulls()).isEqualTo(250);
+        assertThat(estatisticas(lido.grupos().get(0), "descricao").getNumNulls()).isEqualTo(200);
+        // created_by reconhecido: as estatísticas das colunas de texto não são descartadas (PARQUET-251)
+        assertThat(CorruptStatistics.shouldIgnoreStatistics(lido.criadoPor(), PrimitiveTypeName.BINARY)).isFalse();
+    }
+
+    @Test
+    void exportacaoDeAuditoriaDeveSerLidaPeloParquetMr() throws IOException {
+        List<AuditLog> logs = new ArrayList<>();
+        for (long id = 1; id <= 1_200; id++) {
+            AuditLog log = new AuditLog();
+            log.setId(id);
+            log.setTimestamp(INICIO.plusMinutes(id));
+            log.setUserEmail("admin@uea.edu.br");
+            log.setAction(id % 2 == 0 ? AuditAction.UPDATE : AuditAction.CREATE);
+            log.setEntityName("Curso");
+            log.setEntityId(id % 7);
+            log.setDescription(id % 3 == 0 ? null : "Curso \"" + id + "\" atualizado\nsem acento: ação");
+            log.setHttpMethod("PUT");
+            log.setNewValues(id % 2 == 0 ? null : "{\"nome\":\"Curso " + id + "\"}");
+            log.setAlteracoes(id % 2 == 0 ? "[{\"op\":\"replace\",\"path\":\"/nome\",\"value\":\"" + id + "\"}]" : null);
+            logs.add(log);
+        }
+        LogExportacaoRepository repositorio = mock(LogExportacaoRepository.class);
+        doAnswer(invocacao -> {
+            Consumer<AuditLog> consumidor = invocacao.getArgument(1);
+            logs.forEach(consumidor);
+            return null;
+        }).when(repositorio).percorrerAuditLogs(any(), any());
+        AuditLogExportService service = new AuditLogExportService(repositorio, mock(ArquivoLogs.class),
+                Jackson2ObjectMapperBuilder.json().build());
+        Path arquivo = tempDir.resolve("audit_log.parquet");
+
+        service.exportToParquet(new AuditLogFilterDTO(null, null, null, null, null, null), Files.newOutputStream(arquivo));
+
+        Lido lido = ler(arquivo);
+        assertThat(lido.esquema().getFields()).extracting(campo -> campo.getName()).containsExactly(
+                "id", "timestamp", "user_email", "action", "entity_name", "entity_id", "description", "endpoint",
+                "http_method", "ip_address", "user_agent", "old_values", "new_values", "alteracoes");
+        assertThat(lido.linhas()).hasSize(logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            AuditLog log = logs.get(i);
+            Group linha = lido.linhas().get(i);
+            assertThat(linha.getLong("id", 0)).isEqualTo(log.getId());
+            assertThat(linha.getLong("timestamp", 0))
+                    .isEqualTo(log.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            assertThat(texto(linha, "user_email")).isEqualTo(log.getUserEmail());
+            assertThat(texto(linha, "action")).isEqualTo(log.getAction().name());
+            assertThat(texto(linha, "entity_name")).isEqualTo(log.getEntityName());
+            assertThat(linha.getLong("entity_id", 0)).isEqualTo(log.getEntityId());
+            assertThat(texto(linha, "description")).isEqualTo(log.getDescription());
+            assertThat(texto(linha, "endpoint")).isNull();
+            assertThat(texto(linha, "http_method")).isEqualTo(log.getHttpMethod());
+            assertThat(texto(linha, "old_values")).isNull();
+            assertThat(texto(linha, "new_values")).isEqualTo(log.getNewValues());
+            assertThat(texto(linha, "alteracoes")).isEqualTo(log.getAlteracoes());
+        }
+    }
+
+    private record Lido(MessageType esquema, String criadoPor, List<BlockMetaData> grupos, List<Group> linhas) {
+    }
+
+    private static Lido ler(Path arquivo) throws IOException {
+        try (ParquetFileReader leitor = ParquetFileReader.open(new LocalInputFile(arquivo))) {
+            MessageType esquema = leitor.getFooter().getFileMetaData().getSchema();
+            List<Group> linhas = new ArrayList<>();
+            for (PageReadStore grupo; (grupo = leitor.readNextRowGroup()) != null; ) {
+                RecordReader<Group> registros = new ColumnIOFactory().getColumnIO(esquema)
+                        .getRecordReader(grupo, new GroupRecordConverter(esquema));
+                for (long i = 0; i < grupo.getRowCount(); i++) {
+                    linhas.add(registros.read());
+                }
+            }
+            return new Lido(esquema, leitor.getFooter().getFileMetaData().getCreatedBy(),
+                    leitor.getFooter().getBlocks(), linhas);
+        }
+    }
+
+    private static String texto(Group linha, String campo) {
+        return linha.getFieldRepetitionCount(campo) == 0 ? null : linha.getString(campo, 0);
+    }
+
+    private static Statistics<?> estatisticas(BlockMetaData grupo, String coluna) {
+        return grupo.getColumns().stream()
+                .filter(trecho -> trecho.getPath().toDotString().equals(coluna))
+                .map(ColumnChunkMetaData::getStatistics)
+                .findFirst()
+                .orElseThrow();
+    }
+}
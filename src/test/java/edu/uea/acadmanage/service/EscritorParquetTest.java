@@ -0,0 +1,164 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.uea.acadmanage.model.AuditLog.AuditAction;
+import edu.uea.acadmanage.service.EscritorParquet.Coluna;
+import edu.uea.acadmanage.service.EscritorParquet.Tipo;
+
+class EscritorParquetTest {
+
+    private static final List<Coluna> COLUNAS = List.of(
+            Coluna.obrigatoria("id", Tipo.INT64),
+            Coluna.obrigatoria("timestamp", Tipo.TIMESTAMP),
+            Coluna.obrigatoria("sucesso", Tipo.BOOLEAN),
+            Coluna.opcional("acao", Tipo.ENUM),
+            Coluna.opcional("descricao", Tipo.STRING));
+
+    @Test
+    void deveEscreverArquivoLegivelComNulosEBooleanos() throws IOException {
+        LocalDateTime inicio = LocalDateTime.of(2026, 3, 1, 8, 0);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        EscritorParquet parquet = new EscritorParquet(saida, "log", COLUNAS);
+        // 11 linhas: os booleanos ocupam dois bytes, o segundo incompleto
+        boolean[] sucessos = { true, false, true, true, false, false, false, true, true, false, true };
+        for (int i = 0; i < sucessos.length; i++) {
+            parquet.linha((long) i - 5, inicio.plusMinutes(i), sucessos[i], i % 3 == 0 ? null : AuditAction.CREATE,
+                    i < 4 ? null : "linha " + i);
+        }
+        parquet.concluir();
+
+        LeitorParquet arquivo = new LeitorParquet(saida.toByteArray());
+
+        assertThat(arquivo.linhas()).isEqualTo(11);
+        assertThat(arquivo.grupos).hasSize(1);
+        assertThat(arquivo.esquema).extracting(elemento -> LeitorParquet.texto(elemento.get(4)))
+                .containsExactly("log", "id", "timestamp", "sucesso", "acao", "descricao");
+        assertThat(arquivo.esquema.subList(1, 6)).extracting(elemento -> elemento.get(3))
+                .containsExactly(0L, 0L, 0L, 1L, 1L);
+
+        assertThat(arquivo.coluna("id")).containsExactly(-5L, -4L, -3L, -2L, -1L, 0L, 1L, 2L, 3L, 4L, 5L);
+        long milis = inicio.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertThat(arquivo.coluna("timestamp")).first().isEqualTo(milis);
+        assertThat(arquivo.coluna("timestamp")).last().isEqualTo(milis + 10 * 60_000);
+
+        LeitorParquet.Pagina booleanos = pagina(arquivo, "sucesso");
+        assertThat(booleanos.dados()).containsExactly(0b1000_1101, 0b0000_0101);
+        assertThat(arquivo.coluna("sucesso")).containsExactly(true, false, true, true, false, false, false, true, true,
+                false, true);
+
+        assertThat(pagina(arquivo, "acao").niveis()).containsExactly(0, 1, 1, 0, 1, 1, 0, 1, 1, 0, 1);
+        assertThat(arquivo.coluna("acao")).extracting(valor -> valor == null ? null : LeitorParquet.texto(valor))
+                .containsExactly(null, "CREATE", "CREATE", null, "CREATE", "CREATE", null, "CREATE", "CREATE", null,
+                        "CREATE");
+        assertThat(pagina(arquivo, "descricao").niveis()).containsExactly(0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1);
+        assertThat(arquivo.coluna("descricao").get(4)).isEqualTo("linha 4".getBytes());
+
+        // Estatísticas: nulos em todas as colunas, mínimo e máximo nas inteiras
+        Map<Integer, Object> estatisticasId = estatisticas(arquivo, "id");
+        assertThat(estatisticasId.get(3)).isEqualTo(0L);
+        assertThat(LeitorParquet.inteiro32((byte[]) estatisticasId.get(6), 0)).isEqualTo(-5);
+        assertThat(LeitorParquet.inteiro32((byte[]) estatisticasId.get(5), 0)).isEqualTo(5);
+        assertThat(estatisticas(arquivo, "acao").get(3)).isEqualTo(4L);
+        assertThat(estatisticas(arquivo, "descricao").get(3)).isEqualTo(4L);
+    }
+
+    @Test
+    void devePartirColunasEmPaginasEGruposDeLinhas() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        EscritorParquet parquet = new EscritorParquet(saida, "log", COLUNAS, 1_000, Long.MAX_VALUE, 1_024);
+        for (int i = 0; i < 2_500; i++) {
+            parquet.linha((long) i, LocalDateTime.of(2026, 3, 1, 8, 0), i % 2 == 0, null,
+                    i % 5 == 0 ? null : "descrição " + i);
+        }
+        parquet.concluir();
+
+        LeitorParquet arquivo = new LeitorParquet(saida.toByteArray());
+
+        assertThat(arquivo.linhas()).isEqualTo(2_500);
+        assertThat(arquivo.grupos).extracting(LeitorParquet.Grupo::linhas).containsExactly(1_000L, 1_000L, 500L);
+        // 1.000 inteiros de 8 bytes em páginas de ~1 KiB
+        assertThat(arquivo.grupos.get(0).trechos().get(0).paginas()).hasSizeGreaterThan(5);
+        assertThat(arquivo.coluna("id")).hasSize(2_500).element(1_999).isEqualTo(1_999L);
+        assertThat(arquivo.coluna("sucesso")).hasSize(2_500).element(1_001).isEqualTo(false);
+        List<Object> descricoes = arquivo.coluna("descricao");
+        assertThat(descricoes.get(2_495)).isNull();
+        assertThat(LeitorParquet.texto(descricoes.get(2_499))).isEqualTo("descrição 2499");
+        assertThat(arquivo.coluna("acao")).containsOnlyNulls();
+    }
+
+    @Test
+    void deveFecharGrupoPeloTamanhoEmMemoria() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        EscritorParquet parquet = new EscritorParquet(saida, "log", COLUNAS, 50_000, 64 * 1_024, 8 * 1_024);
+        Random aleatorio = new Random(42);
+        List<String> textos = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            // Textos que o GZIP não reduz: ~1 KiB comprimido por linha
+            byte[] bytes = new byte[768];
+            aleatorio.nextBytes(bytes);
+            String texto = Base64.getEncoder().encodeToString(bytes);
+            textos.add(texto);
+            parquet.linha((long) i, LocalDateTime.of(2026, 3, 1, 8, 0), true, null, texto);
+        }
+        parquet.concluir();
+
+        LeitorParquet arquivo = new LeitorParquet(saida.toByteArray());
+
+        assertThat(arquivo.linhas()).isEqualTo(400);
+        assertThat(arquivo.grupos).hasSizeGreaterThanOrEqualTo(4);
+        assertThat(arquivo.grupos).allSatisfy(grupo -> assertThat(grupo.linhas()).isLessThan(100));
+        assertThat(arquivo.coluna("descricao")).extracting(LeitorParquet::texto).isEqualTo(textos);
+    }
+
+    @Test
+    void deveCodificarInteirosDe32BitsEmZigzagSemEstenderOSinal() {
+        EscritorParquet.Thrift thrift = new EscritorParquet.Thrift();
+        thrift.i32(1, Integer.MIN_VALUE);
+        thrift.i32(2, 1 << 30);
+        thrift.i32(3, -1);
+        thrift.lista(4, EscritorParquet.Thrift.I32, 2);
+        thrift.elementoI32(Integer.MAX_VALUE);
+        thrift.elementoI32(-(1 << 30) - 1);
+        thrift.fim();
+        byte[] bytes = thrift.bytes();
+
+        Map<Integer, Object> lido = new LeitorParquet.Thrift(bytes, 0).struct();
+
+        assertThat(lido.get(1)).isEqualTo((long) Integer.MIN_VALUE);
+        assertThat(lido.get(2)).isEqualTo((long) (1 << 30));
+        assertThat(lido.get(3)).isEqualTo(-1L);
+        assertThat(lido.get(4)).isEqualTo(List.of((long) Integer.MAX_VALUE, (long) -(1 << 30) - 1));
+        // Cabeçalhos de 1 byte mais varints de no máximo 5 bytes por i32
+        assertThat(bytes.length).isLessThanOrEqualTo(3 * 6 + 2 + 2 * 5 + 1);
+    }
+
+    private static LeitorParquet.Pagina pagina(LeitorParquet arquivo, String coluna) {
+        return trecho(arquivo, coluna).paginas().get(0);
+    }
+
+    private static Map<Integer, Object> estatisticas(LeitorParquet arquivo, String coluna) {
+        return LeitorParquet.struct(trecho(arquivo, coluna).metadados().get(12));
+    }
+
+    private static LeitorParquet.Trecho trecho(LeitorParquet arquivo, String coluna) {
+        return arquivo.grupos.get(0).trechos().stream()
+                .filter(trecho -> trecho.coluna().equals(coluna))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Coluna ausente: " + coluna + " em "
+                        + Arrays.toString(arquivo.grupos.get(0).trechos().toArray())));
+    }
+}
@@ -0,0 +1,165 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.repository.LogLoteRepository;
+import edu.uea.acadmanage.service.FilaLogs.PoliticaFilaCheia;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FilaLogsTest {
+
+    private final LogLoteRepository repository = mock(LogLoteRepository.class);
+    private final SpoolLogs spoolLogs = mock(SpoolLogs.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> lotes = Collections.synchronizedList(new ArrayList<>());
+    private FilaLogs fila;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        fila.destroy();
+    }
+
+    @Test
+    void deveGravarEmLotesPorTamanho() {
+        registrarLotes();
+        fila = new FilaLogs(repository, spoolLogs, meterRegistry, 100, 3, Duration.ofMinutes(1),
+                PoliticaFilaCheia.DESCARTAR, Duration.ZERO);
+
+        for (int i = 0; i < 6; i++) {
+            fila.enfileirar(i % 2 == 0 ? auditLog() : actionLog());
+        }
+
+        verify(repository, timeout(5000).times(2)).gravar(anyList(), anyList());
+        assertThat(lotes).containsExactly(3, 3);
+        assertThat(meterRegistry.counter("app.logs.gravados").count()).isEqualTo(6);
+    }
+
+    @Test
+    void deveGravarLoteIncompletoAoFimDoIntervalo() {
+        registrarLotes();
+        fila = new FilaLogs(repository, spoolLogs, meterRegistry, 100, 50, Duration.ofMillis(20),
+                PoliticaFilaCheia.DESCARTAR, Duration.ZERO);
+
+        fila.enfileirar(auditLog());
+        fila.enfileirar(auditLog());
+
+        verify(repository, timeout(5000)).gravar(anyList(), anyList());
+        assertThat(lotes).containsExactly(2);
+    }
+
+    @Test
+    void deveDescartarComFilaCheiaERegistrarMetricas() throws InterruptedException {
+        CountDownLatch gravando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(chamada -> {
+            gravando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(repository).gravar(anyList(), anyList());
+        fila = new FilaLogs(repository, spoolLogs, meterRegistry, 2, 1, Duration.ofMillis(10),
+                PoliticaFilaCheia.DESCARTAR, Duration.ZERO);
+
+        // O primeiro registro ocupa a thread de gravação; a fila comporta mais dois
+        fila.enfileirar(auditLog());
+        assertThat(gravando.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fila.enfileirar(auditLog())).isTrue();
+        assertThat(fila.enfileirar(auditLog())).isTrue();
+        assertThat(fila.enfileirar(auditLog())).isFalse();
+
+        assertThat(meterRegistry.counter("app.logs.descartados").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("app.logs.fila.tamanho").gauge().value()).isEqualTo(2);
+        liberar.countDown();
+    }
+
+    @Test
+    void deveGravarPendentesNoDesligamento() throws InterruptedException {
+        registrarLotes();
+        fila = new FilaLogs(repository, spoolLogs, meterRegistry, 100, 50, Duration.ofMinutes(1),
+                PoliticaFilaCheia.AGUARDAR, Duration.ofMillis(10));
+        for (int i = 0; i < 5; i++) {
+            fila.enfileirar(actionLog());
+        }
+        verify(repository, never()).gravar(anyList(), anyList());
+
+        fila.destroy();
+
+        assertThat(lotes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(5);
+        assertThat(fila.pendentes()).isZero();
+    }
+
+    @Test
+    void deveEnfileirarSoAposOCommitDaTransacao() {
+        registrarLotes();
+        fila = new FilaLogs(repository, spoolLogs, meterRegistry, 100, 50, Duration.ofMillis(20),
+                PoliticaFilaCheia.DESCARTAR, Duration.ZERO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fila.enfileirarAposCommit(auditLog());
+            // Transação desfeita: o registro não chega à fila
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.initSynchronization();
+
+            fila.enfileirarAposCommit(auditLog());
+            fila.enfileirarAposCommit(actionLog());
+            assertThat(fila.pendentes()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(repository, timeout(5000)).gravar(anyList(), anyList());
+        assertThat(lotes).containsExactly(2);
+    }
+
+    private void registrarLotes() {
+        doAnswer(chamada -> {
+            List<?> auditLogs = chamada.getArgument(0);
+            List<?> actionLogs = chamada.getArgument(1);
+            lotes.add(auditLogs.size() + actionLogs.size());
+            return null;
+        }).when(repository).gravar(anyList(), anyList());
+    }
+
+    private static AuditLog auditLog() {
+        AuditLog log = new AuditLog();
+        log.setEntityName("Curso");
+        log.setEntityId(1L);
+        log.setAction(AuditLog.AuditAction.UPDATE);
+        log.setUserEmail("admin@uea.edu.br");
+        log.setTimestamp(LocalDateTime.now());
+        return log;
+    }
+
+    private static ActionLog actionLog() {
+        ActionLog log = new ActionLog();
+        log.setActionType(ActionLog.ActionType.LOGIN_SUCCESS);
+        log.setUserEmail("admin@uea.edu.br");
+        log.setTimestamp(LocalDateTime.now());
+        log.setSuccess(true);
+        return log;
+    }
+}
@@ -0,0 +1,159 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.uea.acadmanage.config.FileStorageProperties;
+import edu.uea.acadmanage.service.ImagemDerivadaService.Tamanho;
+import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+class ImagemDerivadaServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ImagemDerivadaService service;
+
+    // Tarefas enviadas ao executor, executadas pelo teste quando quiser
+    private final List<Runnable> tarefas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setStorageLocation(tempDir.toString());
+        service = new ImagemDerivadaService(properties, tarefas::add, true);
+    }
+
+    @Test
+    void deveGerarVarianteReduzidaAoLadoDoOriginal() throws IOException {
+        Path original = criarJpeg("evidencias/1/2/foto.jpg", 3000, 1500, null);
+
+        Path variante = service.obterVariante("evidencias/1/2/foto.jpg", Tamanho.THUMB);
+
+        assertThat(variante).isEqualTo(original.resolveSibling("foto_thumb.jpg"));
+        BufferedImage imagem = ImageIO.read(variante.toFile());
+        assertThat(imagem.getWidth()).isEqualTo(320);
+        assertThat(imagem.getHeight()).isEqualTo(160);
+        // Segunda chamada reaproveita o arquivo gerado
+        long modificacao = Files.getLastModifiedTime(variante).toMillis();
+        assertThat(service.obterVariante(original, Tamanho.THUMB)).isEqualTo(variante);
+        assertThat(Files.getLastModifiedTime(variante).toMillis()).isEqualTo(modificacao);
+    }
+
+    @Test
+    void deveUsarOriginalQuandoJaCabeNoTamanho() throws IOException {
+        Path original = criarJpeg("fotos-capa/1/capa.jpg", 800, 600, null);
+
+        assertThat(service.obterVariante("/fotos-capa/1/capa.jpg", Tamanho.MEDIUM)).isEqualTo(original);
+        assertThat(original.resolveSibling("capa_medium.jpg")).doesNotExist();
+    }
+
+    @Test
+    void deveAplicarOrientacaoExif() throws IOException {
+        // Orientação 6: a foto foi armazenada deitada e deve ser exibida girada 90° no sentido horário
+        Path original = criarJpeg("evidencias/1/2/retrato.jpg", 400, 200, 6);
+        assertThat(ImagemMetadados.lerOrientacaoExif(original)).isEqualTo(6);
+
+        Path variante = service.obterVariante(original, Tamanho.MEDIUM);
+
+        assertThat(variante).isNotEqualTo(original);
+        BufferedImage imagem = ImageIO.read(variante.toFile());
+        assertThat(imagem.getWidth()).isEqualTo(200);
+        assertThat(imagem.getHeight()).isEqualTo(400);
+        // O canto superior esquerdo do original (vermelho) passa a ficar no canto superior direito
+        Color canto = new Color(imagem.getRGB(imagem.getWidth() - 5, 5));
+        assertThat(canto.getRed()).isGreaterThan(200);
+        assertThat(canto.getBlue()).isLessThan(60);
+    }
+
+    @Test
+    void deveGerarVariantesNoExecutorEExcluirVariantes() throws IOException {
+        Path original = criarJpeg("evidencias/1/2/foto.jpg", 2500, 2500, null);
+        service.gerarVariantes("/evidencias/1/2/foto.jpg");
+
+        // Nada é gerado na thread de quem fez o upload
+        assertThat(original.resolveSibling("foto_thumb.jpg")).doesNotExist();
+        assertThat(tarefas).hasSize(1);
+        tarefas.forEach(Runnable::run);
+
+        assertThat(original.resolveSibling("foto_thumb.jpg")).exists();
+        assertThat(original.resolveSibling("foto_medium.jpg")).exists();
+        assertThat(original.resolveSibling("foto_print.jpg")).exists();
+
+        service.excluirVariantes(original);
+
+        assertThat(original.resolveSibling("foto_thumb.jpg")).doesNotExist();
+        assertThat(original.resolveSibling("foto_medium.jpg")).doesNotExist();
+        assertThat(original.resolveSibling("foto_print.jpg")).doesNotExist();
+        assertThat(original).exists();
+    }
+
+    @Test
+    void deveRejeitarCaminhoForaDoDiretorioDeArquivos() {
+        assertThat(service.resolverOriginal("../segredo.jpg")).isNull();
+        assertThrows(RecursoNaoEncontradoException.class,
+                () -> service.obterVariante("evidencias/../../segredo.jpg", Tamanho.THUMB));
+    }
+
+    @Test
+    void deveRejeitarTamanhoInvalido() {
+        assertThrows(ValidacaoException.class, () -> Tamanho.fromSufixo("gigante"));
+        assertThat(Tamanho.fromSufixo("PRINT")).isEqualTo(Tamanho.PRINT);
+    }
+
+    // JPEG com o quadrante superior esquerdo vermelho e o restante azul; orientacao != null insere um segmento EXIF
+    private Path criarJpeg(String caminho, int largura, int altura, Integer orientacao) throws IOException {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagem.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, largura, altura);
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, largura / 4, altura / 4);
+        g.dispose();
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "jpg", saida);
+        byte[] jpeg = saida.toByteArray();
+        if (orientacao != null) {
+            jpeg = inserirExif(jpeg, orientacao);
+        }
+        Path arquivo = tempDir.resolve(caminho);
+        Files.createDirectories(arquivo.getParent());
+        Files.write(arquivo, jpeg);
+        return arquivo;
+    }
+
+    // Insere um APP1 mínimo (TIFF big-endian com a tag de orientação no IFD0) logo após o SOI
+    private static byte[] inserirExif(byte[] jpeg, int orientacao) {
+        byte[] app1 = {
+                (byte) 0xFF, (byte) 0xE1, 0x00, 0x22,
+                'E', 'x', 'i', 'f', 0x00, 0x00,
+                'M', 'M', 0x00, 0x2A, 0x00, 0x00, 0x00, 0x08,
+                0x00, 0x01,
+                0x01, 0x12, 0x00, 0x03, 0x00, 0x00, 0x00, 0x01, 0x00, (byte) orientacao, 0x00, 0x00,
+                0x00, 0x00, 0x00, 0x00
+        };
+        byte[] resultado = new byte[jpeg.length + app1.length];
+        System.arraycopy(jpeg, 0, resultado, 0, 2);
+        System.arraycopy(app1, 0, resultado, 2, app1.length);
+        System.arraycopy(jpeg, 2, resultado, 2 + app1.length, jpeg.length - 2);
+        return resultado;
+    }
+}
@@ -0,0 +1,285 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Leitor mínimo de Parquet para os testes: decodifica o rodapé (Thrift compact protocol) e as
+ * páginas de dados v1 que o {@link EscritorParquet} produz, conferindo pelo caminho os tamanhos
+ * declarados nos cabeçalhos e metadados.
+ */
+final class LeitorParquet {
+
+    static final byte[] MAGICO = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    // Campos de parquet.thrift usados nos testes
+    static final int TIPO_BOOLEAN = 0;
+    static final int TIPO_INT64 = 2;
+    static final int TIPO_BYTE_ARRAY = 6;
+
+    final Map<Integer, Object> rodape;
+    final List<Map<Integer, Object>> esquema;
+    final List<Grupo> grupos = new ArrayList<>();
+
+    record Pagina(int valores, List<Integer> niveis, byte[] dados) {
+    }
+
+    record Trecho(String coluna, long valores, List<Pagina> paginas, List<Object> lidos, Map<Integer, Object> metadados) {
+    }
+
+    record Grupo(long linhas, List<Trecho> trechos) {
+    }
+
+    LeitorParquet(byte[] arquivo) {
+        assertThat(Arrays.copyOfRange(arquivo, 0, 4)).isEqualTo(MAGICO);
+        assertThat(Arrays.copyOfRange(arquivo, arquivo.length - 4, arquivo.length)).isEqualTo(MAGICO);
+        int tamanhoRodape = inteiro32(arquivo, arquivo.length - 8);
+        int inicioRodape = arquivo.length - 8 - tamanhoRodape;
+        Thrift thrift = new Thrift(arquivo, inicioRodape);
+        rodape = thrift.struct();
+        assertThat(thrift.posicao).as("rodapé consumido por inteiro").isEqualTo(arquivo.length - 8);
+
+        esquema = lista(rodape.get(2));
+        for (Map<Integer, Object> grupo : this.<Map<Integer, Object>>lista(rodape.get(4))) {
+            List<Trecho> trechos = new ArrayList<>();
+            List<Map<Integer, Object>> colunas = lista(grupo.get(1));
+            for (int i = 0; i < colunas.size(); i++) {
+                trechos.add(lerTrecho(arquivo, colunas.get(i), esquema.get(i + 1)));
+            }
+            grupos.add(new Grupo((Long) grupo.get(3), trechos));
+        }
+    }
+
+    long linhas() {
+        return (Long) rodape.get(3);
+    }
+
+    // Valores de uma coluna em todos os grupos, com null onde o nível de definição é 0
+    List<Object> coluna(String nome) {
+        List<Object> valores = new ArrayList<>();
+        for (Grupo grupo : grupos) {
+            grupo.trechos().stream()
+                    .filter(trecho -> trecho.coluna().equals(nome))
+                    .forEach(trecho -> valores.addAll(trecho.lidos()));
+        }
+        return valores;
+    }
+
+    static String texto(Object binario) {
+        return new String((byte[]) binario, StandardCharsets.UTF_8);
+    }
+
+    private Trecho lerTrecho(byte[] arquivo, Map<Integer, Object> trecho, Map<Integer, Object> elemento) {
+        Map<Integer, Object> metadados = struct(trecho.get(3));
+        String nome = texto(lista(metadados.get(3)).get(0));
+        long valores = (Long) metadados.get(5);
+        long comprimido = (Long) metadados.get(7);
+        long descomprimido = (Long) metadados.get(6);
+        int tipo = ((Long) metadados.get(1)).intValue();
+        boolean opcional = (Long) elemento.get(3) == 1;
+        assertThat(texto(elemento.get(4))).isEqualTo(nome);
+
+        int posicao = ((Long) metadados.get(9)).intValue();
+        assertThat((Long) trecho.get(2)).isEqualTo(posicao);
+        int fim = (int) (posicao + comprimido);
+        long lidosDescomprimidos = 0;
+        List<Pagina> paginas = new ArrayList<>();
+        List<Object> lidos = new ArrayList<>();
+        while (posicao < fim) {
+            Thrift thrift = new Thrift(arquivo, posicao);
+            Map<Integer, Object> cabecalho = thrift.struct();
+            int tamanhoCabecalho = thrift.posicao - posicao;
+            int tamanhoCorpo = ((Long) cabecalho.get(2)).intValue();
+            int tamanhoComprimido = ((Long) cabecalho.get(3)).intValue();
+            Map<Integer, Object> dados = struct(cabecalho.get(5));
+            int valoresPagina = ((Long) dados.get(1)).intValue();
+
+            byte[] corpo = gunzip(Arrays.copyOfRange(arquivo, thrift.posicao, thrift.posicao + tamanhoComprimido));
+            assertThat(corpo).hasSize(tamanhoCorpo);
+            posicao = thrift.posicao + tamanhoComprimido;
+            lidosDescomprimidos += tamanhoCabecalho + tamanhoCorpo;
+
+            int inicioValores = 0;
+            List<Integer> niveis = new ArrayList<>();
+            if (opcional) {
+                int tamanhoNiveis = inteiro32(corpo, 0);
+                niveis = niveisRle(Arrays.copyOfRange(corpo, 4, 4 + tamanhoNiveis), valoresPagina);
+                inicioValores = 4 + tamanhoNiveis;
+            }
+            byte[] bytesValores = Arrays.copyOfRange(corpo, inicioValores, corpo.length);
+            int presentes = opcional ? (int) niveis.stream().filter(nivel -> nivel == 1).count() : valoresPagina;
+            List<Object> decodificados = valoresPlain(bytesValores, tipo, presentes);
+            int proximo = 0;
+            for (int i = 0; i < valoresPagina; i++) {
+                lidos.add(opcional && niveis.get(i) == 0 ? null : decodificados.get(proximo++));
+            }
+            paginas.add(new Pagina(valoresPagina, niveis, bytesValores));
+        }
+        assertThat(posicao).as("trecho %s sem bytes sobrando", nome).isEqualTo(fim);
+        assertThat(lidos).hasSize((int) valores);
+        assertThat(lidosDescomprimidos).isEqualTo(descomprimido);
+        return new Trecho(nome, valores, paginas, lidos, metadados);
+    }
+
+    // Híbrido RLE/bit-packed com largura de 1 bit
+    private static List<Integer> niveisRle(byte[] bytes, int quantidade) {
+        List<Integer> niveis = new ArrayList<>(quantidade);
+        int posicao = 0;
+        while (niveis.size() < quantidade) {
+            long cabecalho = 0;
+            int deslocamento = 0;
+            int b;
+            do {
+                b = bytes[posicao++] & 0xFF;
+                cabecalho |= (long) (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while ((b & 0x80) != 0);
+            if ((cabecalho & 1) == 0) {
+                int valor = bytes[posicao++];
+                for (long i = 0; i < cabecalho >>> 1; i++) {
+                    niveis.add(valor);
+                }
+            } else {
+                for (long grupo = 0; grupo < cabecalho >>> 1; grupo++, posicao++) {
+                    for (int bit = 0; bit < 8; bit++) {
+                        niveis.add((bytes[posicao] >> bit) & 1);
+                    }
+                }
+            }
+        }
+        assertThat(posicao).as("níveis sem bytes sobrando").isEqualTo(bytes.length);
+        assertThat(niveis).hasSize(quantidade);
+        return niveis;
+    }
+
+    private static List<Object> valoresPlain(byte[] bytes, int tipo, int quantidade) {
+        List<Object> valores = new ArrayList<>(quantidade);
+        int posicao = 0;
+        for (int i = 0; i < quantidade; i++) {
+            switch (tipo) {
+                case TIPO_INT64 -> {
+                    long valor = 0;
+                    for (int j = 7; j >= 0; j--) {
+                        valor = (valor << 8) | (bytes[posicao + j] & 0xFF);
+                    }
+                    valores.add(valor);
+                    posicao += 8;
+                }
+                case TIPO_BOOLEAN -> valores.add(((bytes[i / 8] >> (i % 8)) & 1) == 1);
+                case TIPO_BYTE_ARRAY -> {
+                    int tamanho = inteiro32(bytes, posicao);
+                    valores.add(Arrays.copyOfRange(bytes, posicao + 4, posicao + 4 + tamanho));
+                    posicao += 4 + tamanho;
+                }
+                default -> throw new IllegalArgumentException("Tipo não suportado: " + tipo);
+            }
+        }
+        if (tipo == TIPO_BOOLEAN) {
+            posicao = (quantidade + 7) / 8;
+        }
+        assertThat(posicao).as("valores sem bytes sobrando").isEqualTo(bytes.length);
+        return valores;
+    }
+
+    private static byte[] gunzip(byte[] comprimido) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static int inteiro32(byte[] bytes, int posicao) {
+        return (bytes[posicao] & 0xFF) | (bytes[posicao + 1] & 0xFF) << 8 | (bytes[posicao + 2] & 0xFF) << 16
+                | (bytes[posicao + 3] & 0xFF) << 24;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<Integer, Object> struct(Object valor) {
+        return (Map<Integer, Object>) valor;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> List<T> lista(Object valor) {
+        return (List<T>) valor;
+    }
+
+    // Thrift compact protocol: structs viram mapas campo -> valor, inteiros viram Long
+    static final class Thrift {
+
+        private final byte[] bytes;
+        int posicao;
+
+        Thrift(byte[] bytes, int posicao) {
+            this.bytes = bytes;
+            this.posicao = posicao;
+        }
+
+        Map<Integer, Object> struct() {
+            Map<Integer, Object> campos = new HashMap<>();
+            int ultimoCampo = 0;
+            while (true) {
+                int cabecalho = bytes[posicao++] & 0xFF;
+                if (cabecalho == 0) {
+                    return campos;
+                }
+                int delta = cabecalho >> 4;
+                int campo = delta == 0 ? (int) zigzag(varint()) : ultimoCampo + delta;
+                campos.put(campo, valor(cabecalho & 0x0F));
+                ultimoCampo = campo;
+            }
+        }
+
+        private Object valor(int tipo) {
+            return switch (tipo) {
+                case 1 -> true;
+                case 2 -> false;
+                case 3 -> (long) bytes[posicao++];
+                case 4, 5, 6 -> zigzag(varint());
+                case 8 -> {
+                    int tamanho = (int) varint();
+                    byte[] valor = Arrays.copyOfRange(bytes, posicao, posicao + tamanho);
+                    posicao += tamanho;
+                    yield valor;
+                }
+                case 9 -> {
+                    int cabecalho = bytes[posicao++] & 0xFF;
+                    int tamanho = cabecalho >> 4 == 15 ? (int) varint() : cabecalho >> 4;
+                    List<Object> elementos = new ArrayList<>(tamanho);
+                    for (int i = 0; i < tamanho; i++) {
+                        elementos.add(valor(cabecalho & 0x0F));
+                    }
+                    yield elementos;
+                }
+                case 12 -> struct();
+                default -> throw new IllegalArgumentException("Tipo Thrift não suportado: " + tipo);
+            };
+        }
+
+        long varint() {
+            long valor = 0;
+            int deslocamento = 0;
+            int b;
+            do {
+                b = bytes[posicao++] & 0xFF;
+                valor |= (long) (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while ((b & 0x80) != 0);
+            return valor;
+        }
+
+        private static long zigzag(long valor) {
+            return (valor >>> 1) ^ -(valor & 1);
+        }
+    }
+}
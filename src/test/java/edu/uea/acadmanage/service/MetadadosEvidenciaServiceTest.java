@@ -0,0 +1,112 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.uea.acadmanage.config.FileStorageProperties;
+import edu.uea.acadmanage.model.Evidencia;
+import edu.uea.acadmanage.repository.AtividadeRepository;
+import edu.uea.acadmanage.repository.EvidenciaRepository;
+
+@SpringBootTest
+class MetadadosEvidenciaServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private EvidenciaRepository evidenciaRepository;
+
+    @Autowired
+    private AtividadeRepository atividadeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MetadadosEvidenciaService service;
+    private final List<Long> criadas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setStorageLocation(tempDir.toString());
+        service = new MetadadosEvidenciaService(evidenciaRepository, new ImagemDerivadaService(properties, Runnable::run, false),
+                transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        evidenciaRepository.deleteAllById(criadas);
+    }
+
+    @Test
+    void devePreencherDimensoesDasEvidenciasAntigasLendoSoOCabecalho() throws IOException {
+        Path foto = tempDir.resolve("evidencias/1/1/retrato.jpg");
+        Files.createDirectories(foto.getParent());
+        ImageIO.write(new BufferedImage(300, 400, BufferedImage.TYPE_INT_RGB), "jpg", foto.toFile());
+        Files.writeString(tempDir.resolve("evidencias/1/1/corrompida.jpg"), "não é imagem", StandardCharsets.UTF_8);
+
+        Long retrato = criarEvidencia("/evidencias/1/1/retrato.jpg");
+        Long corrompida = criarEvidencia("/evidencias/1/1/corrompida.jpg");
+        Long semArquivo = criarEvidencia("/evidencias/1/1/removida.jpg");
+
+        assertThat(service.preencherPendentes()).isEqualTo(2);
+
+        assertThat(ImagemMetadados.daEvidencia(evidenciaRepository.findById(retrato).orElseThrow()))
+                .isEqualTo(new ImagemMetadados(300, 400, ImagemMetadados.ORIENTACAO_NORMAL));
+        Evidencia desconhecida = evidenciaRepository.findById(corrompida).orElseThrow();
+        assertThat(ImagemMetadados.daEvidencia(desconhecida)).isEqualTo(ImagemMetadados.DESCONHECIDA);
+        assertThat(ImagemMetadados.daEvidencia(desconhecida).orientacaoExibida()).isEqualTo("desconhecida");
+        assertThat(evidenciaRepository.findById(semArquivo).orElseThrow().getLargura()).isNull();
+
+        // Formatos não reconhecidos já ficaram gravados e não são relidos
+        assertThat(service.preencherPendentes()).isZero();
+    }
+
+    @Test
+    void naoDeveSobrescreverEvidenciaComFotoTrocadaOuDimensoesJaGravadas() {
+        Long id = criarEvidencia("/evidencias/1/1/nova.jpg");
+
+        // Leitura feita sobre a foto anterior à troca
+        assertThat(atualizar(id, "/evidencias/1/1/antiga.jpg", 10)).isZero();
+        assertThat(atualizar(id, "/evidencias/1/1/nova.jpg", 300)).isEqualTo(1);
+        // Dimensões já gravadas (pelo upload ou por outra rodada) não são substituídas
+        assertThat(atualizar(id, "/evidencias/1/1/nova.jpg", 10)).isZero();
+        assertThat(evidenciaRepository.findById(id).orElseThrow().getLargura()).isEqualTo(300);
+    }
+
+    private int atualizar(Long id, String urlFoto, int largura) {
+        Integer atualizadas = new TransactionTemplate(transactionManager).execute(status ->
+                evidenciaRepository.atualizarDimensoes(id, urlFoto, largura, largura, 1));
+        return atualizadas == null ? 0 : atualizadas;
+    }
+
+    private Long criarEvidencia(String urlFoto) {
+        Evidencia evidencia = new Evidencia();
+        evidencia.setUrlFoto(urlFoto);
+        evidencia.setLegenda("Evidência antiga");
+        evidencia.setOrdem(99);
+        evidencia.setAtividade(atividadeRepository.findById(1L).orElseThrow());
+        Long id = evidenciaRepository.save(evidencia).getId();
+        criadas.add(id);
+        return id;
+    }
+}
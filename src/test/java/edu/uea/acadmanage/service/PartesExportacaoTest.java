@@ -0,0 +1,60 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.uea.acadmanage.DTO.ParteExportacaoDTO;
+import edu.uea.acadmanage.model.LogResumoDiario;
+import edu.uea.acadmanage.repository.ActionLogRepository;
+import edu.uea.acadmanage.repository.AuditLogRepository;
+import edu.uea.acadmanage.repository.LogResumoDiarioRepository;
+import edu.uea.acadmanage.service.exception.ValidacaoException;
+
+class PartesExportacaoTest {
+
+    private final LogResumoDiarioRepository resumoRepository = mock(LogResumoDiarioRepository.class);
+    private final AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+    private final PartesExportacao partes = new PartesExportacao(resumoRepository, auditLogRepository,
+            mock(ActionLogRepository.class));
+
+    @Test
+    void deveAgruparDiasAteOTamanhoPedidoContandoNoBancoOsDiasNaoConsolidados() {
+        when(resumoRepository.totaisPorDia(LogResumoDiario.Origem.AUDITORIA, LocalDate.of(2026, 3, 1),
+                LocalDate.of(2026, 3, 5))).thenReturn(List.<Object[]>of(
+                        new Object[] { LocalDate.of(2026, 3, 1), 60L },
+                        new Object[] { LocalDate.of(2026, 3, 2), 50L },
+                        new Object[] { LocalDate.of(2026, 3, 3), 30L }));
+        when(resumoRepository.findUltimoDia()).thenReturn(LocalDate.of(2026, 3, 3));
+        when(auditLogRepository.contarPeriodo(any(), any())).thenReturn(40L);
+
+        List<ParteExportacaoDTO> resultado = partes.dividir(LogResumoDiario.Origem.AUDITORIA,
+                LocalDateTime.of(2026, 3, 1, 8, 0), LocalDateTime.of(2026, 3, 5, 18, 0), 60);
+
+        assertThat(resultado)
+                .extracting(ParteExportacaoDTO::startDate, ParteExportacaoDTO::endDate,
+                        ParteExportacaoDTO::registrosEstimados)
+                .containsExactly(
+                        tuple(LocalDateTime.of(2026, 3, 1, 8, 0), LocalDateTime.of(2026, 3, 1, 23, 59, 59, 999_999_000),
+                                60L),
+                        tuple(LocalDateTime.of(2026, 3, 2, 0, 0), LocalDateTime.of(2026, 3, 3, 23, 59, 59, 999_999_000),
+                                80L),
+                        tuple(LocalDateTime.of(2026, 3, 4, 0, 0), LocalDateTime.of(2026, 3, 5, 18, 0), 80L));
+    }
+
+    @Test
+    void deveRejeitarPeriodoInvertido() {
+        assertThatThrownBy(() -> partes.dividir(LogResumoDiario.Origem.ACAO, LocalDateTime.of(2026, 3, 5, 0, 0),
+                LocalDateTime.of(2026, 3, 1, 0, 0), 100))
+                .isInstanceOf(ValidacaoException.class);
+    }
+}
@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -17,6 +19,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import javax.imageio.ImageIO;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -84,6 +88,7 @@ class RelatorioCursoServiceTest {
                 cursoService,
                 usuarioRepository,
                 templateEngine,
+                new ImagemDerivadaService(properties, Runnable::run, false),
                 properties);
     }
 
@@ -137,7 +142,7 @@ class RelatorioCursoServiceTest {
         usuario.setRoles(roles);
         
         when(cursoRepository.findById(curso.getId())).thenReturn(Optional.of(curso));
-        when(usuarioRepository.findByEmail(solicitante)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.findComRolesByEmail(solicitante)).thenReturn(Optional.of(usuario));
         when(atividadeRepository.findByCursoId(curso.getId()))
                 .thenReturn(List.of(atividade));
         when(evidenciaRepository.findByAtividadeIdsOrderByAtividadeAndOrdem(anyList()))
@@ -166,6 +171,62 @@ class RelatorioCursoServiceTest {
         assertThat(pdf.length).isGreaterThan(100);
     }
 
+    @Test
+    void deveEscreverPdfNoStreamLendoImagemDoDisco() throws IOException {
+        Curso curso = new Curso();
+        curso.setId(2L);
+        curso.setNome("Curso com Imagens");
+
+        Categoria categoria = new Categoria();
+        categoria.setId(11L);
+        categoria.setNome("Pesquisa");
+
+        Atividade atividade = new Atividade();
+        atividade.setId(101L);
+        atividade.setNome("Seminário");
+        atividade.setStatusPublicacao(true);
+        atividade.setDataRealizacao(LocalDate.of(2024, 3, 10));
+        atividade.setCategoria(categoria);
+        atividade.setCurso(curso);
+
+        Evidencia evidencia = new Evidencia();
+        evidencia.setId(201L);
+        evidencia.setOrdem(1);
+        evidencia.setUrlFoto("evidencias/101/foto.jpg");
+        evidencia.setAtividade(atividade);
+
+        String solicitante = "admin@teste.com";
+        Usuario usuario = new Usuario();
+        usuario.setEmail(solicitante);
+        Role roleAdmin = new Role();
+        roleAdmin.setNome("ROLE_ADMINISTRADOR");
+        usuario.setRoles(new HashSet<>(Set.of(roleAdmin)));
+
+        when(cursoRepository.findById(curso.getId())).thenReturn(Optional.of(curso));
+        when(usuarioRepository.findComRolesByEmail(solicitante)).thenReturn(Optional.of(usuario));
+        when(atividadeRepository.findByCursoId(curso.getId())).thenReturn(List.of(atividade));
+        when(evidenciaRepository.findByAtividadeIdsOrderByAtividadeAndOrdem(anyList())).thenReturn(List.of(evidencia));
+        when(atividadePessoaPapelRepository.countParticipantesByAtividadeIds(anyList(), anyList())).thenReturn(List.of());
+
+        Path imagem = tempDir.resolve("evidencias").resolve("101").resolve("foto.jpg");
+        Files.createDirectories(imagem.getParent());
+        BufferedImage foto = new BufferedImage(320, 200, BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(foto, "jpg", imagem.toFile());
+
+        RelatorioPdf relatorio = relatorioCursoService.prepararRelatorioCurso(
+                curso.getId(), null, null, null, null, solicitante);
+
+        // A imagem é referenciada, não embutida no HTML
+        assertThat(relatorio.html()).contains("evidencia:0").doesNotContain("base64");
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        relatorioCursoService.escreverPdf(relatorio, saida);
+
+        String pdf = new String(saida.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertTrue(pdf.startsWith("%PDF"));
+        assertThat(pdf).contains("/Subtype /Image");
+    }
+
     private TemplateEngine criarTemplateEngine() {
         ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
         templateResolver.setPrefix("templates/");
@@ -0,0 +1,139 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.uea.acadmanage.DTO.RelatorioJobDTO;
+import edu.uea.acadmanage.service.exception.ConflitoException;
+import edu.uea.acadmanage.service.exception.LimiteExcedidoException;
+import edu.uea.acadmanage.service.exception.RecursoNaoEncontradoException;
+
+class RelatorioJobServiceTest {
+
+    private static final String USUARIO = "gerente@uea.edu.br";
+
+    @TempDir
+    Path tempDir;
+
+    private final RelatorioPdf relatorio = new RelatorioPdf("<html></html>", new RelatorioImagemStreamFactory());
+
+    @Test
+    void deveGerarRelatorioEDisponibilizarArquivoAoDono() throws IOException {
+        RelatorioJobService service = criarService(Runnable::run, Duration.ofHours(1));
+
+        RelatorioJobDTO job = service.enfileirar("CURSO", USUARIO, "relatorio-curso-1.pdf",
+                () -> relatorio, (rel, saida) -> saida.write("%PDF-teste".getBytes(StandardCharsets.ISO_8859_1)));
+
+        RelatorioJobDTO status = service.consultar(job.id(), USUARIO);
+        assertThat(status.status()).isEqualTo("CONCLUIDO");
+        assertThat(status.progresso()).isEqualTo(100);
+        assertThat(status.download()).isEqualTo("/api/relatorios/jobs/" + job.id() + "/arquivo");
+        assertThat(status.expiraEm()).isNotNull();
+
+        RelatorioJobService.RelatorioArquivo arquivo = service.obterArquivo(job.id(), USUARIO);
+        assertThat(arquivo.nomeArquivo()).isEqualTo("relatorio-curso-1.pdf");
+        assertThat(Files.readString(arquivo.caminho(), StandardCharsets.ISO_8859_1)).isEqualTo("%PDF-teste");
+
+        // Outro usuário não enxerga o job
+        assertThrows(RecursoNaoEncontradoException.class, () -> service.consultar(job.id(), "outro@uea.edu.br"));
+    }
+
+    @Test
+    void deveRegistrarFalhaDaPreparacao() throws IOException {
+        RelatorioJobService service = criarService(Runnable::run, Duration.ofHours(1));
+
+        RelatorioJobDTO job = service.enfileirar("CURSO", USUARIO, "relatorio.pdf",
+                () -> {
+                    throw new RecursoNaoEncontradoException("Curso não encontrado com o ID: 99");
+                },
+                (rel, saida) -> {
+                });
+
+        RelatorioJobDTO status = service.consultar(job.id(), USUARIO);
+        assertThat(status.status()).isEqualTo("FALHOU");
+        assertThat(status.mensagem()).isEqualTo("Curso não encontrado com o ID: 99");
+        assertThat(status.download()).isNull();
+        assertThrows(ConflitoException.class, () -> service.obterArquivo(job.id(), USUARIO));
+    }
+
+    @Test
+    void deveLimitarRelatoriosEmAndamentoPorUsuario() throws IOException {
+        List<Runnable> fila = new ArrayList<>();
+        RelatorioJobService service = criarService(fila::add, Duration.ofHours(1));
+
+        RelatorioJobDTO primeiro = service.enfileirar("CURSO", USUARIO, "a.pdf", () -> relatorio, (rel, saida) -> {
+        });
+        service.enfileirar("CURSO", USUARIO, "b.pdf", () -> relatorio, (rel, saida) -> {
+        });
+        assertThat(service.consultar(primeiro.id(), USUARIO).status()).isEqualTo("PENDENTE");
+        assertThrows(ConflitoException.class, () -> service.obterArquivo(primeiro.id(), USUARIO));
+
+        assertThrows(LimiteExcedidoException.class,
+                () -> service.enfileirar("CURSO", USUARIO, "c.pdf", () -> relatorio, (rel, saida) -> {
+                }));
+        // O limite é por usuário
+        service.enfileirar("CURSO", "outro@uea.edu.br", "d.pdf", () -> relatorio, (rel, saida) -> {
+        });
+
+        // Concluído um dos jobs, o usuário pode enfileirar outro
+        fila.get(0).run();
+        service.enfileirar("CURSO", USUARIO, "e.pdf", () -> relatorio, (rel, saida) -> {
+        });
+    }
+
+    @Test
+    void deveRecusarQuandoFilaEstiverCheia() throws IOException {
+        RelatorioJobService service = criarService(tarefa -> {
+            throw new RejectedExecutionException("fila cheia");
+        }, Duration.ofHours(1));
+
+        assertThrows(LimiteExcedidoException.class,
+                () -> service.enfileirar("CURSO", USUARIO, "a.pdf", () -> relatorio, (rel, saida) -> {
+                }));
+    }
+
+    @Test
+    void deveRemoverRelatoriosExpirados() throws IOException {
+        RelatorioJobService service = criarService(Runnable::run, Duration.ZERO);
+        RelatorioJobDTO job = service.enfileirar("CURSO", USUARIO, "a.pdf", () -> relatorio,
+                (rel, saida) -> saida.write(1));
+        Path arquivo = service.obterArquivo(job.id(), USUARIO).caminho();
+
+        service.removerExpirados();
+
+        assertThat(arquivo).doesNotExist();
+        assertThrows(RecursoNaoEncontradoException.class, () -> service.consultar(job.id(), USUARIO));
+    }
+
+    @Test
+    void deveApagarNaInicializacaoSoOsArquivosDeJobsAnteriores() throws IOException {
+        Path pdfDeJob = Files.writeString(tempDir.resolve("3f1c2a9e-7b4d-4c1e-9a8f-0d2e5b6c7a81.pdf"), "%PDF");
+        Path temporarioDeJob = Files.writeString(tempDir.resolve("3f1c2a9e-7b4d-4c1e-9a8f-0d2e5b6c7a814821937465.tmp"), "%PDF");
+        Path pdfAlheio = Files.writeString(tempDir.resolve("manual.pdf"), "%PDF");
+        Path temporarioAlheio = Files.writeString(tempDir.resolve("backup.tmp"), "dados");
+
+        criarService(Runnable::run, Duration.ofHours(1));
+
+        assertThat(pdfDeJob).doesNotExist();
+        assertThat(temporarioDeJob).doesNotExist();
+        assertThat(pdfAlheio).exists();
+        assertThat(temporarioAlheio).exists();
+    }
+
+    private RelatorioJobService criarService(Executor executor, Duration ttl) throws IOException {
+        return new RelatorioJobService(executor, tempDir.toString(), ttl, 2);
+    }
+}
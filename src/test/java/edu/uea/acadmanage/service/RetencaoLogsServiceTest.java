@@ -0,0 +1,195 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.uea.acadmanage.DTO.AuditLogFilterDTO;
+import edu.uea.acadmanage.DTO.AuditLogHistoricoDTO;
+import edu.uea.acadmanage.DTO.LogResumoDTO;
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.model.LogResumoDiario;
+import edu.uea.acadmanage.repository.ActionLogRepository;
+import edu.uea.acadmanage.repository.AuditLogRepository;
+import edu.uea.acadmanage.repository.LogExportacaoRepository;
+import edu.uea.acadmanage.repository.LogLoteRepository;
+import edu.uea.acadmanage.repository.LogResumoDiarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+class RetencaoLogsServiceTest {
+
+    private static final String USUARIO = "retencao@uea.edu.br";
+    private static final LocalDate HOJE = LocalDate.of(2026, 10, 17);
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private ActionLogRepository actionLogRepository;
+
+    @Autowired
+    private LogResumoDiarioRepository resumoRepository;
+
+    @Autowired
+    private LogLoteRepository logLoteRepository;
+
+    @Autowired
+    private LogExportacaoRepository logExportacaoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FilaLogs filaLogs;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ArquivoLogs arquivoLogs;
+    private RetencaoLogsService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        arquivoLogs = new ArquivoLogs(objectMapper, tempDir.toString());
+        // Retenção de dois meses: em outubro, junho e julho saem do banco
+        service = new RetencaoLogsService(auditLogRepository, actionLogRepository, resumoRepository, arquivoLogs,
+                transactionManager, new SimpleMeterRegistry(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            auditLogRepository.deleteByPeriodo(LocalDateTime.of(2026, 1, 1, 0, 0), HOJE.atStartOfDay());
+            actionLogRepository.deleteByPeriodo(LocalDateTime.of(2026, 1, 1, 0, 0), HOJE.atStartOfDay());
+        });
+        resumoRepository.deleteAll();
+    }
+
+    @Test
+    void deveResumirArquivarMesesAntigosELerOArquivoNaExportacao() throws IOException {
+        logLoteRepository.gravar(List.of(
+                auditLog(LocalDateTime.of(2026, 6, 10, 9, 0), AuditLog.AuditAction.CREATE),
+                auditLog(LocalDateTime.of(2026, 6, 10, 15, 30), AuditLog.AuditAction.UPDATE),
+                auditLog(LocalDateTime.of(2026, 7, 31, 23, 59), AuditLog.AuditAction.UPDATE),
+                auditLog(LocalDateTime.of(2026, 9, 5, 8, 0), AuditLog.AuditAction.DELETE)),
+                List.of(actionLog(LocalDateTime.of(2026, 6, 10, 10, 0), false)));
+
+        service.executar(HOJE);
+
+        assertThat(arquivoLogs.meses(ArquivoLogs.AUDIT_LOG))
+                .containsExactly(YearMonth.of(2026, 7), YearMonth.of(2026, 6));
+        assertThat(arquivoLogs.meses(ArquivoLogs.ACTION_LOG)).containsExactly(YearMonth.of(2026, 6));
+        assertThat(auditLogRepository.findWithFilters(USUARIO, null, null, null, null, null))
+                .extracting(AuditLog::getAction).containsExactly(AuditLog.AuditAction.DELETE);
+
+        // Os resumos continuam disponíveis depois que os registros saem do banco
+        assertThat(resumoRepository.resumir(LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 30), null, USUARIO))
+                .extracting(LogResumoDTO::origem, LogResumoDTO::acao, LogResumoDTO::total, LogResumoDTO::falhas)
+                .containsExactlyInAnyOrder(
+                        tuple(LogResumoDiario.Origem.AUDITORIA, "CREATE", 1L, 0L),
+                        tuple(LogResumoDiario.Origem.AUDITORIA, "UPDATE", 1L, 0L),
+                        tuple(LogResumoDiario.Origem.ACAO, "LOGIN_FAILURE", 1L, 1L));
+
+        AuditLogExportService exportService = new AuditLogExportService(logExportacaoRepository, arquivoLogs,
+                objectMapper);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exportService.exportToCsv(new AuditLogFilterDTO(USUARIO, AuditLog.AuditAction.UPDATE, null, null,
+                LocalDateTime.of(2026, 6, 1, 0, 0), null), csv);
+        assertThat(linhas(csv)).hasSize(3)
+                .anyMatch(linha -> linha.contains("2026-07-31 23:59:00"))
+                .anyMatch(linha -> linha.contains("2026-06-10 15:30:00"));
+    }
+
+    @Test
+    void deveMesclarRegistrosAtrasadosNoMesJaArquivado() {
+        logLoteRepository.gravar(List.of(auditLog(LocalDateTime.of(2026, 6, 10, 9, 0), AuditLog.AuditAction.CREATE)),
+                List.of());
+        service.executar(HOJE);
+
+        logLoteRepository.gravar(List.of(
+                auditLog(LocalDateTime.of(2026, 6, 20, 9, 0), AuditLog.AuditAction.UPDATE),
+                auditLog(LocalDateTime.of(2026, 6, 5, 9, 0), AuditLog.AuditAction.UPDATE)), List.of());
+        service.executar(HOJE);
+
+        // Os atrasados entram na posição certa: o mês continua do mais recente para o mais antigo
+        List<AuditLog> arquivados = new ArrayList<>();
+        arquivoLogs.ler(ArquivoLogs.AUDIT_LOG, YearMonth.of(2026, 6), AuditLog.class, arquivados::add);
+        assertThat(arquivados).extracting(AuditLog::getTimestamp).containsExactly(
+                LocalDateTime.of(2026, 6, 20, 9, 0), LocalDateTime.of(2026, 6, 10, 9, 0),
+                LocalDateTime.of(2026, 6, 5, 9, 0));
+        assertThat(auditLogRepository.findWithFilters(USUARIO, null, null, null, null, null)).isEmpty();
+    }
+
+    @Test
+    void historicoDeveLerSoOsMesesArquivadosEmQueAEntidadeAparece() {
+        AuditLog outraEntidade = auditLog(LocalDateTime.of(2026, 7, 2, 9, 0), AuditLog.AuditAction.CREATE);
+        outraEntidade.setEntityId(2L);
+        logLoteRepository.gravar(List.of(
+                auditLog(LocalDateTime.of(2026, 6, 10, 9, 0), AuditLog.AuditAction.CREATE),
+                outraEntidade,
+                auditLog(LocalDateTime.of(2026, 8, 1, 9, 0), AuditLog.AuditAction.UPDATE),
+                auditLog(LocalDateTime.of(2026, 9, 5, 8, 0), AuditLog.AuditAction.UPDATE)), List.of());
+        service.executar(HOJE);
+
+        assertThat(arquivoLogs.contemEntidade(ArquivoLogs.AUDIT_LOG, YearMonth.of(2026, 6), "Curso", 1L)).isTrue();
+        assertThat(arquivoLogs.contemEntidade(ArquivoLogs.AUDIT_LOG, YearMonth.of(2026, 7), "Curso", 1L)).isFalse();
+        assertThat(arquivoLogs.contemEntidade(ArquivoLogs.AUDIT_LOG, YearMonth.of(2026, 7), "Curso", 2L)).isTrue();
+
+        AuditLogService auditLogService = new AuditLogService(filaLogs, objectMapper, auditLogRepository,
+                arquivoLogs, AuditLogService.ModoAuditoria.DIFF);
+        assertThat(auditLogService.historico("Curso", 1L)).extracting(AuditLogHistoricoDTO::timestamp)
+                .containsExactly(LocalDateTime.of(2026, 9, 5, 8, 0), LocalDateTime.of(2026, 8, 1, 9, 0),
+                        LocalDateTime.of(2026, 6, 10, 9, 0));
+    }
+
+    private static List<String> linhas(ByteArrayOutputStream csv) {
+        return csv.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private static AuditLog auditLog(LocalDateTime timestamp, AuditLog.AuditAction action) {
+        AuditLog log = new AuditLog();
+        log.setEntityName("Curso");
+        log.setEntityId(1L);
+        log.setAction(action);
+        log.setUserEmail(USUARIO);
+        log.setTimestamp(timestamp);
+        log.setEventoId(UUID.randomUUID().toString());
+        return log;
+    }
+
+    private static ActionLog actionLog(LocalDateTime timestamp, boolean success) {
+        ActionLog log = new ActionLog();
+        log.setActionType(ActionLog.ActionType.LOGIN_FAILURE);
+        log.setUserEmail(USUARIO);
+        log.setTimestamp(timestamp);
+        log.setSuccess(success);
+        log.setEventoId(UUID.randomUUID().toString());
+        return log;
+    }
+}
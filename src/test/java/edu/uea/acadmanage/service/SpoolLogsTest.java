@@ -0,0 +1,197 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import edu.uea.acadmanage.model.ActionLog;
+import edu.uea.acadmanage.model.AuditLog;
+import edu.uea.acadmanage.repository.LogLoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SpoolLogsTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path tempDir;
+
+    private final LogLoteRepository repository = mock(LogLoteRepository.class);
+    private final List<String> gravados = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registrarGravacoes();
+    }
+
+    @Test
+    void deveEnviarRegistrosEApagarSegmentosJaEnviados() throws IOException {
+        // Segmentos pequenos: cada lote abre um segmento novo
+        SpoolLogs spool = criarSpool(300);
+        spool.anexar(List.of(auditLog("a1"), actionLog("c1")));
+        spool.anexar(List.of(auditLog("a2")));
+        assertThat(segmentos()).hasSize(2);
+        assertThat(spool.bytesPendentes()).isPositive();
+
+        spool.enviar();
+
+        assertThat(gravados).containsExactlyInAnyOrder("a1", "c1", "a2");
+        assertThat(spool.bytesPendentes()).isZero();
+        assertThat(segmentos()).hasSize(1);
+        // Nada a reenviar na próxima execução
+        spool.enviar();
+        assertThat(gravados).hasSize(3);
+        spool.destroy();
+    }
+
+    @Test
+    void deveManterRegistrosNoDiscoEnquantoOBancoFalha() throws IOException {
+        SpoolLogs spool = criarSpool(1 << 20);
+        spool.anexar(List.of(auditLog("a1"), auditLog("a2")));
+        doThrow(new DataAccessResourceFailureException("banco fora do ar")).when(repository).gravar(anyList(), anyList());
+
+        spool.enviar();
+
+        Health health = spool.health();
+        assertThat(health.getDetails()).containsEntry("ultimoErro", "banco fora do ar");
+        assertThat((long) health.getDetails().get("bytesPendentes")).isPositive();
+        spool.destroy();
+
+        // Após reiniciar com o banco disponível, os registros do disco são enviados
+        reset(repository);
+        registrarGravacoes();
+        SpoolLogs reiniciado = criarSpool(1 << 20);
+        reiniciado.anexar(List.of(actionLog("c1")));
+        reiniciado.enviar();
+
+        assertThat(gravados).containsExactly("a1", "a2", "c1");
+        assertThat(reiniciado.health().getDetails()).doesNotContainKey("ultimoErro");
+        reiniciado.destroy();
+    }
+
+    @Test
+    void deveIgnorarFinalIncompletoDeSegmentoAposQueda() throws IOException {
+        SpoolLogs spool = criarSpool(1 << 20);
+        spool.anexar(List.of(auditLog("a1")));
+        spool.destroy();
+        // Queda no meio de uma gravação: cabeçalho anunciando 500 bytes seguido de lixo
+        Path segmento = segmentos().get(0);
+        Files.write(segmento, new byte[] { 0, 0, 1, (byte) 0xF4, 1, 2, 3, 4, 1, '{', '"' }, StandardOpenOption.APPEND);
+
+        SpoolLogs reiniciado = criarSpool(1 << 20);
+        reiniciado.anexar(List.of(auditLog("a2")));
+        reiniciado.enviar();
+
+        assertThat(gravados).containsExactly("a1", "a2");
+        reiniciado.destroy();
+    }
+
+    @Test
+    void deveMoverParaRejeitadosORegistroQueOBancoRecusa() throws IOException {
+        SpoolLogs spool = criarSpool(1 << 20, 1);
+        spool.anexar(List.of(auditLog("a1"), actionLog("recusado"), auditLog("a2")));
+        reset(repository);
+        doAnswer(chamada -> {
+            List<AuditLog> auditLogs = chamada.getArgument(0);
+            List<ActionLog> actionLogs = chamada.getArgument(1);
+            if (actionLogs.stream().anyMatch(log -> "recusado".equals(log.getEventoId()))) {
+                throw new DataIntegrityViolationException("Value too long for column USER_AGENT");
+            }
+            auditLogs.forEach(log -> gravados.add(log.getEventoId()));
+            return null;
+        }).when(repository).gravar(anyList(), anyList());
+
+        spool.enviar();
+
+        // O lote falhou inteiro e foi reenviado registro a registro; o recusado não trava os demais
+        assertThat(gravados).containsExactly("a1", "a2");
+        assertThat(spool.bytesPendentes()).isZero();
+        assertThat(spool.health().getDetails()).doesNotContainKey("ultimoErro").containsEntry("rejeitados", 1L);
+        List<String> rejeitados = Files.readAllLines(tempDir.resolve("rejeitados.ndjson"));
+        assertThat(rejeitados).hasSize(1);
+        assertThat(OBJECT_MAPPER.readTree(rejeitados.get(0)).at("/registro/eventoId").asText()).isEqualTo("recusado");
+        spool.destroy();
+    }
+
+    @Test
+    void naoDeveRejeitarRegistrosComOBancoForaDoAr() throws IOException {
+        SpoolLogs spool = criarSpool(1 << 20, 1);
+        spool.anexar(List.of(auditLog("a1")));
+        doThrow(new DataAccessResourceFailureException("banco fora do ar")).when(repository).gravar(anyList(), anyList());
+
+        spool.enviar();
+
+        assertThat(spool.bytesPendentes()).isPositive();
+        assertThat(tempDir.resolve("rejeitados.ndjson")).doesNotExist();
+        spool.destroy();
+    }
+
+    private SpoolLogs criarSpool(long tamanhoSegmento) throws IOException {
+        return criarSpool(tamanhoSegmento, 3);
+    }
+
+    private SpoolLogs criarSpool(long tamanhoSegmento, int tentativasPorLote) throws IOException {
+        return new SpoolLogs(repository, OBJECT_MAPPER, new SimpleMeterRegistry(), tempDir.toString(),
+                tamanhoSegmento, 100, tentativasPorLote);
+    }
+
+    private void registrarGravacoes() {
+        doAnswer(chamada -> {
+            List<AuditLog> auditLogs = chamada.getArgument(0);
+            List<ActionLog> actionLogs = chamada.getArgument(1);
+            auditLogs.forEach(log -> gravados.add(log.getEventoId()));
+            actionLogs.forEach(log -> gravados.add(log.getEventoId()));
+            return null;
+        }).when(repository).gravar(anyList(), anyList());
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(tempDir)) {
+            return arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static AuditLog auditLog(String eventoId) {
+        AuditLog log = new AuditLog();
+        log.setEntityName("Curso");
+        log.setEntityId(1L);
+        log.setAction(AuditLog.AuditAction.UPDATE);
+        log.setUserEmail("admin@uea.edu.br");
+        log.setTimestamp(LocalDateTime.now());
+        log.setNewValues("{\"nome\":\"Computação\"}");
+        log.setEventoId(eventoId);
+        return log;
+    }
+
+    private static ActionLog actionLog(String eventoId) {
+        ActionLog log = new ActionLog();
+        log.setActionType(ActionLog.ActionType.LOGIN_SUCCESS);
+        log.setUserEmail("admin@uea.edu.br");
+        log.setTimestamp(LocalDateTime.now());
+        log.setSuccess(true);
+        log.setEventoId(eventoId);
+        return log;
+    }
+}
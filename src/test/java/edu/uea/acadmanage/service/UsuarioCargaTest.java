@@ -0,0 +1,75 @@
+package edu.uea.acadmanage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import edu.uea.acadmanage.model.Curso;
+import edu.uea.acadmanage.model.Role;
+import edu.uea.acadmanage.model.Usuario;
+import edu.uea.acadmanage.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+// Garante que cada perfil de carga de Usuario busca só as associações de que precisa
+@SpringBootTest
+class UsuarioCargaTest {
+
+    private static final String ADMIN = "admin@uea.edu.br";
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void autenticacaoDeveCarregarPapeisSemCursos() {
+        UserDetails usuario = userDetailsService.loadUserByUsername(ADMIN);
+
+        assertThat(usuario.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_ADMINISTRADOR");
+        assertThat(Hibernate.isInitialized(((Usuario) usuario).getCursos())).isFalse();
+        assertThat(statistics.getEntityStatistics(Curso.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getCollectionStatistics(Usuario.class.getName() + ".cursos").getFetchCount()).isZero();
+        // Papéis vêm na mesma consulta do usuário (grafo de autenticação)
+        assertThat(statistics.getCollectionStatistics(Usuario.class.getName() + ".roles").getFetchCount()).isZero();
+    }
+
+    @Test
+    void buscaPorEmailNaoDeveCarregarAssociacoes() {
+        Usuario usuario = usuarioRepository.findByEmail(ADMIN).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(usuario.getRoles())).isFalse();
+        assertThat(Hibernate.isInitialized(usuario.getCursos())).isFalse();
+        assertThat(statistics.getEntityStatistics(Role.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(Curso.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void perfilCompletoDeveCarregarPapeisECursos() {
+        Usuario usuario = usuarioRepository.findCompletoByEmail(ADMIN).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(usuario.getRoles())).isTrue();
+        assertThat(Hibernate.isInitialized(usuario.getCursos())).isTrue();
+        assertThat(usuario.getCursos()).extracting(Curso::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+}